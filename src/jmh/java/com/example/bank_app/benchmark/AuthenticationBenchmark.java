@@ -0,0 +1,89 @@
+package com.example.bank_app.benchmark;
+
+import com.example.bank_app.BankAppApplication;
+import com.example.bank_app.dto.request.CustomerRegisterRequest;
+import com.example.bank_app.dto.request.LoginRequest;
+import com.example.bank_app.service.AuthService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second on {@code GET /accounts} over real HTTP, authenticated with HTTP Basic (one BCrypt
+ * verification and one customer query per request) versus a bearer token issued by {@code /auth/login}.
+ *
+ * <pre>mvn -P benchmark test-compile exec:exec -Djmh.args="AuthenticationBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AuthenticationBenchmark {
+
+    private static final String EMAIL = "benchmark@bank.app";
+    private static final String PASSWORD = "benchmark-password";
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest basicAuthenticationRequest;
+    private HttpRequest bearerTokenRequest;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(BankAppApplication.class)
+                .profiles("benchmark")
+                .properties("server.port=0")
+                .run();
+        AuthService authService = context.getBean(AuthService.class);
+
+        CustomerRegisterRequest customerRegisterRequest = new CustomerRegisterRequest();
+        customerRegisterRequest.setEmail(EMAIL);
+        customerRegisterRequest.setPassword(PASSWORD);
+        authService.registerCustomer(customerRegisterRequest);
+        String accessToken = authService.login(new LoginRequest(EMAIL, PASSWORD)).getAccessToken();
+
+        URI accounts = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/accounts");
+        String basicCredentials = Base64.getEncoder().encodeToString((EMAIL + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        basicAuthenticationRequest = HttpRequest.newBuilder(accounts).header(HttpHeaders.AUTHORIZATION, "Basic " + basicCredentials).build();
+        bearerTokenRequest = HttpRequest.newBuilder(accounts).header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int basicAuthentication() throws IOException, InterruptedException {
+        return send(basicAuthenticationRequest);
+    }
+
+    @Benchmark
+    public int bearerToken() throws IOException, InterruptedException {
+        return send(bearerTokenRequest);
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("GET /accounts answered " + status);
+        }
+        return status;
+    }
+}
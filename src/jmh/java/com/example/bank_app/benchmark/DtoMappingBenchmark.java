@@ -0,0 +1,129 @@
+package com.example.bank_app.benchmark;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.dto.model.AccountDto;
+import com.example.bank_app.dto.model.CustomerDto;
+import com.example.bank_app.dto.model.TransactionDto;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.CustomerEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.mapper.AccountMapper;
+import com.example.bank_app.mapper.AccountMapperImpl;
+import com.example.bank_app.mapper.CustomerMapper;
+import com.example.bank_app.mapper.CustomerMapperImpl;
+import com.example.bank_app.mapper.TransactionMapper;
+import com.example.bank_app.mapper.TransactionMapperImpl;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the generated MapStruct mappers with the reflective ModelMapper path they replaced
+ * (configured as the former {@code ModelMapperConfig}, {@code MatchingStrategies.STRICT}).
+ * The transaction benchmarks map one full history page. Run with the GC profiler to see the
+ * allocation per operation ({@code gc.alloc.rate.norm}):
+ *
+ * <pre>mvn -P benchmark test-compile exec:exec -Djmh.args="DtoMappingBenchmark -prof gc"</pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DtoMappingBenchmark {
+
+    @Param({"50"})
+    public int pageSize;
+
+    private ModelMapper modelMapper;
+    private AccountMapper accountMapper;
+    private TransactionMapper transactionMapper;
+    private CustomerMapper customerMapper;
+
+    private AccountEntity account;
+    private CustomerEntity customer;
+    private List<TransactionEntity> transactionPage;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        accountMapper = new AccountMapperImpl();
+        transactionMapper = new TransactionMapperImpl();
+        customerMapper = new CustomerMapperImpl();
+
+        LocalDateTime now = LocalDateTime.now();
+        account = AccountEntity
+                .builder()
+                .id("account-id")
+                .customerId("customer-id")
+                .accountNumber("1234567890123456")
+                .balance(Money.of("1000"))
+                .createdAt(now)
+                .build();
+        customer = CustomerEntity
+                .builder()
+                .id("customer-id")
+                .email("benchmark@example.com")
+                .password("password")
+                .firstName("first")
+                .lastName("last")
+                .phoneNumber("5551234567")
+                .dateOfBirth(now)
+                .build();
+        transactionPage = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            transactionPage.add(TransactionEntity
+                    .builder()
+                    .id("transaction-" + i)
+                    .senderAccountId("account-id")
+                    .receiverAccountId("receiver-id")
+                    .transactionType(TransactionType.TRANSFER)
+                    .amount(Money.ofMinorUnits(i * 100L))
+                    .date(now.minusMinutes(i))
+                    .description("description " + i)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public AccountDto accountModelMapper() {
+        return modelMapper.map(account, AccountDto.class);
+    }
+
+    @Benchmark
+    public AccountDto accountGenerated() {
+        return accountMapper.toAccountDto(account);
+    }
+
+    @Benchmark
+    public CustomerDto customerModelMapper() {
+        return modelMapper.map(customer, CustomerDto.class);
+    }
+
+    @Benchmark
+    public CustomerDto customerGenerated() {
+        return customerMapper.toCustomerDto(customer);
+    }
+
+    @Benchmark
+    public List<TransactionDto> transactionPageModelMapper() {
+        List<TransactionDto> dtos = new ArrayList<>(transactionPage.size());
+        for (TransactionEntity transaction : transactionPage) {
+            dtos.add(modelMapper.map(transaction, TransactionDto.class));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<TransactionDto> transactionPageGenerated() {
+        return transactionMapper.toTransactionDtos(transactionPage);
+    }
+}
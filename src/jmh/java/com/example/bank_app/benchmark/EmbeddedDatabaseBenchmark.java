@@ -0,0 +1,89 @@
+package com.example.bank_app.benchmark;
+
+import com.example.bank_app.BankAppApplication;
+import com.example.bank_app.common.Money;
+import com.example.bank_app.dto.model.AccountDto;
+import com.example.bank_app.dto.model.TransactionDto;
+import com.example.bank_app.dto.request.NewAccountRequest;
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.dto.request.TransactionHistoryFilter;
+import com.example.bank_app.dto.response.TransactionPageResponse;
+import com.example.bank_app.service.AccountService;
+import com.example.bank_app.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link ServiceHotPathBenchmark} calls against the full Spring context on the embedded H2 database
+ * ({@code benchmark} profile), single-threaded, so the gap between the two shows the persistence cost.
+ *
+ * <pre>mvn -P benchmark test-compile exec:exec -Djmh.args="EmbeddedDatabaseBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmbeddedDatabaseBenchmark {
+
+    private static final String CUSTOMER_ID = "benchmark-customer";
+    private static final Money INITIAL_BALANCE = Money.of("1000000000");
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private TransactionService transactionService;
+
+    private AccountDto sender;
+    private NewAccountRequest newAccountRequest;
+    private NewMoneyTransferRequest transferRequest;
+    private TransactionHistoryFilter noFilter;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(BankAppApplication.class)
+                .profiles("benchmark")
+                .run();
+        accountService = context.getBean(AccountService.class);
+        transactionService = context.getBean(TransactionService.class);
+
+        NewAccountRequest fundedAccountRequest = new NewAccountRequest();
+        fundedAccountRequest.setInitialBalance(INITIAL_BALANCE);
+        sender = accountService.addNewAccount(CUSTOMER_ID, fundedAccountRequest);
+        AccountDto receiver = accountService.addNewAccount(CUSTOMER_ID, fundedAccountRequest);
+
+        newAccountRequest = new NewAccountRequest();
+        newAccountRequest.setInitialBalance(Money.of("100"));
+        transferRequest = NewMoneyTransferRequest
+                .builder()
+                .amount(Money.of("1"))
+                .receiverAccountNumber(receiver.getAccountNumber())
+                .description("benchmark")
+                .build();
+        noFilter = new TransactionHistoryFilter();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public AccountDto addNewAccount() {
+        return accountService.addNewAccount(CUSTOMER_ID, newAccountRequest);
+    }
+
+    @Benchmark
+    public TransactionDto addNewTransaction() {
+        return transactionService.addNewTransaction(CUSTOMER_ID, sender.getId(), transferRequest, null);
+    }
+
+    @Benchmark
+    public TransactionPageResponse getTransactionHistoryFirstPage() {
+        return transactionService.getTransactionHistory(sender.getId(), CUSTOMER_ID, noFilter, null, 50);
+    }
+}
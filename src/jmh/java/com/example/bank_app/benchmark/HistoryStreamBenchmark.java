@@ -0,0 +1,186 @@
+package com.example.bank_app.benchmark;
+
+import com.example.bank_app.BankAppApplication;
+import com.example.bank_app.common.AccountNumbers;
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.dto.request.CustomerRegisterRequest;
+import com.example.bank_app.dto.request.LoginRequest;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.CustomerRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.AuthService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent history downloads by slow clients (mobile gateway fan-out) with the server confined to a fixed heap of
+ * {@code -Xmx256m}: the cursor-based {@code /transaction-history/export} against the keyset-paged
+ * {@code /transaction-history/stream}. Each client reads {@value #CLIENT_READ_SIZE} bytes at a time and pauses
+ * {@value #CLIENT_PAUSE_MILLIS} ms in between. The export holds a pooled connection until its last row has been
+ * handed to the socket, so once the histories outgrow the socket buffers, downloads queue for the pool and fail when
+ * {@code connection-timeout} runs out; the stream holds a connection only while it reads a page.
+ *
+ * <p>The score is waves per second; {@code completed} and {@code failed} count the downloads of each wave, so
+ * {@code failed = 0} means the server sustained {@code connections} concurrent downloads in the budget.
+ *
+ * <pre>mvn -P benchmark test-compile exec:exec -Djmh.args="HistoryStreamBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HistoryStreamBenchmark {
+
+    private static final String EMAIL = "history-benchmark@bank.app";
+    private static final String PASSWORD = "benchmark-password";
+    private static final int TRANSACTIONS = 2_000;
+    private static final int CLIENT_READ_SIZE = 8192;
+    private static final int CLIENT_PAUSE_MILLIS = 2;
+
+    @Param({"export", "stream"})
+    public String endpoint;
+
+    @Param({"1000", "4000"})
+    public int connections;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private ExecutorService clients;
+    private HttpRequest historyRequest;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Downloads {
+        public long completed;
+        public long failed;
+    }
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(BankAppApplication.class)
+                .profiles("benchmark")
+                .properties("spring.datasource.hikari.connection-timeout=5000",
+                        "spring.mvc.async.request-timeout=10m",
+                        "server.tomcat.max-connections=" + (connections + 100),
+                        "bank.virtual-threads.pinning-detection.enabled=false")
+                .run();
+        AuthService authService = context.getBean(AuthService.class);
+
+        CustomerRegisterRequest customerRegisterRequest = new CustomerRegisterRequest();
+        customerRegisterRequest.setEmail(EMAIL);
+        customerRegisterRequest.setPassword(PASSWORD);
+        authService.registerCustomer(customerRegisterRequest);
+        String customerId = context.getBean(CustomerRepository.class).findByEmail(EMAIL).orElseThrow().getId();
+        String accessToken = authService.login(new LoginRequest(EMAIL, PASSWORD)).getAccessToken();
+
+        AccountEntity account = context.getBean(AccountRepository.class).save(AccountEntity
+                .builder()
+                .customerId(customerId)
+                .accountNumber(AccountNumbers.fromBody(0))
+                .balance(Money.of("1000000"))
+                .build());
+
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<TransactionEntity> transactions = new ArrayList<>(TRANSACTIONS);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            transactions.add(TransactionEntity
+                    .builder()
+                    .id(UUID.randomUUID().toString())
+                    .senderAccountId(account.getId())
+                    .receiverAccountId(UUID.randomUUID().toString())
+                    .transactionType(TransactionType.TRANSFER)
+                    .amount(Money.of("1.00"))
+                    .date(start.plusMinutes(i))
+                    .description("benchmark transfer " + i)
+                    .build());
+        }
+        context.getBean(TransactionRepository.class).insertAllWithAssignedIds(transactions);
+
+        String path = "export".equals(endpoint) ? "/transaction-history/export" : "/transaction-history/stream";
+        historyRequest = HttpRequest.newBuilder(URI.create("http://localhost:"
+                        + ((WebServerApplicationContext) context).getWebServer().getPort() + "/accounts/" + account.getId() + path))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .timeout(Duration.ofMinutes(5))
+                .GET()
+                .build();
+        clients = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clients)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        httpClient.close();
+        clients.close();
+        context.close();
+    }
+
+    /**
+     * One invocation is a wave of {@code connections} simultaneous downloads; the client and the server share the
+     * forked JVM, so the heap limit covers both.
+     */
+    @Benchmark
+    public long downloadWave(Downloads downloads) throws Exception {
+        List<Future<Boolean>> responses = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            responses.add(clients.submit(this::download));
+        }
+        long completed = 0;
+        for (Future<Boolean> response : responses) {
+            if (response.get()) {
+                completed++;
+            }
+        }
+        downloads.completed += completed;
+        downloads.failed += connections - completed;
+        return completed;
+    }
+
+    private boolean download() {
+        try {
+            HttpResponse<InputStream> response = httpClient.send(historyRequest, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                byte[] buffer = new byte[CLIENT_READ_SIZE];
+                long lines = 0;
+                int read;
+                while ((read = body.read(buffer)) >= 0) {
+                    for (int i = 0; i < read; i++) {
+                        if (buffer[i] == '\n') {
+                            lines++;
+                        }
+                    }
+                    Thread.sleep(CLIENT_PAUSE_MILLIS);
+                }
+                return response.statusCode() == 200 && lines == TRANSACTIONS;
+            }
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+}
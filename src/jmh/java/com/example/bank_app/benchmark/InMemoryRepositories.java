@@ -0,0 +1,115 @@
+package com.example.bank_app.benchmark;
+
+import com.example.bank_app.common.AccountIdentity;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.MonthlyStatementRepository;
+import com.example.bank_app.repository.OutboxEventRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Map-backed stand-ins for the Spring Data repositories, implementing only what the service hot paths call.
+ * Saved rows are not retained (the benchmarks would otherwise measure a growing heap); ids and timestamps
+ * are assigned the way Hibernate would.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static AccountRepository accountRepository(Map<String, AccountEntity> accountsById) {
+        return proxy(AccountRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "save", "saveAndFlush" -> {
+                AccountEntity account = (AccountEntity) args[0];
+                if (account.getId() == null) {
+                    account.setId(UUID.randomUUID().toString());
+                    account.setCreatedAt(LocalDateTime.now());
+                }
+                yield account;
+            }
+            case "findById" -> Optional.ofNullable(accountsById.get((String) args[0]));
+            case "existsByAccountNumber" -> false;
+            case "forEachAccountNumber" -> null;
+            case "findIdentityById" -> Optional.ofNullable(accountsById.get((String) args[0]))
+                    .map(account -> new AccountIdentity(account.getId(), account.getAccountNumber(), account.getCustomerId()));
+            case "findByIdAndCustomerId" -> Optional.ofNullable(accountsById.get((String) args[0]))
+                    .filter(account -> account.getCustomerId().equals(args[1]));
+            default -> unsupported(proxy, method.getName(), args);
+        });
+    }
+
+    static TransactionRepository transactionRepository() {
+        return proxy(TransactionRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "save" -> {
+                TransactionEntity transaction = (TransactionEntity) args[0];
+                if (transaction.getId() == null) {
+                    transaction.setId(UUID.randomUUID().toString());
+                    transaction.setDate(LocalDateTime.now());
+                }
+                yield transaction;
+            }
+            default -> unsupported(proxy, method.getName(), args);
+        });
+    }
+
+    static MonthlyStatementRepository monthlyStatementRepository() {
+        return proxy(MonthlyStatementRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "addAll" -> null;
+            default -> unsupported(proxy, method.getName(), args);
+        });
+    }
+
+    static OutboxEventRepository outboxEventRepository() {
+        return proxy(OutboxEventRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "insertAll" -> null;
+            default -> unsupported(proxy, method.getName(), args);
+        });
+    }
+
+    /**
+     * Runs callbacks without a transaction; the stand-ins have nothing to commit.
+     */
+    static TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        });
+    }
+
+    private static Object unsupported(Object proxy, String methodName, Object[] args) {
+        return switch (methodName) {
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "InMemoryRepository";
+            default -> throw new UnsupportedOperationException(methodName + " is not available in the in-memory stand-in");
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> repositoryType, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType}, handler);
+    }
+}
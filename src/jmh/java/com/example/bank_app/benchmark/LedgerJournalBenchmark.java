@@ -0,0 +1,79 @@
+package com.example.bank_app.benchmark;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.config.LedgerProperties;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.service.ledger.LedgerJournal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Latency of acknowledging one transfer through the {@link LedgerJournal}: encode, append to the memory-mapped
+ * segment and wait for the group fsync that covers it. JMH prints the p50/p90/p99/p99.9 percentiles; with
+ * several appending threads a single {@code msync} acknowledges many records. Applied segments are deleted as
+ * soon as the records are durable, so the run does not fill the disk.
+ *
+ * <pre>mvn -P benchmark test-compile exec:exec -Djmh.args="LedgerJournalBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LedgerJournalBenchmark {
+
+    @Param({"true", "false"})
+    public boolean fsync;
+
+    private Path directory;
+    private LedgerJournal journal;
+    private TransactionEntity transaction;
+
+    @Setup(Level.Trial)
+    public void openJournal() throws IOException {
+        directory = Files.createTempDirectory("ledger-journal-benchmark");
+        LedgerProperties.Journal properties = new LedgerProperties.Journal();
+        properties.setDirectory(directory.toString());
+        properties.setFsync(fsync);
+        journal = new LedgerJournal(properties, transfer -> journal.markApplied(transfer.sequence()));
+        journal.recover();
+        journal.start();
+
+        transaction = TransactionEntity
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .senderAccountId(UUID.randomUUID().toString())
+                .receiverAccountId(UUID.randomUUID().toString())
+                .transactionType(TransactionType.TRANSFER)
+                .amount(Money.of("125.50"))
+                .date(LocalDateTime.now())
+                .description("benchmark transfer")
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeJournal() throws Exception {
+        journal.stop();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void appendAndAwaitDurable() {
+        journal.append(transaction).join();
+    }
+}
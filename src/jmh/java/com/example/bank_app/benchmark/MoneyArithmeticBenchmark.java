@@ -0,0 +1,96 @@
+package com.example.bank_app.benchmark;
+
+import com.example.bank_app.common.Money;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-transfer balance arithmetic of the transfer strategies and the ledger (check the sender's balance,
+ * debit it, credit the receiver) over a batch of amounts, once on {@link BigDecimal} values as they come out
+ * of a {@code DECIMAL(38, 2)} column and once on {@link Money}. The format benchmarks write the amounts the
+ * way the JSON and CSV exports do. Run with the GC profiler to see the allocation per transfer
+ * ({@code gc.alloc.rate.norm}):
+ *
+ * <pre>mvn -P benchmark test-compile exec:exec -Djmh.args="MoneyArithmeticBenchmark -prof gc"</pre>
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoneyArithmeticBenchmark {
+
+    private static final int TRANSFERS = 1024;
+
+    private BigDecimal[] decimalAmounts;
+    private Money[] moneyAmounts;
+    private BigDecimal decimalBalance;
+    private Money moneyBalance;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        decimalAmounts = new BigDecimal[TRANSFERS];
+        moneyAmounts = new Money[TRANSFERS];
+        for (int i = 0; i < TRANSFERS; i++) {
+            long minorUnits = random.nextLong(1, 500_000);
+            decimalAmounts[i] = BigDecimal.valueOf(minorUnits, Money.SCALE);
+            moneyAmounts[i] = Money.ofMinorUnits(minorUnits);
+        }
+        decimalBalance = new BigDecimal("1000000000.00");
+        moneyBalance = Money.of(decimalBalance);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public void transferBigDecimal(Blackhole blackhole) {
+        BigDecimal sender = decimalBalance;
+        BigDecimal receiver = BigDecimal.ZERO.setScale(Money.SCALE);
+        for (BigDecimal amount : decimalAmounts) {
+            if (sender.compareTo(amount) < 0) {
+                throw new IllegalStateException("Balance is not enough");
+            }
+            sender = sender.subtract(amount);
+            receiver = receiver.add(amount);
+        }
+        blackhole.consume(sender);
+        blackhole.consume(receiver);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public void transferMoney(Blackhole blackhole) {
+        Money sender = moneyBalance;
+        Money receiver = Money.ZERO;
+        for (Money amount : moneyAmounts) {
+            if (sender.isLessThan(amount)) {
+                throw new IllegalStateException("Balance is not enough");
+            }
+            sender = sender.minus(amount);
+            receiver = receiver.plus(amount);
+        }
+        blackhole.consume(sender);
+        blackhole.consume(receiver);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public void formatBigDecimal(Blackhole blackhole) {
+        for (BigDecimal amount : decimalAmounts) {
+            blackhole.consume(amount.toPlainString());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public void formatMoney(Blackhole blackhole) {
+        for (Money amount : moneyAmounts) {
+            blackhole.consume(amount.toString());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.bank_app.benchmark;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.config.AccountIdentityCacheProperties;
+import com.example.bank_app.config.AccountNumberProperties;
+import com.example.bank_app.config.TransferProperties;
+import com.example.bank_app.dto.model.AccountDto;
+import com.example.bank_app.dto.model.TransactionDto;
+import com.example.bank_app.dto.request.NewAccountRequest;
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.exception.InvalidAmountException;
+import com.example.bank_app.mapper.AccountMapperImpl;
+import com.example.bank_app.mapper.TransactionMapperImpl;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.AccountService;
+import com.example.bank_app.service.AccountValidateService;
+import com.example.bank_app.service.TransactionService;
+import com.example.bank_app.service.account.AccountIdentityCache;
+import com.example.bank_app.service.account.AccountNumberGenerator;
+import com.example.bank_app.service.account.AccountNumberIssuer;
+import com.example.bank_app.service.export.TransactionExportWriter;
+import com.example.bank_app.service.outbox.OutboxService;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import com.example.bank_app.service.transfer.BatchTransferOutcome;
+import com.example.bank_app.service.transfer.TransferRetryExecutor;
+import com.example.bank_app.service.transfer.TransferStrategy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Service-layer hot paths wired by hand against {@link InMemoryRepositories}, so the numbers reflect only
+ * the service code (validation, retry wrapper, mapping, account number issuing) and not the database.
+ * The transfer strategy is a stand-in that returns the transaction it would have persisted.
+ * {@link EmbeddedDatabaseBenchmark} measures the same calls end to end.
+ *
+ * <pre>mvn -P benchmark test-compile exec:exec -Djmh.args="ServiceHotPathBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ServiceHotPathBenchmark {
+
+    private static final String CUSTOMER_ID = "benchmark-customer";
+    private static final String ACCOUNT_ID = "benchmark-account";
+    private static final String RECEIVER_ACCOUNT_NUMBER = "6543210987654320";
+
+    private AccountService accountService;
+    private AccountValidateService accountValidateService;
+    private TransactionService transactionService;
+    private AccountNumberGenerator accountNumberGenerator;
+    private AccountNumberIssuer accountNumberIssuer;
+
+    private NewAccountRequest newAccountRequest;
+    private NewMoneyTransferRequest validTransferRequest;
+    private NewMoneyTransferRequest invalidTransferRequest;
+
+    @Setup
+    public void setUp() {
+        AccountEntity account = AccountEntity
+                .builder()
+                .id(ACCOUNT_ID)
+                .customerId(CUSTOMER_ID)
+                .accountNumber("1234567890123456")
+                .balance(Money.of("1000000"))
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        AccountRepository accountRepository = InMemoryRepositories.accountRepository(Map.of(ACCOUNT_ID, account));
+        TransactionRepository transactionRepository = InMemoryRepositories.transactionRepository();
+        AccountIdentityCache accountIdentityCache = new AccountIdentityCache(accountRepository, new AccountIdentityCacheProperties());
+        accountValidateService = new AccountValidateService(accountRepository, accountIdentityCache);
+        TransferProperties transferProperties = new TransferProperties();
+
+        accountNumberGenerator = new AccountNumberGenerator();
+        accountNumberIssuer = new AccountNumberIssuer(accountRepository, accountNumberGenerator, new AccountNumberProperties());
+        accountNumberIssuer.loadIssuedNumbers();
+
+        TransactionTemplate transactionTemplate = InMemoryRepositories.transactionTemplate();
+        MonthlyStatementService monthlyStatementService = new MonthlyStatementService(InMemoryRepositories.monthlyStatementRepository(),
+                transactionRepository, accountRepository, transactionTemplate);
+        OutboxService outboxService = new OutboxService(InMemoryRepositories.outboxEventRepository(), new TransactionMapperImpl(),
+                new AccountMapperImpl(), new ObjectMapper().findAndRegisterModules());
+
+        accountService = new AccountService(accountRepository, new AccountMapperImpl(), transactionRepository,
+                accountNumberIssuer, accountValidateService, accountIdentityCache, event -> { }, null, monthlyStatementService,
+                transactionTemplate, null, outboxService);
+        transactionService = new TransactionService(accountValidateService, null, new PersistingTransferStrategy(),
+                new TransferRetryExecutor(transferProperties), null, transferProperties,
+                new TransactionExportWriter(new ObjectMapper()), new TransactionMapperImpl(), null, event -> { }, accountNumberIssuer);
+
+        newAccountRequest = new NewAccountRequest();
+        newAccountRequest.setInitialBalance(Money.of("100"));
+        validTransferRequest = NewMoneyTransferRequest
+                .builder()
+                .amount(Money.of("10"))
+                .receiverAccountNumber(RECEIVER_ACCOUNT_NUMBER)
+                .description("benchmark")
+                .build();
+        invalidTransferRequest = NewMoneyTransferRequest
+                .builder()
+                .amount(Money.ZERO)
+                .receiverAccountNumber(RECEIVER_ACCOUNT_NUMBER)
+                .build();
+    }
+
+    @Benchmark
+    public AccountDto addNewAccount() {
+        return accountService.addNewAccount(CUSTOMER_ID, newAccountRequest);
+    }
+
+    @Benchmark
+    public String generateAccountNumber() {
+        return accountNumberGenerator.generate();
+    }
+
+    @Benchmark
+    public String issueAccountNumber() {
+        return accountNumberIssuer.issue(Function.identity());
+    }
+
+    @Benchmark
+    public AccountDto getAccountByIdAndCustomerId() {
+        return accountService.getAccountByIdAndCustomerId(ACCOUNT_ID, CUSTOMER_ID);
+    }
+
+    @Benchmark
+    public String validateAccountOwnership() {
+        accountValidateService.validateAccountOwnership(ACCOUNT_ID, CUSTOMER_ID);
+        return ACCOUNT_ID;
+    }
+
+    @Benchmark
+    public TransactionDto addNewTransaction() {
+        return transactionService.addNewTransaction(CUSTOMER_ID, ACCOUNT_ID, validTransferRequest, null);
+    }
+
+    @Benchmark
+    public Object addNewTransactionRejected() {
+        try {
+            return transactionService.addNewTransaction(CUSTOMER_ID, ACCOUNT_ID, invalidTransferRequest, null);
+        } catch (InvalidAmountException ex) {
+            return ex;
+        }
+    }
+
+    private static final class PersistingTransferStrategy implements TransferStrategy {
+
+        @Override
+        public TransactionEntity transfer(String senderCustomerId, String senderAccountId, NewMoneyTransferRequest newMoneyTransferRequest) {
+            return TransactionEntity
+                    .builder()
+                    .id("benchmark-transaction")
+                    .senderAccountId(senderAccountId)
+                    .receiverAccountId("benchmark-receiver")
+                    .transactionType(TransactionType.TRANSFER)
+                    .amount(newMoneyTransferRequest.getAmount())
+                    .description(newMoneyTransferRequest.getDescription())
+                    .date(LocalDateTime.now())
+                    .build();
+        }
+
+        @Override
+        public List<BatchTransferOutcome> transferBatch(String senderCustomerId, String senderAccountId, List<NewMoneyTransferRequest> newMoneyTransferRequests) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.bank_app.benchmark;
+
+import com.example.bank_app.BankAppApplication;
+import com.example.bank_app.common.AccountNumbers;
+import com.example.bank_app.common.Money;
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.exception.TransferConflictException;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.service.TransactionService;
+import com.example.bank_app.service.ledger.LedgerEngine;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfers between a small set of hot accounts from many threads at once, for every
+ * {@code bank.transfer.concurrency-strategy}. {@link #transfersPerSecond} reports throughput and
+ * {@link #transferLatency} reports the latency distribution (p0.99 is printed by JMH).
+ * The trial fails if the sum of all persisted balances changed, i.e. if the strategy lost an update.
+ *
+ * <pre>mvn -P benchmark test-compile exec:exec -Djmh.args="TransferContentionBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class TransferContentionBenchmark {
+
+    private static final String CUSTOMER_ID = "benchmark-customer";
+    private static final Money INITIAL_BALANCE = Money.of("1000000000");
+
+    @Param({"PESSIMISTIC", "OPTIMISTIC", "CONDITIONAL_UPDATE", "LEDGER"})
+    public String strategy;
+
+    @Param({"4"})
+    public int hotAccounts;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private TransactionService transactionService;
+    private List<AccountEntity> accounts;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+
+        public long conflicts;
+    }
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(BankAppApplication.class)
+                .profiles("benchmark")
+                .properties("bank.transfer.concurrency-strategy=" + strategy,
+                        "bank.transfer.retry.max-attempts=20")
+                .run();
+        accountRepository = context.getBean(AccountRepository.class);
+        transactionService = context.getBean(TransactionService.class);
+
+        accounts = new ArrayList<>();
+        for (int i = 0; i < hotAccounts; i++) {
+            accounts.add(accountRepository.save(AccountEntity
+                    .builder()
+                    .customerId(CUSTOMER_ID)
+                    .accountNumber(AccountNumbers.fromBody(i))
+                    .balance(INITIAL_BALANCE)
+                    .build()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void verifyNoLostUpdatesAndStop() {
+        context.getBeansOfType(LedgerEngine.class).values().forEach(LedgerEngine::stop);
+        Money total = accountRepository.findAllByCustomerId(CUSTOMER_ID).stream()
+                .map(AccountEntity::getBalance)
+                .reduce(Money.ZERO, Money::plus);
+        context.close();
+
+        Money expected = Money.ofMinorUnits(Math.multiplyExact(INITIAL_BALANCE.minorUnits(), hotAccounts));
+        if (!total.equals(expected)) {
+            throw new IllegalStateException(strategy + " lost updates: expected total " + expected + " but was " + total);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void transfersPerSecond(Outcomes outcomes) {
+        transfer(outcomes);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void transferLatency(Outcomes outcomes) {
+        transfer(outcomes);
+    }
+
+    private void transfer(Outcomes outcomes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int sender = random.nextInt(hotAccounts);
+        int receiver = (sender + 1 + random.nextInt(hotAccounts - 1)) % hotAccounts;
+
+        NewMoneyTransferRequest request = NewMoneyTransferRequest
+                .builder()
+                .amount(Money.of("1"))
+                .receiverAccountNumber(accounts.get(receiver).getAccountNumber())
+                .description("benchmark")
+                .build();
+
+        try {
+            transactionService.addNewTransaction(CUSTOMER_ID, accounts.get(sender).getId(), request, null);
+        } catch (TransferConflictException ex) {
+            outcomes.conflicts++;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.bank_app.benchmark;
+
+import com.example.bank_app.BankAppApplication;
+import com.example.bank_app.common.AccountNumbers;
+import com.example.bank_app.common.Money;
+import com.example.bank_app.dto.request.CustomerRegisterRequest;
+import com.example.bank_app.dto.request.LoginRequest;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.CustomerRepository;
+import com.example.bank_app.service.AuthService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfers per second over real HTTP with {@value #CLIENTS} concurrent clients, with Tomcat and the task
+ * executors on the default platform-thread pools versus on virtual threads
+ * ({@code spring.threads.virtual.enabled}). Every client owns one account and transfers to its neighbour's, so
+ * each request runs the full sequence of blocking JDBC calls of {@code TransactionService.addNewTransaction}
+ * without piling onto a few hot rows. Both modes share the same Hikari pool, which bounds the number of
+ * transfers actually talking to the database.
+ *
+ * <pre>mvn -P benchmark test-compile exec:exec -Djmh.args="VirtualThreadBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VirtualThreadBenchmark {
+
+    private static final int CLIENTS = 2_000;
+    private static final String EMAIL = "benchmark@bank.app";
+    private static final String PASSWORD = "benchmark-password";
+    private static final Money INITIAL_BALANCE = Money.of("1000000000");
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private ExecutorService clients;
+    private List<HttpRequest> transferRequests;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(BankAppApplication.class)
+                .profiles("benchmark")
+                .properties("spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.hikari.maximum-pool-size=20",
+                        "spring.datasource.hikari.connection-timeout=30000",
+                        "bank.virtual-threads.pinning-detection.enabled=false")
+                .run();
+        AuthService authService = context.getBean(AuthService.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+
+        CustomerRegisterRequest customerRegisterRequest = new CustomerRegisterRequest();
+        customerRegisterRequest.setEmail(EMAIL);
+        customerRegisterRequest.setPassword(PASSWORD);
+        authService.registerCustomer(customerRegisterRequest);
+        String customerId = context.getBean(CustomerRepository.class).findByEmail(EMAIL).orElseThrow().getId();
+        String accessToken = authService.login(new LoginRequest(EMAIL, PASSWORD)).getAccessToken();
+
+        List<AccountEntity> accounts = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            accounts.add(AccountEntity
+                    .builder()
+                    .customerId(customerId)
+                    .accountNumber(AccountNumbers.fromBody(i))
+                    .balance(INITIAL_BALANCE)
+                    .build());
+        }
+        accounts = accountRepository.saveAll(accounts);
+
+        String baseUri = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/accounts/";
+        transferRequests = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            String receiverAccountNumber = accounts.get((i + 1) % CLIENTS).getAccountNumber();
+            transferRequests.add(HttpRequest.newBuilder(URI.create(baseUri + accounts.get(i).getId() + "/transfer-money"))
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"amount\":0.01,\"receiverAccountNumber\":\"" + receiverAccountNumber + "\",\"description\":\"benchmark\"}"))
+                    .timeout(Duration.ofMinutes(1))
+                    .build());
+        }
+        clients = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clients)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        httpClient.close();
+        clients.close();
+        context.close();
+    }
+
+    /**
+     * One invocation is a wave of {@value #CLIENTS} simultaneous transfers; JMH divides by the wave size, so the
+     * score is transfers per second.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CLIENTS)
+    public int transferWave() throws Exception {
+        List<Future<Integer>> responses = new ArrayList<>(CLIENTS);
+        for (HttpRequest request : transferRequests) {
+            responses.add(clients.submit(() -> httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()));
+        }
+        int succeeded = 0;
+        for (Future<Integer> response : responses) {
+            int status = response.get();
+            if (status / 100 != 2) {
+                throw new IllegalStateException("POST transfer-money answered " + status);
+            }
+            succeeded++;
+        }
+        return succeeded;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bank_app.common;
+
+/**
+ * The fields of an account that never change after it is opened. Safe to cache; balances are not part of it.
+ */
+public record AccountIdentity(String id, String accountNumber, String customerId) {
+}
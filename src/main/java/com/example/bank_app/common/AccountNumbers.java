@@ -0,0 +1,75 @@
+package com.example.bank_app.common;
+
+/**
+ * Account numbers are {@value #LENGTH} decimal digits; the last one is a Luhn check digit over the first fifteen.
+ * Numbers issued before the check digit was introduced have the same length but fully random digits.
+ */
+public final class AccountNumbers {
+
+    public static final int LENGTH = 16;
+    public static final long BODY_BOUND = 1_000_000_000_000_000L;
+
+    private AccountNumbers() {
+    }
+
+    public static String fromBody(long body) {
+        char[] digits = new char[LENGTH];
+        long remaining = body;
+        for (int i = LENGTH - 2; i >= 0; i--) {
+            digits[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        digits[LENGTH - 1] = (char) ('0' + checkDigit(digits));
+        return new String(digits);
+    }
+
+    public static boolean hasValidFormat(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            char digit = accountNumber.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean hasValidCheckDigit(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != LENGTH) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            int digit = accountNumber.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            sum += (LENGTH - 1 - i) % 2 == 1 ? doubled(digit) : digit;
+        }
+        return sum % 10 == 0;
+    }
+
+    public static long toLong(String accountNumber) {
+        long value = 0;
+        for (int i = 0; i < accountNumber.length(); i++) {
+            value = value * 10 + (accountNumber.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static int checkDigit(char[] digits) {
+        int sum = 0;
+        for (int i = LENGTH - 2; i >= 0; i--) {
+            int digit = digits[i] - '0';
+            sum += (LENGTH - 2 - i) % 2 == 0 ? doubled(digit) : digit;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static int doubled(int digit) {
+        int doubled = digit * 2;
+        return doubled > 9 ? doubled - 9 : doubled;
+    }
+}
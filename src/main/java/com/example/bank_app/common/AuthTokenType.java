@@ -0,0 +1,6 @@
+package com.example.bank_app.common;
+
+public enum AuthTokenType {
+    ACCESS,
+    REFRESH
+}
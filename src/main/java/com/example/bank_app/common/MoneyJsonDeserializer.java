@@ -0,0 +1,48 @@
+package com.example.bank_app.common;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Reads {@link Money} from a JSON number or numeric string. Integral numbers are converted without a
+ * {@code BigDecimal}; amounts with more than two fraction digits or outside the {@code long} range are
+ * rejected as malformed input.
+ */
+public class MoneyJsonDeserializer extends StdDeserializer<Money> {
+
+    private static final long MAX_WHOLE_UNITS = Long.MAX_VALUE / 100;
+
+    public MoneyJsonDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT) {
+            return Money.ofMinorUnits(parser.getIntValue() * 100L);
+        }
+        BigDecimal amount = parser.currentToken() == JsonToken.VALUE_STRING
+                ? parseDecimal(parser, context)
+                : parser.getDecimalValue();
+        try {
+            return Money.of(amount);
+        } catch (ArithmeticException ex) {
+            return (Money) context.handleWeirdNumberValue(Money.class, amount,
+                    "amount must fit in %d whole units with at most %d fraction digits", MAX_WHOLE_UNITS, Money.SCALE);
+        }
+    }
+
+    private static BigDecimal parseDecimal(JsonParser parser, DeserializationContext context) throws IOException {
+        String text = parser.getText().trim();
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException ex) {
+            return (BigDecimal) context.handleWeirdStringValue(Money.class, text, "not a decimal amount");
+        }
+    }
+}
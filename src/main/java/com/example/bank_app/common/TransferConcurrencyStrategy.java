@@ -0,0 +1,9 @@
+package com.example.bank_app.common;
+
+public enum TransferConcurrencyStrategy {
+
+    PESSIMISTIC,
+    OPTIMISTIC,
+    CONDITIONAL_UPDATE,
+    LEDGER
+}
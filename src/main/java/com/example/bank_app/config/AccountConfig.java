@@ -0,0 +1,9 @@
+package com.example.bank_app.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({AccountNumberProperties.class, AccountIdentityCacheProperties.class, BalanceSnapshotProperties.class, StatementProperties.class, AccountFeedProperties.class})
+public class AccountConfig {
+}
@@ -0,0 +1,17 @@
+package com.example.bank_app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bank.account-feed")
+public class AccountFeedProperties {
+
+    private int subscriberBufferSize = 64;
+    private int replaySize = 100;
+    private Duration replayRetention = Duration.ofMinutes(5);
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    private Duration timeout = Duration.ofMinutes(30);
+}
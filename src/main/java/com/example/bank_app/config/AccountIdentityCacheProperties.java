@@ -0,0 +1,15 @@
+package com.example.bank_app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bank.account-identity-cache")
+public class AccountIdentityCacheProperties {
+
+    private long maximumSize = 100_000;
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+    private Duration negativeExpireAfterWrite = Duration.ofSeconds(5);
+}
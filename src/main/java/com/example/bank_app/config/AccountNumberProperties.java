@@ -0,0 +1,19 @@
+package com.example.bank_app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "bank.account-number")
+public class AccountNumberProperties {
+
+    private int maxAttempts = 5;
+    private BloomFilter bloomFilter = new BloomFilter();
+
+    @Data
+    public static class BloomFilter {
+
+        private long expectedInsertions = 1_000_000;
+        private double falsePositiveProbability = 0.001;
+    }
+}
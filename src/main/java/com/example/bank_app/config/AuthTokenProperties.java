@@ -0,0 +1,24 @@
+package com.example.bank_app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bank.auth.token")
+public class AuthTokenProperties {
+
+    /**
+     * Base64 encoded HMAC-SHA256 key, shared by every instance. When empty a random key is generated at
+     * startup, so tokens do not survive a restart.
+     */
+    private String secret;
+    private Duration accessTokenTtl = Duration.ofMinutes(15);
+    private Duration refreshTokenTtl = Duration.ofDays(7);
+    /**
+     * Sessions whose refresh token is remembered. When more are open, the least recently used ones can no longer
+     * be refreshed and log in again once their access token expires.
+     */
+    private long maxSessions = 100_000;
+}
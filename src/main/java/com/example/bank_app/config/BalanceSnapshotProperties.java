@@ -0,0 +1,15 @@
+package com.example.bank_app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bank.balance-snapshot")
+public class BalanceSnapshotProperties {
+
+    private Duration interval = Duration.ofMinutes(5);
+    private Duration settleDelay = Duration.ofMinutes(1);
+    private int batchSize = 1000;
+}
@@ -0,0 +1,33 @@
+package com.example.bank_app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bank.ledger")
+public class LedgerProperties {
+
+    private int shards = 4;
+    private int ringBufferSize = 1024;
+    private WriteBehind writeBehind = new WriteBehind();
+    private Journal journal = new Journal();
+
+    @Data
+    public static class WriteBehind {
+
+        private int batchSize = 500;
+        private int queueCapacity = 16384;
+        private Duration flushInterval = Duration.ofMillis(50);
+    }
+
+    @Data
+    public static class Journal {
+
+        private String directory = "data/ledger-journal";
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        private boolean fsync = true;
+    }
+}
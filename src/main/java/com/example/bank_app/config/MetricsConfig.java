@@ -0,0 +1,105 @@
+package com.example.bank_app.config;
+
+import com.example.bank_app.datasource.ReplicaLagMonitor;
+import com.example.bank_app.monitoring.VirtualThreadPinningMonitor;
+import com.example.bank_app.service.account.AccountIdentityCache;
+import com.example.bank_app.service.feed.AccountFeedHub;
+import com.example.bank_app.service.outbox.OutboxDispatcher;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+
+/**
+ * Application meters on top of what Spring Boot binds itself (HTTP server requests, Spring Data repository
+ * invocations, Hikari connection pool gauges, JVM). Service hot paths are timed
+ * with {@code @Timed}; every tag used here is bounded by code, never by request data.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder virtualThreadPinningMetrics(ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor) {
+        return registry -> pinningMonitor.ifAvailable(monitor ->
+                FunctionCounter.builder("jvm.threads.virtual.pinned", monitor, VirtualThreadPinningMonitor::getPinnedCount)
+                        .description("Virtual threads pinned to their carrier for longer than the detection threshold")
+                        .register(registry));
+    }
+
+    @Bean
+    public MeterBinder accountFeedMetrics(AccountFeedHub accountFeedHub) {
+        return registry -> {
+            Gauge.builder("bank.account-feed.subscribers", accountFeedHub, AccountFeedHub::subscriberCount)
+                    .description("Open account activity streams")
+                    .register(registry);
+            FunctionCounter.builder("bank.account-feed.evictions", accountFeedHub, AccountFeedHub::evictedCount)
+                    .description("Account activity streams closed because the client fell behind")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder outboxMetrics(ObjectProvider<OutboxDispatcher> outboxDispatcher) {
+        return registry -> outboxDispatcher.ifAvailable(dispatcher -> {
+            Gauge.builder("bank.outbox.lag", dispatcher, OutboxDispatcher::lagSeconds)
+                    .description("Age of the oldest undelivered outbox event as of the last dispatch round")
+                    .baseUnit("seconds")
+                    .register(registry);
+            FunctionCounter.builder("bank.outbox.dispatched", dispatcher, OutboxDispatcher::dispatchedCount)
+                    .description("Outbox events delivered to the sink")
+                    .register(registry);
+            FunctionCounter.builder("bank.outbox.failed-batches", dispatcher, OutboxDispatcher::failedBatchCount)
+                    .description("Outbox batches that failed to deliver and stay queued for the next poll")
+                    .register(registry);
+        });
+    }
+
+    /**
+     * Micrometer's {@code cache.gets} and {@code cache.evictions} for both account identity caches, so hit rates can
+     * be read next to the repository timers they save.
+     */
+    @Bean
+    public MeterBinder accountIdentityCacheMetrics(AccountIdentityCache accountIdentityCache) {
+        return registry -> {
+            bindCacheStats(registry, "account-identity-by-number", accountIdentityCache, AccountIdentityCache::accountNumberStats);
+            bindCacheStats(registry, "account-identity-by-id", accountIdentityCache, AccountIdentityCache::accountIdStats);
+        };
+    }
+
+    @Bean
+    public MeterBinder replicaLagMetrics(ObjectProvider<ReplicaLagMonitor> replicaLagMonitor) {
+        return registry -> replicaLagMonitor.ifAvailable(monitor ->
+                Gauge.builder("bank.datasource.replica.lag", monitor, ReplicaLagMonitor::lagSeconds)
+                        .description("Replica lag behind the primary as of the last check; NaN while the replica is unreachable")
+                        .baseUnit("seconds")
+                        .register(registry));
+    }
+
+    private static void bindCacheStats(MeterRegistry registry, String cacheName, AccountIdentityCache cache,
+                                       Function<AccountIdentityCache, CacheStats> stats) {
+        FunctionCounter.builder("cache.gets", cache, source -> stats.apply(source).hitCount())
+                .description("Lookups answered from the cache")
+                .tags("cache", cacheName, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, source -> stats.apply(source).missCount())
+                .description("Lookups that had to query the database")
+                .tags("cache", cacheName, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, source -> stats.apply(source).evictionCount())
+                .description("Entries dropped for size or expiry")
+                .tags("cache", cacheName)
+                .register(registry);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bank_app.config;
+
+import com.example.bank_app.service.outbox.FileOutboxSink;
+import com.example.bank_app.service.outbox.HttpOutboxSink;
+import com.example.bank_app.service.outbox.OutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    @Bean
+    public OutboxSink outboxSink(OutboxProperties outboxProperties, ObjectMapper objectMapper) {
+        return switch (outboxProperties.getSink()) {
+            case FILE -> new FileOutboxSink(Path.of(outboxProperties.getFile().getPath()), objectMapper);
+            case HTTP -> {
+                OutboxProperties.Http http = outboxProperties.getHttp();
+                if (http.getConnectTimeout().plus(http.getRequestTimeout()).compareTo(outboxProperties.getDispatcher().getClaimTimeout()) >= 0) {
+                    throw new IllegalStateException("bank.outbox.dispatcher.claim-timeout must exceed the HTTP connect and request timeouts, "
+                            + "or a partition could be delivered by two dispatchers at once");
+                }
+                yield new HttpOutboxSink(http, objectMapper);
+            }
+        };
+    }
+}
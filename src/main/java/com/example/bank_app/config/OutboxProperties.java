@@ -0,0 +1,54 @@
+package com.example.bank_app.config;
+
+import com.example.bank_app.common.OutboxSinkType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bank.outbox")
+public class OutboxProperties {
+
+    private OutboxSinkType sink = OutboxSinkType.FILE;
+    private Dispatcher dispatcher = new Dispatcher();
+    private File file = new File();
+    private Http http = new Http();
+
+    @Data
+    public static class Dispatcher {
+
+        private boolean enabled = true;
+        private Duration pollInterval = Duration.ofMillis(500);
+        private int batchSize = 500;
+        /**
+         * Rounds over all partitions per poll while a partition still fills whole batches, so that a growing backlog
+         * does not keep the shared scheduler thread.
+         */
+        private int maxRounds = 10;
+        /**
+         * How long a dispatcher keeps a partition while it delivers a batch. Another dispatcher takes the partition
+         * over when it runs out, so it must exceed the longest publish (the HTTP timeouts) and the clock skew between
+         * instances.
+         */
+        private Duration claimTimeout = Duration.ofSeconds(60);
+    }
+
+    @Data
+    public static class File {
+
+        private String path = "data/outbox/events.ndjson";
+    }
+
+    @Data
+    public static class Http {
+
+        /**
+         * Receives every batch as an NDJSON {@code POST}; required with {@code sink=http}.
+         */
+        private URI url;
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration requestTimeout = Duration.ofSeconds(10);
+    }
+}
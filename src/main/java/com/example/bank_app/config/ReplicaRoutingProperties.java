@@ -0,0 +1,16 @@
+package com.example.bank_app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bank.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration readYourWritesMargin = Duration.ofSeconds(1);
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+    private int recentWritersMaximumSize = 100000;
+}
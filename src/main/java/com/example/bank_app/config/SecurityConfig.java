@@ -1,41 +1,74 @@
 package com.example.bank_app.config;
 
 import com.example.bank_app.repository.CustomerRepository;
+import com.example.bank_app.security.BearerTokenAuthenticationFilter;
+import com.example.bank_app.security.CustomerAuthenticationProvider;
+import com.example.bank_app.security.CustomerUserCache;
+import com.example.bank_app.security.CustomerUserDetails;
+import com.example.bank_app.security.TimedPasswordEncoder;
+import com.example.bank_app.service.auth.AuthTokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
+@EnableConfigurationProperties({AuthTokenProperties.class, CustomerUserCacheProperties.class})
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthTokenService authTokenService) throws Exception {
         http
                 .authorizeHttpRequests(configurer ->
                        configurer
-                               .requestMatchers("/auth/register").permitAll()
+                               // Streaming responses finish on an async dispatch, which the bearer filter does not
+                               // see; the request that started them has been authorized already.
+                               .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                               .requestMatchers("/auth/register", "/auth/login", "/auth/refresh", "/auth/logout").permitAll()
+                               .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
                                .anyRequest().authenticated())
+                .addFilterBefore(new BearerTokenAuthenticationFilter(authTokenService), BasicAuthenticationFilter.class)
                 .httpBasic(Customizer.withDefaults())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .csrf(csrf -> csrf.disable());
 
         return http.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
     UserDetailsService userDetailsService(CustomerRepository customerRepository) {
         return email -> customerRepository
                 .findByEmail(email)
+                .map(customer -> new CustomerUserDetails(customer.getId(), customer.getEmail(), customer.getPassword()))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
+
+    @Bean
+    DaoAuthenticationProvider authenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+                                                     CustomerUserCache customerUserCache) {
+        DaoAuthenticationProvider authenticationProvider = new CustomerAuthenticationProvider();
+        authenticationProvider.setUserDetailsService(userDetailsService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        authenticationProvider.setUserCache(customerUserCache);
+        return authenticationProvider;
+    }
 }
@@ -0,0 +1,20 @@
+package com.example.bank_app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "bank.statement")
+public class StatementProperties {
+
+    private Backfill backfill = new Backfill();
+
+    @Data
+    public static class Backfill {
+
+        private boolean enabled = false;
+        private int chunkSize = 500;
+        private int parallelism = 4;
+        private int maxAttempts = 3;
+    }
+}
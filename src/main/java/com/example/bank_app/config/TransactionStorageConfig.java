@@ -0,0 +1,9 @@
+package com.example.bank_app.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TransactionStorageProperties.class)
+public class TransactionStorageConfig {
+}
@@ -0,0 +1,25 @@
+package com.example.bank_app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bank.transaction-storage")
+public class TransactionStorageProperties {
+
+    private Duration interval = Duration.ofHours(1);
+    private int partitionsAhead = 3;
+    private Archive archive = new Archive();
+
+    @Data
+    public static class Archive {
+
+        private boolean enabled = false;
+        private String directory = "data/transaction-archive";
+        private int hotMonths = 12;
+        private int rowGroupSize = 4096;
+        private int footerCacheSize = 24;
+    }
+}
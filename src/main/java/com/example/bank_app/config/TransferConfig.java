@@ -0,0 +1,59 @@
+package com.example.bank_app.config;
+
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.account.AccountIdentityCache;
+import com.example.bank_app.service.account.AccountNumberIssuer;
+import com.example.bank_app.service.archive.TransactionArchive;
+import com.example.bank_app.service.ledger.LedgerEngine;
+import com.example.bank_app.service.outbox.OutboxService;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import com.example.bank_app.service.transfer.ConditionalUpdateTransferStrategy;
+import com.example.bank_app.service.transfer.LedgerTransferStrategy;
+import com.example.bank_app.service.transfer.OptimisticTransferStrategy;
+import com.example.bank_app.service.transfer.PessimisticTransferStrategy;
+import com.example.bank_app.service.transfer.TransferStrategy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties({TransferProperties.class, LedgerProperties.class})
+public class TransferConfig {
+
+    @Bean
+    public TransferStrategy transferStrategy(TransferProperties transferProperties,
+                                             AccountRepository accountRepository,
+                                             TransactionRepository transactionRepository,
+                                             AccountIdentityCache accountIdentityCache,
+                                             MonthlyStatementService monthlyStatementService,
+                                             OutboxService outboxService,
+                                             AccountNumberIssuer accountNumberIssuer,
+                                             ObjectProvider<LedgerEngine> ledgerEngine) {
+        return switch (transferProperties.getConcurrencyStrategy()) {
+            case PESSIMISTIC -> new PessimisticTransferStrategy(accountRepository, transactionRepository, accountIdentityCache, monthlyStatementService, outboxService, accountNumberIssuer);
+            case OPTIMISTIC -> new OptimisticTransferStrategy(accountRepository, transactionRepository, accountIdentityCache, monthlyStatementService, outboxService, accountNumberIssuer);
+            case CONDITIONAL_UPDATE -> new ConditionalUpdateTransferStrategy(accountRepository, transactionRepository, accountIdentityCache, monthlyStatementService, outboxService, accountNumberIssuer);
+            case LEDGER -> new LedgerTransferStrategy(ledgerEngine.getObject(), accountNumberIssuer);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "bank.transfer.concurrency-strategy", havingValue = "ledger")
+    public LedgerEngine ledgerEngine(LedgerProperties ledgerProperties,
+                                     AccountRepository accountRepository,
+                                     AccountIdentityCache accountIdentityCache,
+                                     TransactionRepository transactionRepository,
+                                     TransactionArchive transactionArchive,
+                                     TransactionTemplate transactionTemplate,
+                                     MonthlyStatementService monthlyStatementService,
+                                     OutboxService outboxService) {
+        return new LedgerEngine(ledgerProperties, accountRepository, accountIdentityCache, transactionRepository, transactionArchive,
+                transactionTemplate, monthlyStatementService, outboxService);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bank_app.config;
+
+import com.example.bank_app.common.TransferConcurrencyStrategy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bank.transfer")
+public class TransferProperties {
+
+    private TransferConcurrencyStrategy concurrencyStrategy = TransferConcurrencyStrategy.CONDITIONAL_UPDATE;
+    private int maxBatchSize = 10000;
+    private Retry retry = new Retry();
+    private Idempotency idempotency = new Idempotency();
+
+    @Data
+    public static class Retry {
+
+        private int maxAttempts = 5;
+        private Duration initialBackoff = Duration.ofMillis(5);
+        private Duration maxBackoff = Duration.ofMillis(100);
+    }
+
+    @Data
+    public static class Idempotency {
+
+        private Duration ttl = Duration.ofHours(24);
+        private long recentMaximumSize = 100_000;
+        private Duration recentTtl = Duration.ofMinutes(10);
+        private Duration cleanupInterval = Duration.ofMinutes(10);
+        private int cleanupBatchSize = 1000;
+    }
+}
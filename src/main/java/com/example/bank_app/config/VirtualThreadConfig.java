@@ -0,0 +1,26 @@
+package com.example.bank_app.config;
+
+import com.example.bank_app.monitoring.VirtualThreadPinningMonitor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Extras for the virtual-thread execution mode ({@code spring.threads.virtual.enabled=true}). Spring Boot
+ * itself moves the Tomcat request executor, the {@code applicationTaskExecutor} (used by {@code @Async} and
+ * asynchronous MVC responses such as the transaction export) and the task scheduler onto virtual threads.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(VirtualThreadProperties.class)
+public class VirtualThreadConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "bank.virtual-threads.pinning-detection.enabled", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(VirtualThreadProperties virtualThreadProperties) {
+        return new VirtualThreadPinningMonitor(virtualThreadProperties.getPinningDetection());
+    }
+}
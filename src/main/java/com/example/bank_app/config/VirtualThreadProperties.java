@@ -0,0 +1,21 @@
+package com.example.bank_app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bank.virtual-threads")
+public class VirtualThreadProperties {
+
+    private PinningDetection pinningDetection = new PinningDetection();
+
+    @Data
+    public static class PinningDetection {
+
+        private boolean enabled = true;
+        private Duration threshold = Duration.ofMillis(20);
+        private int stackDepth = 12;
+    }
+}
@@ -2,16 +2,20 @@ package com.example.bank_app.controller;
 
 import com.example.bank_app.dto.model.AccountDto;
 import com.example.bank_app.dto.request.NewAccountRequest;
-import com.example.bank_app.entity.CustomerEntity;
+import com.example.bank_app.dto.response.AccountBalanceResponse;
+import com.example.bank_app.security.AuthenticatedCustomer;
 import com.example.bank_app.service.AccountService;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -19,14 +23,14 @@ import java.util.List;
 @RequestMapping("accounts")
 public class AccountController {
 
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
     private final AccountService accountService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public AccountDto addNewAccount(@RequestBody NewAccountRequest newAccountRequest, UriComponentsBuilder ucb, HttpServletResponse response) {
-        CustomerEntity customer = (CustomerEntity)SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-
-        AccountDto accountDto = accountService.addNewAccount(customer.getId(), newAccountRequest);
+    public AccountDto addNewAccount(@RequestBody NewAccountRequest newAccountRequest, UriComponentsBuilder ucb, HttpServletResponse response, AuthenticatedCustomer customer) {
+        AccountDto accountDto = accountService.addNewAccount(customer.id(), newAccountRequest);
 
         URI locationOfNewAccount = ucb
                 .path("/accounts/{id}")
@@ -40,24 +44,35 @@ public class AccountController {
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<AccountDto> getAllAccounts() {
-        CustomerEntity customerEntity = (CustomerEntity)SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return accountService.getAllAccounts(customerEntity.getId());
+    public List<AccountDto> getAllAccounts(AuthenticatedCustomer customer) {
+        return accountService.getAllAccounts(customer.id());
     }
 
     @GetMapping("{accountId}")
     @ResponseStatus(HttpStatus.OK)
-    public AccountDto getAccountByIdCustomerId(@PathVariable String accountId) {
-        CustomerEntity customerEntity = (CustomerEntity)SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-
-        AccountDto accountDto = accountService.getAccountByIdAndCustomerId(accountId, customerEntity.getId());
+    public AccountDto getAccountByIdCustomerId(@PathVariable String accountId, AuthenticatedCustomer customer) {
+        AccountDto accountDto = accountService.getAccountByIdAndCustomerId(accountId, customer.id());
         return accountDto;
     }
 
+    @GetMapping("{accountId}/balance")
+    @ResponseStatus(HttpStatus.OK)
+    public AccountBalanceResponse getBalance(@PathVariable String accountId,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+                                             AuthenticatedCustomer customer) {
+        return accountService.getBalanceAt(accountId, customer.id(), at);
+    }
+
+    @GetMapping(value = "{accountId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToActivity(@PathVariable String accountId,
+                                          @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId,
+                                          AuthenticatedCustomer customer) {
+        return accountService.subscribeToActivity(accountId, customer.id(), lastEventId);
+    }
+
     @DeleteMapping("{accountId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteAccountById(@PathVariable String accountId) {
-        CustomerEntity customerEntity = (CustomerEntity) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        accountService.deleteAccountById(accountId, customerEntity.getId());
+    public void deleteAccountById(@PathVariable String accountId, AuthenticatedCustomer customer) {
+        accountService.deleteAccountById(accountId, customer.id());
     }
 }
@@ -2,9 +2,14 @@ package com.example.bank_app.controller;
 
 
 import com.example.bank_app.dto.request.CustomerRegisterRequest;
+import com.example.bank_app.dto.request.LoginRequest;
+import com.example.bank_app.dto.request.RefreshTokenRequest;
+import com.example.bank_app.dto.response.AuthTokenResponse;
 import com.example.bank_app.dto.response.RegisterResponse;
+import com.example.bank_app.exception.InvalidTokenException;
 import com.example.bank_app.service.AuthService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,6 +19,8 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("auth")
 public class AuthController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final AuthService authService;
 
     @PostMapping("register")
@@ -22,5 +29,26 @@ public class AuthController {
         authService.registerCustomer(customerRegisterRequest);
         return new RegisterResponse();
     }
+
+    @PostMapping("login")
+    @ResponseStatus(HttpStatus.OK)
+    public AuthTokenResponse login(@RequestBody LoginRequest loginRequest) {
+        return authService.login(loginRequest);
+    }
+
+    @PostMapping("refresh")
+    @ResponseStatus(HttpStatus.OK)
+    public AuthTokenResponse refresh(@RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return authService.refresh(refreshTokenRequest);
+    }
+
+    @PostMapping("logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            throw new InvalidTokenException();
+        }
+        authService.logout(authorization.substring(BEARER_PREFIX.length()));
+    }
 }
 
@@ -3,11 +3,10 @@ package com.example.bank_app.controller;
 
 
 import com.example.bank_app.dto.model.CustomerDto;
-import com.example.bank_app.entity.CustomerEntity;
+import com.example.bank_app.security.AuthenticatedCustomer;
 import com.example.bank_app.service.CustomerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 
@@ -19,8 +18,7 @@ public class CustomerController {
 
     @GetMapping("me")
     @ResponseStatus(HttpStatus.OK)
-    public CustomerDto getAuthenticatedCustomerById() {
-        CustomerEntity principal = (CustomerEntity)SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return customerService.getAuthenticatedCustomerById(principal.getId());
+    public CustomerDto getAuthenticatedCustomerById(AuthenticatedCustomer customer) {
+        return customerService.getAuthenticatedCustomerById(customer.id());
     }
 }
@@ -1,31 +1,44 @@
 package com.example.bank_app.controller;
 
+import com.example.bank_app.common.TransactionExportFormat;
 import com.example.bank_app.dto.model.TransactionDto;
+import com.example.bank_app.dto.request.NewBatchMoneyTransferRequest;
 import com.example.bank_app.dto.request.NewMoneyTransferRequest;
-import com.example.bank_app.entity.CustomerEntity;
+import com.example.bank_app.dto.request.TransactionHistoryFilter;
+import com.example.bank_app.dto.response.BatchTransferResponse;
+import com.example.bank_app.dto.response.MonthlyStatementResponse;
+import com.example.bank_app.dto.response.TransactionPageResponse;
+import com.example.bank_app.security.AuthenticatedCustomer;
 import com.example.bank_app.service.TransactionService;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 import java.net.URI;
-import java.util.List;
+import java.time.YearMonth;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("accounts")
 public class TransactionController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final TransactionService transactionService;
 
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping("{accountId}/transfer-money")
-    public TransactionDto addNewTransaction(@PathVariable String accountId, @RequestBody NewMoneyTransferRequest newMoneyTransferRequest, UriComponentsBuilder ucb, HttpServletResponse response) {
-        CustomerEntity customerEntity = (CustomerEntity) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-
-        TransactionDto transactionDto = transactionService.addNewTransaction(customerEntity.getId(), accountId, newMoneyTransferRequest);
+    public TransactionDto addNewTransaction(@PathVariable String accountId,
+                                            @RequestBody NewMoneyTransferRequest newMoneyTransferRequest,
+                                            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                            UriComponentsBuilder ucb, HttpServletResponse response, AuthenticatedCustomer customer) {
+        TransactionDto transactionDto = transactionService.addNewTransaction(customer.id(), accountId, newMoneyTransferRequest, idempotencyKey);
 
         URI locationOfNewTransaction = ucb
                 .path("{accountId}/transfer-money/{transactionDto}")
@@ -37,13 +50,56 @@ public class TransactionController {
         return transactionDto;
     }
 
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping("{accountId}/transfer-money/batch")
+    public BatchTransferResponse addNewTransactionBatch(@PathVariable String accountId, @RequestBody NewBatchMoneyTransferRequest newBatchMoneyTransferRequest, AuthenticatedCustomer customer) {
+        return transactionService.addNewTransactionBatch(customer.id(), accountId, newBatchMoneyTransferRequest);
+    }
+
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("{accountId}/transaction-history")
-    public List<TransactionDto> getAllTransactions(@PathVariable String accountId) {
-        CustomerEntity customerEntity = (CustomerEntity)SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    public TransactionPageResponse getTransactionHistory(@PathVariable String accountId,
+                                                         @ModelAttribute TransactionHistoryFilter filter,
+                                                         @RequestParam(required = false) String pageToken,
+                                                         @RequestParam(defaultValue = "50") int size,
+                                                         AuthenticatedCustomer customer) {
+        return transactionService.getTransactionHistory(accountId, customer.id(), filter, pageToken, size);
+    }
 
-        return transactionService.getAllTransactions(accountId, customerEntity.getId());
+    @GetMapping("{accountId}/transaction-history/stream")
+    public ResponseEntity<StreamingResponseBody> streamTransactionHistory(@PathVariable String accountId,
+                                                                          @ModelAttribute TransactionHistoryFilter filter,
+                                                                          AuthenticatedCustomer customer) {
+        StreamingResponseBody body = transactionService.streamTransactionHistory(accountId, customer.id(), filter);
 
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TransactionExportFormat.NDJSON.getContentType()))
+                .body(body);
     }
-}
 
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("{accountId}/statements/{month}")
+    public MonthlyStatementResponse getMonthlyStatement(@PathVariable String accountId, @PathVariable YearMonth month, AuthenticatedCustomer customer) {
+        return transactionService.getMonthlyStatement(accountId, customer.id(), month);
+    }
+
+    @GetMapping("{accountId}/transaction-history/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@PathVariable String accountId,
+                                                                    @RequestParam(defaultValue = "NDJSON") TransactionExportFormat format,
+                                                                    @RequestParam(defaultValue = "false") boolean gzip,
+                                                                    @ModelAttribute TransactionHistoryFilter filter,
+                                                                    AuthenticatedCustomer customer) {
+        StreamingResponseBody body = transactionService.exportTransactions(accountId, customer.id(), filter, format, gzip);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions-" + accountId + "." + format.getFileExtension())
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.bank_app.datasource;
+
+import com.example.bank_app.config.ReplicaRoutingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Polls how far the replica is behind the primary. On MySQL that is {@code Seconds_Behind_Source} of
+ * {@code SHOW REPLICA STATUS}; a replica whose SQL thread is stopped, that cannot be reached, or that is further
+ * behind than {@code max-lag} is not used at all until a later check finds it healthy again.
+ *
+ * <p>An instance that is not replicating from anywhere (no replica status row, or a database other than MySQL)
+ * reports no lag, so two independent local databases can stand in for a primary and its replica.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    private volatile Duration lag;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, ReplicaRoutingProperties properties) {
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.maxLag = properties.getMaxLag();
+    }
+
+    @Scheduled(fixedDelayString = "${bank.datasource.routing.lag-check-interval:PT1S}")
+    public void check() {
+        Duration measured = measure();
+        boolean wasUsable = isUsable(lag);
+        lag = measured;
+        if (wasUsable != isUsable(measured)) {
+            if (isUsable(measured)) {
+                log.info("Replica is usable again, {}s behind the primary", measured.toSeconds());
+            } else {
+                log.warn("Replica is {}; reads go to the primary", measured == null ? "unavailable" : measured.toSeconds() + "s behind");
+            }
+        }
+    }
+
+    /**
+     * The replica lag as of the last check; empty while the replica must not serve reads.
+     */
+    public Optional<Duration> currentLag() {
+        Duration current = lag;
+        return isUsable(current) ? Optional.of(current) : Optional.empty();
+    }
+
+    public double lagSeconds() {
+        Duration current = lag;
+        return current == null ? Double.NaN : current.toMillis() / 1000.0;
+    }
+
+    private boolean isUsable(Duration measured) {
+        return measured != null && measured.compareTo(maxLag) <= 0;
+    }
+
+    private Duration measure() {
+        try {
+            return replica.execute((ConnectionCallback<Duration>) connection -> {
+                if (!"MySQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                    return Duration.ZERO;
+                }
+                try (Statement statement = connection.createStatement();
+                     ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+                    if (!status.next()) {
+                        return Duration.ZERO;
+                    }
+                    long seconds = status.getLong("Seconds_Behind_Source");
+                    return status.wasNull() ? null : Duration.ofSeconds(seconds);
+                }
+            });
+        } catch (DataAccessException ex) {
+            log.debug("Replica lag check failed", ex);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.bank_app.datasource;
+
+import com.example.bank_app.config.ReplicaRoutingProperties;
+import com.example.bank_app.security.AuthenticatedCustomer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sends the connections of {@code @Transactional(readOnly = true)} work to the replica and everything else to the
+ * primary. Must sit behind a {@code LazyConnectionDataSourceProxy}, so the connection is only fetched once the
+ * transaction, and with it the read-only flag, has been set up.
+ *
+ * <p>Only read-only transactions declared by the service layer are routed. Spring Data repositories open a
+ * read-only transaction of their own for every finder called outside a transaction, and those calls are usually
+ * the read half of a read-then-write flow (registration, the archiver), which must see the primary.
+ *
+ * <p>Read-your-writes: when a read-write transaction of an authenticated customer commits, that customer's
+ * read-only transactions keep going to the primary for the current replica lag plus a margin, so a customer
+ * never reads a replica that has not caught up with their own transfer. Reads also go to the primary while the
+ * {@link ReplicaLagMonitor} considers the replica unusable.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {PRIMARY, REPLICA}
+
+    private static final String SERVICE_PACKAGE = "com.example.bank_app.service.";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Duration readYourWritesMargin;
+    private final Cache<String, Long> recentWriters;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor, ReplicaRoutingProperties properties) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesMargin = properties.getReadYourWritesMargin();
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(properties.getRecentWritersMaximumSize())
+                .expireAfterWrite(properties.getMaxLag().plus(readYourWritesMargin))
+                .build();
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+        String customerId = currentCustomerId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (customerId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(customerId, System.nanoTime());
+                    }
+                });
+            }
+            return Target.PRIMARY;
+        }
+
+        String transactionName = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (transactionName == null || !transactionName.startsWith(SERVICE_PACKAGE)) {
+            return Target.PRIMARY;
+        }
+        Optional<Duration> lag = lagMonitor.currentLag();
+        if (lag.isEmpty() || (customerId != null && wroteWithin(customerId, lag.get().plus(readYourWritesMargin)))) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    private boolean wroteWithin(String customerId, Duration window) {
+        Long committedAt = recentWriters.getIfPresent(customerId);
+        return committedAt != null && System.nanoTime() - committedAt <= window.toNanos();
+    }
+
+    private static String currentCustomerId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedCustomer customer) {
+            return customer.id();
+        }
+        return null;
+    }
+}
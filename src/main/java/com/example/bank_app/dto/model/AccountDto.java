@@ -1,18 +1,22 @@
 package com.example.bank_app.dto.model;
 
+import com.example.bank_app.common.Money;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class AccountDto {
 
     private String id;
     private String customerId;
     private String accountNumber;
-    private BigDecimal balance;
+    private Money balance;
     private LocalDateTime createdAt;
 }
@@ -1,21 +1,25 @@
 package com.example.bank_app.dto.model;
 
+import com.example.bank_app.common.Money;
 import com.example.bank_app.common.TransactionType;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class TransactionDto {
 
     private String id;
     private String senderAccountId;
     private String receiverAccountId;
     private TransactionType transactionType;
-    private BigDecimal amount;
+    private Money amount;
     private LocalDateTime date;
     private String description;
 }
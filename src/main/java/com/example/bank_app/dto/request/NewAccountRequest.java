@@ -1,11 +1,10 @@
 package com.example.bank_app.dto.request;
 
+import com.example.bank_app.common.Money;
 import lombok.Data;
 
-import java.math.BigDecimal;
-
 @Data
 public class NewAccountRequest {
 
-    private BigDecimal initialBalance;
+    private Money initialBalance;
 }
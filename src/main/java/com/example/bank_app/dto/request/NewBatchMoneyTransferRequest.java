@@ -0,0 +1,17 @@
+package com.example.bank_app.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewBatchMoneyTransferRequest {
+
+    private List<NewMoneyTransferRequest> transfers;
+}
@@ -1,15 +1,14 @@
 package com.example.bank_app.dto.request;
 
+import com.example.bank_app.common.Money;
 import lombok.Builder;
 import lombok.Data;
 
-import java.math.BigDecimal;
-
 @Data
 @Builder
 public class NewMoneyTransferRequest {
 
-    private BigDecimal amount;
+    private Money amount;
     private String receiverAccountNumber;
     private String description;
 }
@@ -0,0 +1,34 @@
+package com.example.bank_app.dto.request;
+
+import com.example.bank_app.common.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Filter shared by the transaction history, stream and export endpoints, bound from the {@code from}, {@code to},
+ * {@code type}, {@code minAmount} and {@code maxAmount} request parameters.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryFilter {
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+    private TransactionType transactionType;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+
+    public void setType(TransactionType type) {
+        this.transactionType = type;
+    }
+}
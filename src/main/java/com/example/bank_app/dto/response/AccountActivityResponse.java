@@ -0,0 +1,19 @@
+package com.example.bank_app.dto.response;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.dto.model.TransactionDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountActivityResponse {
+
+    private String accountId;
+    private Money balanceChange;
+    private TransactionDto transaction;
+}
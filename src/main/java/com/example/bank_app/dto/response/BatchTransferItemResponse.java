@@ -0,0 +1,20 @@
+package com.example.bank_app.dto.response;
+
+import com.example.bank_app.common.BatchTransferStatus;
+import com.example.bank_app.dto.model.TransactionDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferItemResponse {
+
+    private int index;
+    private BatchTransferStatus status;
+    private TransactionDto transaction;
+    private String message;
+}
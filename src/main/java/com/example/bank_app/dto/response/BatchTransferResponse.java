@@ -0,0 +1,19 @@
+package com.example.bank_app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferResponse {
+
+    private int accepted;
+    private int rejected;
+    private List<BatchTransferItemResponse> results;
+}
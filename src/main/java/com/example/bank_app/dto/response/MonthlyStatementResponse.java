@@ -0,0 +1,24 @@
+package com.example.bank_app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyStatementResponse {
+
+    private String accountId;
+    private YearMonth month;
+    private BigDecimal openingBalance;
+    private BigDecimal totalIn;
+    private BigDecimal totalOut;
+    private long transactionCount;
+    private BigDecimal closingBalance;
+}
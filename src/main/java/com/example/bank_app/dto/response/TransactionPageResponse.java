@@ -0,0 +1,19 @@
+package com.example.bank_app.dto.response;
+
+import com.example.bank_app.dto.model.TransactionDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPageResponse {
+
+    private List<TransactionDto> transactions;
+    private String nextPageToken;
+}
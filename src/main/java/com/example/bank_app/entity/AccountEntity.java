@@ -1,5 +1,6 @@
 package com.example.bank_app.entity;
 
+import com.example.bank_app.common.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,7 +8,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -15,7 +15,9 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "account")
+@Table(name = "account",
+        uniqueConstraints = @UniqueConstraint(name = "uk_account_account_number", columnNames = "account_number"),
+        indexes = @Index(name = "idx_account_customer_id", columnList = "customer_id"))
 public class AccountEntity {
 
     @Id
@@ -29,10 +31,14 @@ public class AccountEntity {
     @Column(name = "account_number")
     private String accountNumber;
 
-    @Column(name = "balance")
-    private BigDecimal balance;
+    @Column(name = "balance", precision = 38, scale = Money.SCALE)
+    private Money balance;
 
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
+
+    @Version
+    @Column(name = "version")
+    private long version;
 }
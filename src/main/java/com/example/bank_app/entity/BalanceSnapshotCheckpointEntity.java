@@ -0,0 +1,34 @@
+package com.example.bank_app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "balance_snapshot_checkpoint",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_snapshot_checkpoint_previous", columnNames = "previous_as_of"))
+public class BalanceSnapshotCheckpointEntity {
+
+    @Id
+    @Column(name = "as_of")
+    private LocalDateTime asOf;
+
+    @Column(name = "previous_as_of", nullable = false)
+    private LocalDateTime previousAsOf;
+
+    @Column(name = "accounts", nullable = false)
+    private int accounts;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
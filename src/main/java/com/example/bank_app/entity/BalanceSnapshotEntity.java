@@ -0,0 +1,34 @@
+package com.example.bank_app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "balance_snapshot",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_snapshot_account_as_of", columnNames = {"account_id", "as_of"}))
+public class BalanceSnapshotEntity {
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "account_id", nullable = false)
+    private String accountId;
+
+    @Column(name = "as_of", nullable = false)
+    private LocalDateTime asOf;
+
+    @Column(name = "balance", nullable = false)
+    private BigDecimal balance;
+}
@@ -0,0 +1,40 @@
+package com.example.bank_app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "monthly_statement",
+        uniqueConstraints = @UniqueConstraint(name = "uk_monthly_statement_account_month", columnNames = {"account_id", "statement_month"}))
+public class MonthlyStatementEntity {
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "account_id", nullable = false)
+    private String accountId;
+
+    @Column(name = "statement_month", nullable = false)
+    private LocalDate statementMonth;
+
+    @Column(name = "total_in", nullable = false)
+    private BigDecimal totalIn;
+
+    @Column(name = "total_out", nullable = false)
+    private BigDecimal totalOut;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+}
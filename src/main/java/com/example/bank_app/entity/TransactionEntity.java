@@ -1,15 +1,13 @@
 package com.example.bank_app.entity;
 
-
+import com.example.bank_app.common.Money;
 import com.example.bank_app.common.TransactionType;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -17,7 +15,11 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "transaction")
+@Table(name = "transaction", indexes = {
+        @Index(name = "idx_transaction_sender_date", columnList = "sender_account_id, date, id"),
+        @Index(name = "idx_transaction_receiver_date", columnList = "receiver_account_id, date, id"),
+        @Index(name = "idx_transaction_date", columnList = "date")
+})
 public class TransactionEntity {
 
     @Id
@@ -35,13 +37,21 @@ public class TransactionEntity {
     @Column(name = "transaction_type")
     private TransactionType transactionType;
 
-    @Column(name = "amount")
-    private BigDecimal amount;
+    @Column(name = "amount", precision = 38, scale = Money.SCALE)
+    private Money amount;
 
-    @CreationTimestamp
-    @Column(name = "date")
+    @Column(name = "date", nullable = false)
     private LocalDateTime date;
 
     @Column(name = "description")
     private String description;
+
+    // Stamped on persist rather than at flush, so callers in the same transaction (the monthly rollups) already
+    // see the date; a date assigned up front is kept.
+    @PrePersist
+    void stampDate() {
+        if (date == null) {
+            date = LocalDateTime.now();
+        }
+    }
 }
@@ -0,0 +1,4 @@
+package com.example.bank_app.event;
+
+public record AccountDeletedEvent(String accountId, String customerId, String accountNumber) {
+}
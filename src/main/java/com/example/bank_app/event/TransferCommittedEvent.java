@@ -0,0 +1,6 @@
+package com.example.bank_app.event;
+
+import com.example.bank_app.entity.TransactionEntity;
+
+public record TransferCommittedEvent(TransactionEntity transaction) {
+}
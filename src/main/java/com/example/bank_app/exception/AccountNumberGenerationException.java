@@ -0,0 +1,8 @@
+package com.example.bank_app.exception;
+
+public class AccountNumberGenerationException extends RuntimeException {
+
+    public AccountNumberGenerationException(int attempts) {
+        super("Could not allocate a unique account number after " + attempts + " attempts. Please try again.");
+    }
+}
@@ -1,10 +1,10 @@
 package com.example.bank_app.exception;
 
-import java.math.BigDecimal;
+import com.example.bank_app.common.Money;
 
 public class BalanceIsNotEnoughException extends RuntimeException{
 
-    public BalanceIsNotEnoughException(BigDecimal balance) {
+    public BalanceIsNotEnoughException(Money balance) {
         super("Balance is not enough for this transfer! Your balance: " + balance );
     }
 }
@@ -0,0 +1,8 @@
+package com.example.bank_app.exception;
+
+public class BatchTransferSizeException extends RuntimeException {
+
+    public BatchTransferSizeException(int maxBatchSize) {
+        super("A batch must contain between 1 and " + maxBatchSize + " transfers!");
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.bank_app.exception;
+
+public class InvalidCredentialsException extends RuntimeException {
+
+    public InvalidCredentialsException() {
+        super("Invalid email or password!");
+    }
+}
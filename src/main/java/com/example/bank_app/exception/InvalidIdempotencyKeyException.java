@@ -0,0 +1,8 @@
+package com.example.bank_app.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+
+    public InvalidIdempotencyKeyException(int maxLength) {
+        super("Invalid Idempotency-Key header! It must not be blank and must be at most " + maxLength + " characters long.");
+    }
+}
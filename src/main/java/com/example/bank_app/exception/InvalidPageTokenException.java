@@ -0,0 +1,8 @@
+package com.example.bank_app.exception;
+
+public class InvalidPageTokenException extends RuntimeException {
+
+    public InvalidPageTokenException() {
+        super("Invalid page token! Please use the nextPageToken returned by the previous page.");
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.bank_app.exception;
+
+public class InvalidTokenException extends RuntimeException {
+
+    public InvalidTokenException() {
+        super("Invalid or expired token! Please log in again.");
+    }
+}
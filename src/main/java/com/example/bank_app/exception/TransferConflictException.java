@@ -0,0 +1,8 @@
+package com.example.bank_app.exception;
+
+public class TransferConflictException extends RuntimeException {
+
+    public TransferConflictException(int attempts) {
+        super("Transfer could not be completed because of concurrent updates after " + attempts + " attempts. Please try again.");
+    }
+}
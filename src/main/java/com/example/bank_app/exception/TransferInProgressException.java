@@ -0,0 +1,8 @@
+package com.example.bank_app.exception;
+
+public class TransferInProgressException extends RuntimeException {
+
+    public TransferInProgressException(String idempotencyKey) {
+        super("The transfer with idempotency key " + idempotencyKey + " is still being processed. Please retry later.");
+    }
+}
@@ -3,55 +3,130 @@ package com.example.bank_app.exception.handler;
 
 import com.example.bank_app.dto.response.ErrorResponse;
 import com.example.bank_app.exception.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    static final String ERROR_METRIC_NAME = "bank.errors";
+
+    private final MeterRegistry meterRegistry;
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(EmailAlreadyExistsException.class)
     protected ErrorResponse handleEmailAlreadyExistsException(EmailAlreadyExistsException ex) {
-        return new ErrorResponse(ex.getMessage());
+        return errorResponse(ex);
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(CustomerNotFoundException.class)
     protected ErrorResponse handleCustomerNotFoundException(CustomerNotFoundException ex) {
-        return new ErrorResponse(ex.getMessage());
+        return errorResponse(ex);
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(AccountNotFoundException.class)
     protected ErrorResponse handleAccountNotFoundException(AccountNotFoundException ex) {
-        return new ErrorResponse(ex.getMessage());
+        return errorResponse(ex);
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(AccountCreationException.class)
     protected ErrorResponse handleAccountCreationException(AccountCreationException ex) {
-        return new ErrorResponse(ex.getMessage());
+        return errorResponse(ex);
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(BalanceIsNotEnoughException.class)
     protected ErrorResponse handleBalanceIsNotEnoughException(BalanceIsNotEnoughException ex) {
-        return new ErrorResponse(ex.getMessage());
+        return errorResponse(ex);
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(InvalidAmountException.class)
     protected ErrorResponse handleInvalidAmountException(InvalidAmountException ex) {
-        return new ErrorResponse(ex.getMessage());
+        return errorResponse(ex);
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(AccountNotFoundByNumberException.class)
     protected ErrorResponse handleAccountNotFoundByNumberException(AccountNotFoundByNumberException ex) {
-        return new ErrorResponse(ex.getMessage());
+        return errorResponse(ex);
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(InvalidAccountNumberException.class)
+    protected ErrorResponse handleInvalidAccountNumberException(InvalidAccountNumberException ex) {
+        return errorResponse(ex);
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(BatchTransferSizeException.class)
+    protected ErrorResponse handleBatchTransferSizeException(BatchTransferSizeException ex) {
+        return errorResponse(ex);
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(InvalidPageTokenException.class)
+    protected ErrorResponse handleInvalidPageTokenException(InvalidPageTokenException ex) {
+        return errorResponse(ex);
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    protected ErrorResponse handleInvalidIdempotencyKeyException(InvalidIdempotencyKeyException ex) {
+        return errorResponse(ex);
+    }
+
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    @ExceptionHandler(InvalidCredentialsException.class)
+    protected ErrorResponse handleInvalidCredentialsException(InvalidCredentialsException ex) {
+        return errorResponse(ex);
+    }
+
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    @ExceptionHandler(InvalidTokenException.class)
+    protected ErrorResponse handleInvalidTokenException(InvalidTokenException ex) {
+        return errorResponse(ex);
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(TransferConflictException.class)
+    protected ErrorResponse handleTransferConflictException(TransferConflictException ex) {
+        return errorResponse(ex);
     }
-}
 
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    protected ErrorResponse handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex) {
+        return errorResponse(ex);
+    }
 
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(TransferInProgressException.class)
+    protected ErrorResponse handleTransferInProgressException(TransferInProgressException ex) {
+        return errorResponse(ex);
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(AccountNumberGenerationException.class)
+    protected ErrorResponse handleAccountNumberGenerationException(AccountNumberGenerationException ex) {
+        return errorResponse(ex);
+    }
+
+    private ErrorResponse errorResponse(RuntimeException ex) {
+        Counter.builder(ERROR_METRIC_NAME)
+                .description("Requests answered with a handled error, by exception type")
+                .tag("exception", ex.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+        return new ErrorResponse(ex.getMessage());
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bank_app.mapper;
+
+import com.example.bank_app.dto.model.AccountDto;
+import com.example.bank_app.entity.AccountEntity;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+@Mapper(config = MappingConfig.class)
+public interface AccountMapper {
+
+    AccountDto toAccountDto(AccountEntity accountEntity);
+
+    List<AccountDto> toAccountDtos(List<AccountEntity> accountEntities);
+}
@@ -0,0 +1,11 @@
+package com.example.bank_app.mapper;
+
+import com.example.bank_app.dto.model.CustomerDto;
+import com.example.bank_app.entity.CustomerEntity;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MappingConfig.class)
+public interface CustomerMapper {
+
+    CustomerDto toCustomerDto(CustomerEntity customerEntity);
+}
@@ -0,0 +1,37 @@
+package com.example.bank_app.mapper;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.dto.model.TransactionDto;
+import com.example.bank_app.dto.response.AccountActivityResponse;
+import com.example.bank_app.entity.TransactionEntity;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+@Mapper(config = MappingConfig.class)
+public interface TransactionMapper {
+
+    TransactionDto toTransactionDto(TransactionEntity transactionEntity);
+
+    List<TransactionDto> toTransactionDtos(List<TransactionEntity> transactionEntities);
+
+    /**
+     * The transaction as seen from one of its accounts. INITIAL only credits the account; a transfer to the same
+     * account debits and credits it, so its balance change is zero.
+     */
+    default AccountActivityResponse toAccountActivityResponse(String accountId, TransactionEntity transactionEntity) {
+        Money balanceChange = Money.ZERO;
+        if (accountId.equals(transactionEntity.getReceiverAccountId())) {
+            balanceChange = balanceChange.plus(transactionEntity.getAmount());
+        }
+        if (accountId.equals(transactionEntity.getSenderAccountId()) && transactionEntity.getTransactionType() != TransactionType.INITIAL) {
+            balanceChange = balanceChange.minus(transactionEntity.getAmount());
+        }
+        return AccountActivityResponse.builder()
+                .accountId(accountId)
+                .balanceChange(balanceChange)
+                .transaction(toTransactionDto(transactionEntity))
+                .build();
+    }
+}
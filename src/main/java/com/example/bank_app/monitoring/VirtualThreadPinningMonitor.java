@@ -0,0 +1,87 @@
+package com.example.bank_app.monitoring;
+
+import com.example.bank_app.config.VirtualThreadProperties;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the JDK's {@code jdk.VirtualThreadPinned} flight recorder events in-process and logs every virtual
+ * thread that blocked for longer than the threshold while pinned to its carrier, typically by parking inside a
+ * {@code synchronized} block or a native frame (JDBC driver, connection pool, cache loader). Each pinned thread
+ * holds one of the few carrier threads, so a pinned JDBC call caps throughput at the carrier count instead of
+ * the connection pool size.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final VirtualThreadProperties.PinningDetection properties;
+    private final AtomicLong pinnedCount = new AtomicLong();
+    private volatile RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(VirtualThreadProperties.PinningDetection properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(properties.getThreshold()).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        recordingStream = stream;
+        log.info("Reporting virtual threads pinned for longer than {} ms", properties.getThreshold().toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream stream = recordingStream;
+        recordingStream = null;
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    public long getPinnedCount() {
+        return pinnedCount.get();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCount.incrementAndGet();
+        log.warn("Virtual thread {} was pinned to its carrier for {} ms at\n{}",
+                describeThread(event), event.getDuration().toMillis(), describeStack(event));
+    }
+
+    private String describeThread(RecordedEvent event) {
+        if (event.getThread() == null) {
+            return "<unknown>";
+        }
+        String name = event.getThread().getJavaName();
+        return "#" + event.getThread().getJavaThreadId() + (name == null || name.isEmpty() ? "" : " (" + name + ")");
+    }
+
+    private String describeStack(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "\t<no stack trace>";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+                .limit(properties.getStackDepth())
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
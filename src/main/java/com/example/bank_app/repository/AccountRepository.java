@@ -1,16 +1,51 @@
 package com.example.bank_app.repository;
 
+import com.example.bank_app.common.AccountIdentity;
 import com.example.bank_app.entity.AccountEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface AccountRepository extends JpaRepository<AccountEntity, String> {
+public interface AccountRepository extends JpaRepository<AccountEntity, String>, AccountRepositoryCustom {
 
-    Optional<AccountEntity> findByAccountNumber(String accountNumber);
+    boolean existsByAccountNumber(String accountNumber);
 
     Optional<AccountEntity> findByIdAndCustomerId(String accountId, String customerId);
 
     List<AccountEntity> findAllByCustomerId(String customerId);
+
+    @Query("SELECT new com.example.bank_app.common.AccountIdentity(a.id, a.accountNumber, a.customerId) FROM AccountEntity a WHERE a.id = :accountId")
+    Optional<AccountIdentity> findIdentityById(@Param("accountId") String accountId);
+
+    @Query("SELECT new com.example.bank_app.common.AccountIdentity(a.id, a.accountNumber, a.customerId) FROM AccountEntity a WHERE a.accountNumber = :accountNumber")
+    Optional<AccountIdentity> findIdentityByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Query("SELECT new com.example.bank_app.common.AccountIdentity(a.id, a.accountNumber, a.customerId) FROM AccountEntity a WHERE a.accountNumber IN :accountNumbers")
+    List<AccountIdentity> findIdentitiesByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AccountEntity a WHERE a.id = :accountId")
+    Optional<AccountEntity> findByIdForUpdate(@Param("accountId") String accountId);
+
+    @Query(nativeQuery = true, value = "SELECT id FROM account WHERE id IN (?1) ORDER BY id FOR UPDATE")
+    List<String> lockAllById(Collection<String> accountIds);
+
+    @Query(nativeQuery = true, value = "SELECT id FROM account WHERE id > ?1 ORDER BY id LIMIT ?2")
+    List<String> findIdsAfter(String afterId, int limit);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE account SET balance = balance - ?3, version = version + 1 WHERE id = ?1 AND customer_id = ?2 AND balance >= ?3")
+    int debitIfBalanceEnough(String accountId, String customerId, BigDecimal amount);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE account SET balance = balance + ?2, version = version + 1 WHERE id = ?1")
+    int credit(String accountId, BigDecimal amount);
 }
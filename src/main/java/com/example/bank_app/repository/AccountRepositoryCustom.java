@@ -0,0 +1,13 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.common.Money;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+public interface AccountRepositoryCustom {
+
+    void applyBalanceDeltas(Map<String, Money> deltasByAccountId);
+
+    void forEachAccountNumber(Consumer<String> accountNumberConsumer);
+}
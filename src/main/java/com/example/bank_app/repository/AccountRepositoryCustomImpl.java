@@ -0,0 +1,44 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.common.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+
+    private static final String APPLY_BALANCE_DELTA = "UPDATE account SET balance = balance + ?, version = version + 1 WHERE id = ?";
+
+    private static final String SELECT_ACCOUNT_NUMBERS = "SELECT account_number FROM account";
+    private static final int ACCOUNT_NUMBER_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void applyBalanceDeltas(Map<String, Money> deltasByAccountId) {
+        if (deltasByAccountId.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, Money>> deltas = List.copyOf(deltasByAccountId.entrySet());
+        jdbcTemplate.batchUpdate(APPLY_BALANCE_DELTA, deltas, deltas.size(), (ps, delta) -> {
+            ps.setBigDecimal(1, delta.getValue().toBigDecimal());
+            ps.setString(2, delta.getKey());
+        });
+    }
+
+    @Override
+    public void forEachAccountNumber(Consumer<String> accountNumberConsumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_ACCOUNT_NUMBERS, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(ACCOUNT_NUMBER_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> accountNumberConsumer.accept(rs.getString(1)));
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.entity.BalanceSnapshotCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface BalanceSnapshotCheckpointRepository extends JpaRepository<BalanceSnapshotCheckpointEntity, LocalDateTime> {
+
+    Optional<BalanceSnapshotCheckpointEntity> findFirstByOrderByAsOfDesc();
+}
@@ -0,0 +1,24 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.entity.BalanceSnapshotEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshotEntity, String>, BalanceSnapshotRepositoryCustom {
+
+    Optional<BalanceSnapshotEntity> findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(String accountId, LocalDateTime at);
+
+    @Query(nativeQuery = true, value = "SELECT s.* FROM balance_snapshot s WHERE s.account_id IN (?1) " +
+            "AND s.as_of = (SELECT MAX(latest.as_of) FROM balance_snapshot latest WHERE latest.account_id = s.account_id)")
+    List<BalanceSnapshotEntity> findLatestByAccountIdIn(Collection<String> accountIds);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM balance_snapshot WHERE account_id = ?1")
+    int deleteByAccountId(String accountId);
+}
@@ -0,0 +1,10 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.entity.BalanceSnapshotEntity;
+
+import java.util.List;
+
+public interface BalanceSnapshotRepositoryCustom {
+
+    void insertAllWithAssignedIds(List<BalanceSnapshotEntity> snapshots);
+}
@@ -0,0 +1,26 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.entity.BalanceSnapshotEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BalanceSnapshotRepositoryCustomImpl implements BalanceSnapshotRepositoryCustom {
+
+    private static final String INSERT_SNAPSHOT = "INSERT INTO balance_snapshot (id, account_id, as_of, balance) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAllWithAssignedIds(List<BalanceSnapshotEntity> snapshots) {
+        jdbcTemplate.batchUpdate(INSERT_SNAPSHOT, snapshots, snapshots.size(), (ps, snapshot) -> {
+            ps.setString(1, snapshot.getId());
+            ps.setString(2, snapshot.getAccountId());
+            ps.setTimestamp(3, Timestamp.valueOf(snapshot.getAsOf()));
+            ps.setBigDecimal(4, snapshot.getBalance());
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.entity.MonthlyStatementEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface MonthlyStatementRepository extends JpaRepository<MonthlyStatementEntity, String>, MonthlyStatementRepositoryCustom {
+
+    Optional<MonthlyStatementEntity> findByAccountIdAndStatementMonth(String accountId, LocalDate statementMonth);
+
+    @Query(nativeQuery = true, value = "SELECT COALESCE(SUM(total_in - total_out), 0) FROM monthly_statement WHERE account_id = ?1 AND statement_month < ?2")
+    BigDecimal sumNetChangeBefore(String accountId, LocalDate statementMonth);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM monthly_statement WHERE account_id IN (?1)")
+    int deleteByAccountIdIn(Collection<String> accountIds);
+}
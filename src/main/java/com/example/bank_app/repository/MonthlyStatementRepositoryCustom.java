@@ -0,0 +1,10 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.entity.MonthlyStatementEntity;
+
+import java.util.List;
+
+public interface MonthlyStatementRepositoryCustom {
+
+    void addAll(List<MonthlyStatementEntity> rollups);
+}
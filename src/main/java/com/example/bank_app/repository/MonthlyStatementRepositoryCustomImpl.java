@@ -0,0 +1,37 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.entity.MonthlyStatementEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class MonthlyStatementRepositoryCustomImpl implements MonthlyStatementRepositoryCustom {
+
+    private static final String ADD_ROLLUP = "INSERT INTO monthly_statement " +
+            "(id, account_id, statement_month, total_in, total_out, transaction_count) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE total_in = total_in + VALUES(total_in), total_out = total_out + VALUES(total_out), " +
+            "transaction_count = transaction_count + VALUES(transaction_count)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Adds each rollup onto the stored (account, month) row, creating it when missing. Callers pass the rows in
+    // (account, month) order so concurrent transfers take the row locks in the same order.
+    @Override
+    public void addAll(List<MonthlyStatementEntity> rollups) {
+        if (rollups.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_ROLLUP, rollups, rollups.size(), (ps, rollup) -> {
+            ps.setString(1, UUID.randomUUID().toString());
+            ps.setString(2, rollup.getAccountId());
+            ps.setDate(3, Date.valueOf(rollup.getStatementMonth()));
+            ps.setBigDecimal(4, rollup.getTotalIn());
+            ps.setBigDecimal(5, rollup.getTotalOut());
+            ps.setLong(6, rollup.getTransactionCount());
+        });
+    }
+}
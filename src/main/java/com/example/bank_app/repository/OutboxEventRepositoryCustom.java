@@ -0,0 +1,22 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.entity.OutboxEventEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepositoryCustom {
+
+    void insertAll(List<OutboxEventEntity> events);
+
+    boolean tryLockUnclaimedPartition(int partitionId, LocalDateTime now);
+
+    void claimPartition(int partitionId, String claimant, LocalDateTime claimedUntil);
+
+    boolean releasePartition(int partitionId, String claimant);
+
+    List<OutboxEventEntity> findOldestByPartition(int partitionId, int limit);
+
+    Optional<LocalDateTime> findOldestCreatedAt();
+}
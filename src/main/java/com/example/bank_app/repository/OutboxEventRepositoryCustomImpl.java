@@ -0,0 +1,84 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.common.OutboxEventType;
+import com.example.bank_app.entity.OutboxEventEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class OutboxEventRepositoryCustomImpl implements OutboxEventRepositoryCustom {
+
+    private static final String INSERT_EVENT = "INSERT INTO outbox_event " +
+            "(partition_id, account_id, event_type, payload, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String LOCK_UNCLAIMED_PARTITION = "SELECT id FROM outbox_partition " +
+            "WHERE id = ? AND (claimed_until IS NULL OR claimed_until < ?) FOR UPDATE SKIP LOCKED";
+
+    private static final String CLAIM_PARTITION = "UPDATE outbox_partition SET claimed_by = ?, claimed_until = ? WHERE id = ?";
+
+    private static final String RELEASE_PARTITION = "UPDATE outbox_partition SET claimed_by = NULL, claimed_until = NULL " +
+            "WHERE id = ? AND claimed_by = ?";
+
+    private static final String OLDEST_BY_PARTITION = "SELECT id, partition_id, account_id, event_type, payload, created_at " +
+            "FROM outbox_event WHERE partition_id = ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<OutboxEventEntity> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (ps, event) -> {
+            ps.setInt(1, event.getPartitionId());
+            ps.setString(2, event.getAccountId());
+            ps.setString(3, event.getEventType().name());
+            ps.setString(4, event.getPayload());
+            ps.setTimestamp(5, Timestamp.valueOf(event.getCreatedAt()));
+        });
+    }
+
+    // Held until the calling transaction ends; false, without waiting, when another transaction holds the partition
+    // or another dispatcher's claim on it has not expired.
+    @Override
+    public boolean tryLockUnclaimedPartition(int partitionId, LocalDateTime now) {
+        return !jdbcTemplate.queryForList(LOCK_UNCLAIMED_PARTITION, Integer.class, partitionId, Timestamp.valueOf(now)).isEmpty();
+    }
+
+    @Override
+    public void claimPartition(int partitionId, String claimant, LocalDateTime claimedUntil) {
+        jdbcTemplate.update(CLAIM_PARTITION, claimant, Timestamp.valueOf(claimedUntil), partitionId);
+    }
+
+    // False when the claim expired and the partition has been claimed by someone else since.
+    @Override
+    public boolean releasePartition(int partitionId, String claimant) {
+        return jdbcTemplate.update(RELEASE_PARTITION, partitionId, claimant) > 0;
+    }
+
+    @Override
+    public List<OutboxEventEntity> findOldestByPartition(int partitionId, int limit) {
+        return jdbcTemplate.query(OLDEST_BY_PARTITION, (rs, rowNum) -> OutboxEventEntity.builder()
+                .id(rs.getLong("id"))
+                .partitionId(rs.getInt("partition_id"))
+                .accountId(rs.getString("account_id"))
+                .eventType(OutboxEventType.valueOf(rs.getString("event_type")))
+                .payload(rs.getString("payload"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build(), partitionId, limit);
+    }
+
+    // The lowest id is the oldest event up to commit order, and is a primary key lookup.
+    @Override
+    public Optional<LocalDateTime> findOldestCreatedAt() {
+        return jdbcTemplate.query("SELECT created_at FROM outbox_event ORDER BY id LIMIT 1",
+                        (rs, rowNum) -> rs.getTimestamp("created_at").toLocalDateTime())
+                .stream()
+                .findFirst();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.common.TransactionCursor;
+import com.example.bank_app.dto.request.TransactionHistoryFilter;
+import com.example.bank_app.entity.MonthlyStatementEntity;
+import com.example.bank_app.entity.TransactionEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface TransactionRepositoryCustom {
+
+    void insertAllWithAssignedIds(List<TransactionEntity> transactions);
+
+    List<TransactionEntity> findPageByAccountId(String accountId, TransactionHistoryFilter filter, TransactionCursor after, int limit);
+
+    Stream<TransactionEntity> streamByAccountId(String accountId, TransactionHistoryFilter filter);
+
+    Map<String, BigDecimal> sumNetChangeByAccount(LocalDateTime after, LocalDateTime upTo);
+
+    BigDecimal sumNetChange(String accountId, LocalDateTime after, LocalDateTime upTo);
+
+    List<MonthlyStatementEntity> sumMonthlyActivityByAccount(Collection<String> accountIds);
+
+    Optional<LocalDateTime> findOldestDate();
+
+    long countOlderThan(LocalDateTime bound);
+
+    Stream<TransactionEntity> streamOlderThan(LocalDateTime bound);
+
+    void deleteOlderThan(LocalDateTime bound);
+
+    List<YearMonth> findMonthlyPartitions();
+
+    void addMonthlyPartitions(List<YearMonth> months);
+}
@@ -0,0 +1,305 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionCursor;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.dto.request.TransactionHistoryFilter;
+import com.example.bank_app.entity.MonthlyStatementEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    private static final String INSERT_TRANSACTION = "INSERT INTO transaction " +
+            "(id, sender_account_id, receiver_account_id, transaction_type, amount, date, description) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String TRANSACTION_COLUMNS =
+            "id, sender_account_id, receiver_account_id, transaction_type, amount, date, description";
+
+    private static final String NEWEST_FIRST = " ORDER BY date DESC, id DESC LIMIT ?";
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    // Credits count for the receiver and debits against the sender; INITIAL rows reference the account on both sides
+    // and only credit it, while a transfer to the same account debits and credits it.
+    private static final String NET_CHANGE_BY_ACCOUNT = "SELECT account_id, SUM(delta) AS net_change FROM (" +
+            "SELECT receiver_account_id AS account_id, amount AS delta FROM transaction WHERE date > ? AND date <= ?" +
+            " UNION ALL " +
+            "SELECT sender_account_id AS account_id, -amount AS delta FROM transaction WHERE date > ? AND date <= ? AND transaction_type <> 'INITIAL'" +
+            ") changes GROUP BY account_id";
+
+    private static final String NET_CHANGE = "SELECT COALESCE(SUM(delta), 0) FROM (" +
+            "SELECT amount AS delta FROM transaction WHERE receiver_account_id = ? AND date > ? AND date <= ?" +
+            " UNION ALL " +
+            "SELECT -amount AS delta FROM transaction WHERE sender_account_id = ? AND date > ? AND date <= ? AND transaction_type <> 'INITIAL'" +
+            ") changes";
+
+    private static final RowMapper<TransactionEntity> TRANSACTION_ROW_MAPPER = (rs, rowNum) -> TransactionEntity.builder()
+            .id(rs.getString("id"))
+            .senderAccountId(rs.getString("sender_account_id"))
+            .receiverAccountId(rs.getString("receiver_account_id"))
+            .transactionType(TransactionType.valueOf(rs.getString("transaction_type")))
+            .amount(Money.of(rs.getBigDecimal("amount")))
+            .date(rs.getTimestamp("date").toLocalDateTime())
+            .description(rs.getString("description"))
+            .build();
+
+    // Same in/out rules as the live rollups: INITIAL only credits, a transfer to the same account is one transaction
+    // that both credits and debits.
+    private static final String MONTHLY_ACTIVITY = "SELECT account_id, YEAR(date) AS activity_year, MONTH(date) AS activity_month, " +
+            "SUM(amount_in) AS total_in, SUM(amount_out) AS total_out, SUM(counted) AS transaction_count FROM (" +
+            "SELECT receiver_account_id AS account_id, date, amount AS amount_in, 0 AS amount_out, 1 AS counted " +
+            "FROM transaction WHERE receiver_account_id IN (%1$s)" +
+            " UNION ALL " +
+            "SELECT sender_account_id AS account_id, date, 0 AS amount_in, amount AS amount_out, " +
+            "CASE WHEN receiver_account_id = sender_account_id THEN 0 ELSE 1 END AS counted " +
+            "FROM transaction WHERE sender_account_id IN (%1$s) AND transaction_type <> 'INITIAL'" +
+            ") activity GROUP BY account_id, YEAR(date), MONTH(date)";
+
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private static final String TRANSACTION_PARTITIONS = "SELECT PARTITION_NAME FROM INFORMATION_SCHEMA.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transaction' AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean partitioned;
+
+    @Override
+    public void insertAllWithAssignedIds(List<TransactionEntity> transactions) {
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION, transactions, transactions.size(), (ps, transaction) -> {
+            ps.setString(1, transaction.getId());
+            ps.setString(2, transaction.getSenderAccountId());
+            ps.setString(3, transaction.getReceiverAccountId());
+            ps.setString(4, transaction.getTransactionType().name());
+            ps.setBigDecimal(5, transaction.getAmount().toBigDecimal());
+            ps.setTimestamp(6, Timestamp.valueOf(transaction.getDate()));
+            ps.setString(7, transaction.getDescription());
+        });
+    }
+
+    // Each branch seeks on its own (account, date, id) index and stops after `limit` rows, so the cost of a
+    // page does not depend on how deep into the history the cursor points. Self-referencing rows (INITIAL)
+    // are only taken from the sender branch.
+    @Override
+    public List<TransactionEntity> findPageByAccountId(String accountId, TransactionHistoryFilter filter, TransactionCursor after, int limit) {
+        List<Object> params = new ArrayList<>();
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(TRANSACTION_COLUMNS).append(" FROM (");
+        appendAccountBranches(sql, params, accountId, filter, after, limit);
+        sql.append(") page").append(NEWEST_FIRST);
+        params.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), TRANSACTION_ROW_MAPPER, params.toArray());
+    }
+
+    // Rows are pulled from a forward-only cursor EXPORT_FETCH_SIZE at a time (server-side cursor on MySQL with
+    // useCursorFetch=true); the connection stays open until the returned stream is closed.
+    @Override
+    public Stream<TransactionEntity> streamByAccountId(String accountId, TransactionHistoryFilter filter) {
+        List<Object> params = new ArrayList<>();
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(TRANSACTION_COLUMNS).append(" FROM (");
+        appendAccountBranches(sql, params, accountId, filter, null, null);
+        sql.append(") export ORDER BY date, id");
+
+        return jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, TRANSACTION_ROW_MAPPER);
+    }
+
+    // One range scan on the date index over the snapshot window, aggregated per account.
+    @Override
+    public Map<String, BigDecimal> sumNetChangeByAccount(LocalDateTime after, LocalDateTime upTo) {
+        Timestamp from = Timestamp.valueOf(after);
+        Timestamp to = Timestamp.valueOf(upTo);
+        Map<String, BigDecimal> netChanges = new HashMap<>();
+        jdbcTemplate.query(NET_CHANGE_BY_ACCOUNT,
+                rs -> {
+                    netChanges.put(rs.getString("account_id"), rs.getBigDecimal("net_change"));
+                },
+                from, to, from, to);
+        return netChanges;
+    }
+
+    // Each branch seeks on the account's (account, date, id) index, so the cost is bounded by the account's own
+    // transactions inside the window rather than by its whole history.
+    @Override
+    public BigDecimal sumNetChange(String accountId, LocalDateTime after, LocalDateTime upTo) {
+        Timestamp from = Timestamp.valueOf(after);
+        Timestamp to = Timestamp.valueOf(upTo);
+        return jdbcTemplate.queryForObject(NET_CHANGE, BigDecimal.class, accountId, from, to, accountId, from, to);
+    }
+
+    @Override
+    public List<MonthlyStatementEntity> sumMonthlyActivityByAccount(Collection<String> accountIds) {
+        if (accountIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = MONTHLY_ACTIVITY.formatted(String.join(", ", Collections.nCopies(accountIds.size(), "?")));
+        List<Object> params = new ArrayList<>(accountIds.size() * 2);
+        params.addAll(accountIds);
+        params.addAll(accountIds);
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> MonthlyStatementEntity.builder()
+                .accountId(rs.getString("account_id"))
+                .statementMonth(LocalDate.of(rs.getInt("activity_year"), rs.getInt("activity_month"), 1))
+                .totalIn(rs.getBigDecimal("total_in"))
+                .totalOut(rs.getBigDecimal("total_out"))
+                .transactionCount(rs.getLong("transaction_count"))
+                .build(), params.toArray());
+    }
+
+    @Override
+    public Optional<LocalDateTime> findOldestDate() {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(date) FROM transaction", Timestamp.class);
+        return Optional.ofNullable(oldest).map(Timestamp::toLocalDateTime);
+    }
+
+    @Override
+    public long countOlderThan(LocalDateTime bound) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction WHERE date < ?", Long.class, Timestamp.valueOf(bound));
+        return count == null ? 0 : count;
+    }
+
+    // Reads the date index in (date, id) order: InnoDB secondary indexes carry the primary key columns.
+    @Override
+    public Stream<TransactionEntity> streamOlderThan(LocalDateTime bound) {
+        String sql = "SELECT " + TRANSACTION_COLUMNS + " FROM transaction WHERE date < ? ORDER BY date, id";
+        return jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            ps.setTimestamp(1, Timestamp.valueOf(bound));
+            return ps;
+        }, TRANSACTION_ROW_MAPPER);
+    }
+
+    // Whole monthly partitions below the bound are dropped, which frees their space at once; the DELETE only
+    // catches rows the partitions did not cover (an unpartitioned table, or a bound that is not a month start).
+    @Override
+    public void deleteOlderThan(LocalDateTime bound) {
+        List<String> droppable = findMonthlyPartitions().stream()
+                .filter(month -> !month.plusMonths(1).atDay(1).atStartOfDay().isAfter(bound))
+                .map(PARTITION_NAME::format)
+                .toList();
+        if (!droppable.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE transaction DROP PARTITION " + String.join(", ", droppable));
+        }
+        jdbcTemplate.update("DELETE FROM transaction WHERE date < ?", Timestamp.valueOf(bound));
+    }
+
+    // Empty when the table is not partitioned, which includes every database other than MySQL.
+    @Override
+    public List<YearMonth> findMonthlyPartitions() {
+        if (!isPartitioned()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(TRANSACTION_PARTITIONS, String.class).stream()
+                .filter(name -> !FUTURE_PARTITION.equals(name))
+                .map(name -> YearMonth.parse(name, PARTITION_NAME))
+                .toList();
+    }
+
+    // Splits the given months off the MAXVALUE partition; they must all be later than the existing monthly
+    // partitions. The lowest partition also receives every row older than its month.
+    @Override
+    public void addMonthlyPartitions(List<YearMonth> months) {
+        if (months.isEmpty() || !isPartitioned()) {
+            return;
+        }
+        String partitions = months.stream()
+                .sorted()
+                .map(month -> "PARTITION " + PARTITION_NAME.format(month) +
+                        " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + " 00:00:00')")
+                .collect(Collectors.joining(", "));
+        jdbcTemplate.execute("ALTER TABLE transaction REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO (" +
+                partitions + ", PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+    }
+
+    private boolean isPartitioned() {
+        Boolean cached = partitioned;
+        if (cached == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            cached = "MySQL".equals(product) && jdbcTemplate.queryForList(TRANSACTION_PARTITIONS, String.class).contains(FUTURE_PARTITION);
+            partitioned = cached;
+        }
+        return cached;
+    }
+
+    private void appendAccountBranches(StringBuilder sql, List<Object> params, String accountId,
+                                       TransactionHistoryFilter filter, TransactionCursor after, Integer limit) {
+        appendBranch(sql, params, "sender_account_id = ?", List.of(accountId), filter, after, limit);
+        sql.append(" UNION ALL ");
+        appendBranch(sql, params, "receiver_account_id = ? AND sender_account_id <> ?", List.of(accountId, accountId), filter, after, limit);
+    }
+
+    private void appendBranch(StringBuilder sql, List<Object> params, String accountPredicate, List<Object> accountParams,
+                              TransactionHistoryFilter filter, TransactionCursor after, Integer limit) {
+        sql.append("(SELECT ").append(TRANSACTION_COLUMNS).append(" FROM transaction WHERE ").append(accountPredicate);
+        params.addAll(accountParams);
+
+        if (filter.getFrom() != null) {
+            sql.append(" AND date >= ?");
+            params.add(Timestamp.valueOf(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND date < ?");
+            params.add(Timestamp.valueOf(filter.getTo()));
+        }
+        if (filter.getTransactionType() != null) {
+            sql.append(" AND transaction_type = ?");
+            params.add(filter.getTransactionType().name());
+        }
+        if (filter.getMinAmount() != null) {
+            sql.append(" AND amount >= ?");
+            params.add(filter.getMinAmount());
+        }
+        if (filter.getMaxAmount() != null) {
+            sql.append(" AND amount <= ?");
+            params.add(filter.getMaxAmount());
+        }
+        if (after != null) {
+            Timestamp afterDate = Timestamp.valueOf(after.date());
+            sql.append(" AND (date < ? OR (date = ? AND id < ?))");
+            params.add(afterDate);
+            params.add(afterDate);
+            params.add(after.id());
+        }
+
+        if (limit != null) {
+            sql.append(NEWEST_FIRST);
+            params.add(limit);
+        }
+        sql.append(')');
+    }
+}
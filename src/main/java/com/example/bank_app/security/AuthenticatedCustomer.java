@@ -0,0 +1,12 @@
+package com.example.bank_app.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * The principal of every authenticated request, whether it came with a bearer token or HTTP Basic. Controllers
+ * receive it as a handler method argument; it never carries the password hash.
+ */
+public record AuthenticatedCustomer(String id, String email, List<GrantedAuthority> authorities) {
+}
@@ -0,0 +1,30 @@
+package com.example.bank_app.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Supplies the {@link AuthenticatedCustomer} of the current request to any handler method that declares it.
+ */
+public class AuthenticatedCustomerArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.getParameterType() == AuthenticatedCustomer.class;
+    }
+
+    @Override
+    public AuthenticatedCustomer resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                                 NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedCustomer customer)) {
+            throw new IllegalStateException("Handler " + parameter.getExecutable() + " requires an authenticated customer");
+        }
+        return customer;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.bank_app.security;
+
+import com.example.bank_app.service.auth.AuthToken;
+import com.example.bank_app.service.auth.AuthTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates requests that carry {@code Authorization: Bearer <token>} from the token alone. A missing or
+ * invalid token leaves the request unauthenticated, so the remaining filters (HTTP Basic) still apply.
+ */
+@RequiredArgsConstructor
+public class BearerTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AuthTokenService authTokenService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            authTokenService.verifyAccessToken(authorization.substring(BEARER_PREFIX.length()))
+                    .ifPresent(this::authenticate);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(AuthToken authToken) {
+        AuthenticatedCustomer principal = new AuthenticatedCustomer(authToken.customerId(), authToken.email(), List.of());
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.authorities()));
+        SecurityContextHolder.setContext(context);
+    }
+}
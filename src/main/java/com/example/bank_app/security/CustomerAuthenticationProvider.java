@@ -0,0 +1,17 @@
+package com.example.bank_app.security;
+
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * HTTP Basic authentication that ends with an {@link AuthenticatedCustomer} principal instead of the loaded
+ * {@link CustomerUserDetails}, so the password hash does not travel with the request.
+ */
+public class CustomerAuthenticationProvider extends DaoAuthenticationProvider {
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication, UserDetails user) {
+        return super.createSuccessAuthentication(((CustomerUserDetails) user).toAuthenticatedCustomer(), authentication, user);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.bank_app.security;
+
+import com.example.bank_app.config.CustomerUserCacheProperties;
+import com.example.bank_app.event.CustomerCredentialsChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, expiring cache of {@link CustomerUserDetails} by email for HTTP Basic, so a repeat caller costs no
+ * customer query. On a cache hit with a password that does not match, {@code DaoAuthenticationProvider} reloads
+ * the customer before rejecting, so a password changed elsewhere is picked up on its next use.
+ */
+@Component
+public class CustomerUserCache implements UserCache {
+
+    private final Cache<String, UserDetails> usersByEmail;
+
+    public CustomerUserCache(CustomerUserCacheProperties properties) {
+        this.usersByEmail = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .build();
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String email) {
+        return usersByEmail.getIfPresent(email);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        usersByEmail.put(user.getUsername(), user);
+    }
+
+    @Override
+    public void removeUserFromCache(String email) {
+        usersByEmail.invalidate(email);
+    }
+
+    @EventListener
+    public void onCredentialsChanged(CustomerCredentialsChangedEvent event) {
+        removeUserFromCache(event.email());
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bank_app.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * What HTTP Basic needs to check a password: the customer's id, email and password hash. Immutable, so it can be
+ * shared through {@link CustomerUserCache} without Spring Security erasing the hash of the cached copy.
+ */
+public record CustomerUserDetails(String id, String email, String password) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of();
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    public AuthenticatedCustomer toAuthenticatedCustomer() {
+        return new AuthenticatedCustomer(id, email, List.of());
+    }
+}
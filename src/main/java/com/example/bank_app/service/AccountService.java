@@ -1,54 +1,78 @@
 package com.example.bank_app.service;
 
+import com.example.bank_app.common.AccountIdentity;
+import com.example.bank_app.common.Money;
 import com.example.bank_app.common.TransactionType;
 import com.example.bank_app.dto.model.AccountDto;
 import com.example.bank_app.dto.request.NewAccountRequest;
+import com.example.bank_app.dto.response.AccountBalanceResponse;
 import com.example.bank_app.entity.AccountEntity;
 import com.example.bank_app.entity.CustomerEntity;
 import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.event.AccountDeletedEvent;
 import com.example.bank_app.exception.*;
+import com.example.bank_app.mapper.AccountMapper;
 import com.example.bank_app.repository.AccountRepository;
 import com.example.bank_app.repository.TransactionRepository;
-import jakarta.transaction.Transactional;
+import com.example.bank_app.service.account.AccountIdentityCache;
+import com.example.bank_app.service.account.AccountNumberIssuer;
+import com.example.bank_app.service.feed.AccountFeedHub;
+import com.example.bank_app.service.outbox.OutboxService;
+import com.example.bank_app.service.snapshot.BalanceSnapshotService;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import java.math.BigDecimal;
-import java.security.SecureRandom;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 public class AccountService {
 
     private final AccountRepository accountRepository;
-    private final ModelMapper modelMapper;
+    private final AccountMapper accountMapper;
     private final TransactionRepository transactionRepository;
-    private final SecureRandom secureRandom = new SecureRandom();
+    private final AccountNumberIssuer accountNumberIssuer;
     private final AccountValidateService accountValidateService;
-
+    private final AccountIdentityCache accountIdentityCache;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final MonthlyStatementService monthlyStatementService;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountFeedHub accountFeedHub;
+    private final OutboxService outboxService;
+
+    @Timed(value = "bank.account.creation", description = "Account openings, including the initial deposit", histogram = true)
     public AccountDto addNewAccount(String customerId, NewAccountRequest newAccountRequest){
         validateInitialBalance(newAccountRequest.getInitialBalance());
 
-        AccountEntity accountEntity = createAccount(customerId, newAccountRequest.getInitialBalance());
-        AccountEntity savedAccount = accountRepository.save(accountEntity);
-
-        createInitialTransactionIfNecessary(savedAccount, newAccountRequest.getInitialBalance());
-
-        return modelMapper.map(savedAccount, AccountDto.class);
+        // One transaction per attempt, so an account number collision rolls back only that attempt. The flush makes
+        // the collision surface here rather than at commit.
+        AccountEntity savedAccount = accountNumberIssuer.issue(accountNumber -> transactionTemplate.execute(status -> {
+            AccountEntity account = accountRepository.saveAndFlush(createAccount(accountNumber, customerId, newAccountRequest.getInitialBalance()));
+            createInitialTransactionIfNecessary(account, newAccountRequest.getInitialBalance());
+            outboxService.recordAccountCreated(account);
+            return account;
+        }));
+        accountIdentityCache.put(new AccountIdentity(savedAccount.getId(), savedAccount.getAccountNumber(), savedAccount.getCustomerId()));
+
+        return accountMapper.toAccountDto(savedAccount);
     }
 
-    private void createInitialTransactionIfNecessary(AccountEntity account, BigDecimal initialBalance) {
-        if (initialBalance.compareTo(BigDecimal.ZERO) > 0) {
+    private void createInitialTransactionIfNecessary(AccountEntity account, Money initialBalance) {
+        if (initialBalance.isPositive()) {
             createInitialTransactionAndSave(account, initialBalance);
         }
     }
 
-    private void createInitialTransactionAndSave(AccountEntity account, BigDecimal initialBalance) {
+    private void createInitialTransactionAndSave(AccountEntity account, Money initialBalance) {
         TransactionEntity transaction = TransactionEntity
                 .builder()
                 .transactionType(TransactionType.INITIAL)
@@ -56,44 +80,56 @@ public class AccountService {
                 .receiverAccountId(account.getId())
                 .amount(initialBalance)
                 .build();
-        transactionRepository.save(transaction);
-    }
-
-    private String generateAccountNumber() {
-        return IntStream.range(0,16)
-                .mapToObj(i -> String.valueOf(secureRandom.nextInt(10)))
-                .collect(Collectors.joining());
+        monthlyStatementService.record(List.of(transactionRepository.save(transaction)));
     }
 
-    private void validateInitialBalance(BigDecimal initialBalance) {
-        if (initialBalance.compareTo(BigDecimal.ZERO) < 0) {
+    private void validateInitialBalance(Money initialBalance) {
+        if (initialBalance.isNegative()) {
             throw new AccountCreationException();
         }
     }
 
-    private AccountEntity createAccount(String customerId, BigDecimal initialBalance) {
+    private AccountEntity createAccount(String accountNumber, String customerId, Money initialBalance) {
         return AccountEntity
                 .builder()
-                .accountNumber(generateAccountNumber())
+                .accountNumber(accountNumber)
                 .balance(initialBalance)
                 .customerId(customerId)
                 .build();
     }
 
+    @Transactional(readOnly = true)
     public List<AccountDto> getAllAccounts(String customerId) {
         List<AccountEntity> accounts = accountRepository.findAllByCustomerId(customerId);
         return mapAccountsToAccountDto(accounts);
     }
 
     private List<AccountDto> mapAccountsToAccountDto(List<AccountEntity> accounts) {
-        return accounts.stream()
-                .map(account -> modelMapper.map(account, AccountDto.class))
-                .collect(Collectors.toList());
+        return accountMapper.toAccountDtos(accounts);
     }
 
+    @Transactional(readOnly = true)
     public AccountDto getAccountByIdAndCustomerId(String accountId, String customerId) {
         AccountEntity accountEntity = accountValidateService.retrieveAndValidateAccountByIdAndCustomerId(accountId, customerId);
-        return modelMapper.map(accountEntity, AccountDto.class);
+        return accountMapper.toAccountDto(accountEntity);
+    }
+
+    @Transactional(readOnly = true)
+    public AccountBalanceResponse getBalanceAt(String accountId, String customerId, LocalDateTime at) {
+        if (at == null) {
+            AccountEntity accountEntity = accountValidateService.retrieveAndValidateAccountByIdAndCustomerId(accountId, customerId);
+            return new AccountBalanceResponse(accountId, accountEntity.getBalance().toBigDecimal(), LocalDateTime.now());
+        }
+        accountValidateService.validateAccountOwnership(accountId, customerId);
+        return new AccountBalanceResponse(accountId, balanceSnapshotService.balanceAt(accountId, at), at);
+    }
+
+    /**
+     * Live feed of the transfers touching the account; see {@link AccountFeedHub}.
+     */
+    public SseEmitter subscribeToActivity(String accountId, String customerId, String lastEventId) {
+        accountValidateService.validateAccountOwnership(accountId, customerId);
+        return accountFeedHub.subscribe(accountId, lastEventId);
     }
 
     @Transactional
@@ -101,6 +137,7 @@ public class AccountService {
         AccountEntity accountEntity = accountValidateService.retrieveAndValidateAccountByIdAndCustomerId(accountId, customerId);
         deleteInitialTransactionIfExist(accountId);
         accountRepository.delete(accountEntity);
+        applicationEventPublisher.publishEvent(new AccountDeletedEvent(accountEntity.getId(), customerId, accountEntity.getAccountNumber()));
     }
 
     private void deleteInitialTransactionIfExist(String accountId) {
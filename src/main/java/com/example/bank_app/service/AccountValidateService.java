@@ -3,6 +3,7 @@ package com.example.bank_app.service;
 import com.example.bank_app.entity.AccountEntity;
 import com.example.bank_app.exception.AccountNotFoundException;
 import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.service.account.AccountIdentityCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -11,9 +12,16 @@ import org.springframework.stereotype.Service;
 public class AccountValidateService {
 
     private final AccountRepository accountRepository;
+    private final AccountIdentityCache accountIdentityCache;
 
     public AccountEntity retrieveAndValidateAccountByIdAndCustomerId(String accountId, String customerId) {
         return accountRepository.findByIdAndCustomerId(accountId, customerId)
                 .orElseThrow(() -> new AccountNotFoundException(accountId));
     }
+
+    public void validateAccountOwnership(String accountId, String customerId) {
+        accountIdentityCache.findById(accountId)
+                .filter(identity -> identity.customerId().equals(customerId))
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+    }
 }
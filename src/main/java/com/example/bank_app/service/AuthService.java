@@ -1,22 +1,36 @@
 package com.example.bank_app.service;
 
 import com.example.bank_app.dto.request.CustomerRegisterRequest;
+import com.example.bank_app.dto.request.LoginRequest;
+import com.example.bank_app.dto.request.RefreshTokenRequest;
+import com.example.bank_app.dto.response.AuthTokenResponse;
 import com.example.bank_app.exception.EmailAlreadyExistsException;
+import com.example.bank_app.exception.InvalidCredentialsException;
 import com.example.bank_app.repository.CustomerRepository;
 import com.example.bank_app.entity.CustomerEntity;
-import lombok.RequiredArgsConstructor;
+import com.example.bank_app.service.auth.AuthTokenService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 public class AuthService {
 
     private final CustomerRepository customerRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthTokenService authTokenService;
+    // Checked when the email is unknown, so that a login takes as long whether or not the email is registered.
+    private final String unknownCustomerPassword;
+
+    public AuthService(CustomerRepository customerRepository, PasswordEncoder passwordEncoder, AuthTokenService authTokenService) {
+        this.customerRepository = customerRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.authTokenService = authTokenService;
+        this.unknownCustomerPassword = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
 
     public void registerCustomer(CustomerRegisterRequest customerRegisterRequest) {
         EmailAlreadyExistException(customerRegisterRequest);
@@ -34,6 +48,25 @@ public class AuthService {
         customerRepository.save(customerEntity);
     }
 
+    public AuthTokenResponse login(LoginRequest loginRequest) {
+        Optional<CustomerEntity> customer = customerRepository.findByEmail(loginRequest.getEmail());
+        String passwordHash = customer.map(CustomerEntity::getPassword).orElse(unknownCustomerPassword);
+        if (!passwordEncoder.matches(loginRequest.getPassword(), passwordHash) || customer.isEmpty()) {
+            throw new InvalidCredentialsException();
+        }
+        CustomerEntity customerEntity = customer.get();
+
+        return authTokenService.issue(customerEntity.getId(), customerEntity.getEmail());
+    }
+
+    public AuthTokenResponse refresh(RefreshTokenRequest refreshTokenRequest) {
+        return authTokenService.refresh(refreshTokenRequest.getRefreshToken());
+    }
+
+    public void logout(String token) {
+        authTokenService.revoke(token);
+    }
+
     private void EmailAlreadyExistException(CustomerRegisterRequest customerRegisterRequest) {
         Optional<CustomerEntity> optionalCustomer = customerRepository.findByEmail(customerRegisterRequest.getEmail());
 
@@ -4,22 +4,24 @@ package com.example.bank_app.service;
 import com.example.bank_app.dto.model.CustomerDto;
 import com.example.bank_app.entity.CustomerEntity;
 import com.example.bank_app.exception.CustomerNotFoundException;
+import com.example.bank_app.mapper.CustomerMapper;
 import com.example.bank_app.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
-    private final ModelMapper modelMapper;
+    private final CustomerMapper customerMapper;
 
+    @Transactional(readOnly = true)
     public CustomerDto getAuthenticatedCustomerById(String customerId) {
         CustomerEntity customerEntity = retrieveCustomerAndValidateById(customerId);
-        return modelMapper.map(customerEntity, CustomerDto.class);
+        return customerMapper.toCustomerDto(customerEntity);
     }
 
     private CustomerEntity retrieveCustomerAndValidateById(String customerId) {
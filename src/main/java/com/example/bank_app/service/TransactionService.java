@@ -1,91 +1,218 @@
 package com.example.bank_app.service;
 
-import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.common.BatchTransferStatus;
+import com.example.bank_app.common.AccountNumbers;
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionCursor;
+import com.example.bank_app.common.TransactionExportFormat;
+import com.example.bank_app.config.TransferProperties;
 import com.example.bank_app.dto.model.TransactionDto;
+import com.example.bank_app.dto.request.NewBatchMoneyTransferRequest;
 import com.example.bank_app.dto.request.NewMoneyTransferRequest;
-import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.dto.request.TransactionHistoryFilter;
+import com.example.bank_app.dto.response.BatchTransferItemResponse;
+import com.example.bank_app.dto.response.BatchTransferResponse;
+import com.example.bank_app.dto.response.MonthlyStatementResponse;
+import com.example.bank_app.dto.response.TransactionPageResponse;
 import com.example.bank_app.entity.TransactionEntity;
-import com.example.bank_app.exception.AccountNotFoundByNumberException;
-import com.example.bank_app.exception.AccountNotFoundException;
-import com.example.bank_app.exception.BalanceIsNotEnoughException;
+import com.example.bank_app.event.TransferCommittedEvent;
+import com.example.bank_app.exception.BatchTransferSizeException;
+import com.example.bank_app.exception.InvalidAccountNumberException;
 import com.example.bank_app.exception.InvalidAmountException;
-import com.example.bank_app.repository.AccountRepository;
-import com.example.bank_app.repository.TransactionRepository;
-import jakarta.transaction.Transactional;
+import com.example.bank_app.mapper.TransactionMapper;
+import com.example.bank_app.service.account.AccountNumberIssuer;
+import com.example.bank_app.service.archive.TransactionHistoryReader;
+import com.example.bank_app.service.export.TransactionExportWriter;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import com.example.bank_app.service.transfer.BatchTransferOutcome;
+import com.example.bank_app.service.transfer.TransferIdempotencyService;
+import com.example.bank_app.service.transfer.TransferRetryExecutor;
+import com.example.bank_app.service.transfer.TransferStrategy;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import java.math.BigDecimal;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
 
+    public static final int MAX_HISTORY_PAGE_SIZE = 500;
+    private static final int EXPORT_GZIP_BUFFER_SIZE = 8192;
+
     private final AccountValidateService accountValidateService;
-    private final TransactionRepository transactionRepository;
-    private final AccountRepository accountRepository;
-    private final ModelMapper modelMapper;
-
-    @Transactional
-    public TransactionDto addNewTransaction(String senderCustomerId, String senderAccountId, NewMoneyTransferRequest newMoneyTransferRequest) {
-        AccountEntity senderAccount = getValidatedSenderAccountByCustomerIdAndAccountId(senderAccountId, senderCustomerId);
-        AccountEntity receiverAccount = getValidatedReceiverAccountByAccountNumber(newMoneyTransferRequest.getReceiverAccountNumber());
-        validateSenderBalanceEnoughAndValidAmount(senderAccount.getBalance(), newMoneyTransferRequest.getAmount());
-        TransactionEntity transactionEntity = createTransaction(senderAccountId, receiverAccount.getId(), newMoneyTransferRequest.getAmount(), newMoneyTransferRequest.getDescription());
-        updateBalances(senderAccount, receiverAccount, newMoneyTransferRequest);
-
-        return modelMapper.map(transactionEntity, TransactionDto.class);
+    private final TransactionHistoryReader transactionHistoryReader;
+    private final TransferStrategy transferStrategy;
+    private final TransferRetryExecutor transferRetryExecutor;
+    private final TransferIdempotencyService transferIdempotencyService;
+    private final TransferProperties transferProperties;
+    private final TransactionExportWriter transactionExportWriter;
+    private final TransactionMapper transactionMapper;
+    private final MonthlyStatementService monthlyStatementService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final AccountNumberIssuer accountNumberIssuer;
+
+    /**
+     * With an idempotency key, a retried request returns the transaction of the first execution instead of
+     * transferring again; see {@link TransferIdempotencyService}.
+     */
+    @Timed(value = "bank.transfer", description = "Single transfers, including idempotent replays", histogram = true)
+    public TransactionDto addNewTransaction(String senderCustomerId, String senderAccountId, NewMoneyTransferRequest newMoneyTransferRequest, String idempotencyKey) {
+        validateAmount(newMoneyTransferRequest.getAmount());
+        validateReceiverAccountNumber(newMoneyTransferRequest.getReceiverAccountNumber());
+
+        if (idempotencyKey != null) {
+            return transferIdempotencyService.execute(senderCustomerId, senderAccountId, idempotencyKey, newMoneyTransferRequest,
+                    () -> published(transferStrategy.transfer(senderCustomerId, senderAccountId, newMoneyTransferRequest)));
+        }
+
+        TransactionEntity transactionEntity = transferRetryExecutor.execute(
+                () -> published(transferStrategy.transfer(senderCustomerId, senderAccountId, newMoneyTransferRequest)));
+
+        return transactionMapper.toTransactionDto(transactionEntity);
     }
 
-    private AccountEntity getValidatedSenderAccountByCustomerIdAndAccountId(String senderAccountId, String senderCustomerId) {
-        return accountRepository.findByIdAndCustomerId(senderAccountId, senderCustomerId)
-                .orElseThrow(() -> new AccountNotFoundException(senderAccountId));
+    public BatchTransferResponse addNewTransactionBatch(String senderCustomerId, String senderAccountId, NewBatchMoneyTransferRequest newBatchMoneyTransferRequest) {
+        List<NewMoneyTransferRequest> transfers = newBatchMoneyTransferRequest.getTransfers();
+        validateBatchSize(transfers);
+
+        List<BatchTransferOutcome> outcomes = transferRetryExecutor.execute(
+                () -> transferStrategy.transferBatch(senderCustomerId, senderAccountId, transfers));
+        for (BatchTransferOutcome outcome : outcomes) {
+            if (outcome.isAccepted()) {
+                published(outcome.transaction());
+            }
+        }
+
+        return mapOutcomesToBatchTransferResponse(outcomes);
     }
 
-    private AccountEntity getValidatedReceiverAccountByAccountNumber(String receiverAccountNumber) {
-        return accountRepository.findByAccountNumber(receiverAccountNumber)
-                .orElseThrow(() -> new AccountNotFoundByNumberException(receiverAccountNumber));
+    // Listeners run once the surrounding transaction commits (the idempotency key's), or right away when the
+    // strategy has already committed.
+    private TransactionEntity published(TransactionEntity transaction) {
+        applicationEventPublisher.publishEvent(new TransferCommittedEvent(transaction));
+        return transaction;
     }
 
-    private void validateSenderBalanceEnoughAndValidAmount(BigDecimal balance, BigDecimal amount) {
-        if(balance.compareTo(amount) < 0) {
-            throw new BalanceIsNotEnoughException(balance);
+    private void validateBatchSize(List<NewMoneyTransferRequest> transfers) {
+        if (transfers == null || transfers.isEmpty() || transfers.size() > transferProperties.getMaxBatchSize()) {
+            throw new BatchTransferSizeException(transferProperties.getMaxBatchSize());
         }
-        if(amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new InvalidAmountException();
+    }
+
+    private BatchTransferResponse mapOutcomesToBatchTransferResponse(List<BatchTransferOutcome> outcomes) {
+        List<BatchTransferItemResponse> results = new ArrayList<>(outcomes.size());
+        int accepted = 0;
+        for (int index = 0; index < outcomes.size(); index++) {
+            BatchTransferOutcome outcome = outcomes.get(index);
+            if (outcome.isAccepted()) {
+                accepted++;
+                results.add(BatchTransferItemResponse.builder()
+                        .index(index)
+                        .status(BatchTransferStatus.ACCEPTED)
+                        .transaction(transactionMapper.toTransactionDto(outcome.transaction()))
+                        .build());
+            } else {
+                results.add(BatchTransferItemResponse.builder()
+                        .index(index)
+                        .status(BatchTransferStatus.REJECTED)
+                        .message(outcome.rejectionReason())
+                        .build());
+            }
         }
+
+        return BatchTransferResponse.builder()
+                .accepted(accepted)
+                .rejected(outcomes.size() - accepted)
+                .results(results)
+                .build();
     }
 
-    private void updateBalances(AccountEntity senderAccount, AccountEntity receiverAccount, NewMoneyTransferRequest newMoneyTransferRequest) {
-        senderAccount.setBalance(senderAccount.getBalance().subtract(newMoneyTransferRequest.getAmount()));
-        receiverAccount.setBalance(receiverAccount.getBalance().add(newMoneyTransferRequest.getAmount()));
+    private void validateReceiverAccountNumber(String receiverAccountNumber) {
+        if (!AccountNumbers.hasValidCheckDigit(receiverAccountNumber) && !accountNumberIssuer.mayBeLegacyNumber(receiverAccountNumber)) {
+            throw new InvalidAccountNumberException(receiverAccountNumber);
+        }
+    }
 
-        accountRepository.save(senderAccount);
-        accountRepository.save(receiverAccount);
+    private void validateAmount(Money amount) {
+        if(!amount.isPositive()) {
+            throw new InvalidAmountException();
+        }
     }
 
-    private TransactionEntity createTransaction(String senderAccountId, String receiverAccountId, BigDecimal amount, String description) {
-        TransactionEntity transaction = TransactionEntity
-                .builder()
-                .senderAccountId(senderAccountId)
-                .receiverAccountId(receiverAccountId)
-                .transactionType(TransactionType.TRANSFER)
-                .amount(amount)
-                .description(description)
+    @Transactional(readOnly = true)
+    @Timed(value = "bank.transaction.history", description = "Transaction history page reads", histogram = true)
+    public TransactionPageResponse getTransactionHistory(String accountId, String customerId, TransactionHistoryFilter filter, String pageToken, int pageSize) {
+        accountValidateService.validateAccountOwnership(accountId, customerId);
+
+        TransactionCursor after = pageToken == null || pageToken.isBlank() ? null : TransactionCursor.decode(pageToken);
+        int limit = Math.clamp(pageSize, 1, MAX_HISTORY_PAGE_SIZE);
+
+        List<TransactionEntity> transactions = transactionHistoryReader.findPageByAccountId(accountId, filter, after, limit + 1);
+
+        String nextPageToken = null;
+        if (transactions.size() > limit) {
+            transactions = transactions.subList(0, limit);
+            TransactionEntity last = transactions.get(limit - 1);
+            nextPageToken = new TransactionCursor(last.getDate(), last.getId()).encode();
+        }
+
+        return TransactionPageResponse.builder()
+                .transactions(transactionMapper.toTransactionDtos(transactions))
+                .nextPageToken(nextPageToken)
                 .build();
+    }
 
-        return transactionRepository.save(transaction);
+    @Transactional(readOnly = true)
+    public MonthlyStatementResponse getMonthlyStatement(String accountId, String customerId, YearMonth month) {
+        accountValidateService.validateAccountOwnership(accountId, customerId);
+        return monthlyStatementService.getStatement(accountId, month);
     }
 
-    public List<TransactionDto> getAllTransactions(String accountId, String customerId) {
-        accountValidateService.retrieveAndValidateAccountByIdAndCustomerId(accountId, customerId);
+    public StreamingResponseBody exportTransactions(String accountId, String customerId, TransactionHistoryFilter filter, TransactionExportFormat format, boolean gzip) {
+        accountValidateService.validateAccountOwnership(accountId, customerId);
+
+        return out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, EXPORT_GZIP_BUFFER_SIZE) : out;
+            try (Stream<TransactionEntity> transactions = transactionHistoryReader.streamByAccountId(accountId, filter)) {
+                transactionExportWriter.write(transactions, format, target);
+            }
+            if (target instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+        };
+    }
 
-        List<TransactionEntity> transactions = transactionRepository.findAllByAccountId(accountId);
+    /**
+     * The account history as NDJSON, newest first, read in keyset pages of {@value #MAX_HISTORY_PAGE_SIZE} rows.
+     * Unlike {@link #exportTransactions}, which holds one database cursor open for the whole download, no
+     * connection is held while a page is written, so a slow client only holds its request thread (a virtual
+     * thread) and one page in memory, and the next page is only read once the client has taken the previous one.
+     */
+    public StreamingResponseBody streamTransactionHistory(String accountId, String customerId, TransactionHistoryFilter filter) {
+        accountValidateService.validateAccountOwnership(accountId, customerId);
 
-        return  transactions.stream()
-                .map(transaction -> modelMapper.map(transaction, TransactionDto.class))
-                .collect(Collectors.toList());
+        return out -> {
+            TransactionCursor after = null;
+            while (true) {
+                List<TransactionEntity> page = transactionHistoryReader.findPageByAccountId(accountId, filter, after, MAX_HISTORY_PAGE_SIZE);
+                transactionExportWriter.write(page.stream(), TransactionExportFormat.NDJSON, out);
+                out.flush();
+                if (page.size() < MAX_HISTORY_PAGE_SIZE) {
+                    return;
+                }
+                TransactionEntity last = page.getLast();
+                after = new TransactionCursor(last.getDate(), last.getId());
+            }
+        };
     }
 }
@@ -0,0 +1,138 @@
+package com.example.bank_app.service.account;
+
+import com.example.bank_app.common.AccountIdentity;
+import com.example.bank_app.config.AccountIdentityCacheProperties;
+import com.example.bank_app.event.AccountDeletedEvent;
+import com.example.bank_app.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Bounded cache of {@link AccountIdentity} by account number and by account id. Only the immutable identity
+ * fields are cached, so a hit can never hand out a stale balance. Unknown account numbers are cached as
+ * negative results for a much shorter time, which keeps repeated transfers to a mistyped number off the
+ * database without hiding an account opened on another instance for long. Deleted accounts are evicted once
+ * the deleting transaction commits; other instances drop them when the entries expire.
+ * <p>
+ * Misses are loaded outside the cache rather than through a {@code CacheLoader}: Caffeine runs loaders
+ * inside {@code ConcurrentHashMap.compute}, whose {@code synchronized} bin lock would pin a virtual thread to
+ * its carrier for the whole query. Two concurrent misses may both query; identities are immutable, and a
+ * loaded result never replaces an entry that was put meanwhile. Both caches record statistics, which
+ * {@code MetricsConfig} exports as {@code cache.gets} and {@code cache.evictions}.
+ */
+@Component
+public class AccountIdentityCache {
+
+    private final AccountRepository accountRepository;
+    private final Cache<String, Optional<AccountIdentity>> identitiesByNumber;
+    private final Cache<String, AccountIdentity> identitiesById;
+
+    public AccountIdentityCache(AccountRepository accountRepository, AccountIdentityCacheProperties properties) {
+        this.accountRepository = accountRepository;
+        this.identitiesByNumber = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new IdentityExpiry(properties.getExpireAfterWrite(), properties.getNegativeExpireAfterWrite()))
+                .recordStats()
+                .build();
+        this.identitiesById = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    public Optional<AccountIdentity> findByAccountNumber(String accountNumber) {
+        Optional<AccountIdentity> cached = identitiesByNumber.getIfPresent(accountNumber);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<AccountIdentity> loaded = accountRepository.findIdentityByAccountNumber(accountNumber);
+        loaded.ifPresent(identity -> identitiesById.asMap().putIfAbsent(identity.id(), identity));
+        Optional<AccountIdentity> raced = identitiesByNumber.asMap().putIfAbsent(accountNumber, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    /**
+     * Resolves many account numbers at once; the numbers that are not cached yet are loaded with a single
+     * {@code IN} query. Unknown numbers are absent from the returned map.
+     */
+    public Map<String, AccountIdentity> findAllByAccountNumbers(Collection<String> accountNumbers) {
+        Map<String, Optional<AccountIdentity>> cached = identitiesByNumber.getAllPresent(accountNumbers);
+        Map<String, AccountIdentity> identities = new HashMap<>();
+        cached.forEach((accountNumber, identity) -> identity.ifPresent(found -> identities.put(accountNumber, found)));
+
+        Set<String> missing = new HashSet<>(accountNumbers);
+        missing.removeAll(cached.keySet());
+        if (missing.isEmpty()) {
+            return identities;
+        }
+        for (AccountIdentity identity : accountRepository.findIdentitiesByAccountNumberIn(missing)) {
+            identitiesById.asMap().putIfAbsent(identity.id(), identity);
+            identities.put(identity.accountNumber(), identity);
+        }
+        for (String accountNumber : missing) {
+            identitiesByNumber.asMap().putIfAbsent(accountNumber, Optional.ofNullable(identities.get(accountNumber)));
+        }
+        return identities;
+    }
+
+    public Optional<AccountIdentity> findById(String accountId) {
+        AccountIdentity cached = identitiesById.getIfPresent(accountId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<AccountIdentity> loaded = accountRepository.findIdentityById(accountId);
+        loaded.ifPresent(identity -> identitiesById.asMap().putIfAbsent(accountId, identity));
+        return loaded;
+    }
+
+    public void put(AccountIdentity identity) {
+        identitiesByNumber.put(identity.accountNumber(), Optional.of(identity));
+        identitiesById.put(identity.id(), identity);
+    }
+
+    @TransactionalEventListener
+    public void onAccountDeleted(AccountDeletedEvent event) {
+        identitiesByNumber.invalidate(event.accountNumber());
+        identitiesById.invalidate(event.accountId());
+    }
+
+    public CacheStats accountNumberStats() {
+        return identitiesByNumber.stats();
+    }
+
+    public CacheStats accountIdStats() {
+        return identitiesById.stats();
+    }
+
+    private record IdentityExpiry(Duration expireAfterWrite, Duration negativeExpireAfterWrite)
+            implements Expiry<String, Optional<AccountIdentity>> {
+
+        @Override
+        public long expireAfterCreate(String accountNumber, Optional<AccountIdentity> identity, long currentTime) {
+            return (identity.isPresent() ? expireAfterWrite : negativeExpireAfterWrite).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String accountNumber, Optional<AccountIdentity> identity, long currentTime, long currentDuration) {
+            return expireAfterCreate(accountNumber, identity, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String accountNumber, Optional<AccountIdentity> identity, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
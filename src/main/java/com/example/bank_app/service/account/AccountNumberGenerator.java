@@ -0,0 +1,16 @@
+package com.example.bank_app.service.account;
+
+import com.example.bank_app.common.AccountNumbers;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+
+@Component
+public class AccountNumberGenerator {
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public String generate() {
+        return AccountNumbers.fromBody(secureRandom.nextLong(AccountNumbers.BODY_BOUND));
+    }
+}
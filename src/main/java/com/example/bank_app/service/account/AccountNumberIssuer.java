@@ -0,0 +1,85 @@
+package com.example.bank_app.service.account;
+
+import com.example.bank_app.common.AccountNumbers;
+import com.example.bank_app.config.AccountNumberProperties;
+import com.example.bank_app.exception.AccountNumberGenerationException;
+import com.example.bank_app.repository.AccountRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Hands out account numbers that are not in use yet. Numbers issued so far are kept in a Bloom filter, so
+ * a fresh candidate normally costs no database round trip; only a (rare) positive is confirmed with
+ * {@code existsByAccountNumber}. Numbers issued concurrently by other instances are not in the local filter,
+ * which is why the unique index on {@code account.account_number} stays the final arbiter: a violation on
+ * insert just draws another number.
+ * <p>
+ * The filter also holds the numbers issued before they carried a check digit, so transfers can tell such a
+ * legacy number from a mistyped one without a query.
+ */
+@Component
+public class AccountNumberIssuer {
+
+    private final AccountRepository accountRepository;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final AccountNumberProperties accountNumberProperties;
+    private final AccountNumberBloomFilter issuedNumbers;
+    private volatile boolean issuedNumbersLoaded;
+
+    public AccountNumberIssuer(AccountRepository accountRepository, AccountNumberGenerator accountNumberGenerator,
+                               AccountNumberProperties accountNumberProperties) {
+        this.accountRepository = accountRepository;
+        this.accountNumberGenerator = accountNumberGenerator;
+        this.accountNumberProperties = accountNumberProperties;
+        this.issuedNumbers = new AccountNumberBloomFilter(
+                accountNumberProperties.getBloomFilter().getExpectedInsertions(),
+                accountNumberProperties.getBloomFilter().getFalsePositiveProbability());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIssuedNumbers() {
+        accountRepository.forEachAccountNumber(accountNumber -> issuedNumbers.put(AccountNumbers.toLong(accountNumber)));
+        issuedNumbersLoaded = true;
+    }
+
+    public <T> T issue(Function<String, T> persistWithAccountNumber) {
+        int maxAttempts = accountNumberProperties.getMaxAttempts();
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            String candidate = accountNumberGenerator.generate();
+            if (isIssued(candidate)) {
+                continue;
+            }
+            try {
+                T persisted = persistWithAccountNumber.apply(candidate);
+                issuedNumbers.put(AccountNumbers.toLong(candidate));
+                return persisted;
+            } catch (DataIntegrityViolationException ex) {
+                issuedNumbers.put(AccountNumbers.toLong(candidate));
+            }
+        }
+        throw new AccountNumberGenerationException(maxAttempts);
+    }
+
+    /**
+     * Whether {@code accountNumber}, which failed the check digit validation, may still be a number issued
+     * before check digits were introduced. A negative answer is definite once the issued numbers are loaded;
+     * until then every well-formed number may be one, and the account lookup decides.
+     */
+    public boolean mayBeLegacyNumber(String accountNumber) {
+        if (!AccountNumbers.hasValidFormat(accountNumber)) {
+            return false;
+        }
+        return !issuedNumbersLoaded || issuedNumbers.mightContain(AccountNumbers.toLong(accountNumber));
+    }
+
+    private boolean isIssued(String candidate) {
+        if (issuedNumbersLoaded && !issuedNumbers.mightContain(AccountNumbers.toLong(candidate))) {
+            return false;
+        }
+        return accountRepository.existsByAccountNumber(candidate);
+    }
+}
@@ -0,0 +1,554 @@
+package com.example.bank_app.service.archive;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.entity.TransactionEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * One immutable archive file holding transactions in {@code (date, id)} order, all dated before its bound.
+ *
+ * <p>Rows are stored in row groups of up to {@code rowGroupSize} rows. Within a group every column is its own
+ * Deflate-compressed block: id, sender and receiver (as indexes into the file's account dictionary), type, amount
+ * in minor units, date as microsecond deltas, and description. The footer lists the groups with their offset,
+ * date range and CRC32C, and the account dictionary with the groups each account appears in, so reading one
+ * account's history only inflates the groups that contain it. A fixed-size trailer holds the bound, the row count,
+ * the date range and the footer position; {@link #open} reads only the trailer, the footer is loaded on first use.
+ */
+final class ArchiveSegment {
+
+    static final String SUFFIX = ".segment";
+
+    private static final int MAGIC = 0x42545841;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int TRAILER_SIZE = 48;
+    private static final int NO_ACCOUNT = -1;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path path;
+    private final LocalDateTime bound;
+    private final int rowCount;
+    private final LocalDateTime minDate;
+    private final LocalDateTime maxDate;
+    private final long footerOffset;
+    private final int footerLength;
+    private final int footerRawLength;
+    private final Cache<Path, Footer> footers;
+
+    private ArchiveSegment(Path path, ByteBuffer trailer, Cache<Path, Footer> footers) {
+        this.path = path;
+        this.bound = fromMicros(trailer.getLong());
+        this.rowCount = trailer.getInt();
+        this.minDate = fromMicros(trailer.getLong());
+        this.maxDate = fromMicros(trailer.getLong());
+        this.footerOffset = trailer.getLong();
+        this.footerLength = trailer.getInt();
+        this.footerRawLength = trailer.getInt();
+        this.footers = footers;
+    }
+
+    static ArchiveSegment open(Path path, Cache<Path, Footer> footers) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE) {
+                throw new IOException("Archive segment " + path + " is truncated");
+            }
+            ByteBuffer header = readFully(channel, 0, HEADER_SIZE);
+            ByteBuffer trailer = readFully(channel, size - TRAILER_SIZE, TRAILER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION || trailer.getInt(TRAILER_SIZE - 4) != MAGIC) {
+                throw new IOException("Archive segment " + path + " has an unknown format");
+            }
+            return new ArchiveSegment(path, trailer, footers);
+        }
+    }
+
+    /**
+     * Writes the rows, which must come in {@code (date, id)} order and be dated before {@code bound}, as a new
+     * segment file and forces it to disk.
+     *
+     * @return the number of rows written
+     */
+    static int write(Path file, LocalDateTime bound, Iterator<TransactionEntity> rows, int rowGroupSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            SegmentWriter writer = new SegmentWriter(channel, rowGroupSize);
+            try {
+                while (rows.hasNext()) {
+                    writer.add(rows.next());
+                }
+                return writer.finish(bound);
+            } finally {
+                writer.deflater.end();
+            }
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    LocalDateTime bound() {
+        return bound;
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    LocalDateTime minDate() {
+        return minDate;
+    }
+
+    LocalDateTime maxDate() {
+        return maxDate;
+    }
+
+    boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        return rowCount > 0 && (from == null || !maxDate.isBefore(from)) && (to == null || !minDate.isAfter(to));
+    }
+
+    /**
+     * Rows of the account, oldest first, from the groups whose dates intersect {@code [from, to]} (either end may
+     * be {@code null}) and that pass the filter. Like the database history, a row referencing the account on both
+     * sides is returned once.
+     */
+    List<TransactionEntity> readAccount(String accountId, LocalDateTime from, LocalDateTime to, Predicate<TransactionEntity> filter) throws IOException {
+        Footer footer = footer();
+        Integer account = footer.accountIndexes().get(accountId);
+        if (account == null) {
+            return List.of();
+        }
+        List<TransactionEntity> rows = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (int groupIndex : footer.accountGroups()[account]) {
+                Group group = footer.groups()[groupIndex];
+                if (!group.overlaps(from, to)) {
+                    continue;
+                }
+                GroupColumns columns = readGroup(channel, group, true);
+                for (int row = 0; row < group.rows(); row++) {
+                    int sender = columns.senders[row];
+                    if (sender == account || (columns.receivers[row] == account && sender != account)) {
+                        TransactionEntity transaction = columns.toEntity(row, footer.accounts());
+                        if (filter.test(transaction)) {
+                            rows.add(transaction);
+                        }
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Passes the id of every row to the consumer, inflating only the id column of each group.
+     */
+    void forEachId(Consumer<String> consumer) throws IOException {
+        Footer footer = footer();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (Group group : footer.groups()) {
+                for (String id : readGroup(channel, group, false).ids) {
+                    consumer.accept(id);
+                }
+            }
+        }
+    }
+
+    // Loaded outside the cache rather than through a loader, so a footer read never runs inside the cache's
+    // bin lock; two concurrent misses may both read the same immutable footer.
+    private Footer footer() throws IOException {
+        Footer cached = footers.getIfPresent(path);
+        if (cached != null) {
+            return cached;
+        }
+        Footer loaded;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer compressed = readFully(channel, footerOffset, footerLength);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(inflate(compressed, footerRawLength)));
+            Group[] groups = new Group[in.readInt()];
+            for (int i = 0; i < groups.length; i++) {
+                groups[i] = new Group(in.readLong(), in.readInt(), in.readInt(), in.readInt(),
+                        fromMicros(in.readLong()), fromMicros(in.readLong()));
+            }
+            String[] accounts = new String[in.readInt()];
+            int[][] accountGroups = new int[accounts.length][];
+            Map<String, Integer> accountIndexes = HashMap.newHashMap(accounts.length);
+            for (int i = 0; i < accounts.length; i++) {
+                accounts[i] = in.readUTF();
+                accountIndexes.put(accounts[i], i);
+                accountGroups[i] = new int[in.readInt()];
+                for (int j = 0; j < accountGroups[i].length; j++) {
+                    accountGroups[i][j] = in.readInt();
+                }
+            }
+            loaded = new Footer(groups, accounts, accountIndexes, accountGroups);
+        }
+        footers.put(path, loaded);
+        return loaded;
+    }
+
+    private GroupColumns readGroup(FileChannel channel, Group group, boolean allColumns) throws IOException {
+        ByteBuffer buffer = readFully(channel, group.offset(), group.length());
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate());
+        if ((int) crc.getValue() != group.crc()) {
+            throw new IOException("Archive segment " + path + " has a corrupt row group at offset " + group.offset());
+        }
+
+        int rows = group.rows();
+        GroupColumns columns = new GroupColumns(rows);
+        DataInputStream ids = column(buffer);
+        for (int row = 0; row < rows; row++) {
+            columns.ids[row] = ids.readUTF();
+        }
+        if (!allColumns) {
+            return columns;
+        }
+
+        DataInputStream senders = column(buffer);
+        DataInputStream receivers = column(buffer);
+        for (int row = 0; row < rows; row++) {
+            columns.senders[row] = senders.readInt();
+            columns.receivers[row] = receivers.readInt();
+        }
+
+        DataInputStream types = column(buffer);
+        TransactionType[] typeNames = new TransactionType[types.readUnsignedByte()];
+        for (int i = 0; i < typeNames.length; i++) {
+            typeNames[i] = TransactionType.valueOf(types.readUTF());
+        }
+        for (int row = 0; row < rows; row++) {
+            columns.types[row] = typeNames[types.readUnsignedByte()];
+        }
+
+        DataInputStream amounts = column(buffer);
+        DataInputStream dates = column(buffer);
+        long date = 0;
+        for (int row = 0; row < rows; row++) {
+            columns.amounts[row] = amounts.readLong();
+            date += dates.readLong();
+            columns.dates[row] = date;
+        }
+
+        DataInputStream descriptions = column(buffer);
+        for (int row = 0; row < rows; row++) {
+            columns.descriptions[row] = descriptions.readBoolean() ? descriptions.readUTF() : null;
+        }
+        return columns;
+    }
+
+    private static DataInputStream column(ByteBuffer buffer) throws IOException {
+        int rawLength = buffer.getInt();
+        int compressedLength = buffer.getInt();
+        ByteBuffer compressed = buffer.slice(buffer.position(), compressedLength);
+        buffer.position(buffer.position() + compressedLength);
+        return new DataInputStream(new ByteArrayInputStream(inflate(compressed, rawLength)));
+    }
+
+    private static byte[] inflate(ByteBuffer compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int inflated = 0;
+            while (inflated < rawLength && !inflater.finished()) {
+                int read = inflater.inflate(raw, inflated, rawLength - inflated);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += read;
+            }
+            if (inflated != rawLength) {
+                throw new IOException("Archive column inflated to " + inflated + " bytes, expected " + rawLength);
+            }
+            return raw;
+        } catch (DataFormatException ex) {
+            throw new IOException("Archive column is not valid Deflate data", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of archive segment");
+            }
+        }
+        return buffer.flip();
+    }
+
+    static long toMicros(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + date.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    record Footer(Group[] groups, String[] accounts, Map<String, Integer> accountIndexes, int[][] accountGroups) {
+    }
+
+    private record Group(long offset, int length, int rows, int crc, LocalDateTime minDate, LocalDateTime maxDate) {
+
+        boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            return (from == null || !maxDate.isBefore(from)) && (to == null || !minDate.isAfter(to));
+        }
+    }
+
+    private static final class GroupColumns {
+
+        final String[] ids;
+        final int[] senders;
+        final int[] receivers;
+        final TransactionType[] types;
+        final long[] amounts;
+        final long[] dates;
+        final String[] descriptions;
+
+        GroupColumns(int rows) {
+            ids = new String[rows];
+            senders = new int[rows];
+            receivers = new int[rows];
+            types = new TransactionType[rows];
+            amounts = new long[rows];
+            dates = new long[rows];
+            descriptions = new String[rows];
+        }
+
+        TransactionEntity toEntity(int row, String[] accounts) {
+            return TransactionEntity.builder()
+                    .id(ids[row])
+                    .senderAccountId(senders[row] == NO_ACCOUNT ? null : accounts[senders[row]])
+                    .receiverAccountId(receivers[row] == NO_ACCOUNT ? null : accounts[receivers[row]])
+                    .transactionType(types[row])
+                    .amount(Money.ofMinorUnits(amounts[row]))
+                    .date(fromMicros(dates[row]))
+                    .description(descriptions[row])
+                    .build();
+        }
+    }
+
+    private static final class SegmentWriter {
+
+        private final FileChannel channel;
+        private final int rowGroupSize;
+        private final Deflater deflater = new Deflater();
+        private final List<TransactionEntity> pending;
+        private final ByteArrayOutputStream groupBytes = new ByteArrayOutputStream();
+        private final List<Group> groups = new ArrayList<>();
+        private final Map<String, Integer> accountIndexes = new LinkedHashMap<>();
+        private final List<List<Integer>> accountGroups = new ArrayList<>();
+        private long position;
+        private int rowCount;
+        private long minMicros;
+        private long maxMicros;
+
+        SegmentWriter(FileChannel channel, int rowGroupSize) throws IOException {
+            this.channel = channel;
+            this.rowGroupSize = rowGroupSize;
+            this.pending = new ArrayList<>(rowGroupSize);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+            writeFully(header);
+        }
+
+        void add(TransactionEntity transaction) throws IOException {
+            long micros = toMicros(transaction.getDate());
+            if (rowCount == 0) {
+                minMicros = micros;
+            }
+            maxMicros = micros;
+            rowCount++;
+            pending.add(transaction);
+            if (pending.size() == rowGroupSize) {
+                flushGroup();
+            }
+        }
+
+        int finish(LocalDateTime bound) throws IOException {
+            if (!pending.isEmpty()) {
+                flushGroup();
+            }
+
+            ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+            DataOutputStream footer = new DataOutputStream(footerBytes);
+            footer.writeInt(groups.size());
+            for (Group group : groups) {
+                footer.writeLong(group.offset());
+                footer.writeInt(group.length());
+                footer.writeInt(group.rows());
+                footer.writeInt(group.crc());
+                footer.writeLong(toMicros(group.minDate()));
+                footer.writeLong(toMicros(group.maxDate()));
+            }
+            footer.writeInt(accountIndexes.size());
+            int account = 0;
+            for (String accountId : accountIndexes.keySet()) {
+                List<Integer> groupIndexes = accountGroups.get(account++);
+                footer.writeUTF(accountId);
+                footer.writeInt(groupIndexes.size());
+                for (int groupIndex : groupIndexes) {
+                    footer.writeInt(groupIndex);
+                }
+            }
+            byte[] compressedFooter = deflate(footerBytes.toByteArray());
+            long footerOffset = position;
+            writeFully(ByteBuffer.wrap(compressedFooter));
+
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE)
+                    .putLong(toMicros(bound))
+                    .putInt(rowCount)
+                    .putLong(minMicros)
+                    .putLong(maxMicros)
+                    .putLong(footerOffset)
+                    .putInt(compressedFooter.length)
+                    .putInt(footerBytes.size())
+                    .putInt(MAGIC)
+                    .flip();
+            writeFully(trailer);
+            channel.force(true);
+            return rowCount;
+        }
+
+        private void flushGroup() throws IOException {
+            int groupIndex = groups.size();
+            int[] senders = new int[pending.size()];
+            int[] receivers = new int[pending.size()];
+            for (int row = 0; row < pending.size(); row++) {
+                senders[row] = accountIndex(pending.get(row).getSenderAccountId(), groupIndex);
+                receivers[row] = accountIndex(pending.get(row).getReceiverAccountId(), groupIndex);
+            }
+
+            groupBytes.reset();
+            DataOutputStream out = new DataOutputStream(groupBytes);
+            writeColumn(out, column -> {
+                for (TransactionEntity transaction : pending) {
+                    column.writeUTF(transaction.getId());
+                }
+            });
+            writeColumn(out, column -> {
+                for (int sender : senders) {
+                    column.writeInt(sender);
+                }
+            });
+            writeColumn(out, column -> {
+                for (int receiver : receivers) {
+                    column.writeInt(receiver);
+                }
+            });
+            writeColumn(out, column -> {
+                column.writeByte(TYPES.length);
+                for (TransactionType type : TYPES) {
+                    column.writeUTF(type.name());
+                }
+                for (TransactionEntity transaction : pending) {
+                    column.writeByte(transaction.getTransactionType().ordinal());
+                }
+            });
+            writeColumn(out, column -> {
+                for (TransactionEntity transaction : pending) {
+                    column.writeLong(transaction.getAmount().minorUnits());
+                }
+            });
+            writeColumn(out, column -> {
+                long previous = 0;
+                for (TransactionEntity transaction : pending) {
+                    long micros = toMicros(transaction.getDate());
+                    column.writeLong(micros - previous);
+                    previous = micros;
+                }
+            });
+            writeColumn(out, column -> {
+                for (TransactionEntity transaction : pending) {
+                    column.writeBoolean(transaction.getDescription() != null);
+                    if (transaction.getDescription() != null) {
+                        column.writeUTF(transaction.getDescription());
+                    }
+                }
+            });
+
+            byte[] body = groupBytes.toByteArray();
+            CRC32C crc = new CRC32C();
+            crc.update(body);
+            groups.add(new Group(position, body.length, pending.size(), (int) crc.getValue(),
+                    pending.getFirst().getDate(), pending.getLast().getDate()));
+            writeFully(ByteBuffer.wrap(body));
+            pending.clear();
+        }
+
+        private int accountIndex(String accountId, int groupIndex) {
+            if (accountId == null) {
+                return NO_ACCOUNT;
+            }
+            Integer index = accountIndexes.get(accountId);
+            if (index == null) {
+                index = accountIndexes.size();
+                accountIndexes.put(accountId, index);
+                accountGroups.add(new ArrayList<>());
+            }
+            List<Integer> groupIndexes = accountGroups.get(index);
+            if (groupIndexes.isEmpty() || groupIndexes.getLast() != groupIndex) {
+                groupIndexes.add(groupIndex);
+            }
+            return index;
+        }
+
+        private void writeColumn(DataOutputStream out, ColumnEncoder encoder) throws IOException {
+            ByteArrayOutputStream raw = new ByteArrayOutputStream();
+            encoder.encode(new DataOutputStream(raw));
+            byte[] compressed = deflate(raw.toByteArray());
+            out.writeInt(raw.size());
+            out.writeInt(compressed.length);
+            out.write(compressed);
+        }
+
+        private byte[] deflate(byte[] raw) {
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return compressed.toByteArray();
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ColumnEncoder {
+
+        void encode(DataOutputStream column) throws IOException;
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.bank_app.service.archive;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionCursor;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.config.TransactionStorageProperties;
+import com.example.bank_app.dto.request.TransactionHistoryFilter;
+import com.example.bank_app.entity.TransactionEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier of the transaction history: immutable {@link ArchiveSegment} files on local disk.
+ *
+ * <p>The archive answers for every transaction dated before its horizon, the highest bound of its segments; the
+ * database answers for the rest. A segment is written to a temporary file, forced, and renamed into place, so
+ * readers either see all of it or none of it, and rows are only deleted from the database after their segment is
+ * visible. Segments are never modified; rows arriving late for an archived range go into an additional segment.
+ *
+ * <p>The directory is read at startup and only the archiving instance adds to it, so every instance serving
+ * history must see the same directory (a shared volume), or the archiver may only run where history is served.
+ */
+@Slf4j
+@Component
+public class TransactionArchive {
+
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final Comparator<TransactionEntity> OLDEST_FIRST =
+            Comparator.comparing(TransactionEntity::getDate).thenComparing(TransactionEntity::getId);
+
+    private final Path directory;
+    private final int rowGroupSize;
+    private final Cache<Path, ArchiveSegment.Footer> footers;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private volatile List<ArchiveSegment> segments;
+    private long nextSequence = 1;
+
+    public TransactionArchive(TransactionStorageProperties properties) {
+        this.directory = Path.of(properties.getArchive().getDirectory());
+        this.rowGroupSize = properties.getArchive().getRowGroupSize();
+        this.footers = Caffeine.newBuilder()
+                .maximumSize(properties.getArchive().getFooterCacheSize())
+                .build();
+        this.segments = loadSegments();
+    }
+
+    /**
+     * The bound below which the archive, not the database, holds the transactions; empty while nothing is archived.
+     */
+    public Optional<LocalDateTime> horizon() {
+        return segments.stream().map(ArchiveSegment::bound).max(Comparator.naturalOrder());
+    }
+
+    /**
+     * Same contract as the database page query: up to {@code limit} rows of the account, newest first, strictly
+     * after the cursor.
+     */
+    public List<TransactionEntity> findPageByAccountId(String accountId, TransactionHistoryFilter filter, TransactionCursor after, int limit) {
+        LocalDateTime to = after == null ? filter.getTo() : earliest(filter.getTo(), after.date());
+        Predicate<TransactionEntity> matches = matcher(filter, after);
+        List<ArchiveSegment> candidates = segments.stream()
+                .filter(segment -> segment.overlaps(filter.getFrom(), to))
+                .sorted(Comparator.comparing(ArchiveSegment::maxDate).reversed())
+                .toList();
+
+        List<TransactionEntity> page = new ArrayList<>();
+        for (ArchiveSegment segment : candidates) {
+            if (page.size() >= limit && segment.maxDate().isBefore(page.get(limit - 1).getDate())) {
+                break;
+            }
+            page.addAll(read(segment, accountId, filter.getFrom(), to, matches));
+            page.sort(OLDEST_FIRST.reversed());
+            if (page.size() > limit) {
+                page.subList(limit, page.size()).clear();
+            }
+        }
+        return page;
+    }
+
+    /**
+     * The account's archived rows matching the filter, oldest first, read one segment at a time as the stream is
+     * consumed.
+     */
+    public Stream<TransactionEntity> streamByAccountId(String accountId, TransactionHistoryFilter filter) {
+        Predicate<TransactionEntity> matches = matcher(filter, null);
+        return overlappingRuns(filter.getFrom(), filter.getTo()).stream()
+                .flatMap(run -> {
+                    List<TransactionEntity> rows = new ArrayList<>();
+                    for (ArchiveSegment segment : run) {
+                        rows.addAll(read(segment, accountId, filter.getFrom(), filter.getTo(), matches));
+                    }
+                    if (run.size() > 1) {
+                        rows.sort(OLDEST_FIRST);
+                    }
+                    return rows.stream();
+                });
+    }
+
+    /**
+     * Net change of the account over archived transactions dated after {@code after} and up to {@code upTo},
+     * counted like the database sum: credits to the receiver, debits against the sender except for INITIAL rows.
+     */
+    public BigDecimal sumNetChange(String accountId, LocalDateTime after, LocalDateTime upTo) {
+        Predicate<TransactionEntity> inWindow = transaction -> transaction.getDate().isAfter(after) && !transaction.getDate().isAfter(upTo);
+        Money netChange = Money.ZERO;
+        for (ArchiveSegment segment : segments) {
+            if (!segment.overlaps(after, upTo)) {
+                continue;
+            }
+            for (TransactionEntity transaction : read(segment, accountId, after, upTo, inWindow)) {
+                if (accountId.equals(transaction.getReceiverAccountId())) {
+                    netChange = netChange.plus(transaction.getAmount());
+                }
+                if (accountId.equals(transaction.getSenderAccountId()) && transaction.getTransactionType() != TransactionType.INITIAL) {
+                    netChange = netChange.minus(transaction.getAmount());
+                }
+            }
+        }
+        return netChange.toBigDecimal();
+    }
+
+    /**
+     * Ids of all archived rows in segments whose dates intersect {@code [from, to]}.
+     */
+    public Set<String> findIdsBetween(LocalDateTime from, LocalDateTime to) {
+        Set<String> ids = new HashSet<>();
+        for (ArchiveSegment segment : segments) {
+            if (segment.overlaps(from, to)) {
+                try {
+                    segment.forEachId(ids::add);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException("Could not read archive segment " + segment.path(), ex);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Writes the rows, in {@code (date, id)} order and all dated before {@code bound}, as a new segment and makes
+     * it visible to readers. Nothing is written when there are no rows.
+     *
+     * @return the number of rows archived
+     */
+    public int append(LocalDateTime bound, Stream<TransactionEntity> rows) {
+        appendLock.lock();
+        try {
+            Path target = directory.resolve("%016d%s".formatted(nextSequence, ArchiveSegment.SUFFIX));
+            Path temporary = directory.resolve(target.getFileName() + TEMPORARY_SUFFIX);
+            int written = ArchiveSegment.write(temporary, bound, rows.iterator(), rowGroupSize);
+            if (written == 0) {
+                Files.delete(temporary);
+                return 0;
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            nextSequence++;
+
+            List<ArchiveSegment> published = new ArrayList<>(segments);
+            published.add(ArchiveSegment.open(target, footers));
+            published.sort(Comparator.comparing(ArchiveSegment::minDate));
+            segments = List.copyOf(published);
+            return written;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write archive segment in " + directory, ex);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private List<ArchiveSegment> loadSegments() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing.sorted().toList();
+            }
+            List<ArchiveSegment> loaded = new ArrayList<>();
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMPORARY_SUFFIX)) {
+                    log.info("Deleting incomplete archive segment {}", file);
+                    Files.delete(file);
+                } else if (name.endsWith(ArchiveSegment.SUFFIX)) {
+                    loaded.add(ArchiveSegment.open(file, footers));
+                    nextSequence = Math.max(nextSequence, Long.parseLong(name.substring(0, name.length() - ArchiveSegment.SUFFIX.length())) + 1);
+                }
+            }
+            loaded.sort(Comparator.comparing(ArchiveSegment::minDate));
+            return List.copyOf(loaded);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open transaction archive in " + directory, ex);
+        }
+    }
+
+    // Consecutive segments (by first date) whose date ranges overlap, e.g. a month and rows that arrived late for
+    // it, form one run that has to be sorted as a whole to keep the stream in date order.
+    private List<List<ArchiveSegment>> overlappingRuns(LocalDateTime from, LocalDateTime to) {
+        List<List<ArchiveSegment>> runs = new ArrayList<>();
+        LocalDateTime runEnd = null;
+        for (ArchiveSegment segment : segments) {
+            if (!segment.overlaps(from, to)) {
+                continue;
+            }
+            if (runEnd != null && !segment.minDate().isAfter(runEnd)) {
+                runs.getLast().add(segment);
+                runEnd = segment.maxDate().isAfter(runEnd) ? segment.maxDate() : runEnd;
+            } else {
+                runs.add(new ArrayList<>(List.of(segment)));
+                runEnd = segment.maxDate();
+            }
+        }
+        return runs;
+    }
+
+    private List<TransactionEntity> read(ArchiveSegment segment, String accountId, LocalDateTime from, LocalDateTime to,
+                                         Predicate<TransactionEntity> filter) {
+        try {
+            return segment.readAccount(accountId, from, to, filter);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read archive segment " + segment.path(), ex);
+        }
+    }
+
+    // The archive counterpart of the history query's WHERE clause.
+    private static Predicate<TransactionEntity> matcher(TransactionHistoryFilter filter, TransactionCursor after) {
+        return transaction -> {
+            LocalDateTime date = transaction.getDate();
+            if (filter.getFrom() != null && date.isBefore(filter.getFrom())) {
+                return false;
+            }
+            if (filter.getTo() != null && !date.isBefore(filter.getTo())) {
+                return false;
+            }
+            if (filter.getTransactionType() != null && transaction.getTransactionType() != filter.getTransactionType()) {
+                return false;
+            }
+            BigDecimal amount = transaction.getAmount().toBigDecimal();
+            if (filter.getMinAmount() != null && amount.compareTo(filter.getMinAmount()) < 0) {
+                return false;
+            }
+            if (filter.getMaxAmount() != null && amount.compareTo(filter.getMaxAmount()) > 0) {
+                return false;
+            }
+            return after == null || date.isBefore(after.date())
+                    || (date.isEqual(after.date()) && transaction.getId().compareTo(after.id()) < 0);
+        };
+    }
+
+    private static LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        return first == null || second.isBefore(first) ? second : first;
+    }
+}
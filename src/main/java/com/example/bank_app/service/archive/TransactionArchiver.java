@@ -0,0 +1,128 @@
+package com.example.bank_app.service.archive;
+
+import com.example.bank_app.config.TransactionStorageProperties;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the monthly partitions of the transaction table and moves months older than {@code hot-months} into
+ * the {@link TransactionArchive}.
+ *
+ * <p>Partitions are created {@code partitions-ahead} months in advance by splitting the MAXVALUE partition. Months
+ * are archived oldest first: all rows dated before the end of the month are written to a segment, the segment is
+ * published, and only then are the rows removed, by dropping the month's partitions where the table is
+ * partitioned. If the row count changed while the segment was written, nothing is removed; the next run archives
+ * whatever rows below the horizon are not in a segment yet and removes them.
+ *
+ * <p>The monthly statement backfill recomputes rollups from the transaction table, so it must not run once months
+ * have been archived.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionArchiver {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
+    private final TransactionStorageProperties properties;
+
+    @Scheduled(initialDelayString = "${bank.transaction-storage.interval:PT1H}",
+            fixedDelayString = "${bank.transaction-storage.interval:PT1H}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        createPartitions(current);
+        if (properties.getArchive().isEnabled()) {
+            long archived = archiveBefore(current.minusMonths(properties.getArchive().getHotMonths()));
+            if (archived > 0) {
+                log.info("Archived {} transactions, archive horizon is now {}", archived, transactionArchive.horizon().orElse(null));
+            }
+        }
+    }
+
+    /**
+     * Makes sure a partition exists for every month up to {@code partitions-ahead} months after {@code current}.
+     * The first run also creates partitions from the month of the oldest transaction. A no-op where the table is
+     * not partitioned.
+     */
+    public void createPartitions(YearMonth current) {
+        List<YearMonth> existing = transactionRepository.findMonthlyPartitions();
+        YearMonth first = existing.isEmpty()
+                ? transactionRepository.findOldestDate().map(YearMonth::from).filter(current::isAfter).orElse(current)
+                : existing.getLast().plusMonths(1);
+        YearMonth last = current.plusMonths(properties.getPartitionsAhead());
+
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        transactionRepository.addMonthlyPartitions(months);
+    }
+
+    /**
+     * Archives every month before {@code cutoff}, oldest first.
+     *
+     * @return the number of transactions archived
+     */
+    public long archiveBefore(YearMonth cutoff) {
+        long archived = 0;
+        Optional<LocalDateTime> horizon = transactionArchive.horizon();
+        if (horizon.isPresent() && transactionRepository.countOlderThan(horizon.get()) > 0) {
+            LocalDateTime oldest = transactionRepository.findOldestDate().orElse(horizon.get());
+            Set<String> alreadyArchived = transactionArchive.findIdsBetween(oldest, horizon.get());
+            ArchiveRun leftovers = archive(horizon.get(), alreadyArchived);
+            archived += leftovers.archived();
+            if (!leftovers.removed()) {
+                return archived;
+            }
+        }
+
+        LocalDateTime cutoffStart = cutoff.atDay(1).atStartOfDay();
+        while (true) {
+            Optional<LocalDateTime> oldest = transactionRepository.findOldestDate();
+            if (oldest.isEmpty() || !oldest.get().isBefore(cutoffStart)) {
+                return archived;
+            }
+            LocalDateTime bound = YearMonth.from(oldest.get()).plusMonths(1).atDay(1).atStartOfDay();
+            ArchiveRun month = archive(bound, Set.of());
+            archived += month.archived();
+            if (!month.removed()) {
+                return archived;
+            }
+        }
+    }
+
+    private ArchiveRun archive(LocalDateTime bound, Set<String> alreadyArchived) {
+        AtomicLong seen = new AtomicLong();
+        int archived;
+        try (Stream<TransactionEntity> rows = transactionRepository.streamOlderThan(bound)) {
+            archived = transactionArchive.append(bound, rows
+                    .peek(row -> seen.incrementAndGet())
+                    .filter(row -> !alreadyArchived.contains(row.getId())));
+        }
+
+        long remaining = transactionRepository.countOlderThan(bound);
+        if (remaining != seen.get()) {
+            log.warn("Transactions dated before {} changed while archiving ({} read, {} now); keeping them for the next run",
+                    bound, seen.get(), remaining);
+            return new ArchiveRun(archived, false);
+        }
+        transactionRepository.deleteOlderThan(bound);
+        return new ArchiveRun(archived, true);
+    }
+
+    private record ArchiveRun(long archived, boolean removed) {
+    }
+}
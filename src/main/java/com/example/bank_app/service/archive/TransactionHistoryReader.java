@@ -0,0 +1,123 @@
+package com.example.bank_app.service.archive;
+
+import com.example.bank_app.common.TransactionCursor;
+import com.example.bank_app.dto.request.TransactionHistoryFilter;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Account history across both tiers: the database for transactions dated at or after the archive horizon, the
+ * {@link TransactionArchive} for the older ones. Every archived row is older than every hot row, so pages and
+ * streams are the hot part followed (newest first) or preceded (oldest first) by the archived part.
+ *
+ * <p>Rows below the horizon that are still in the database (the archiver deletes them only after their segment is
+ * published) are ignored. A read that saw the horizon move while it queried the database starts over, since the
+ * rows between the old and the new horizon may have been deleted under it.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionHistoryReader {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
+
+    public List<TransactionEntity> findPageByAccountId(String accountId, TransactionHistoryFilter filter, TransactionCursor after, int limit) {
+        while (true) {
+            Optional<LocalDateTime> horizon = transactionArchive.horizon();
+            if (horizon.isEmpty()) {
+                List<TransactionEntity> page = transactionRepository.findPageByAccountId(accountId, filter, after, limit);
+                if (transactionArchive.horizon().isEmpty()) {
+                    return page;
+                }
+                continue;
+            }
+
+            LocalDateTime boundary = horizon.get();
+            List<TransactionEntity> page = new ArrayList<>(limit);
+            if (after == null || !after.date().isBefore(boundary)) {
+                page.addAll(transactionRepository.findPageByAccountId(accountId, hotPart(filter, boundary), after, limit));
+                if (!horizon.equals(transactionArchive.horizon())) {
+                    continue;
+                }
+            }
+            if (page.size() < limit && (filter.getFrom() == null || filter.getFrom().isBefore(boundary))) {
+                page.addAll(transactionArchive.findPageByAccountId(accountId, coldPart(filter, boundary), after, limit - page.size()));
+            }
+            return page;
+        }
+    }
+
+    public Stream<TransactionEntity> streamByAccountId(String accountId, TransactionHistoryFilter filter) {
+        while (true) {
+            Optional<LocalDateTime> horizon = transactionArchive.horizon();
+            TransactionHistoryFilter hotFilter = horizon.map(boundary -> hotPart(filter, boundary)).orElse(filter);
+            Stream<TransactionEntity> hot = transactionRepository.streamByAccountId(accountId, hotFilter);
+            if (!horizon.equals(transactionArchive.horizon())) {
+                hot.close();
+                continue;
+            }
+            if (horizon.isEmpty() || (filter.getFrom() != null && !filter.getFrom().isBefore(horizon.get()))) {
+                return hot;
+            }
+            return Stream.concat(transactionArchive.streamByAccountId(accountId, coldPart(filter, horizon.get())), hot);
+        }
+    }
+
+    /**
+     * Net change of the account over transactions dated after {@code after} and up to {@code upTo}.
+     */
+    public BigDecimal sumNetChange(String accountId, LocalDateTime after, LocalDateTime upTo) {
+        while (true) {
+            Optional<LocalDateTime> horizon = transactionArchive.horizon();
+            if (horizon.isEmpty() || !after.isBefore(horizon.get())) {
+                BigDecimal netChange = transactionRepository.sumNetChange(accountId, after, upTo);
+                if (horizon.equals(transactionArchive.horizon())) {
+                    return netChange;
+                }
+                continue;
+            }
+
+            LocalDateTime boundary = horizon.get();
+            BigDecimal netChange = BigDecimal.ZERO;
+            if (!upTo.isBefore(boundary)) {
+                // The database sum excludes its lower end; dates have microsecond precision, so starting one
+                // microsecond before the horizon covers exactly the rows dated at or after it.
+                netChange = transactionRepository.sumNetChange(accountId, boundary.minus(1, ChronoUnit.MICROS), upTo);
+                if (!horizon.equals(transactionArchive.horizon())) {
+                    continue;
+                }
+            }
+            return netChange.add(transactionArchive.sumNetChange(accountId, after, upTo));
+        }
+    }
+
+    private static TransactionHistoryFilter hotPart(TransactionHistoryFilter filter, LocalDateTime horizon) {
+        LocalDateTime from = filter.getFrom() == null || filter.getFrom().isBefore(horizon) ? horizon : filter.getFrom();
+        return withRange(filter, from, filter.getTo());
+    }
+
+    private static TransactionHistoryFilter coldPart(TransactionHistoryFilter filter, LocalDateTime horizon) {
+        LocalDateTime to = filter.getTo() == null || filter.getTo().isAfter(horizon) ? horizon : filter.getTo();
+        return withRange(filter, filter.getFrom(), to);
+    }
+
+    private static TransactionHistoryFilter withRange(TransactionHistoryFilter filter, LocalDateTime from, LocalDateTime to) {
+        return TransactionHistoryFilter.builder()
+                .from(from)
+                .to(to)
+                .transactionType(filter.getTransactionType())
+                .minAmount(filter.getMinAmount())
+                .maxAmount(filter.getMaxAmount())
+                .build();
+    }
+}
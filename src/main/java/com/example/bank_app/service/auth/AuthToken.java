@@ -0,0 +1,12 @@
+package com.example.bank_app.service.auth;
+
+import com.example.bank_app.common.AuthTokenType;
+
+import java.time.Instant;
+
+/**
+ * Claims of a verified token. Access and refresh tokens issued by one login share the session id, which is what
+ * a logout revokes.
+ */
+public record AuthToken(AuthTokenType type, String sessionId, String tokenId, String customerId, Instant expiresAt, String email) {
+}
@@ -0,0 +1,187 @@
+package com.example.bank_app.service.auth;
+
+import com.example.bank_app.common.AuthTokenType;
+import com.example.bank_app.config.AuthTokenProperties;
+import com.example.bank_app.dto.response.AuthTokenResponse;
+import com.example.bank_app.exception.InvalidTokenException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and verifies stateless bearer tokens: {@code base64url(claims) + "." + base64url(HMAC-SHA256(claims))}.
+ * Verifying an access token costs one HMAC over a few dozen bytes and a revocation lookup in memory; neither the
+ * password hash nor the database is involved.
+ *
+ * <p>Refresh tokens are single use: the id of the only valid refresh token of each session is kept in memory and
+ * replaced on every refresh, for at most {@code max-sessions} sessions. A session that is evicted can no longer be
+ * refreshed, which fails safe. Revoking a session drops its refresh token id, so the revocation list only has to
+ * outlive the session's access tokens and entries expire after the access token TTL. It is sized like the refresh
+ * token ids, but it only grows with logouts of distinct sessions within one access token TTL, each of which took a
+ * login; if it ever overflowed, an evicted session's access token would be accepted again until it expires. Both
+ * lists are local to the instance and are lost on restart, which logs every session out of refresh but not out of
+ * its current access token.
+ */
+@Slf4j
+@Component
+public class AuthTokenService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String TOKEN_TYPE = "Bearer";
+    private static final char SEPARATOR = '|';
+    private static final int CLAIM_COUNT = 6;
+    private static final int ID_BYTES = 16;
+    private static final int SECRET_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final AuthTokenProperties authTokenProperties;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Mac macPrototype;
+    private final Cache<String, Boolean> revokedSessions;
+    private final Cache<String, String> refreshTokenIdsBySession;
+
+    public AuthTokenService(AuthTokenProperties authTokenProperties) {
+        this.authTokenProperties = authTokenProperties;
+        this.macPrototype = createMac(resolveSecret(authTokenProperties.getSecret()));
+        this.revokedSessions = Caffeine.newBuilder()
+                .maximumSize(authTokenProperties.getMaxSessions())
+                .expireAfterWrite(authTokenProperties.getAccessTokenTtl())
+                .build();
+        this.refreshTokenIdsBySession = Caffeine.newBuilder()
+                .maximumSize(authTokenProperties.getMaxSessions())
+                .expireAfterWrite(authTokenProperties.getRefreshTokenTtl())
+                .build();
+    }
+
+    public AuthTokenResponse issue(String customerId, String email) {
+        return issue(newId(), customerId, email);
+    }
+
+    public Optional<AuthToken> verifyAccessToken(String token) {
+        return verify(token)
+                .filter(authToken -> authToken.type() == AuthTokenType.ACCESS)
+                .filter(this::isActive);
+    }
+
+    public AuthTokenResponse refresh(String refreshToken) {
+        AuthToken authToken = verify(refreshToken)
+                .filter(candidate -> candidate.type() == AuthTokenType.REFRESH)
+                .filter(this::isActive)
+                .orElseThrow(InvalidTokenException::new);
+        if (!refreshTokenIdsBySession.asMap().remove(authToken.sessionId(), authToken.tokenId())) {
+            throw new InvalidTokenException();
+        }
+        return issue(authToken.sessionId(), authToken.customerId(), authToken.email());
+    }
+
+    /**
+     * Ends the session of the given token, whatever its type: the access and refresh tokens issued for it stop
+     * being accepted immediately.
+     */
+    public void revoke(String token) {
+        AuthToken authToken = verify(token).orElseThrow(InvalidTokenException::new);
+        revokedSessions.put(authToken.sessionId(), Boolean.TRUE);
+        refreshTokenIdsBySession.invalidate(authToken.sessionId());
+    }
+
+    private AuthTokenResponse issue(String sessionId, String customerId, String email) {
+        Instant now = Instant.now();
+        String refreshTokenId = newId();
+        refreshTokenIdsBySession.put(sessionId, refreshTokenId);
+
+        return AuthTokenResponse.builder()
+                .accessToken(sign(new AuthToken(AuthTokenType.ACCESS, sessionId, newId(), customerId,
+                        now.plus(authTokenProperties.getAccessTokenTtl()), email)))
+                .refreshToken(sign(new AuthToken(AuthTokenType.REFRESH, sessionId, refreshTokenId, customerId,
+                        now.plus(authTokenProperties.getRefreshTokenTtl()), email)))
+                .tokenType(TOKEN_TYPE)
+                .expiresIn(authTokenProperties.getAccessTokenTtl().toSeconds())
+                .build();
+    }
+
+    private boolean isActive(AuthToken authToken) {
+        return Instant.now().isBefore(authToken.expiresAt()) && revokedSessions.getIfPresent(authToken.sessionId()) == null;
+    }
+
+    private String sign(AuthToken authToken) {
+        String claims = String.join(String.valueOf(SEPARATOR),
+                authToken.type().name(),
+                authToken.sessionId(),
+                authToken.tokenId(),
+                authToken.customerId(),
+                String.valueOf(authToken.expiresAt().getEpochSecond()),
+                authToken.email());
+        String encodedClaims = ENCODER.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        return encodedClaims + '.' + ENCODER.encodeToString(hmac(encodedClaims));
+    }
+
+    private Optional<AuthToken> verify(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return Optional.empty();
+        }
+        try {
+            String encodedClaims = token.substring(0, dot);
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, hmac(encodedClaims))) {
+                return Optional.empty();
+            }
+            // The email is the last claim so that a separator inside it cannot shift the other claims.
+            String[] claims = new String(DECODER.decode(encodedClaims), StandardCharsets.UTF_8).split("\\|", CLAIM_COUNT);
+            return Optional.of(new AuthToken(AuthTokenType.valueOf(claims[0]), claims[1], claims[2], claims[3],
+                    Instant.ofEpochSecond(Long.parseLong(claims[4])), claims[5]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] hmac(String encodedClaims) {
+        try {
+            Mac mac = (Mac) macPrototype.clone();
+            return mac.doFinal(encodedClaims.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException ex) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " does not support cloning", ex);
+        }
+    }
+
+    private String newId() {
+        byte[] id = new byte[ID_BYTES];
+        secureRandom.nextBytes(id);
+        return ENCODER.encodeToString(id);
+    }
+
+    private byte[] resolveSecret(String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("bank.auth.token.secret is not set; using a random key, tokens will not survive a restart");
+            byte[] generated = new byte[SECRET_BYTES];
+            secureRandom.nextBytes(generated);
+            return generated;
+        }
+        return Base64.getDecoder().decode(secret);
+    }
+
+    private static Mac createMac(byte[] secret) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, HMAC_ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Cannot initialise " + HMAC_ALGORITHM, ex);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.bank_app.service.export;
+
+import com.example.bank_app.common.TransactionExportFormat;
+import com.example.bank_app.entity.TransactionEntity;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+public class TransactionExportWriter {
+
+    private static final String CSV_HEADER = "id,senderAccountId,receiverAccountId,transactionType,amount,date,description";
+
+    private final ObjectMapper objectMapper;
+
+    public long write(Stream<TransactionEntity> transactions, TransactionExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long written = switch (format) {
+            case NDJSON -> writeNdjson(transactions.iterator(), writer);
+            case CSV -> writeCsv(transactions.iterator(), writer);
+        };
+        writer.flush();
+        return written;
+    }
+
+    private long writeNdjson(Iterator<TransactionEntity> transactions, Writer writer) throws IOException {
+        long written = 0;
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        while (transactions.hasNext()) {
+            TransactionEntity transaction = transactions.next();
+            generator.writeStartObject();
+            generator.writeStringField("id", transaction.getId());
+            generator.writeStringField("senderAccountId", transaction.getSenderAccountId());
+            generator.writeStringField("receiverAccountId", transaction.getReceiverAccountId());
+            generator.writeStringField("transactionType", transaction.getTransactionType().name());
+            generator.writeFieldName("amount");
+            generator.writeNumber(transaction.getAmount().toString());
+            generator.writeStringField("date", transaction.getDate().toString());
+            generator.writeStringField("description", transaction.getDescription());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            written++;
+        }
+        generator.flush();
+        return written;
+    }
+
+    private long writeCsv(Iterator<TransactionEntity> transactions, Writer writer) throws IOException {
+        long written = 0;
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (transactions.hasNext()) {
+            TransactionEntity transaction = transactions.next();
+            writer.write(transaction.getId());
+            writer.write(',');
+            writeCsvValue(writer, transaction.getSenderAccountId());
+            writer.write(',');
+            writeCsvValue(writer, transaction.getReceiverAccountId());
+            writer.write(',');
+            writer.write(transaction.getTransactionType().name());
+            writer.write(',');
+            writer.write(transaction.getAmount().toString());
+            writer.write(',');
+            writer.write(transaction.getDate().toString());
+            writer.write(',');
+            writeCsvValue(writer, transaction.getDescription());
+            writer.write('\n');
+            written++;
+        }
+        return written;
+    }
+
+    private void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuoting = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuoting) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.bank_app.service.feed;
+
+import com.example.bank_app.config.AccountFeedProperties;
+import com.example.bank_app.dto.response.AccountActivityResponse;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.event.AccountDeletedEvent;
+import com.example.bank_app.event.TransferCommittedEvent;
+import com.example.bank_app.mapper.TransactionMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of committed transfers to the Server-Sent Events subscribers of the accounts they touch.
+ *
+ * <p>Every subscriber has a bounded queue drained by its own virtual thread, so a client that reads slowly only
+ * delays itself. A subscriber whose queue is full when an event arrives is evicted: its stream is closed and the
+ * client reconnects with {@code Last-Event-ID}. Each account keeps its last {@code replay-size} events, and keeps
+ * them for {@code replay-retention} after its last subscriber left, so a reconnecting client is sent what it
+ * missed. When that is not possible (the events fell out of the buffer, or the id was issued before a restart) the
+ * client gets a {@value #RESYNC_EVENT} event and should reload the account over the REST API.
+ *
+ * <p>Event ids are {@code <instance epoch>-<sequence>}. All channel state is changed inside
+ * {@link ConcurrentHashMap#compute} of the account's entry, which never blocks: events are offered, not put.
+ * Transfers are only seen by the instance that executed them.
+ */
+@Slf4j
+@Component
+public class AccountFeedHub {
+
+    static final String TRANSFER_EVENT = "transfer";
+    static final String RESYNC_EVENT = "resync";
+
+    private final AccountFeedProperties properties;
+    private final TransactionMapper transactionMapper;
+    private final ConcurrentHashMap<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    public AccountFeedHub(AccountFeedProperties properties, TransactionMapper transactionMapper) {
+        this.properties = properties;
+        this.transactionMapper = transactionMapper;
+    }
+
+    /**
+     * Opens a stream of the account's transfers. Ownership must have been checked by the caller.
+     *
+     * @param lastEventId the {@code Last-Event-ID} the client reconnects with, or {@code null}
+     */
+    public SseEmitter subscribe(String accountId, String lastEventId) {
+        return subscribe(accountId, lastEventId, new SseEmitter(properties.getTimeout().toMillis()));
+    }
+
+    SseEmitter subscribe(String accountId, String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(accountId, emitter);
+        channels.compute(accountId, (id, channel) -> {
+            Channel target = channel != null ? channel : new Channel(sequence.get());
+            subscriber.backlog.addAll(target.replayAfter(lastEventId));
+            target.subscribers.add(subscriber);
+            return target;
+        });
+        subscriberCount.incrementAndGet();
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+        senders.execute(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Runs after the transfer's transaction commits, or right away for transfers applied outside a database
+     * transaction (the ledger strategy).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransferCommitted(TransferCommittedEvent event) {
+        TransactionEntity transaction = event.transaction();
+        publish(transaction.getReceiverAccountId(), transaction);
+        if (!transaction.getReceiverAccountId().equals(transaction.getSenderAccountId())) {
+            publish(transaction.getSenderAccountId(), transaction);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onAccountDeleted(AccountDeletedEvent event) {
+        // Once removed from the map the channel is no longer reachable from compute, so it can be read directly.
+        Channel channel = channels.remove(event.accountId());
+        if (channel != null) {
+            channel.subscribers.forEach(Subscriber::end);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bank.account-feed.replay-retention:PT5M}")
+    public void removeIdleChannels() {
+        long idleBefore = System.nanoTime() - properties.getReplayRetention().toNanos();
+        for (String accountId : channels.keySet()) {
+            channels.computeIfPresent(accountId, (id, channel) ->
+                    channel.subscribers.isEmpty() && channel.idleSince - idleBefore < 0 ? null : channel);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public long evictedCount() {
+        return evictedCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    // Nobody is listening to accounts without a channel, and nobody can resume from their events either: a channel
+    // created later only replays events published after its creation.
+    private void publish(String accountId, TransactionEntity transaction) {
+        if (!channels.containsKey(accountId)) {
+            return;
+        }
+        AccountActivityResponse activity = transactionMapper.toAccountActivityResponse(accountId, transaction);
+        channels.computeIfPresent(accountId, (id, channel) -> {
+            long eventSequence = sequence.incrementAndGet();
+            FeedEntry entry = new FeedEntry(eventSequence, epoch + '-' + eventSequence, TRANSFER_EVENT, activity);
+            channel.append(entry, properties.getReplaySize());
+            if (channel.subscribers.removeIf(subscriber -> !subscriber.offer(entry)) && channel.subscribers.isEmpty()) {
+                channel.idleSince = System.nanoTime();
+            }
+            return channel;
+        });
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        channels.computeIfPresent(subscriber.accountId, (id, channel) -> {
+            if (channel.subscribers.remove(subscriber) && channel.subscribers.isEmpty()) {
+                channel.idleSince = System.nanoTime();
+            }
+            return channel;
+        });
+    }
+
+    private record FeedEntry(long sequence, String id, String name, Object data) {
+    }
+
+    private final class Channel {
+
+        private final ArrayDeque<FeedEntry> recent = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        // Events up to this sequence may be missing from recent: they were published before the channel existed or
+        // have been dropped from the buffer since.
+        private long replayFloor;
+        private long idleSince = System.nanoTime();
+
+        private Channel(long replayFloor) {
+            this.replayFloor = replayFloor;
+        }
+
+        private void append(FeedEntry entry, int replaySize) {
+            recent.addLast(entry);
+            while (recent.size() > replaySize) {
+                replayFloor = recent.removeFirst().sequence();
+            }
+        }
+
+        private List<FeedEntry> replayAfter(String lastEventId) {
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return List.of();
+            }
+            long lastSequence = parseSequence(lastEventId);
+            if (lastSequence < replayFloor) {
+                return List.of(new FeedEntry(0, null, RESYNC_EVENT, ""));
+            }
+            return recent.stream().filter(entry -> entry.sequence() > lastSequence).toList();
+        }
+
+        private long parseSequence(String lastEventId) {
+            int separator = lastEventId.lastIndexOf('-');
+            if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+                return -1;
+            }
+            try {
+                return Long.parseLong(lastEventId.substring(separator + 1));
+            } catch (NumberFormatException ex) {
+                return -1;
+            }
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final String accountId;
+        private final SseEmitter emitter;
+        private final List<FeedEntry> backlog = new ArrayList<>();
+        private final BlockingQueue<FeedEntry> queue = new ArrayBlockingQueue<>(properties.getSubscriberBufferSize());
+        private final AtomicInteger state = new AtomicInteger(OPEN);
+        // Set before the sender first reads the state, so a state change either is seen by the sender or finds
+        // the thread to interrupt.
+        private volatile Thread sender;
+
+        private static final int OPEN = 0;
+        private static final int ENDED = 1;
+        private static final int CLOSED = 2;
+
+        private Subscriber(String accountId, SseEmitter emitter) {
+            this.accountId = accountId;
+            this.emitter = emitter;
+        }
+
+        // Called inside the channel's compute; false removes the subscriber from the channel.
+        private boolean offer(FeedEntry entry) {
+            if (state.get() != OPEN) {
+                return false;
+            }
+            if (queue.offer(entry)) {
+                return true;
+            }
+            if (state.compareAndSet(OPEN, ENDED)) {
+                evictedCount.incrementAndGet();
+                log.debug("Evicting slow account feed subscriber of {}", accountId);
+                interruptSender();
+            }
+            return false;
+        }
+
+        // Completes the stream once the sender has stopped.
+        private void end() {
+            if (state.compareAndSet(OPEN, ENDED)) {
+                interruptSender();
+            }
+        }
+
+        @Override
+        public void run() {
+            sender = Thread.currentThread();
+            try {
+                for (FeedEntry entry : backlog) {
+                    if (state.get() != OPEN) {
+                        break;
+                    }
+                    send(entry);
+                }
+                long heartbeatMillis = properties.getHeartbeatInterval().toMillis();
+                while (state.get() == OPEN) {
+                    FeedEntry entry = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (entry != null) {
+                        send(entry);
+                    } else if (state.get() == OPEN) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away or the emitter already completed.
+            } finally {
+                if (state.get() == ENDED) {
+                    emitter.complete();
+                }
+                close();
+            }
+        }
+
+        private void send(FeedEntry entry) throws IOException {
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name(entry.name()).data(entry.data());
+            if (entry.id() != null) {
+                event.id(entry.id());
+            }
+            emitter.send(event);
+        }
+
+        private void close() {
+            int previous = state.getAndSet(CLOSED);
+            if (previous == CLOSED) {
+                return;
+            }
+            unsubscribe(this);
+            subscriberCount.decrementAndGet();
+            interruptSender();
+        }
+
+        private void interruptSender() {
+            Thread running = sender;
+            if (running != null && running != Thread.currentThread()) {
+                running.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.bank_app.service.ledger;
+
+import com.example.bank_app.entity.TransactionEntity;
+
+/**
+ * A transfer committed by the ledger together with its position in the {@link LedgerJournal}.
+ */
+public record JournaledTransfer(long sequence, TransactionEntity transaction) {
+}
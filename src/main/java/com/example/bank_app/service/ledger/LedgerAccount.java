@@ -0,0 +1,14 @@
+package com.example.bank_app.service.ledger;
+
+import com.example.bank_app.common.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+class LedgerAccount {
+
+    private final String id;
+    private final String customerId;
+    private Money balance;
+}
@@ -0,0 +1,301 @@
+package com.example.bank_app.service.ledger;
+
+import com.example.bank_app.common.AccountIdentity;
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.config.LedgerProperties;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.event.AccountDeletedEvent;
+import com.example.bank_app.exception.AccountNotFoundByNumberException;
+import com.example.bank_app.exception.AccountNotFoundException;
+import com.example.bank_app.exception.BalanceIsNotEnoughException;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.account.AccountIdentityCache;
+import com.example.bank_app.service.archive.TransactionArchive;
+import com.example.bank_app.service.outbox.OutboxService;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * In-process ledger that applies transfers in memory on single-writer shards and persists them behind the caller.
+ *
+ * <p>Accounts are partitioned by id. A transfer between two accounts of the same shard is one command. A
+ * cross-shard transfer always runs the same two phases: the sender shard validates and debits (prepare), then
+ * the receiver shard credits and records the transaction (commit). If the commit cannot happen the sender shard
+ * refunds the debit (abort). Because each account lives on exactly one shard and every shard applies its
+ * commands in order, no transfer can observe or overwrite a half-applied balance. Receiver numbers are resolved
+ * through the shared {@link AccountIdentityCache}, and accounts a shard does not hold yet are read by the submitting
+ * thread, so no query ever runs on a shard thread.
+ *
+ * <p>The commit phase appends the transfer to the {@link LedgerJournal}; the caller is answered once the
+ * journal has made it durable, without waiting for the database. The write-behind drains durable transfers into
+ * the database, and on startup every journaled transfer the database is still missing is applied before the
+ * accounts are loaded. The transaction table's key is {@code (id, date)}, so it does not stop a second row with the
+ * same id; a journaled transfer that was already archived out of the table is recognised in the
+ * {@link TransactionArchive} instead, and is not applied again.
+ *
+ * <p>When the journal cannot make a batch durable, receivers of that batch have already been credited in memory and
+ * the records may or may not be on disk, so the engine rejects every further transfer; the balances are rebuilt
+ * from the database and whatever the journal recovers on the next start.
+ */
+@Slf4j
+public class LedgerEngine implements SmartLifecycle {
+
+    private final AccountRepository accountRepository;
+    private final AccountIdentityCache accountIdentityCache;
+    private final List<LedgerShard> shards;
+    private final LedgerWriteBehind writeBehind;
+    private final LedgerJournal journal;
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
+    private final int recoveryBatchSize;
+    private volatile boolean running;
+
+    public LedgerEngine(LedgerProperties ledgerProperties,
+                        AccountRepository accountRepository,
+                        AccountIdentityCache accountIdentityCache,
+                        TransactionRepository transactionRepository,
+                        TransactionArchive transactionArchive,
+                        TransactionTemplate transactionTemplate,
+                        MonthlyStatementService monthlyStatementService,
+                        OutboxService outboxService) {
+        this.accountRepository = accountRepository;
+        this.accountIdentityCache = accountIdentityCache;
+        this.transactionRepository = transactionRepository;
+        this.transactionArchive = transactionArchive;
+        this.recoveryBatchSize = ledgerProperties.getWriteBehind().getBatchSize();
+        this.shards = IntStream.range(0, ledgerProperties.getShards())
+                .mapToObj(index -> new LedgerShard(index, ledgerProperties.getRingBufferSize()))
+                .toList();
+        this.writeBehind = new LedgerWriteBehind(ledgerProperties.getWriteBehind(), transactionRepository, accountRepository, transactionTemplate,
+                monthlyStatementService, outboxService, this::onTransfersApplied);
+        this.journal = new LedgerJournal(ledgerProperties.getJournal(), writeBehind::enqueue);
+    }
+
+    @Override
+    public void start() {
+        replayJournal(journal.recover());
+        journal.start();
+
+        List<AccountEntity> accounts = accountRepository.findAll();
+        for (AccountEntity account : accounts) {
+            shardFor(account.getId()).load(account);
+            accountIdentityCache.put(new AccountIdentity(account.getId(), account.getAccountNumber(), account.getCustomerId()));
+        }
+        writeBehind.start();
+        shards.forEach(LedgerShard::start);
+        running = true;
+        log.info("Ledger engine rebuilt {} accounts across {} shards", accounts.size(), shards.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            for (LedgerShard shard : shards) {
+                shard.stop();
+            }
+            journal.stop();
+            writeBehind.stop();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public CompletableFuture<TransactionEntity> transfer(String senderCustomerId, String senderAccountId,
+                                                         String receiverAccountNumber, Money amount, String description) {
+        if (journal.isFailed()) {
+            throw new IllegalStateException("Ledger engine stopped accepting transfers after a journal failure; restart it to recover");
+        }
+        CompletableFuture<TransactionEntity> result = new CompletableFuture<>();
+        String receiverAccountId = resolveAccountId(receiverAccountNumber);
+        LedgerShard senderShard = shardFor(senderAccountId);
+        LedgerShard receiverShard = shardFor(receiverAccountId);
+        AccountEntity loadedSender = loadIfNotHeld(senderShard, senderAccountId);
+        AccountEntity loadedReceiver = loadIfNotHeld(receiverShard, receiverAccountId);
+
+        if (senderShard == receiverShard) {
+            senderShard.execute(() -> complete(result, () -> {
+                LedgerAccount sender = debit(senderShard, senderCustomerId, senderAccountId, loadedSender, amount);
+                LedgerAccount receiver = senderShard.findAccount(receiverAccountId, loadedReceiver).orElse(null);
+                if (receiver == null) {
+                    refund(sender, amount);
+                    throw new AccountNotFoundByNumberException(receiverAccountNumber);
+                }
+                try {
+                    return credit(receiver, senderAccountId, amount, description);
+                } catch (RuntimeException ex) {
+                    refund(sender, amount);
+                    throw ex;
+                }
+            }));
+            return result;
+        }
+
+        senderShard.execute(() -> complete(result, () -> {
+            LedgerAccount sender = debit(senderShard, senderCustomerId, senderAccountId, loadedSender, amount);
+            receiverShard.handoff(() -> complete(result, () -> {
+                LedgerAccount receiver = receiverShard.findAccount(receiverAccountId, loadedReceiver).orElse(null);
+                if (receiver == null) {
+                    senderShard.handoff(() -> refund(sender, amount));
+                    throw new AccountNotFoundByNumberException(receiverAccountNumber);
+                }
+                try {
+                    return credit(receiver, senderAccountId, amount, description);
+                } catch (RuntimeException ex) {
+                    senderShard.handoff(() -> refund(sender, amount));
+                    throw ex;
+                }
+            }));
+            return null;
+        }));
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onAccountDeleted(AccountDeletedEvent event) {
+        LedgerShard shard = shardFor(event.accountId());
+        shard.execute(() -> shard.evict(event.accountId()));
+    }
+
+    private String resolveAccountId(String accountNumber) {
+        return accountIdentityCache.findByAccountNumber(accountNumber)
+                .map(AccountIdentity::id)
+                .orElseThrow(() -> new AccountNotFoundByNumberException(accountNumber));
+    }
+
+    private AccountEntity loadIfNotHeld(LedgerShard shard, String accountId) {
+        return shard.holds(accountId) ? null : accountRepository.findById(accountId).orElse(null);
+    }
+
+    private LedgerShard shardFor(String accountId) {
+        return shards.get(Math.floorMod(accountId.hashCode(), shards.size()));
+    }
+
+    private LedgerAccount debit(LedgerShard shard, String senderCustomerId, String senderAccountId, AccountEntity loadedSender, Money amount) {
+        LedgerAccount sender = shard.findAccount(senderAccountId, loadedSender)
+                .filter(account -> account.getCustomerId().equals(senderCustomerId))
+                .orElseThrow(() -> new AccountNotFoundException(senderAccountId));
+        if (sender.getBalance().isLessThan(amount)) {
+            throw new BalanceIsNotEnoughException(sender.getBalance());
+        }
+        sender.setBalance(sender.getBalance().minus(amount));
+        return sender;
+    }
+
+    private void refund(LedgerAccount sender, Money amount) {
+        sender.setBalance(sender.getBalance().plus(amount));
+    }
+
+    /**
+     * Journals the transfer and only then credits the receiver, so a failed append leaves the receiver untouched
+     * and the caller refunds the sender.
+     */
+    private CompletableFuture<TransactionEntity> credit(LedgerAccount receiver, String senderAccountId, Money amount, String description) {
+        TransactionEntity transaction = TransactionEntity
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .senderAccountId(senderAccountId)
+                .receiverAccountId(receiver.getId())
+                .transactionType(TransactionType.TRANSFER)
+                .amount(amount)
+                .date(LocalDateTime.now())
+                .description(description)
+                .build();
+
+        CompletableFuture<Void> durable = journal.append(transaction);
+        receiver.setBalance(receiver.getBalance().plus(amount));
+        return durable.thenApply(ignored -> transaction);
+    }
+
+    private void replayJournal(List<JournaledTransfer> journaled) {
+        Set<String> archived = findArchivedIds(journaled);
+        int replayed = 0;
+        for (int from = 0; from < journaled.size(); from += recoveryBatchSize) {
+            List<JournaledTransfer> batch = journaled.subList(from, Math.min(from + recoveryBatchSize, journaled.size()));
+            Set<String> persisted = transactionRepository.findAllById(batch.stream().map(transfer -> transfer.transaction().getId()).toList())
+                    .stream()
+                    .map(TransactionEntity::getId)
+                    .collect(Collectors.toSet());
+            List<JournaledTransfer> missing = batch.stream()
+                    .filter(transfer -> !persisted.contains(transfer.transaction().getId()))
+                    .filter(transfer -> !archived.contains(transfer.transaction().getId()))
+                    .toList();
+            if (!missing.isEmpty()) {
+                writeBehind.flush(missing);
+                replayed += missing.size();
+            }
+        }
+        if (!journaled.isEmpty()) {
+            log.info("Ledger journal held {} transfers, replayed {} the database was missing", journaled.size(), replayed);
+        }
+    }
+
+    /**
+     * Ids of the journaled transfers dated below the archive horizon that the archive already holds; their rows may
+     * have been deleted from the transaction table.
+     */
+    private Set<String> findArchivedIds(List<JournaledTransfer> journaled) {
+        Optional<LocalDateTime> horizon = transactionArchive.horizon();
+        if (horizon.isEmpty()) {
+            return Set.of();
+        }
+        Optional<LocalDateTime> oldest = journaled.stream()
+                .map(transfer -> transfer.transaction().getDate())
+                .filter(date -> date.isBefore(horizon.get()))
+                .min(Comparator.naturalOrder());
+        return oldest.map(date -> transactionArchive.findIdsBetween(date, horizon.get())).orElse(Set.of());
+    }
+
+    private void onTransfersApplied(long sequence) {
+        journal.markApplied(sequence);
+    }
+
+    private static void complete(CompletableFuture<TransactionEntity> result, LedgerCommand command) {
+        try {
+            CompletableFuture<TransactionEntity> committed = command.apply();
+            if (committed != null) {
+                committed.whenComplete((transaction, ex) -> {
+                    if (ex == null) {
+                        result.complete(transaction);
+                    } else {
+                        result.completeExceptionally(ex);
+                    }
+                });
+            }
+        } catch (RuntimeException ex) {
+            result.completeExceptionally(ex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface LedgerCommand {
+
+        CompletableFuture<TransactionEntity> apply();
+    }
+}
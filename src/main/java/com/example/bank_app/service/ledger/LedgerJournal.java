@@ -0,0 +1,497 @@
+package com.example.bank_app.service.ledger;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.config.LedgerProperties;
+import com.example.bank_app.entity.TransactionEntity;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead journal of committed ledger transfers.
+ *
+ * <p>Every transfer is one fixed-size binary record, protected by a CRC32C checksum and appended to the
+ * memory-mapped active segment. Segments are pre-allocated files named after their first sequence number; a
+ * full segment is forced and sealed and a new one is started. A single sync thread forces everything appended
+ * since its previous pass in one call (group fsync) and only then completes the appenders' futures and hands
+ * the transfers, in sequence order, to the {@code onDurable} consumer. Sealed segments are deleted once
+ * {@link #markApplied} reports that the database holds all of their records.
+ *
+ * <p>{@link #recover} reads back the records of the previous run up to the first empty or torn record, so the
+ * caller can apply whatever the database is missing before {@link #start} begins a fresh segment. A torn record
+ * is only the expected end of the journal when it is the last written record of the last segment (a crash during
+ * the write); anywhere else the segments from the torn one on are moved to a {@code quarantine} directory for an
+ * operator to inspect instead of being deleted with the segments that were read.
+ *
+ * <p>A failed sync is fatal: the records of the batch may or may not have reached the disk, so their appenders are
+ * failed, every later append is rejected and the transfers are settled by {@link #recover} on the next start.
+ */
+@Slf4j
+public class LedgerJournal {
+
+    static final int RECORD_SIZE = 1024;
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String QUARANTINE_DIRECTORY = "quarantine";
+    private static final int MAX_ACCOUNT_ID_BYTES = 64;
+    private static final int MAX_AMOUNT_BYTES = 16;
+
+    private static final int CRC_OFFSET = 0;
+    private static final int SEQUENCE_OFFSET = 4;
+    private static final int DATE_SECONDS_OFFSET = 12;
+    private static final int DATE_NANOS_OFFSET = 20;
+    private static final int TRANSACTION_ID_OFFSET = 24;
+    private static final int AMOUNT_SCALE_OFFSET = 40;
+    private static final int AMOUNT_OFFSET = 44;
+    private static final int SENDER_OFFSET = AMOUNT_OFFSET + 1 + MAX_AMOUNT_BYTES;
+    private static final int RECEIVER_OFFSET = SENDER_OFFSET + 1 + MAX_ACCOUNT_ID_BYTES;
+    private static final int DESCRIPTION_OFFSET = RECEIVER_OFFSET + 1 + MAX_ACCOUNT_ID_BYTES;
+    private static final int MAX_DESCRIPTION_BYTES = RECORD_SIZE - DESCRIPTION_OFFSET - 2;
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final boolean fsync;
+    private final Consumer<JournaledTransfer> onDurable;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition appended = appendLock.newCondition();
+    private final Deque<Segment> sealedSegments = new ArrayDeque<>();
+    private List<PendingAppend> pending = new ArrayList<>();
+    private Segment activeSegment;
+    private long nextSequence = 1;
+    private List<Path> recoveredSegments = List.of();
+    private Thread syncThread;
+    private volatile boolean running;
+    private volatile RuntimeException failure;
+
+    public LedgerJournal(LedgerProperties.Journal properties, Consumer<JournaledTransfer> onDurable) {
+        this.directory = Path.of(properties.getDirectory());
+        this.recordsPerSegment = Math.toIntExact(Math.max(1, properties.getSegmentSize().toBytes() / RECORD_SIZE));
+        this.fsync = properties.isFsync();
+        this.onDurable = onDurable;
+    }
+
+    /**
+     * Reads every intact record left by the previous run, in sequence order. Must be called before {@link #start},
+     * which deletes the recovered segments.
+     */
+    public List<JournaledTransfer> recover() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments;
+            try (Stream<Path> files = Files.list(directory)) {
+                segments = files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+            }
+            List<JournaledTransfer> recovered = new ArrayList<>();
+            List<Path> read = new ArrayList<>();
+            for (int index = 0; index < segments.size(); index++) {
+                Path segment = segments.get(index);
+                int tornOffset = readSegment(segment, recovered);
+                if (tornOffset < 0 || index == segments.size() - 1 && isEmptyFrom(segment, tornOffset + RECORD_SIZE)) {
+                    read.add(segment);
+                    if (tornOffset >= 0) {
+                        log.warn("Ledger journal segment {} ends with a torn record at offset {}", segment, tornOffset);
+                    }
+                } else {
+                    quarantine(segments.subList(index, segments.size()), segment, tornOffset);
+                }
+                if (tornOffset >= 0) {
+                    break;
+                }
+            }
+            recoveredSegments = read;
+            if (!recovered.isEmpty()) {
+                nextSequence = recovered.getLast().sequence() + 1;
+            }
+            return recovered;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read ledger journal in " + directory, ex);
+        }
+    }
+
+    public void start() {
+        try {
+            Files.createDirectories(directory);
+            for (Path segment : recoveredSegments) {
+                Files.deleteIfExists(segment);
+            }
+            recoveredSegments = List.of();
+            activeSegment = Segment.create(directory, nextSequence, recordsPerSegment);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open ledger journal in " + directory, ex);
+        }
+        running = true;
+        syncThread = new Thread(this::syncLoop, "ledger-journal-sync");
+        syncThread.start();
+    }
+
+    /**
+     * Stops accepting appends, makes everything already appended durable and hands it to the consumer.
+     */
+    public void stop() throws InterruptedException {
+        appendLock.lock();
+        try {
+            running = false;
+            appended.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+        if (syncThread != null) {
+            syncThread.join();
+        }
+    }
+
+    /**
+     * Writes the transfer to the active segment. The returned future completes once the record is durable
+     * (forced to disk when {@code fsync} is on, written to the page cache otherwise).
+     */
+    public CompletableFuture<Void> append(TransactionEntity transaction) {
+        ByteBuffer record = encode(transaction);
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        appendLock.lock();
+        try {
+            if (failure != null) {
+                throw new IllegalStateException("Ledger journal stopped accepting transfers after a failed sync", failure);
+            }
+            if (!running) {
+                throw new IllegalStateException("Ledger journal is not running");
+            }
+            if (activeSegment.isFull()) {
+                rotate();
+            }
+            long sequence = nextSequence++;
+            record.putLong(SEQUENCE_OFFSET, sequence);
+            record.putInt(CRC_OFFSET, checksum(record));
+            int end = activeSegment.write(record, sequence);
+            pending.add(new PendingAppend(new JournaledTransfer(sequence, transaction), activeSegment, end, durable));
+            appended.signal();
+        } finally {
+            appendLock.unlock();
+        }
+        return durable;
+    }
+
+    /**
+     * Whether a sync failed; the journal then rejects every append until the application is restarted.
+     */
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Deletes the sealed segments whose records are all at or below {@code sequence}.
+     */
+    public void markApplied(long sequence) {
+        List<Segment> applied = new ArrayList<>();
+        appendLock.lock();
+        try {
+            while (!sealedSegments.isEmpty() && sealedSegments.peekFirst().lastSequence() <= sequence) {
+                applied.add(sealedSegments.pollFirst());
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        for (Segment segment : applied) {
+            try {
+                Files.deleteIfExists(segment.path());
+            } catch (IOException ex) {
+                log.warn("Could not delete applied ledger journal segment {}", segment.path(), ex);
+            }
+        }
+    }
+
+    private void rotate() {
+        Segment full = activeSegment;
+        forceIfEnabled(full, full.size());
+        sealedSegments.addLast(full);
+        try {
+            activeSegment = Segment.create(directory, nextSequence, recordsPerSegment);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not create ledger journal segment in " + directory, ex);
+        }
+    }
+
+    private void syncLoop() {
+        while (true) {
+            List<PendingAppend> batch;
+            appendLock.lock();
+            try {
+                while (pending.isEmpty() && running) {
+                    appended.awaitUninterruptibly();
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+            } finally {
+                appendLock.unlock();
+            }
+            try {
+                for (int index = 0; index < batch.size(); index++) {
+                    PendingAppend append = batch.get(index);
+                    if (index + 1 == batch.size() || batch.get(index + 1).segment() != append.segment()) {
+                        forceIfEnabled(append.segment(), append.end());
+                    }
+                }
+                for (PendingAppend append : batch) {
+                    onDurable.accept(append.transfer());
+                    append.durable().complete(null);
+                }
+            } catch (RuntimeException ex) {
+                fail(batch, ex);
+                return;
+            }
+        }
+    }
+
+    private void fail(List<PendingAppend> batch, RuntimeException cause) {
+        List<PendingAppend> rejected = new ArrayList<>(batch);
+        appendLock.lock();
+        try {
+            failure = cause;
+            rejected.addAll(pending);
+            pending = new ArrayList<>();
+        } finally {
+            appendLock.unlock();
+        }
+        log.error("Ledger journal sync of {} records failed; rejecting every further transfer until restart, which replays whatever reached the disk",
+                rejected.size(), cause);
+        IllegalStateException unknownOutcome = new IllegalStateException(
+                "The ledger could not confirm that the transfer is durable; it is applied on restart if it reached the disk", cause);
+        rejected.forEach(append -> append.durable().completeExceptionally(unknownOutcome));
+    }
+
+    private void forceIfEnabled(Segment segment, int end) {
+        if (fsync) {
+            segment.force(end);
+        }
+    }
+
+    /**
+     * Adds the segment's intact records to {@code recovered}.
+     *
+     * @return the offset of the first torn or out-of-sequence record, or -1 when the segment was read to its end
+     */
+    private int readSegment(Path segment, List<JournaledTransfer> recovered) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            for (int offset = 0; offset + RECORD_SIZE <= buffer.capacity(); offset += RECORD_SIZE) {
+                ByteBuffer record = buffer.slice(offset, RECORD_SIZE);
+                long sequence = record.getLong(SEQUENCE_OFFSET);
+                if (isEmpty(record)) {
+                    return -1;
+                }
+                if (record.getInt(CRC_OFFSET) != checksum(record)) {
+                    return offset;
+                }
+                if (!recovered.isEmpty() && sequence != recovered.getLast().sequence() + 1) {
+                    log.warn("Ledger journal segment {} skips from sequence {} to {}", segment, recovered.getLast().sequence(), sequence);
+                    return offset;
+                }
+                recovered.add(new JournaledTransfer(sequence, decode(record)));
+            }
+            return -1;
+        }
+    }
+
+    private boolean isEmptyFrom(Path segment, int from) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            for (int offset = from; offset + RECORD_SIZE <= buffer.capacity(); offset += RECORD_SIZE) {
+                if (!isEmpty(buffer.slice(offset, RECORD_SIZE))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static boolean isEmpty(ByteBuffer record) {
+        return record.getLong(SEQUENCE_OFFSET) == 0 && record.getInt(CRC_OFFSET) == 0;
+    }
+
+    /**
+     * Moves segments that hold records after a torn one out of the way, so {@link #start} does not delete them and
+     * the next recovery does not read past the tear again.
+     */
+    private void quarantine(List<Path> segments, Path torn, int tornOffset) throws IOException {
+        Path target = directory.resolve(QUARANTINE_DIRECTORY).resolve(Long.toString(System.currentTimeMillis()));
+        Files.createDirectories(target);
+        for (Path segment : segments) {
+            Files.move(segment, target.resolve(segment.getFileName()));
+        }
+        log.error("Ledger journal segment {} has a torn record at offset {} followed by more records; moved {} segments to {} "
+                + "and recovered only the records before the tear", torn, tornOffset, segments.size(), target);
+    }
+
+    static ByteBuffer encode(TransactionEntity transaction) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        LocalDateTime date = transaction.getDate();
+        record.putLong(DATE_SECONDS_OFFSET, date.toEpochSecond(ZoneOffset.UTC));
+        record.putInt(DATE_NANOS_OFFSET, date.getNano());
+        UUID transactionId = UUID.fromString(transaction.getId());
+        record.putLong(TRANSACTION_ID_OFFSET, transactionId.getMostSignificantBits());
+        record.putLong(TRANSACTION_ID_OFFSET + 8, transactionId.getLeastSignificantBits());
+        record.putInt(AMOUNT_SCALE_OFFSET, Money.SCALE);
+        putBytes(record, AMOUNT_OFFSET, BigInteger.valueOf(transaction.getAmount().minorUnits()).toByteArray(), MAX_AMOUNT_BYTES, "amount");
+        putBytes(record, SENDER_OFFSET, transaction.getSenderAccountId().getBytes(StandardCharsets.UTF_8), MAX_ACCOUNT_ID_BYTES, "sender account id");
+        putBytes(record, RECEIVER_OFFSET, transaction.getReceiverAccountId().getBytes(StandardCharsets.UTF_8), MAX_ACCOUNT_ID_BYTES, "receiver account id");
+        if (transaction.getDescription() == null) {
+            record.putShort(DESCRIPTION_OFFSET, (short) -1);
+        } else {
+            byte[] description = transaction.getDescription().getBytes(StandardCharsets.UTF_8);
+            if (description.length > MAX_DESCRIPTION_BYTES) {
+                throw new IllegalArgumentException("Description does not fit in a ledger journal record");
+            }
+            record.putShort(DESCRIPTION_OFFSET, (short) description.length);
+            record.put(DESCRIPTION_OFFSET + 2, description);
+        }
+        return record;
+    }
+
+    static TransactionEntity decode(ByteBuffer record) {
+        LocalDateTime date = LocalDateTime.ofEpochSecond(record.getLong(DATE_SECONDS_OFFSET), record.getInt(DATE_NANOS_OFFSET), ZoneOffset.UTC);
+        UUID transactionId = new UUID(record.getLong(TRANSACTION_ID_OFFSET), record.getLong(TRANSACTION_ID_OFFSET + 8));
+        Money amount = Money.of(new BigDecimal(new BigInteger(getBytes(record, AMOUNT_OFFSET)), record.getInt(AMOUNT_SCALE_OFFSET)));
+        short descriptionLength = record.getShort(DESCRIPTION_OFFSET);
+        String description = null;
+        if (descriptionLength >= 0) {
+            byte[] bytes = new byte[descriptionLength];
+            record.get(DESCRIPTION_OFFSET + 2, bytes);
+            description = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return TransactionEntity
+                .builder()
+                .id(transactionId.toString())
+                .senderAccountId(new String(getBytes(record, SENDER_OFFSET), StandardCharsets.UTF_8))
+                .receiverAccountId(new String(getBytes(record, RECEIVER_OFFSET), StandardCharsets.UTF_8))
+                .transactionType(TransactionType.TRANSFER)
+                .amount(amount)
+                .date(date)
+                .description(description)
+                .build();
+    }
+
+    private static void putBytes(ByteBuffer record, int offset, byte[] bytes, int maxLength, String field) {
+        if (bytes.length > maxLength) {
+            throw new IllegalArgumentException("The " + field + " does not fit in a ledger journal record");
+        }
+        record.put(offset, (byte) bytes.length);
+        record.put(offset + 1, bytes);
+    }
+
+    private static byte[] getBytes(ByteBuffer record, int offset) {
+        byte[] bytes = new byte[record.get(offset)];
+        record.get(offset + 1, bytes);
+        return bytes;
+    }
+
+    private static int checksum(ByteBuffer record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record.slice(SEQUENCE_OFFSET, RECORD_SIZE - SEQUENCE_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    private record PendingAppend(JournaledTransfer transfer, Segment segment, int end, CompletableFuture<Void> durable) {
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private int records;
+        private long lastSequence;
+        private final ReentrantLock forceLock = new ReentrantLock();
+        private int forced;
+
+        private Segment(Path path, MappedByteBuffer buffer, int capacity) {
+            this.path = path;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        static Segment create(Path directory, long firstSequence, int capacity) throws IOException {
+            Path path = directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+            MappedByteBuffer buffer;
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+                file.setLength((long) capacity * RECORD_SIZE);
+                buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+            }
+            forceDirectory(directory);
+            return new Segment(path, buffer, capacity);
+        }
+
+        private static void forceDirectory(Path directory) {
+            try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+                channel.force(true);
+            } catch (IOException ex) {
+                log.debug("Could not force ledger journal directory {}", directory, ex);
+            }
+        }
+
+        boolean isFull() {
+            return records == capacity;
+        }
+
+        int write(ByteBuffer record, long sequence) {
+            buffer.put(records * RECORD_SIZE, record, 0, RECORD_SIZE);
+            records++;
+            lastSequence = sequence;
+            return records * RECORD_SIZE;
+        }
+
+        int size() {
+            return records * RECORD_SIZE;
+        }
+
+        /**
+         * Forces the records up to {@code end} that no earlier call forced. Called from the sync thread, and under
+         * the append lock when the segment is sealed.
+         */
+        void force(int end) {
+            forceLock.lock();
+            try {
+                if (end > forced) {
+                    buffer.force(forced, end - forced);
+                    forced = end;
+                }
+            } finally {
+                forceLock.unlock();
+            }
+        }
+
+        Path path() {
+            return path;
+        }
+
+        long lastSequence() {
+            return lastSequence;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.bank_app.service.ledger;
+
+import com.example.bank_app.entity.AccountEntity;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns a disjoint subset of the accounts. Commands are applied by a single thread, so account state inside a shard
+ * is never shared and needs no locking.
+ *
+ * <p>Commands from outside the engine are queued in a bounded ring buffer, which pushes back on submitters when the
+ * shard falls behind. Commands one shard hands to another (the commit and abort phases of a cross-shard transfer)
+ * go to a separate unbounded inbox instead and never block: two shard threads waiting for room in each other's full
+ * ring buffer would stop the engine for good. The inbox only receives the follow-ups of transfers that were admitted
+ * through a ring buffer and is drained ahead of every ring buffer command, so the back-pressure on submitters bounds
+ * it as well.
+ *
+ * <p>The shard thread never queries the database. An account opened after startup is loaded by the submitter and
+ * passed in with the command; the shard installs it only if it does not hold the account by then. The account map is
+ * only changed by the shard thread; submitters merely check which accounts it holds.
+ */
+@Slf4j
+class LedgerShard implements Runnable {
+
+    private final int index;
+    private final BlockingQueue<Runnable> ringBuffer;
+    private final ConcurrentLinkedQueue<Runnable> handoffs = new ConcurrentLinkedQueue<>();
+    private final Map<String, LedgerAccount> accounts = new ConcurrentHashMap<>();
+    private final Thread thread;
+    private volatile boolean running;
+
+    LedgerShard(int index, int ringBufferSize) {
+        this.index = index;
+        this.ringBuffer = new ArrayBlockingQueue<>(ringBufferSize);
+        this.thread = new Thread(this, "ledger-shard-" + index);
+    }
+
+    void load(AccountEntity account) {
+        accounts.put(account.getId(), toLedgerAccount(account));
+    }
+
+    void start() {
+        running = true;
+        thread.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        thread.join();
+    }
+
+    private static final Runnable WAKE_UP = () -> {
+    };
+
+    /**
+     * Queues a command from outside the engine, blocking while the ring buffer is full.
+     */
+    void execute(Runnable command) {
+        try {
+            ringBuffer.put(command);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while submitting to ledger shard " + index, ex);
+        }
+    }
+
+    /**
+     * Queues a command from another shard's thread. Never blocks; the shard is woken through its ring buffer, and
+     * when that is full it is busy anyway and drains the inbox before its next command.
+     */
+    void handoff(Runnable command) {
+        handoffs.add(command);
+        ringBuffer.offer(WAKE_UP);
+    }
+
+    boolean holds(String accountId) {
+        return accounts.containsKey(accountId);
+    }
+
+    /**
+     * Returns the account this shard holds, or installs {@code loaded} when it holds none. {@code loaded} is the
+     * row the submitter read because the shard did not hold the account at submit time, or {@code null}.
+     */
+    Optional<LedgerAccount> findAccount(String accountId, AccountEntity loaded) {
+        LedgerAccount account = accounts.get(accountId);
+        if (account == null && loaded != null) {
+            account = toLedgerAccount(loaded);
+            accounts.put(accountId, account);
+        }
+        return Optional.ofNullable(account);
+    }
+
+    void evict(String accountId) {
+        accounts.remove(accountId);
+    }
+
+    @Override
+    public void run() {
+        while (running || !ringBuffer.isEmpty() || !handoffs.isEmpty()) {
+            try {
+                Runnable handoff;
+                while ((handoff = handoffs.poll()) != null) {
+                    apply(handoff);
+                }
+                Runnable command = ringBuffer.poll(100, TimeUnit.MILLISECONDS);
+                if (command != null) {
+                    apply(command);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void apply(Runnable command) {
+        try {
+            command.run();
+        } catch (RuntimeException ex) {
+            log.error("Ledger shard {} failed to apply a command", index, ex);
+        }
+    }
+
+    private LedgerAccount toLedgerAccount(AccountEntity account) {
+        return new LedgerAccount(account.getId(), account.getCustomerId(), account.getBalance());
+    }
+}
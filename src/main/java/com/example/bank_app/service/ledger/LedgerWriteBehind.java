@@ -0,0 +1,143 @@
+package com.example.bank_app.service.ledger;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.config.LedgerProperties;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.outbox.OutboxService;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Drains the journaled transfers into the database. Every flush batch inserts the transaction rows and applies
+ * one aggregated balance delta per touched account, together with the monthly statement rollups and the outbox
+ * events, in a single database transaction, so a transfer is either
+ * fully in the database or not at all and replaying the journal after a crash never applies one twice. The
+ * highest flushed sequence is reported to {@code onApplied} so the journal can drop applied segments.
+ */
+@Slf4j
+class LedgerWriteBehind implements Runnable {
+
+    private static final int MAX_FLUSH_ATTEMPTS_ON_SHUTDOWN = 3;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MonthlyStatementService monthlyStatementService;
+    private final OutboxService outboxService;
+    private final LongConsumer onApplied;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final BlockingQueue<JournaledTransfer> queue;
+    private final Thread thread;
+    private volatile boolean running;
+
+    LedgerWriteBehind(LedgerProperties.WriteBehind properties,
+                      TransactionRepository transactionRepository,
+                      AccountRepository accountRepository,
+                      TransactionTemplate transactionTemplate,
+                      MonthlyStatementService monthlyStatementService,
+                      OutboxService outboxService,
+                      LongConsumer onApplied) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.monthlyStatementService = monthlyStatementService;
+        this.outboxService = outboxService;
+        this.onApplied = onApplied;
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalMillis = properties.getFlushInterval().toMillis();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.thread = new Thread(this, "ledger-write-behind");
+    }
+
+    void start() {
+        running = true;
+        thread.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        thread.join();
+    }
+
+    void enqueue(JournaledTransfer transfer) {
+        try {
+            queue.put(transfer);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing a ledger write", ex);
+        }
+    }
+
+    @Override
+    public void run() {
+        List<JournaledTransfer> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                JournaledTransfer first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flushWithRetry(batch);
+                batch.clear();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flushWithRetry(List<JournaledTransfer> batch) throws InterruptedException {
+        int attempt = 1;
+        while (true) {
+            try {
+                flush(batch);
+                onApplied.accept(batch.getLast().sequence());
+                return;
+            } catch (RuntimeException ex) {
+                if (!running && attempt >= MAX_FLUSH_ATTEMPTS_ON_SHUTDOWN) {
+                    log.error("Leaving {} ledger writes to journal recovery after {} failed flush attempts during shutdown", batch.size(), attempt, ex);
+                    return;
+                }
+                log.warn("Ledger write-behind flush of {} writes failed (attempt {}), retrying", batch.size(), attempt, ex);
+                attempt++;
+                Thread.sleep(flushIntervalMillis);
+            }
+        }
+    }
+
+    void flush(List<JournaledTransfer> batch) {
+        List<TransactionEntity> transactions = new ArrayList<>(batch.size());
+        Map<String, Money> deltas = new TreeMap<>();
+        for (JournaledTransfer transfer : batch) {
+            TransactionEntity transaction = transfer.transaction();
+            transactions.add(transaction);
+            deltas.merge(transaction.getSenderAccountId(), transaction.getAmount().negate(), Money::plus);
+            deltas.merge(transaction.getReceiverAccountId(), transaction.getAmount(), Money::plus);
+        }
+        deltas.values().removeIf(delta -> delta.minorUnits() == 0);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            transactionRepository.insertAllWithAssignedIds(transactions);
+            if (!deltas.isEmpty()) {
+                accountRepository.applyBalanceDeltas(deltas);
+            }
+            monthlyStatementService.record(transactions);
+            outboxService.recordTransfers(transactions);
+        });
+    }
+}
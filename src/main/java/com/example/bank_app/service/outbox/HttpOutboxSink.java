@@ -0,0 +1,53 @@
+package com.example.bank_app.service.outbox;
+
+import com.example.bank_app.config.OutboxProperties;
+import com.example.bank_app.entity.OutboxEventEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+/**
+ * Posts every batch as {@code application/x-ndjson} to {@code bank.outbox.http.url}; any status other than 2xx
+ * fails the batch.
+ */
+public class HttpOutboxSink implements OutboxSink {
+
+    private final OutboxProperties.Http properties;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    public HttpOutboxSink(OutboxProperties.Http properties, ObjectMapper objectMapper) {
+        if (properties.getUrl() == null) {
+            throw new IllegalStateException("bank.outbox.http.url must be set when bank.outbox.sink is http");
+        }
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+    }
+
+    @Override
+    public void publish(List<OutboxEventEntity> events) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(properties.getUrl())
+                .timeout(properties.getRequestTimeout())
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(OutboxNdjson.write(objectMapper, events)))
+                .build();
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while publishing outbox events");
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Outbox sink " + properties.getUrl() + " responded with status " + response.statusCode());
+        }
+    }
+}
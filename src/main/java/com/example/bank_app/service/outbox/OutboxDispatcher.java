@@ -0,0 +1,164 @@
+package com.example.bank_app.service.outbox;
+
+import com.example.bank_app.config.OutboxProperties;
+import com.example.bank_app.entity.OutboxEventEntity;
+import com.example.bank_app.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the outbox to the {@link OutboxSink} in batches. A short transaction claims a partition, by locking its
+ * row with {@code SKIP LOCKED} and recording a lease of {@code claim-timeout} on it, and reads the partition's oldest
+ * events. The batch is handed to the sink outside any transaction, so no row lock is held during the round trip, and
+ * a second short transaction deletes the batch and releases the claim. Dispatchers on other instances skip a
+ * claimed partition instead of waiting for it, and one partition is delivered by one of them at a time, which keeps
+ * every account's events in order. If a dispatcher dies while it holds a claim, the partition is taken over once
+ * the lease runs out.
+ *
+ * <p>Delivery is at least once: a batch the sink rejected, or whose deletion did not commit, stays in the outbox and
+ * is delivered again, and nothing behind it in its partition is delivered before it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bank.outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxRounds;
+    private final Duration claimTimeout;
+    private final String claimant = UUID.randomUUID().toString();
+    private final AtomicLong dispatchedCount = new AtomicLong();
+    private final AtomicLong failedBatchCount = new AtomicLong();
+    private volatile double lagSeconds;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            OutboxSink outboxSink,
+                            TransactionTemplate transactionTemplate,
+                            OutboxProperties outboxProperties) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = outboxProperties.getDispatcher().getBatchSize();
+        this.maxRounds = outboxProperties.getDispatcher().getMaxRounds();
+        this.claimTimeout = outboxProperties.getDispatcher().getClaimTimeout();
+    }
+
+    /**
+     * Delivers batches from every partition this dispatcher can claim, round after round while some partition
+     * still fills a whole batch, for at most {@code max-rounds} rounds.
+     *
+     * @return the number of events delivered
+     */
+    @Scheduled(fixedDelayString = "${bank.outbox.dispatcher.poll-interval:PT0.5S}")
+    public int dispatch() {
+        int dispatched = 0;
+        boolean backlog = true;
+        for (int round = 0; round < maxRounds && backlog; round++) {
+            backlog = false;
+            for (int partitionId = 0; partitionId < OutboxService.PARTITIONS; partitionId++) {
+                int delivered = dispatchPartition(partitionId);
+                dispatched += delivered;
+                backlog |= delivered == batchSize;
+            }
+            lagSeconds = outboxEventRepository.findOldestCreatedAt()
+                    .map(oldest -> Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0)
+                    .orElse(0.0);
+        }
+        return dispatched;
+    }
+
+    /**
+     * Seconds the oldest undelivered event has been waiting, as of the end of the last dispatch round.
+     */
+    public double lagSeconds() {
+        return lagSeconds;
+    }
+
+    public long dispatchedCount() {
+        return dispatchedCount.get();
+    }
+
+    public long failedBatchCount() {
+        return failedBatchCount.get();
+    }
+
+    private int dispatchPartition(int partitionId) {
+        List<OutboxEventEntity> batch;
+        try {
+            batch = claim(partitionId);
+        } catch (RuntimeException ex) {
+            failedBatchCount.incrementAndGet();
+            log.warn("Outbox partition {} could not be claimed, retrying on the next poll", partitionId, ex);
+            return 0;
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            publish(batch);
+            transactionTemplate.executeWithoutResult(status -> {
+                outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEventEntity::getId).toList());
+                if (!outboxEventRepository.releasePartition(partitionId, claimant)) {
+                    log.warn("Outbox partition {} was claimed by another dispatcher while this one delivered a batch; "
+                            + "raise bank.outbox.dispatcher.claim-timeout above the longest publish", partitionId);
+                }
+            });
+            dispatchedCount.addAndGet(batch.size());
+            return batch.size();
+        } catch (RuntimeException ex) {
+            failedBatchCount.incrementAndGet();
+            log.warn("Outbox partition {} could not be delivered, retrying on the next poll", partitionId, ex);
+            release(partitionId);
+            return 0;
+        }
+    }
+
+    /**
+     * Claims the partition and reads its oldest events; a partition with nothing to deliver is left unclaimed.
+     */
+    private List<OutboxEventEntity> claim(int partitionId) {
+        List<OutboxEventEntity> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (!outboxEventRepository.tryLockUnclaimedPartition(partitionId, now)) {
+                return List.of();
+            }
+            List<OutboxEventEntity> oldest = outboxEventRepository.findOldestByPartition(partitionId, batchSize);
+            if (!oldest.isEmpty()) {
+                outboxEventRepository.claimPartition(partitionId, claimant, now.plus(claimTimeout));
+            }
+            return oldest;
+        });
+        return batch == null ? List.of() : batch;
+    }
+
+    // Lets the next poll, here or on another instance, retry the batch without waiting for the lease to run out.
+    private void release(int partitionId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.releasePartition(partitionId, claimant));
+        } catch (RuntimeException ex) {
+            log.warn("Outbox partition {} could not be released, it is retried once its claim expires", partitionId, ex);
+        }
+    }
+
+    private void publish(List<OutboxEventEntity> batch) {
+        try {
+            outboxSink.publish(batch);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
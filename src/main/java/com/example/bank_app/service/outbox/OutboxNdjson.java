@@ -0,0 +1,37 @@
+package com.example.bank_app.service.outbox;
+
+import com.example.bank_app.entity.OutboxEventEntity;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The wire format of both sinks: one JSON object per event and line, with the stored payload embedded as is.
+ */
+final class OutboxNdjson {
+
+    private OutboxNdjson() {
+    }
+
+    static byte[] write(ObjectMapper objectMapper, List<OutboxEventEntity> events) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(events.size() * 512);
+        for (OutboxEventEntity event : events) {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                generator.writeStartObject();
+                generator.writeNumberField("id", event.getId());
+                generator.writeStringField("type", event.getEventType().name());
+                generator.writeStringField("accountId", event.getAccountId());
+                generator.writeStringField("createdAt", event.getCreatedAt().toString());
+                generator.writeFieldName("payload");
+                generator.writeRawValue(event.getPayload());
+                generator.writeEndObject();
+            }
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.bank_app.service.outbox;
+
+import com.example.bank_app.common.OutboxEventType;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.OutboxEventEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.mapper.AccountMapper;
+import com.example.bank_app.mapper.TransactionMapper;
+import com.example.bank_app.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes the events downstream systems consume to the outbox table, from where {@link OutboxDispatcher} delivers
+ * them. Like the monthly statement rollups, every method must run in the transaction that makes the change, so an
+ * event exists exactly when its change committed.
+ *
+ * <p>Events are keyed by account and delivered in order per account; a transfer is written once for each account it
+ * touches. Accounts are spread over {@value #PARTITIONS} partitions, the unit a dispatcher claims.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxService {
+
+    // One outbox_partition row each, seeded by the V7 migration.
+    static final int PARTITIONS = 16;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionMapper transactionMapper;
+    private final AccountMapper accountMapper;
+    private final ObjectMapper objectMapper;
+
+    public void recordTransfers(Collection<TransactionEntity> transactions) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<OutboxEventEntity> events = new ArrayList<>(transactions.size() * 2);
+        for (TransactionEntity transaction : transactions) {
+            String receiverAccountId = transaction.getReceiverAccountId();
+            String senderAccountId = transaction.getSenderAccountId();
+            events.add(event(receiverAccountId, OutboxEventType.TRANSFER,
+                    transactionMapper.toAccountActivityResponse(receiverAccountId, transaction), createdAt));
+            if (!senderAccountId.equals(receiverAccountId)) {
+                events.add(event(senderAccountId, OutboxEventType.TRANSFER,
+                        transactionMapper.toAccountActivityResponse(senderAccountId, transaction), createdAt));
+            }
+        }
+        outboxEventRepository.insertAll(events);
+    }
+
+    public void recordAccountCreated(AccountEntity account) {
+        outboxEventRepository.insertAll(List.of(
+                event(account.getId(), OutboxEventType.ACCOUNT_CREATED, accountMapper.toAccountDto(account), LocalDateTime.now())));
+    }
+
+    static int partitionOf(String accountId) {
+        return Math.floorMod(accountId.hashCode(), PARTITIONS);
+    }
+
+    private OutboxEventEntity event(String accountId, OutboxEventType eventType, Object payload, LocalDateTime createdAt) {
+        try {
+            return OutboxEventEntity.builder()
+                    .partitionId(partitionOf(accountId))
+                    .accountId(accountId)
+                    .eventType(eventType)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .createdAt(createdAt)
+                    .build();
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.bank_app.service.outbox;
+
+import com.example.bank_app.entity.OutboxEventEntity;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where {@link OutboxDispatcher} delivers outbox events. A batch holds events of one partition in delivery order.
+ * Returning means the whole batch was accepted; throwing makes the dispatcher deliver it again later, so consumers
+ * can see an event more than once and should deduplicate on its id.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEventEntity> events) throws IOException;
+}
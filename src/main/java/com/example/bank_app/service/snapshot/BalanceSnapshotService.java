@@ -0,0 +1,127 @@
+package com.example.bank_app.service.snapshot;
+
+import com.example.bank_app.config.BalanceSnapshotProperties;
+import com.example.bank_app.entity.BalanceSnapshotCheckpointEntity;
+import com.example.bank_app.entity.BalanceSnapshotEntity;
+import com.example.bank_app.event.AccountDeletedEvent;
+import com.example.bank_app.repository.BalanceSnapshotCheckpointRepository;
+import com.example.bank_app.repository.BalanceSnapshotRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.archive.TransactionHistoryReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Periodic per-account balance checkpoints and point-in-time balances answered from them.
+ *
+ * <p>Each run covers the window between the last checkpoint and {@code now - settle-delay}: one range scan on the
+ * transaction date index yields the net change of every account that moved inside it, and only those accounts
+ * get a new snapshot (their latest snapshot plus the net change). Snapshots and the checkpoint are written in one
+ * transaction, and a checkpoint names its predecessor under a unique index, so a run racing another instance over
+ * the same window rolls back instead of counting it twice.
+ *
+ * <p>The settle delay must exceed the time between a transaction being dated and being committed (including the
+ * ledger write-behind), otherwise a late row dated inside an already checkpointed window is missed by the
+ * snapshots. Point-in-time queries are not affected by that, as they always scan past the nearest snapshot.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceSnapshotService {
+
+    static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final BalanceSnapshotCheckpointRepository balanceSnapshotCheckpointRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionHistoryReader transactionHistoryReader;
+    private final TransactionTemplate transactionTemplate;
+    private final BalanceSnapshotProperties properties;
+
+    @Scheduled(initialDelayString = "${bank.balance-snapshot.interval:PT5M}",
+            fixedDelayString = "${bank.balance-snapshot.interval:PT5M}")
+    public void snapshotBalances() {
+        LocalDateTime asOf = LocalDateTime.now().minus(properties.getSettleDelay());
+        try {
+            int accounts = createSnapshots(asOf);
+            if (accounts > 0) {
+                log.debug("Wrote balance snapshots for {} accounts as of {}", accounts, asOf);
+            }
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Balance snapshots as of {} were already checkpointed by another instance", asOf);
+        }
+    }
+
+    /**
+     * Snapshots every account with transactions dated after the last checkpoint and up to {@code asOf}.
+     *
+     * @return the number of accounts snapshotted
+     */
+    public int createSnapshots(LocalDateTime asOf) {
+        Integer accounts = transactionTemplate.execute(status -> {
+            LocalDateTime previous = balanceSnapshotCheckpointRepository.findFirstByOrderByAsOfDesc()
+                    .map(BalanceSnapshotCheckpointEntity::getAsOf)
+                    .orElse(EPOCH);
+            if (!asOf.isAfter(previous)) {
+                return 0;
+            }
+
+            Map<String, BigDecimal> netChanges = transactionRepository.sumNetChangeByAccount(previous, asOf);
+            balanceSnapshotCheckpointRepository.saveAndFlush(BalanceSnapshotCheckpointEntity
+                    .builder()
+                    .asOf(asOf)
+                    .previousAsOf(previous)
+                    .accounts(netChanges.size())
+                    .build());
+
+            List<String> accountIds = new ArrayList<>(netChanges.keySet());
+            for (int from = 0; from < accountIds.size(); from += properties.getBatchSize()) {
+                List<String> batch = accountIds.subList(from, Math.min(from + properties.getBatchSize(), accountIds.size()));
+                balanceSnapshotRepository.insertAllWithAssignedIds(nextSnapshots(batch, netChanges, asOf));
+            }
+            return netChanges.size();
+        });
+        return accounts == null ? 0 : accounts;
+    }
+
+    public BigDecimal balanceAt(String accountId, LocalDateTime at) {
+        Optional<BalanceSnapshotEntity> snapshot = balanceSnapshotRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(accountId, at);
+        BigDecimal base = snapshot.map(BalanceSnapshotEntity::getBalance).orElse(BigDecimal.ZERO);
+        LocalDateTime after = snapshot.map(BalanceSnapshotEntity::getAsOf).orElse(EPOCH);
+        return base.add(transactionHistoryReader.sumNetChange(accountId, after, at));
+    }
+
+    @EventListener
+    public void onAccountDeleted(AccountDeletedEvent event) {
+        balanceSnapshotRepository.deleteByAccountId(event.accountId());
+    }
+
+    private List<BalanceSnapshotEntity> nextSnapshots(List<String> accountIds, Map<String, BigDecimal> netChanges, LocalDateTime asOf) {
+        Map<String, BigDecimal> latestBalances = balanceSnapshotRepository.findLatestByAccountIdIn(accountIds)
+                .stream()
+                .collect(Collectors.toMap(BalanceSnapshotEntity::getAccountId, BalanceSnapshotEntity::getBalance));
+        return accountIds.stream()
+                .map(accountId -> BalanceSnapshotEntity
+                        .builder()
+                        .id(UUID.randomUUID().toString())
+                        .accountId(accountId)
+                        .asOf(asOf)
+                        .balance(latestBalances.getOrDefault(accountId, BigDecimal.ZERO).add(netChanges.get(accountId)))
+                        .build())
+                .toList();
+    }
+}
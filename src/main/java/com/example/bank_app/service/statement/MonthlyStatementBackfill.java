@@ -0,0 +1,97 @@
+package com.example.bank_app.service.statement;
+
+import com.example.bank_app.config.StatementProperties;
+import com.example.bank_app.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds the monthly rollups for the history that predates them. Account ids are paged in id order and each page
+ * is rebuilt by {@link MonthlyStatementService#rebuild} in its own transaction, {@code parallelism} pages at a
+ * time. It runs once the application is ready and is safe alongside live transfers; enable it with
+ * {@code bank.statement.backfill.enabled=true} for one start after the rollups are deployed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bank.statement.backfill.enabled", havingValue = "true")
+public class MonthlyStatementBackfill {
+
+    private final AccountRepository accountRepository;
+    private final MonthlyStatementService monthlyStatementService;
+    private final StatementProperties.Backfill properties;
+
+    public MonthlyStatementBackfill(AccountRepository accountRepository,
+                                    MonthlyStatementService monthlyStatementService,
+                                    StatementProperties statementProperties) {
+        this.accountRepository = accountRepository;
+        this.monthlyStatementService = monthlyStatementService;
+        this.properties = statementProperties.getBackfill();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        run();
+    }
+
+    /**
+     * @return the number of accounts whose rollups could not be rebuilt
+     */
+    public int run() {
+        long started = System.nanoTime();
+        AtomicLong accounts = new AtomicLong();
+        AtomicLong rollups = new AtomicLong();
+        AtomicInteger failedAccounts = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(properties.getParallelism() * 2);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(properties.getParallelism(),
+                Thread.ofPlatform().name("monthly-statement-backfill-", 0).factory())) {
+            String afterId = "";
+            List<String> chunk;
+            while (!(chunk = accountRepository.findIdsAfter(afterId, properties.getChunkSize())).isEmpty()) {
+                afterId = chunk.getLast();
+                List<String> accountIds = new ArrayList<>(chunk);
+                inFlight.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        rollups.addAndGet(rebuildWithRetry(accountIds));
+                        accounts.addAndGet(accountIds.size());
+                    } catch (RuntimeException ex) {
+                        failedAccounts.addAndGet(accountIds.size());
+                        log.error("Monthly statement backfill failed for {} accounts after {}", accountIds.size(), accountIds.getFirst(), ex);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        log.info("Monthly statement backfill rebuilt {} rollups for {} accounts in {} ms ({} accounts failed)",
+                rollups.get(), accounts.get(), (System.nanoTime() - started) / 1_000_000, failedAccounts.get());
+        return failedAccounts.get();
+    }
+
+    private int rebuildWithRetry(List<String> accountIds) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return monthlyStatementService.rebuild(accountIds);
+            } catch (ConcurrencyFailureException ex) {
+                if (attempt >= properties.getMaxAttempts()) {
+                    throw ex;
+                }
+                log.debug("Monthly statement backfill chunk lost a lock conflict (attempt {}), retrying", attempt);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.bank_app.service.statement;
+
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.dto.response.MonthlyStatementResponse;
+import com.example.bank_app.entity.MonthlyStatementEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.event.AccountDeletedEvent;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.MonthlyStatementRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Monthly statements answered from per (account, month) rollups of total in, total out and transaction count.
+ *
+ * <p>Every code path that inserts transactions calls {@link #record} inside the same database transaction, so a
+ * rollup is exactly as committed as its transactions. Only net changes are stored: the opening balance of a month
+ * is the sum of the account's earlier months, which keeps every update a commutative add onto a single row.
+ */
+@Component
+@RequiredArgsConstructor
+public class MonthlyStatementService {
+
+    private static final Comparator<RollupKey> ROLLUP_ORDER = Comparator.comparing(RollupKey::accountId).thenComparing(RollupKey::month);
+
+    private final MonthlyStatementRepository monthlyStatementRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Adds the transactions to their accounts' monthly rollups. Must run in the transaction that inserts them.
+     */
+    public void record(Collection<TransactionEntity> transactions) {
+        Map<RollupKey, MonthlyStatementEntity> rollups = new TreeMap<>(ROLLUP_ORDER);
+        for (TransactionEntity transaction : transactions) {
+            LocalDate month = transaction.getDate().toLocalDate().withDayOfMonth(1);
+            BigDecimal amount = transaction.getAmount().toBigDecimal();
+            String senderAccountId = transaction.getSenderAccountId();
+            String receiverAccountId = transaction.getReceiverAccountId();
+
+            if (transaction.getTransactionType() == TransactionType.INITIAL) {
+                add(rollups, receiverAccountId, month, amount, BigDecimal.ZERO);
+            } else if (senderAccountId.equals(receiverAccountId)) {
+                add(rollups, receiverAccountId, month, amount, amount);
+            } else {
+                add(rollups, senderAccountId, month, BigDecimal.ZERO, amount);
+                add(rollups, receiverAccountId, month, amount, BigDecimal.ZERO);
+            }
+        }
+        monthlyStatementRepository.addAll(new ArrayList<>(rollups.values()));
+    }
+
+    public MonthlyStatementResponse getStatement(String accountId, YearMonth month) {
+        LocalDate statementMonth = month.atDay(1);
+        BigDecimal openingBalance = monthlyStatementRepository.sumNetChangeBefore(accountId, statementMonth);
+        Optional<MonthlyStatementEntity> rollup = monthlyStatementRepository.findByAccountIdAndStatementMonth(accountId, statementMonth);
+        BigDecimal totalIn = rollup.map(MonthlyStatementEntity::getTotalIn).orElse(BigDecimal.ZERO);
+        BigDecimal totalOut = rollup.map(MonthlyStatementEntity::getTotalOut).orElse(BigDecimal.ZERO);
+
+        return MonthlyStatementResponse.builder()
+                .accountId(accountId)
+                .month(month)
+                .openingBalance(openingBalance)
+                .totalIn(totalIn)
+                .totalOut(totalOut)
+                .transactionCount(rollup.map(MonthlyStatementEntity::getTransactionCount).orElse(0L))
+                .closingBalance(openingBalance.add(totalIn).subtract(totalOut))
+                .build();
+    }
+
+    /**
+     * Rebuilds the rollups of the given accounts from their full transaction history. The account rows are locked
+     * first: transfers touching them update those rows too, so they either committed before the rebuild reads the
+     * history or add onto the rebuilt rollups after it commits.
+     *
+     * @return the number of rollup rows written
+     */
+    public int rebuild(List<String> accountIds) {
+        Integer rebuilt = transactionTemplate.execute(status -> {
+            List<String> locked = accountRepository.lockAllById(accountIds);
+            if (locked.isEmpty()) {
+                return 0;
+            }
+            monthlyStatementRepository.deleteByAccountIdIn(locked);
+            List<MonthlyStatementEntity> rollups = new ArrayList<>(transactionRepository.sumMonthlyActivityByAccount(locked));
+            rollups.sort(Comparator.comparing(MonthlyStatementEntity::getAccountId).thenComparing(MonthlyStatementEntity::getStatementMonth));
+            monthlyStatementRepository.addAll(rollups);
+            return rollups.size();
+        });
+        return rebuilt == null ? 0 : rebuilt;
+    }
+
+    @EventListener
+    public void onAccountDeleted(AccountDeletedEvent event) {
+        monthlyStatementRepository.deleteByAccountIdIn(List.of(event.accountId()));
+    }
+
+    private void add(Map<RollupKey, MonthlyStatementEntity> rollups, String accountId, LocalDate month, BigDecimal in, BigDecimal out) {
+        MonthlyStatementEntity rollup = rollups.computeIfAbsent(new RollupKey(accountId, month), key -> MonthlyStatementEntity
+                .builder()
+                .accountId(accountId)
+                .statementMonth(month)
+                .totalIn(BigDecimal.ZERO)
+                .totalOut(BigDecimal.ZERO)
+                .build());
+        rollup.setTotalIn(rollup.getTotalIn().add(in));
+        rollup.setTotalOut(rollup.getTotalOut().add(out));
+        rollup.setTransactionCount(rollup.getTransactionCount() + 1);
+    }
+
+    private record RollupKey(String accountId, LocalDate month) {
+    }
+}
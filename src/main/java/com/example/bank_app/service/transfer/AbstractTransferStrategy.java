@@ -0,0 +1,136 @@
+package com.example.bank_app.service.transfer;
+
+import com.example.bank_app.common.AccountIdentity;
+import com.example.bank_app.common.AccountNumbers;
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.exception.AccountNotFoundByNumberException;
+import com.example.bank_app.exception.AccountNotFoundException;
+import com.example.bank_app.exception.BalanceIsNotEnoughException;
+import com.example.bank_app.exception.InvalidAccountNumberException;
+import com.example.bank_app.exception.InvalidAmountException;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.account.AccountIdentityCache;
+import com.example.bank_app.service.account.AccountNumberIssuer;
+import com.example.bank_app.service.outbox.OutboxService;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public abstract class AbstractTransferStrategy implements TransferStrategy {
+
+    protected final AccountRepository accountRepository;
+    protected final TransactionRepository transactionRepository;
+    protected final AccountIdentityCache accountIdentityCache;
+    protected final MonthlyStatementService monthlyStatementService;
+    protected final OutboxService outboxService;
+    protected final AccountNumberIssuer accountNumberIssuer;
+
+    /**
+     * Locks the sender once, resolves every receiver with a single {@code IN} query, batch inserts the accepted
+     * transactions, applies one aggregated balance delta per account, adds them to the monthly statement rollups
+     * and writes their outbox events. Items that cannot be executed are rejected individually; the rest of the batch still goes through.
+     */
+    @Override
+    @Transactional
+    public List<BatchTransferOutcome> transferBatch(String senderCustomerId, String senderAccountId, List<NewMoneyTransferRequest> newMoneyTransferRequests) {
+        AccountEntity senderAccount = accountRepository.findByIdForUpdate(senderAccountId)
+                .filter(account -> account.getCustomerId().equals(senderCustomerId))
+                .orElseThrow(() -> new AccountNotFoundException(senderAccountId));
+        Map<String, String> receiverAccountIdsByNumber = findReceiverAccountIdsByNumber(newMoneyTransferRequests);
+
+        List<BatchTransferOutcome> outcomes = new ArrayList<>(newMoneyTransferRequests.size());
+        List<TransactionEntity> acceptedTransactions = new ArrayList<>();
+        Map<String, Money> creditsByAccountId = new TreeMap<>();
+        Money availableBalance = senderAccount.getBalance();
+
+        for (NewMoneyTransferRequest newMoneyTransferRequest : newMoneyTransferRequests) {
+            Money amount = newMoneyTransferRequest.getAmount();
+            String receiverAccountId = receiverAccountIdsByNumber.get(newMoneyTransferRequest.getReceiverAccountNumber());
+
+            if (amount == null || !amount.isPositive()) {
+                outcomes.add(BatchTransferOutcome.rejected(new InvalidAmountException()));
+            } else if (!hasValidReceiverAccountNumber(newMoneyTransferRequest.getReceiverAccountNumber())) {
+                outcomes.add(BatchTransferOutcome.rejected(new InvalidAccountNumberException(newMoneyTransferRequest.getReceiverAccountNumber())));
+            } else if (receiverAccountId == null) {
+                outcomes.add(BatchTransferOutcome.rejected(new AccountNotFoundByNumberException(newMoneyTransferRequest.getReceiverAccountNumber())));
+            } else if (availableBalance.isLessThan(amount)) {
+                outcomes.add(BatchTransferOutcome.rejected(new BalanceIsNotEnoughException(availableBalance)));
+            } else {
+                availableBalance = availableBalance.minus(amount);
+                creditsByAccountId.merge(receiverAccountId, amount, Money::plus);
+                TransactionEntity transaction = buildTransaction(senderAccountId, receiverAccountId, amount, newMoneyTransferRequest.getDescription());
+                acceptedTransactions.add(transaction);
+                outcomes.add(BatchTransferOutcome.accepted(transaction));
+            }
+        }
+
+        if (!acceptedTransactions.isEmpty()) {
+            Money selfCredit = creditsByAccountId.remove(senderAccountId);
+            senderAccount.setBalance(selfCredit == null ? availableBalance : availableBalance.plus(selfCredit));
+            accountRepository.save(senderAccount);
+            accountRepository.applyBalanceDeltas(creditsByAccountId);
+            transactionRepository.saveAll(acceptedTransactions);
+            monthlyStatementService.record(acceptedTransactions);
+            outboxService.recordTransfers(acceptedTransactions);
+        }
+
+        return outcomes;
+    }
+
+    private Map<String, String> findReceiverAccountIdsByNumber(List<NewMoneyTransferRequest> newMoneyTransferRequests) {
+        Set<String> receiverAccountNumbers = newMoneyTransferRequests.stream()
+                .map(NewMoneyTransferRequest::getReceiverAccountNumber)
+                .filter(this::hasValidReceiverAccountNumber)
+                .collect(Collectors.toSet());
+
+        return accountIdentityCache.findAllByAccountNumbers(receiverAccountNumbers).values().stream()
+                .collect(Collectors.toMap(AccountIdentity::accountNumber, AccountIdentity::id));
+    }
+
+    private boolean hasValidReceiverAccountNumber(String receiverAccountNumber) {
+        return AccountNumbers.hasValidCheckDigit(receiverAccountNumber) || accountNumberIssuer.mayBeLegacyNumber(receiverAccountNumber);
+    }
+
+    protected String getValidatedReceiverAccountIdByAccountNumber(String receiverAccountNumber) {
+        return accountIdentityCache.findByAccountNumber(receiverAccountNumber)
+                .map(AccountIdentity::id)
+                .orElseThrow(() -> new AccountNotFoundByNumberException(receiverAccountNumber));
+    }
+
+    protected void validateSenderBalanceEnough(Money balance, Money amount) {
+        if (balance.isLessThan(amount)) {
+            throw new BalanceIsNotEnoughException(balance);
+        }
+    }
+
+    protected TransactionEntity createTransaction(String senderAccountId, String receiverAccountId, Money amount, String description) {
+        TransactionEntity transaction = transactionRepository.save(buildTransaction(senderAccountId, receiverAccountId, amount, description));
+        monthlyStatementService.record(List.of(transaction));
+        outboxService.recordTransfers(List.of(transaction));
+        return transaction;
+    }
+
+    private TransactionEntity buildTransaction(String senderAccountId, String receiverAccountId, Money amount, String description) {
+        return TransactionEntity
+                .builder()
+                .senderAccountId(senderAccountId)
+                .receiverAccountId(receiverAccountId)
+                .transactionType(TransactionType.TRANSFER)
+                .amount(amount)
+                .description(description)
+                .build();
+    }
+}
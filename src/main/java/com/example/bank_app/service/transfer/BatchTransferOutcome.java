@@ -0,0 +1,18 @@
+package com.example.bank_app.service.transfer;
+
+import com.example.bank_app.entity.TransactionEntity;
+
+public record BatchTransferOutcome(TransactionEntity transaction, String rejectionReason) {
+
+    public static BatchTransferOutcome accepted(TransactionEntity transaction) {
+        return new BatchTransferOutcome(transaction, null);
+    }
+
+    public static BatchTransferOutcome rejected(RuntimeException reason) {
+        return new BatchTransferOutcome(null, reason.getMessage());
+    }
+
+    public boolean isAccepted() {
+        return transaction != null;
+    }
+}
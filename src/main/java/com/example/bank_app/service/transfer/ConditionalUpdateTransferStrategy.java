@@ -0,0 +1,62 @@
+package com.example.bank_app.service.transfer;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.exception.AccountNotFoundByNumberException;
+import com.example.bank_app.exception.AccountNotFoundException;
+import com.example.bank_app.exception.BalanceIsNotEnoughException;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.account.AccountIdentityCache;
+import com.example.bank_app.service.account.AccountNumberIssuer;
+import com.example.bank_app.service.outbox.OutboxService;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import jakarta.transaction.Transactional;
+
+/**
+ * Moves the balance check into the database: the debit is a single
+ * {@code UPDATE account SET balance = balance - ? WHERE id = ? AND balance >= ?}, so no account row is read
+ * on the happy path. Both updates are issued in ascending id order to keep row lock acquisition ordered.
+ */
+public class ConditionalUpdateTransferStrategy extends AbstractTransferStrategy {
+
+    public ConditionalUpdateTransferStrategy(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                                             AccountIdentityCache accountIdentityCache, MonthlyStatementService monthlyStatementService,
+                                             OutboxService outboxService, AccountNumberIssuer accountNumberIssuer) {
+        super(accountRepository, transactionRepository, accountIdentityCache, monthlyStatementService, outboxService, accountNumberIssuer);
+    }
+
+    @Override
+    @Transactional
+    public TransactionEntity transfer(String senderCustomerId, String senderAccountId, NewMoneyTransferRequest newMoneyTransferRequest) {
+        String receiverAccountNumber = newMoneyTransferRequest.getReceiverAccountNumber();
+        String receiverAccountId = getValidatedReceiverAccountIdByAccountNumber(receiverAccountNumber);
+        Money amount = newMoneyTransferRequest.getAmount();
+
+        if (senderAccountId.compareTo(receiverAccountId) <= 0) {
+            debitSenderAccount(senderAccountId, senderCustomerId, amount);
+            creditReceiverAccount(receiverAccountId, receiverAccountNumber, amount);
+        } else {
+            creditReceiverAccount(receiverAccountId, receiverAccountNumber, amount);
+            debitSenderAccount(senderAccountId, senderCustomerId, amount);
+        }
+
+        return createTransaction(senderAccountId, receiverAccountId, amount, newMoneyTransferRequest.getDescription());
+    }
+
+    private void debitSenderAccount(String senderAccountId, String senderCustomerId, Money amount) {
+        if (accountRepository.debitIfBalanceEnough(senderAccountId, senderCustomerId, amount.toBigDecimal()) == 0) {
+            AccountEntity senderAccount = accountRepository.findByIdAndCustomerId(senderAccountId, senderCustomerId)
+                    .orElseThrow(() -> new AccountNotFoundException(senderAccountId));
+            throw new BalanceIsNotEnoughException(senderAccount.getBalance());
+        }
+    }
+
+    private void creditReceiverAccount(String receiverAccountId, String receiverAccountNumber, Money amount) {
+        if (accountRepository.credit(receiverAccountId, amount.toBigDecimal()) == 0) {
+            throw new AccountNotFoundByNumberException(receiverAccountNumber);
+        }
+    }
+}
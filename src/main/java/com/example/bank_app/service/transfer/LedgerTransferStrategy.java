@@ -0,0 +1,88 @@
+package com.example.bank_app.service.transfer;
+
+import com.example.bank_app.common.AccountNumbers;
+import com.example.bank_app.common.Money;
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.exception.InvalidAccountNumberException;
+import com.example.bank_app.exception.InvalidAmountException;
+import com.example.bank_app.service.account.AccountNumberIssuer;
+import com.example.bank_app.service.ledger.LedgerEngine;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Hands the transfer to the in-memory {@link LedgerEngine} and returns as soon as it has been applied there;
+ * the rows are written to the database asynchronously.
+ */
+@RequiredArgsConstructor
+public class LedgerTransferStrategy implements TransferStrategy {
+
+    private final LedgerEngine ledgerEngine;
+    private final AccountNumberIssuer accountNumberIssuer;
+
+    @Override
+    public TransactionEntity transfer(String senderCustomerId, String senderAccountId, NewMoneyTransferRequest newMoneyTransferRequest) {
+        return await(submit(senderCustomerId, senderAccountId, newMoneyTransferRequest));
+    }
+
+    @Override
+    public List<BatchTransferOutcome> transferBatch(String senderCustomerId, String senderAccountId, List<NewMoneyTransferRequest> newMoneyTransferRequests) {
+        List<CompletableFuture<TransactionEntity>> submitted = new ArrayList<>(newMoneyTransferRequests.size());
+        for (NewMoneyTransferRequest newMoneyTransferRequest : newMoneyTransferRequests) {
+            Money amount = newMoneyTransferRequest.getAmount();
+            if (amount == null || !amount.isPositive()) {
+                submitted.add(CompletableFuture.failedFuture(new InvalidAmountException()));
+            } else if (!AccountNumbers.hasValidCheckDigit(newMoneyTransferRequest.getReceiverAccountNumber())
+                    && !accountNumberIssuer.mayBeLegacyNumber(newMoneyTransferRequest.getReceiverAccountNumber())) {
+                submitted.add(CompletableFuture.failedFuture(new InvalidAccountNumberException(newMoneyTransferRequest.getReceiverAccountNumber())));
+            } else {
+                submitted.add(submitOrFail(senderCustomerId, senderAccountId, newMoneyTransferRequest));
+            }
+        }
+
+        List<BatchTransferOutcome> outcomes = new ArrayList<>(submitted.size());
+        for (CompletableFuture<TransactionEntity> transfer : submitted) {
+            try {
+                outcomes.add(BatchTransferOutcome.accepted(await(transfer)));
+            } catch (RuntimeException ex) {
+                outcomes.add(BatchTransferOutcome.rejected(ex));
+            }
+        }
+        return outcomes;
+    }
+
+    // Applied in memory and journaled; the rows are written later by the ledger's own transactions.
+    @Override
+    public boolean joinsCallerTransaction() {
+        return false;
+    }
+
+    private CompletableFuture<TransactionEntity> submit(String senderCustomerId, String senderAccountId, NewMoneyTransferRequest newMoneyTransferRequest) {
+        return ledgerEngine.transfer(senderCustomerId, senderAccountId, newMoneyTransferRequest.getReceiverAccountNumber(),
+                newMoneyTransferRequest.getAmount(), newMoneyTransferRequest.getDescription());
+    }
+
+    private CompletableFuture<TransactionEntity> submitOrFail(String senderCustomerId, String senderAccountId, NewMoneyTransferRequest newMoneyTransferRequest) {
+        try {
+            return submit(senderCustomerId, senderAccountId, newMoneyTransferRequest);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private TransactionEntity await(CompletableFuture<TransactionEntity> transfer) {
+        try {
+            return transfer.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.bank_app.service.transfer;
+
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.exception.AccountNotFoundByNumberException;
+import com.example.bank_app.exception.AccountNotFoundException;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.account.AccountIdentityCache;
+import com.example.bank_app.service.account.AccountNumberIssuer;
+import com.example.bank_app.service.outbox.OutboxService;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import jakarta.transaction.Transactional;
+
+/**
+ * Reads both accounts without locking and relies on the {@code @Version} column of {@link AccountEntity}:
+ * a concurrent update makes the commit fail and the transfer is retried by {@link TransferRetryExecutor}.
+ */
+public class OptimisticTransferStrategy extends AbstractTransferStrategy {
+
+    public OptimisticTransferStrategy(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                                      AccountIdentityCache accountIdentityCache, MonthlyStatementService monthlyStatementService,
+                                      OutboxService outboxService, AccountNumberIssuer accountNumberIssuer) {
+        super(accountRepository, transactionRepository, accountIdentityCache, monthlyStatementService, outboxService, accountNumberIssuer);
+    }
+
+    @Override
+    @Transactional
+    public TransactionEntity transfer(String senderCustomerId, String senderAccountId, NewMoneyTransferRequest newMoneyTransferRequest) {
+        AccountEntity senderAccount = getValidatedSenderAccountByCustomerIdAndAccountId(senderAccountId, senderCustomerId);
+        AccountEntity receiverAccount = getValidatedReceiverAccountByAccountNumber(newMoneyTransferRequest.getReceiverAccountNumber());
+        validateSenderBalanceEnough(senderAccount.getBalance(), newMoneyTransferRequest.getAmount());
+        TransactionEntity transactionEntity = createTransaction(senderAccountId, receiverAccount.getId(), newMoneyTransferRequest.getAmount(), newMoneyTransferRequest.getDescription());
+
+        senderAccount.setBalance(senderAccount.getBalance().minus(newMoneyTransferRequest.getAmount()));
+        receiverAccount.setBalance(receiverAccount.getBalance().plus(newMoneyTransferRequest.getAmount()));
+
+        accountRepository.save(senderAccount);
+        accountRepository.save(receiverAccount);
+
+        return transactionEntity;
+    }
+
+    private AccountEntity getValidatedSenderAccountByCustomerIdAndAccountId(String senderAccountId, String senderCustomerId) {
+        return accountRepository.findByIdAndCustomerId(senderAccountId, senderCustomerId)
+                .orElseThrow(() -> new AccountNotFoundException(senderAccountId));
+    }
+
+    private AccountEntity getValidatedReceiverAccountByAccountNumber(String receiverAccountNumber) {
+        return accountRepository.findById(getValidatedReceiverAccountIdByAccountNumber(receiverAccountNumber))
+                .orElseThrow(() -> new AccountNotFoundByNumberException(receiverAccountNumber));
+    }
+}
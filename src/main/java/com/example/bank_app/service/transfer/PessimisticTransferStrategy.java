@@ -0,0 +1,66 @@
+package com.example.bank_app.service.transfer;
+
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.exception.AccountNotFoundByNumberException;
+import com.example.bank_app.exception.AccountNotFoundException;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.account.AccountIdentityCache;
+import com.example.bank_app.service.account.AccountNumberIssuer;
+import com.example.bank_app.service.outbox.OutboxService;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import jakarta.transaction.Transactional;
+
+/**
+ * Locks both account rows with {@code SELECT ... FOR UPDATE}, always in ascending id order so that
+ * two opposite transfers between the same accounts cannot deadlock each other.
+ */
+public class PessimisticTransferStrategy extends AbstractTransferStrategy {
+
+    public PessimisticTransferStrategy(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                                       AccountIdentityCache accountIdentityCache, MonthlyStatementService monthlyStatementService,
+                                       OutboxService outboxService, AccountNumberIssuer accountNumberIssuer) {
+        super(accountRepository, transactionRepository, accountIdentityCache, monthlyStatementService, outboxService, accountNumberIssuer);
+    }
+
+    @Override
+    @Transactional
+    public TransactionEntity transfer(String senderCustomerId, String senderAccountId, NewMoneyTransferRequest newMoneyTransferRequest) {
+        String receiverAccountNumber = newMoneyTransferRequest.getReceiverAccountNumber();
+        String receiverAccountId = getValidatedReceiverAccountIdByAccountNumber(receiverAccountNumber);
+
+        AccountEntity senderAccount;
+        AccountEntity receiverAccount;
+        if (senderAccountId.compareTo(receiverAccountId) <= 0) {
+            senderAccount = lockSenderAccount(senderAccountId, senderCustomerId);
+            receiverAccount = lockReceiverAccount(receiverAccountId, receiverAccountNumber);
+        } else {
+            receiverAccount = lockReceiverAccount(receiverAccountId, receiverAccountNumber);
+            senderAccount = lockSenderAccount(senderAccountId, senderCustomerId);
+        }
+
+        validateSenderBalanceEnough(senderAccount.getBalance(), newMoneyTransferRequest.getAmount());
+        TransactionEntity transactionEntity = createTransaction(senderAccountId, receiverAccountId, newMoneyTransferRequest.getAmount(), newMoneyTransferRequest.getDescription());
+
+        senderAccount.setBalance(senderAccount.getBalance().minus(newMoneyTransferRequest.getAmount()));
+        receiverAccount.setBalance(receiverAccount.getBalance().plus(newMoneyTransferRequest.getAmount()));
+
+        accountRepository.save(senderAccount);
+        accountRepository.save(receiverAccount);
+
+        return transactionEntity;
+    }
+
+    private AccountEntity lockSenderAccount(String senderAccountId, String senderCustomerId) {
+        return accountRepository.findByIdForUpdate(senderAccountId)
+                .filter(account -> account.getCustomerId().equals(senderCustomerId))
+                .orElseThrow(() -> new AccountNotFoundException(senderAccountId));
+    }
+
+    private AccountEntity lockReceiverAccount(String receiverAccountId, String receiverAccountNumber) {
+        return accountRepository.findByIdForUpdate(receiverAccountId)
+                .orElseThrow(() -> new AccountNotFoundByNumberException(receiverAccountNumber));
+    }
+}
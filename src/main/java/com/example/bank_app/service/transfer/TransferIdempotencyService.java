@@ -0,0 +1,243 @@
+package com.example.bank_app.service.transfer;
+
+import com.example.bank_app.config.TransferProperties;
+import com.example.bank_app.dto.model.TransactionDto;
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.entity.IdempotencyKeyEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.exception.IdempotencyKeyReusedException;
+import com.example.bank_app.exception.InvalidIdempotencyKeyException;
+import com.example.bank_app.exception.TransferInProgressException;
+import com.example.bank_app.mapper.TransactionMapper;
+import com.example.bank_app.repository.IdempotencyKeyRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Executes a transfer at most once per customer and {@code Idempotency-Key}.
+ *
+ * <p>Recent keys live in a bounded in-memory map (Caffeine's striped hash table) holding the in-flight or
+ * completed result, so a concurrent duplicate waits for the first request instead of racing it and a quick
+ * retry is answered without any query. Every key is also persisted in the same transaction as its transfer,
+ * under a unique index: a retry that reaches another instance, or arrives after the in-memory entry expired,
+ * replays the stored transaction, and a duplicate that slips past both tiers fails on the index and rolls its
+ * own transfer back. Replays read only the transaction row and never touch the account rows.
+ *
+ * <p>A transfer that does not join the caller's transaction (the ledger strategy) cannot be rolled back by a failed
+ * insert, so its key is reserved in a transaction of its own before the transfer runs and completed with the
+ * transaction id afterwards. A duplicate that finds the key still pending, or whose transaction row has not been
+ * written behind yet, is asked to retry later.
+ *
+ * <p>Failed transfers are not remembered, so retrying with the same key executes the transfer again.
+ */
+@Slf4j
+@Component
+public class TransferIdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransferRetryExecutor transferRetryExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionMapper transactionMapper;
+    private final TransferProperties.Idempotency properties;
+    private final boolean reserveBeforeTransfer;
+    private final Cache<String, RecentTransfer> recentTransfers;
+
+    public TransferIdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                                      TransactionRepository transactionRepository,
+                                      TransferRetryExecutor transferRetryExecutor,
+                                      TransactionTemplate transactionTemplate,
+                                      TransactionMapper transactionMapper,
+                                      TransferStrategy transferStrategy,
+                                      TransferProperties transferProperties) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionRepository = transactionRepository;
+        this.transferRetryExecutor = transferRetryExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.transactionMapper = transactionMapper;
+        this.properties = transferProperties.getIdempotency();
+        this.reserveBeforeTransfer = !transferStrategy.joinsCallerTransaction();
+        this.recentTransfers = Caffeine.newBuilder()
+                .maximumSize(properties.getRecentMaximumSize())
+                .expireAfterWrite(properties.getRecentTtl())
+                .build();
+    }
+
+    public TransactionDto execute(String customerId, String senderAccountId, String idempotencyKey,
+                                  NewMoneyTransferRequest newMoneyTransferRequest, Supplier<TransactionEntity> transfer) {
+        validateIdempotencyKey(idempotencyKey);
+        String fingerprint = fingerprint(senderAccountId, newMoneyTransferRequest);
+        String scope = customerId + ':' + idempotencyKey;
+
+        RecentTransfer mine = new RecentTransfer(fingerprint, new CompletableFuture<>());
+        RecentTransfer existing = recentTransfers.asMap().putIfAbsent(scope, mine);
+        if (existing != null) {
+            validateFingerprint(existing.fingerprint(), fingerprint, idempotencyKey);
+            return await(existing.result());
+        }
+
+        try {
+            TransactionDto result = replay(customerId, idempotencyKey, fingerprint)
+                    .orElseGet(() -> reserveBeforeTransfer
+                            ? reserveAndExecute(customerId, idempotencyKey, fingerprint, transfer)
+                            : executeAndRecord(customerId, idempotencyKey, fingerprint, transfer));
+            mine.result().complete(result);
+            return result;
+        } catch (RuntimeException ex) {
+            recentTransfers.asMap().remove(scope, mine);
+            mine.result().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${bank.transfer.idempotency.cleanup-interval:PT10M}",
+            fixedDelayString = "${bank.transfer.idempotency.cleanup-interval:PT10M}")
+    public void deleteExpiredKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        int batchSize = properties.getCleanupBatchSize();
+        int deleted = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteExpired(now, batchSize));
+            deleted += batch;
+        } while (batch == batchSize);
+        if (deleted > 0) {
+            log.debug("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private TransactionDto executeAndRecord(String customerId, String idempotencyKey, String fingerprint, Supplier<TransactionEntity> transfer) {
+        try {
+            TransactionEntity transaction = transferRetryExecutor.execute(() -> transactionTemplate.execute(status -> {
+                TransactionEntity executed = transfer.get();
+                idempotencyKeyRepository.saveAndFlush(newKey(customerId, idempotencyKey, fingerprint, executed.getId()));
+                return executed;
+            }));
+            return transactionMapper.toTransactionDto(transaction);
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance recorded the key first; our transfer was rolled back with the failed insert.
+            return replay(customerId, idempotencyKey, fingerprint).orElseThrow(() -> ex);
+        }
+    }
+
+    private TransactionDto reserveAndExecute(String customerId, String idempotencyKey, String fingerprint, Supplier<TransactionEntity> transfer) {
+        IdempotencyKeyEntity reservation;
+        try {
+            reservation = transactionTemplate.execute(status ->
+                    idempotencyKeyRepository.saveAndFlush(newKey(customerId, idempotencyKey, fingerprint, null)));
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance reserved the key first and runs or ran the transfer.
+            return replay(customerId, idempotencyKey, fingerprint).orElseThrow(() -> ex);
+        }
+
+        TransactionEntity transaction;
+        try {
+            transaction = transferRetryExecutor.execute(transfer::get);
+        } catch (RuntimeException ex) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.deleteById(reservation.getId()));
+            } catch (RuntimeException deleteFailure) {
+                log.warn("Could not release idempotency key {} of a failed transfer; it stays pending until it expires", idempotencyKey, deleteFailure);
+                ex.addSuppressed(deleteFailure);
+            }
+            throw ex;
+        }
+
+        reservation.setTransactionId(transaction.getId());
+        try {
+            transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.save(reservation));
+        } catch (RuntimeException ex) {
+            // The transfer went through; retries are answered with a conflict until the pending key expires.
+            log.error("Could not record transaction {} for idempotency key {}", transaction.getId(), idempotencyKey, ex);
+        }
+        return transactionMapper.toTransactionDto(transaction);
+    }
+
+    private IdempotencyKeyEntity newKey(String customerId, String idempotencyKey, String fingerprint, String transactionId) {
+        return IdempotencyKeyEntity
+                .builder()
+                .customerId(customerId)
+                .idempotencyKey(idempotencyKey)
+                .requestFingerprint(fingerprint)
+                .transactionId(transactionId)
+                .expiresAt(LocalDateTime.now().plus(properties.getTtl()))
+                .build();
+    }
+
+    private Optional<TransactionDto> replay(String customerId, String idempotencyKey, String fingerprint) {
+        return idempotencyKeyRepository.findByCustomerIdAndIdempotencyKey(customerId, idempotencyKey)
+                .map(recorded -> {
+                    validateFingerprint(recorded.getRequestFingerprint(), fingerprint, idempotencyKey);
+                    if (recorded.getTransactionId() == null) {
+                        throw new TransferInProgressException(idempotencyKey);
+                    }
+                    return transactionRepository.findById(recorded.getTransactionId())
+                            .map(transactionMapper::toTransactionDto)
+                            .orElseThrow(() -> reserveBeforeTransfer
+                                    ? new TransferInProgressException(idempotencyKey)
+                                    : new IllegalStateException("Transaction " + recorded.getTransactionId()
+                                    + " recorded for an idempotency key no longer exists"));
+                });
+    }
+
+    private void validateIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(MAX_KEY_LENGTH);
+        }
+    }
+
+    private void validateFingerprint(String recordedFingerprint, String fingerprint, String idempotencyKey) {
+        if (!recordedFingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+    }
+
+    private TransactionDto await(CompletableFuture<TransactionDto> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * SHA-256 over the sender account and the transfer fields, so reusing a key for a different transfer is
+     * rejected instead of silently replaying the first one.
+     */
+    static String fingerprint(String senderAccountId, NewMoneyTransferRequest newMoneyTransferRequest) {
+        String canonical = String.join("\n",
+                senderAccountId,
+                newMoneyTransferRequest.getAmount().toBigDecimal().stripTrailingZeros().toPlainString(),
+                newMoneyTransferRequest.getReceiverAccountNumber(),
+                String.valueOf(newMoneyTransferRequest.getDescription()));
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private record RecentTransfer(String fingerprint, CompletableFuture<TransactionDto> result) {
+    }
+}
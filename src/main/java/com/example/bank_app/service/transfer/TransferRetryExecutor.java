@@ -0,0 +1,52 @@
+package com.example.bank_app.service.transfer;
+
+import com.example.bank_app.config.TransferProperties;
+import com.example.bank_app.exception.TransferConflictException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a transfer that lost a lock race (deadlock victim, lock timeout or stale {@code @Version})
+ * with jittered exponential backoff. Every attempt must run in its own transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferRetryExecutor {
+
+    private final TransferProperties transferProperties;
+
+    public <T> T execute(Supplier<T> transfer) {
+        TransferProperties.Retry retry = transferProperties.getRetry();
+        int attempt = 1;
+        while (true) {
+            try {
+                return transfer.get();
+            } catch (ConcurrencyFailureException ex) {
+                if (attempt >= retry.getMaxAttempts()) {
+                    throw new TransferConflictException(attempt);
+                }
+                backoff(retry, attempt);
+                attempt++;
+            }
+        }
+    }
+
+    private void backoff(TransferProperties.Retry retry, int attempt) {
+        long initialBackoffMillis = retry.getInitialBackoff().toMillis();
+        long maxBackoffMillis = retry.getMaxBackoff().toMillis();
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TransferConflictException(attempt);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.bank_app.service.transfer;
+
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.entity.TransactionEntity;
+
+import java.util.List;
+
+public interface TransferStrategy {
+
+    TransactionEntity transfer(String senderCustomerId, String senderAccountId, NewMoneyTransferRequest newMoneyTransferRequest);
+
+    List<BatchTransferOutcome> transferBatch(String senderCustomerId, String senderAccountId, List<NewMoneyTransferRequest> newMoneyTransferRequests);
+
+    /**
+     * Whether a transfer joins the caller's database transaction, so that it is rolled back when the caller's
+     * transaction is.
+     */
+    default boolean joinsCallerTransaction() {
+        return true;
+    }
+}
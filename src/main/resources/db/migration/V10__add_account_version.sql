@@ -0,0 +1,3 @@
+-- Optimistic locking for the version-checked transfer strategies. V1 is the schema that existing databases are
+-- baselined at, so columns added since then live in their own migrations.
+ALTER TABLE account ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,30 @@
+CREATE TABLE customer (
+    id            VARCHAR(255) NOT NULL,
+    email         VARCHAR(255),
+    password      VARCHAR(255),
+    first_name    VARCHAR(255),
+    last_name     VARCHAR(255),
+    phone_number  VARCHAR(255),
+    date_of_birth DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE account (
+    id             VARCHAR(255) NOT NULL,
+    customer_id    VARCHAR(255),
+    account_number VARCHAR(255),
+    balance        DECIMAL(38, 2),
+    created_at     DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE transaction (
+    id                  VARCHAR(255) NOT NULL,
+    sender_account_id   VARCHAR(255),
+    receiver_account_id VARCHAR(255),
+    transaction_type    ENUM ('INITIAL', 'TRANSFER'),
+    amount              DECIMAL(38, 2),
+    date                DATETIME(6),
+    description         VARCHAR(255),
+    PRIMARY KEY (id)
+);
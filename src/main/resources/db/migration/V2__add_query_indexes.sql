@@ -0,0 +1,12 @@
+-- findByAccountNumber / findIdByAccountNumber / existsByAccountNumber, and account number uniqueness.
+CREATE UNIQUE INDEX uk_account_account_number ON account (account_number);
+
+-- findAllByCustomerId.
+CREATE INDEX idx_account_customer_id ON account (customer_id);
+
+-- findByEmail on every authenticated request, and email uniqueness.
+CREATE UNIQUE INDEX uk_customer_email ON customer (email);
+
+-- Each branch of the transaction history UNION ALL seeks on one of these and reads rows in (date, id) order.
+CREATE INDEX idx_transaction_sender_date ON transaction (sender_account_id, date, id);
+CREATE INDEX idx_transaction_receiver_date ON transaction (receiver_account_id, date, id);
@@ -0,0 +1,16 @@
+CREATE TABLE idempotency_key (
+    id                  VARCHAR(255) NOT NULL,
+    customer_id         VARCHAR(255) NOT NULL,
+    idempotency_key     VARCHAR(255) NOT NULL,
+    request_fingerprint VARCHAR(64)  NOT NULL,
+    transaction_id      VARCHAR(255) NOT NULL,
+    created_at          DATETIME(6),
+    expires_at          DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- A key is unique per customer; the insert racing a committed duplicate fails here and rolls its transfer back.
+CREATE UNIQUE INDEX uk_idempotency_key_customer_key ON idempotency_key (customer_id, idempotency_key);
+
+-- Expired key cleanup.
+CREATE INDEX idx_idempotency_key_expires_at ON idempotency_key (expires_at);
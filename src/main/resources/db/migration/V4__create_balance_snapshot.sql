@@ -0,0 +1,24 @@
+CREATE TABLE balance_snapshot (
+    id         VARCHAR(255)   NOT NULL,
+    account_id VARCHAR(255)   NOT NULL,
+    as_of      DATETIME(6)    NOT NULL,
+    balance    DECIMAL(38, 2) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Nearest snapshot at or before a point in time, and the latest snapshot of each account.
+CREATE UNIQUE INDEX uk_balance_snapshot_account_as_of ON balance_snapshot (account_id, as_of);
+
+CREATE TABLE balance_snapshot_checkpoint (
+    as_of          DATETIME(6) NOT NULL,
+    previous_as_of DATETIME(6) NOT NULL,
+    accounts       INT         NOT NULL,
+    created_at     DATETIME(6),
+    PRIMARY KEY (as_of)
+);
+
+-- Each checkpoint extends exactly one predecessor; a concurrent run over the same window fails here and rolls back.
+CREATE UNIQUE INDEX uk_balance_snapshot_checkpoint_previous ON balance_snapshot_checkpoint (previous_as_of);
+
+-- Incremental snapshot runs scan the transactions dated inside the window since the last checkpoint.
+CREATE INDEX idx_transaction_date ON transaction (date);
@@ -0,0 +1,12 @@
+CREATE TABLE monthly_statement (
+    id                VARCHAR(255)   NOT NULL,
+    account_id        VARCHAR(255)   NOT NULL,
+    statement_month   DATE           NOT NULL,
+    total_in          DECIMAL(38, 2) NOT NULL,
+    total_out         DECIMAL(38, 2) NOT NULL,
+    transaction_count BIGINT         NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Upsert target of every transfer, and the opening balance sum over an account's earlier months.
+CREATE UNIQUE INDEX uk_monthly_statement_account_month ON monthly_statement (account_id, statement_month);
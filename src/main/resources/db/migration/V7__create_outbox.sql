@@ -0,0 +1,25 @@
+-- Events for downstream systems, inserted in the transaction that makes the change they describe and deleted once
+-- delivered. The auto-increment id is the delivery order: the changes to one account are serialized by its row lock
+-- (or by the single ledger write-behind thread), so the ids of its events follow their commit order.
+CREATE TABLE outbox_event (
+    id           BIGINT                               NOT NULL AUTO_INCREMENT,
+    partition_id INT                                  NOT NULL,
+    account_id   VARCHAR(255)                         NOT NULL,
+    event_type   ENUM ('ACCOUNT_CREATED', 'TRANSFER') NOT NULL,
+    payload      VARCHAR(4000)                        NOT NULL,
+    created_at   DATETIME(6)                          NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- The dispatcher reads the oldest events of the partition it claimed.
+CREATE INDEX idx_outbox_event_partition ON outbox_event (partition_id, id);
+
+-- One row per partition. A dispatcher claims a partition by locking its row with SKIP LOCKED, so the events of an
+-- account are delivered by one dispatcher at a time.
+CREATE TABLE outbox_partition (
+    id INT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO outbox_partition (id)
+VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9), (10), (11), (12), (13), (14), (15);
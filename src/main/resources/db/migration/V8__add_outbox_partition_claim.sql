@@ -0,0 +1,5 @@
+-- A dispatcher claims a partition by locking its row with SKIP LOCKED just long enough to record itself and a lease
+-- expiry here, and delivers the claimed batch outside that transaction. Other dispatchers skip the partition until
+-- the claim is released after the batch, or until the lease runs out because its dispatcher died.
+ALTER TABLE outbox_partition ADD COLUMN claimed_by VARCHAR(36) NULL;
+ALTER TABLE outbox_partition ADD COLUMN claimed_until DATETIME(6) NULL;
@@ -0,0 +1,3 @@
+-- Transfers that are not applied in a database transaction (the ledger strategy) reserve their key before the
+-- transfer runs and fill in the transaction id afterwards; until then the key is pending.
+ALTER TABLE idempotency_key MODIFY transaction_id VARCHAR(255) NULL;
@@ -0,0 +1,64 @@
+package com.example.bank_app.common;
+
+import com.example.bank_app.dto.request.NewAccountRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should convert decimals to minor units and back without losing the scale.")
+    public void shouldRoundTripDecimals() {
+        assertThat(Money.of("12.5").minorUnits()).isEqualTo(1250);
+        assertThat(Money.of(new BigDecimal("7")).toBigDecimal()).isEqualTo(new BigDecimal("7.00"));
+        assertThat(Money.of("-0.05")).hasToString("-0.05");
+        assertThat(Money.of("1234.50")).hasToString("1234.50");
+        assertThat(Money.ofMinorUnits(Long.MAX_VALUE).toBigDecimal()).isEqualTo(new BigDecimal("92233720368547758.07"));
+    }
+
+    @Test
+    @DisplayName("Should reject amounts finer than a minor unit or beyond the long range.")
+    public void shouldRejectUnrepresentableAmounts() {
+        assertThatThrownBy(() -> Money.of("0.001")).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of("92233720368547758.08")).isInstanceOf(ArithmeticException.class);
+        assertThat(Money.of("0.010")).isEqualTo(Money.ofMinorUnits(1));
+    }
+
+    @Test
+    @DisplayName("Should throw instead of wrapping around when arithmetic overflows.")
+    public void shouldThrow_whenArithmeticOverflows() {
+        Money max = Money.ofMinorUnits(Long.MAX_VALUE);
+
+        assertThatThrownBy(() -> max.plus(Money.ofMinorUnits(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofMinorUnits(Long.MIN_VALUE).minus(Money.ofMinorUnits(1))).isInstanceOf(ArithmeticException.class);
+        assertThat(Money.of("10.00").minus(Money.of("10.01")).isNegative()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should read JSON numbers and numeric strings and write two fraction digits.")
+    public void shouldSerializeAsDecimalNumber() throws Exception {
+        NewAccountRequest request = objectMapper.readValue("{\"initialBalance\": 10}", NewAccountRequest.class);
+        NewAccountRequest decimalRequest = objectMapper.readValue("{\"initialBalance\": \"0.5\"}", NewAccountRequest.class);
+
+        assertThat(request.getInitialBalance()).isEqualTo(Money.of("10"));
+        assertThat(decimalRequest.getInitialBalance()).isEqualTo(Money.of("0.50"));
+        assertThat(objectMapper.writeValueAsString(Money.of("1000"))).isEqualTo("1000.00");
+        assertThat(objectMapper.writeValueAsString(Money.of("-0.07"))).isEqualTo("-0.07");
+    }
+
+    @Test
+    @DisplayName("Should reject JSON amounts with more than two fraction digits.")
+    public void shouldRejectJsonAmount_whenFinerThanMinorUnit() {
+        assertThatThrownBy(() -> objectMapper.readValue("{\"initialBalance\": 10.001}", NewAccountRequest.class))
+                .isInstanceOf(InvalidFormatException.class);
+    }
+}
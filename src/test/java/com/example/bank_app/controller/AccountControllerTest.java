@@ -1,8 +1,10 @@
 package com.example.bank_app.controller;
 
+import com.example.bank_app.common.Money;
 import com.example.bank_app.dto.model.AccountDto;
 import com.example.bank_app.dto.request.NewAccountRequest;
-import com.example.bank_app.entity.CustomerEntity;
+import com.example.bank_app.dto.response.AccountBalanceResponse;
+import com.example.bank_app.security.AuthenticatedCustomer;
 import com.example.bank_app.service.AccountService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -49,26 +51,23 @@ class AccountControllerTest {
     @Test
     @DisplayName("Should add a new account successfully when a valid account DTO is provided")
     void shouldAddNewAccount_WhenAccountDto() throws Exception {
-        CustomerEntity customer = new CustomerEntity();
-        customer.setId("1");
-        customer.setEmail("test@example.com");
-        customer.setPassword("password123");
+        AuthenticatedCustomer customer = new AuthenticatedCustomer("1", "test@example.com", List.of());
 
         NewAccountRequest newAccountRequest = new NewAccountRequest();
-        newAccountRequest.setInitialBalance(BigDecimal.valueOf(1000));
+        newAccountRequest.setInitialBalance(Money.of("1000"));
 
         LocalDateTime fixedDateTime = LocalDateTime.of(2024, 8, 2, 21, 15, 18);
 
         AccountDto expectedAccountDto = AccountDto.builder()
                 .id("1")
-                .customerId(customer.getId())
+                .customerId(customer.id())
                 .accountNumber("1234567812345678")
-                .balance(BigDecimal.valueOf(1000))
+                .balance(Money.of("1000"))
                 .createdAt(fixedDateTime)
                 .build();
 
         SecurityContextHolder.getContext().setAuthentication(
-                new UsernamePasswordAuthenticationToken(customer, null, customer.getAuthorities()));
+                new UsernamePasswordAuthenticationToken(customer, null, customer.authorities()));
 
         when(accountService.addNewAccount(anyString(), any(NewAccountRequest.class))).thenReturn(expectedAccountDto);
 
@@ -112,8 +111,7 @@ class AccountControllerTest {
     @DisplayName("Should return all accounts of the authenticated customer")
     void shouldGetAccount_WhenAccountDto() throws Exception {
         String customerId = "customerId";
-        CustomerEntity customer = new CustomerEntity();
-        customer.setId(customerId);
+        AuthenticatedCustomer customer = new AuthenticatedCustomer(customerId, null, List.of());
 
         LocalDateTime fixedDateTime = LocalDateTime.of(2024, 8, 2, 21, 15, 18);
 
@@ -121,12 +119,12 @@ class AccountControllerTest {
                 .id("1")
                 .customerId("customerId")
                 .accountNumber("1234567812345678")
-                .balance(BigDecimal.valueOf(1000))
+                .balance(Money.of("1000"))
                 .createdAt(fixedDateTime)
                 .build();
 
         SecurityContextHolder.getContext().setAuthentication(
-                new UsernamePasswordAuthenticationToken(customer, null, customer.getAuthorities()));
+                new UsernamePasswordAuthenticationToken(customer, null, customer.authorities()));
 
         when(accountService.getAllAccounts("customerId")).thenReturn(List.of(expectedAccountDto));
 
@@ -152,8 +150,7 @@ class AccountControllerTest {
     void shouldGetAccountByIdCustomerId_WhenAccountDto() throws Exception {
        String customerId = "customerId";
        String accountId = "1";
-       CustomerEntity customer = new CustomerEntity();
-       customer.setId(customerId);
+       AuthenticatedCustomer customer = new AuthenticatedCustomer(customerId, null, List.of());
 
        LocalDateTime fixedDateTime = LocalDateTime.of(2024, 8, 2, 21, 15, 18);
 
@@ -161,12 +158,12 @@ class AccountControllerTest {
                .id(accountId)
                .customerId(customerId)
                .accountNumber("1234567812345678")
-               .balance(BigDecimal.valueOf(1000))
+               .balance(Money.of("1000"))
                .createdAt(fixedDateTime)
                .build();
 
        SecurityContextHolder.getContext().setAuthentication(
-               new UsernamePasswordAuthenticationToken(customer, null, customer.getAuthorities()));
+               new UsernamePasswordAuthenticationToken(customer, null, customer.authorities()));
 
        when(accountService.getAccountByIdAndCustomerId("1", "customerId")).thenReturn(expectedAccountDto);
 
@@ -186,17 +183,40 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$.createdAt").value(fixedDateTime.toString()));
     }
 
+    @Test
+    @DisplayName("Should return the balance of the account at the requested point in time")
+    void shouldGetBalanceAt_WhenAtProvided() throws Exception {
+        String customerId = "customerId";
+        String accountId = "1";
+        LocalDateTime at = LocalDateTime.of(2024, 8, 2, 21, 15, 18);
+
+        AuthenticatedCustomer customer = new AuthenticatedCustomer(customerId, null, List.of());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(customer, null, customer.authorities()));
+
+        when(accountService.getBalanceAt(accountId, customerId, at))
+                .thenReturn(new AccountBalanceResponse(accountId, BigDecimal.valueOf(750), at));
+
+        mockMvc.perform(get("/accounts/" + accountId + "/balance").param("at", at.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountId").value(accountId))
+                .andExpect(jsonPath("$.balance").value(750))
+                .andExpect(jsonPath("$.at").value(at.toString()));
+
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     @DisplayName("Should delete account by ID for authenticated customer")
     void shouldDeleteAccountById_WhenAccountDto() throws Exception {
         String customerId = "customerId";
         String accountId = "1";
 
-        CustomerEntity customer = new CustomerEntity();
-        customer.setId(customerId);
+        AuthenticatedCustomer customer = new AuthenticatedCustomer(customerId, null, List.of());
 
         SecurityContextHolder.getContext().setAuthentication(
-                new UsernamePasswordAuthenticationToken(customer, null, customer.getAuthorities()));
+                new UsernamePasswordAuthenticationToken(customer, null, customer.authorities()));
 
         doNothing().when(accountService).deleteAccountById(accountId, customerId);
 
@@ -1,8 +1,14 @@
 package com.example.bank_app.controller;
 
 import com.example.bank_app.dto.request.CustomerRegisterRequest;
+import com.example.bank_app.dto.request.LoginRequest;
+import com.example.bank_app.dto.response.AuthTokenResponse;
 import com.example.bank_app.dto.response.RegisterResponse;
+import com.example.bank_app.entity.CustomerEntity;
+import com.example.bank_app.event.CustomerCredentialsChangedEvent;
+import com.example.bank_app.repository.CustomerRepository;
 import com.example.bank_app.service.AuthService;
+import com.example.bank_app.service.auth.AuthTokenService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
@@ -11,7 +17,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -21,6 +31,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -37,6 +52,18 @@ class AuthControllerTest {
     private ObjectMapper objectMapper;
     // objectMapper: JSON verilerini Java nesnelerine ve tam tersine dönüştürmek için kullanılan bir yardımcı sınıf.
 
+    @SpyBean
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AuthTokenService authTokenService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @Autowired
     MockMvc mockMvc;
     // mockMvc: HTTP isteklerini simüle ederek kontrolcüleri test etmek için kullanılan bir yardımcı sınıf.
@@ -57,6 +84,56 @@ class AuthControllerTest {
         validateRegisterResponse(result);
     }
 
+    @Test
+    @DisplayName("Should return an access and a refresh token when the credentials are valid")
+    void shouldReturnTokens_whenLoginSucceeds() throws Exception {
+        LoginRequest loginRequest = new LoginRequest("test@example.com", "customer-123");
+        AuthTokenResponse tokens = AuthTokenResponse.builder().accessToken("access").refreshToken("refresh").tokenType("Bearer").expiresIn(900).build();
+
+        when(authService.login(loginRequest)).thenReturn(tokens);
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(serializeJson(loginRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").value("access"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh"))
+                .andExpect(jsonPath("$.expiresIn").value(900));
+    }
+
+    @Test
+    @DisplayName("Should authenticate a request from its bearer token alone")
+    void shouldAuthenticateRequest_whenBearerTokenValid() throws Exception {
+        String accessToken = authTokenService.issue("customerId", "test@example.com").getAccessToken();
+
+        mockMvc.perform(get("/accounts").header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray());
+    }
+
+    @Test
+    @DisplayName("Should not authenticate a request with a forged bearer token")
+    void shouldRejectRequest_whenBearerTokenInvalid() throws Exception {
+        mockMvc.perform(get("/accounts").header(HttpHeaders.AUTHORIZATION, "Bearer forged.token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Should load a customer once for repeated HTTP Basic requests until the credentials change")
+    void shouldReuseCachedCustomer_whenHttpBasicRepeated() throws Exception {
+        String email = "basic@example.com";
+        customerRepository.save(CustomerEntity.builder().email(email).password(passwordEncoder.encode("customer-123")).build());
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/accounts").with(httpBasic(email, "customer-123"))).andExpect(status().isOk());
+        }
+        verify(customerRepository, times(1)).findByEmail(email);
+
+        applicationEventPublisher.publishEvent(new CustomerCredentialsChangedEvent(email));
+        mockMvc.perform(get("/accounts").with(httpBasic(email, "customer-123"))).andExpect(status().isOk());
+        verify(customerRepository, times(2)).findByEmail(email);
+    }
+
     private String serializeJson(Object object) throws JsonProcessingException {
         return objectMapper.writeValueAsString(object);
     }
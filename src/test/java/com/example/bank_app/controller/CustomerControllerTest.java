@@ -1,7 +1,7 @@
 package com.example.bank_app.controller;
 
 import com.example.bank_app.dto.model.CustomerDto;
-import com.example.bank_app.entity.CustomerEntity;
+import com.example.bank_app.security.AuthenticatedCustomer;
 import com.example.bank_app.service.CustomerService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,6 +15,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -37,16 +38,14 @@ class CustomerControllerTest {
     void shouldGetAuthenticatedCustomerById_WhenCustomer()  throws Exception {
         String customerId = "1";
 
-        CustomerEntity principal = new CustomerEntity();
-        principal.setId(customerId);
-        principal.setEmail("test@example.com");
+        AuthenticatedCustomer principal = new AuthenticatedCustomer(customerId, "test@example.com", List.of());
 
         CustomerDto customerDto = new CustomerDto();
         customerDto.setId(customerId);
         customerDto.setEmail("test@example.com");
 
         SecurityContextHolder.getContext().setAuthentication(
-                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+                new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
 
         when(customerService.getAuthenticatedCustomerById( "1")).thenReturn(customerDto);
 
@@ -0,0 +1,252 @@
+package com.example.bank_app.controller;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.dto.model.AccountDto;
+import com.example.bank_app.dto.request.CustomerRegisterRequest;
+import com.example.bank_app.dto.request.LoginRequest;
+import com.example.bank_app.dto.request.NewAccountRequest;
+import com.example.bank_app.dto.request.NewBatchMoneyTransferRequest;
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.entity.CustomerEntity;
+import com.example.bank_app.repository.CustomerRepository;
+import com.example.bank_app.security.AuthenticatedCustomer;
+import com.example.bank_app.service.AccountService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Upper bounds on the statements each endpoint sends to the database, so that an N+1 or a redundant lookup
+ * fails the build instead of surfacing as production latency. Accounts are opened fresh for every test, so
+ * the bounds hold with cold identity caches. Raise a bound only together with the change that needs it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("integration")
+public class QueryCountTest {
+
+    private static final String EMAIL = "query-count@example.com";
+    private static final String PASSWORD = "customer-123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private AuthenticatedCustomer customer;
+    private AccountDto sender;
+    private AccountDto receiver;
+
+    @TestConfiguration
+    static class StatementCounterConfiguration {
+
+        @Bean
+        StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource(ObjectProvider<StatementCounter> statementCounter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return ProxyDataSourceBuilder.create(dataSource).listener(statementCounter.getObject()).build();
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        CustomerEntity customerEntity = customerRepository.save(CustomerEntity.builder()
+                .email(EMAIL)
+                .firstName("Query")
+                .lastName("Count")
+                .password(passwordEncoder.encode(PASSWORD))
+                .build());
+        customer = new AuthenticatedCustomer(customerEntity.getId(), EMAIL, List.of());
+        sender = accountService.addNewAccount(customer.id(), initialBalance("1000.00"));
+        receiver = accountService.addNewAccount(customer.id(), initialBalance("0.00"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<String> accountIds = jdbcTemplate.queryForList("SELECT id FROM account WHERE customer_id = ?", String.class, customer.id());
+        for (String accountId : accountIds) {
+            jdbcTemplate.update("DELETE FROM transaction WHERE sender_account_id = ? OR receiver_account_id = ?", accountId, accountId);
+            jdbcTemplate.update("DELETE FROM monthly_statement WHERE account_id = ?", accountId);
+            jdbcTemplate.update("DELETE FROM outbox_event WHERE account_id = ?", accountId);
+            jdbcTemplate.update("DELETE FROM account WHERE id = ?", accountId);
+        }
+        jdbcTemplate.update("DELETE FROM customer WHERE email = ?", EMAIL);
+    }
+
+    @Test
+    @DisplayName("Registering a customer should check the email and insert the customer.")
+    public void shouldRegisterCustomer_withinStatementBudget() throws Exception {
+        CustomerRegisterRequest registerRequest = new CustomerRegisterRequest();
+        registerRequest.setEmail("query-count-new@example.com");
+        registerRequest.setPassword(PASSWORD);
+
+        try {
+            assertStatementsAtMost(2, post("/auth/register").contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(registerRequest)));
+        } finally {
+            jdbcTemplate.update("DELETE FROM customer WHERE email = ?", registerRequest.getEmail());
+        }
+    }
+
+    @Test
+    @DisplayName("Logging in should load the customer once.")
+    public void shouldLogin_withinStatementBudget() throws Exception {
+        assertStatementsAtMost(1, post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest(EMAIL, PASSWORD))));
+    }
+
+    @Test
+    @DisplayName("Opening an account should insert the account, its initial deposit, the statement rollup and the outbox event.")
+    public void shouldAddNewAccount_withinStatementBudget() throws Exception {
+        assertStatementsAtMost(4, authenticated(post("/accounts").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(initialBalance("50.00")))));
+    }
+
+    @Test
+    @DisplayName("Listing accounts should run a single query regardless of how many accounts the customer has.")
+    public void shouldGetAllAccounts_withinStatementBudget() throws Exception {
+        accountService.addNewAccount(customer.id(), initialBalance("0.00"));
+
+        assertStatementsAtMost(1, authenticated(get("/accounts")));
+    }
+
+    @Test
+    @DisplayName("Reading an account should load it once.")
+    public void shouldGetAccount_withinStatementBudget() throws Exception {
+        assertStatementsAtMost(1, authenticated(get("/accounts/" + sender.getId())));
+    }
+
+    @Test
+    @DisplayName("Reading the current balance should load the account once.")
+    public void shouldGetBalance_withinStatementBudget() throws Exception {
+        assertStatementsAtMost(1, authenticated(get("/accounts/" + sender.getId() + "/balance")));
+    }
+
+    @Test
+    @DisplayName("A transfer should debit, credit, and insert the transaction, both rollups and both outbox events, with the receiver resolved from cache.")
+    public void shouldAddNewTransaction_withinStatementBudget() throws Exception {
+        assertStatementsAtMost(5, authenticated(post("/accounts/" + sender.getId() + "/transfer-money")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transfer("10.00")))));
+    }
+
+    @Test
+    @DisplayName("A batch transfer should issue the same statements for three items as for one.")
+    public void shouldAddNewTransactionBatch_withinStatementBudget() throws Exception {
+        NewBatchMoneyTransferRequest batch = new NewBatchMoneyTransferRequest(List.of(transfer("1.00"), transfer("2.00"), transfer("3.00")));
+
+        assertStatementsAtMost(6, authenticated(post("/accounts/" + sender.getId() + "/transfer-money/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch))));
+    }
+
+    @Test
+    @DisplayName("A transaction history page should be read in one query, with ownership checked from cache.")
+    public void shouldGetTransactionHistory_withinStatementBudget() throws Exception {
+        assertStatementsAtMost(1, authenticated(get("/accounts/" + sender.getId() + "/transaction-history")));
+    }
+
+    @Test
+    @DisplayName("A monthly statement should read one rollup and the opening sum, with ownership checked from cache.")
+    public void shouldGetMonthlyStatement_withinStatementBudget() throws Exception {
+        assertStatementsAtMost(2, authenticated(get("/accounts/" + sender.getId() + "/statements/" + YearMonth.now())));
+    }
+
+    @Test
+    @DisplayName("Reading the authenticated customer should load it once.")
+    public void shouldGetAuthenticatedCustomer_withinStatementBudget() throws Exception {
+        assertStatementsAtMost(1, authenticated(get("/customers/me")));
+    }
+
+    @Test
+    @DisplayName("Deleting an account should load it, delete its initial deposit and clean up its snapshots and rollups.")
+    public void shouldDeleteAccount_withinStatementBudget() throws Exception {
+        assertStatementsAtMost(6, authenticated(delete("/accounts/" + sender.getId())));
+    }
+
+    private void assertStatementsAtMost(int maxStatements, RequestBuilder request) throws Exception {
+        statementCounter.start();
+        try {
+            mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        } finally {
+            List<String> statements = statementCounter.stop();
+            assertThat(statements)
+                    .as("statements issued by %s", request)
+                    .hasSizeLessThanOrEqualTo(maxStatements);
+        }
+    }
+
+    private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+        return request.with(authentication(new UsernamePasswordAuthenticationToken(customer, null, customer.authorities())));
+    }
+
+    private NewMoneyTransferRequest transfer(String amount) {
+        return NewMoneyTransferRequest.builder()
+                .amount(Money.of(amount))
+                .receiverAccountNumber(receiver.getAccountNumber())
+                .build();
+    }
+
+    private static NewAccountRequest initialBalance(String amount) {
+        NewAccountRequest newAccountRequest = new NewAccountRequest();
+        newAccountRequest.setInitialBalance(Money.of(amount));
+        return newAccountRequest;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bank_app.controller;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Records the statements the recording thread sends to the database. A JDBC batch is one round trip and is
+ * recorded once. Statements from other threads (schedulers, write-behind flushes) are ignored, so a count
+ * only covers the request that MockMvc runs on the test thread.
+ */
+class StatementCounter implements QueryExecutionListener {
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+    private volatile Thread recordingThread;
+
+    void start() {
+        statements.clear();
+        recordingThread = Thread.currentThread();
+    }
+
+    List<String> stop() {
+        recordingThread = null;
+        return List.copyOf(statements);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (Thread.currentThread() != recordingThread) {
+            return;
+        }
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        statements.add(execInfo.isBatch() ? "[batch of " + execInfo.getBatchSize() + "] " + sql : sql);
+    }
+}
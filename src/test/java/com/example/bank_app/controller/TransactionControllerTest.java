@@ -1,9 +1,18 @@
 package com.example.bank_app.controller;
 
+import com.example.bank_app.common.BatchTransferStatus;
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionExportFormat;
 import com.example.bank_app.common.TransactionType;
 import com.example.bank_app.dto.model.TransactionDto;
+import com.example.bank_app.dto.request.NewBatchMoneyTransferRequest;
 import com.example.bank_app.dto.request.NewMoneyTransferRequest;
-import com.example.bank_app.entity.CustomerEntity;
+import com.example.bank_app.dto.request.TransactionHistoryFilter;
+import com.example.bank_app.dto.response.BatchTransferItemResponse;
+import com.example.bank_app.dto.response.BatchTransferResponse;
+import com.example.bank_app.dto.response.MonthlyStatementResponse;
+import com.example.bank_app.dto.response.TransactionPageResponse;
+import com.example.bank_app.security.AuthenticatedCustomer;
 import com.example.bank_app.service.TransactionService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -23,11 +32,14 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -52,12 +64,10 @@ class TransactionControllerTest {
     void shouldAddNewTransaction_TransactionDto() throws Exception{
         String accountId = "1";
 
-        CustomerEntity customer = new CustomerEntity();
-        customer.setId("1");
-        customer.setEmail("test@example.com");
+        AuthenticatedCustomer customer = new AuthenticatedCustomer("1", "test@example.com", List.of());
 
         NewMoneyTransferRequest newMoneyTransferRequest = NewMoneyTransferRequest.builder()
-                .amount(BigDecimal.valueOf(1000))
+                .amount(Money.of("1000"))
                 .description("test description")
                 .receiverAccountNumber("test receiver account")
                 .build();
@@ -67,7 +77,7 @@ class TransactionControllerTest {
         TransactionDto expecteTransactionDto = TransactionDto.builder()
                 .id("1")
                 .senderAccountId("test sender account")
-                .amount(BigDecimal.valueOf(1000))
+                .amount(Money.of("1000"))
                 .description("test description")
                 .receiverAccountId("test receiver account")
                 .transactionType(TransactionType.TRANSFER)
@@ -75,9 +85,9 @@ class TransactionControllerTest {
                 .build();
 
         SecurityContextHolder.getContext().setAuthentication(
-                new UsernamePasswordAuthenticationToken(customer, null, customer.getAuthorities()));
+                new UsernamePasswordAuthenticationToken(customer, null, customer.authorities()));
 
-        when(transactionService.addNewTransaction("1", "1", newMoneyTransferRequest)).thenReturn(expecteTransactionDto);
+        when(transactionService.addNewTransaction("1", "1", newMoneyTransferRequest, null)).thenReturn(expecteTransactionDto);
 
         String requestJson = serializeJson(newMoneyTransferRequest);
 
@@ -85,7 +95,34 @@ class TransactionControllerTest {
 
         validateAccountDto(result);
 
-        verify(transactionService, times(1)).addNewTransaction("1", "1", newMoneyTransferRequest);
+        verify(transactionService, times(1)).addNewTransaction("1", "1", newMoneyTransferRequest, null);
+
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Pass the Idempotency-Key header of a transfer on to the service")
+    void shouldPassIdempotencyKey_whenHeaderPresent() throws Exception {
+        AuthenticatedCustomer customer = new AuthenticatedCustomer("1", "test@example.com", List.of());
+        NewMoneyTransferRequest newMoneyTransferRequest = NewMoneyTransferRequest.builder()
+                .amount(Money.of("10"))
+                .receiverAccountNumber("1111111111111117")
+                .build();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(customer, null, customer.authorities()));
+
+        when(transactionService.addNewTransaction("1", "1", newMoneyTransferRequest, "retry-key"))
+                .thenReturn(TransactionDto.builder().id("1").build());
+
+        mockMvc.perform(post("/accounts/1/transfer-money")
+                        .header("Idempotency-Key", "retry-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(serializeJson(newMoneyTransferRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value("1"));
+
+        verify(transactionService, times(1)).addNewTransaction("1", "1", newMoneyTransferRequest, "retry-key");
 
         SecurityContextHolder.clearContext();
     }
@@ -117,32 +154,177 @@ class TransactionControllerTest {
     }
 
     @Test
-    @DisplayName("Retrieve all transactions for a given account and verify response")
-    void shouldGetAllTransactions_TransactionDto() throws Exception{
+    @DisplayName("Submit a batch of transfers and verify a result is returned for every item")
+    void shouldAddNewTransactionBatch_BatchTransferResponse() throws Exception {
+        AuthenticatedCustomer customer = new AuthenticatedCustomer("1", "test@example.com", List.of());
+
+        NewBatchMoneyTransferRequest newBatchMoneyTransferRequest = NewBatchMoneyTransferRequest.builder()
+                .transfers(List.of(
+                        NewMoneyTransferRequest.builder().amount(Money.of("10")).receiverAccountNumber("receiver 1").build(),
+                        NewMoneyTransferRequest.builder().amount(Money.of("10")).receiverAccountNumber("unknown").build()))
+                .build();
+
+        BatchTransferResponse batchTransferResponse = BatchTransferResponse.builder()
+                .accepted(1)
+                .rejected(1)
+                .results(List.of(
+                        BatchTransferItemResponse.builder().index(0).status(BatchTransferStatus.ACCEPTED)
+                                .transaction(TransactionDto.builder().id("1").amount(Money.of("10")).build()).build(),
+                        BatchTransferItemResponse.builder().index(1).status(BatchTransferStatus.REJECTED)
+                                .message("Account can not found by number: unknown").build()))
+                .build();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(customer, null, customer.authorities()));
+
+        when(transactionService.addNewTransactionBatch("1", "1", newBatchMoneyTransferRequest)).thenReturn(batchTransferResponse);
+
+        mockMvc.perform(post("/accounts/1/transfer-money/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(serializeJson(newBatchMoneyTransferRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].status").value(BatchTransferStatus.ACCEPTED.name()))
+                .andExpect(jsonPath("$.results[0].transaction.id").value("1"))
+                .andExpect(jsonPath("$.results[1].status").value(BatchTransferStatus.REJECTED.name()))
+                .andExpect(jsonPath("$.results[1].message").value("Account can not found by number: unknown"));
+
+        verify(transactionService, times(1)).addNewTransactionBatch("1", "1", newBatchMoneyTransferRequest);
+
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Retrieve a filtered page of transactions for a given account and verify response")
+    void shouldGetTransactionHistory_TransactionPageResponse() throws Exception{
         String accountId = "1";
 
-        CustomerEntity customer = new CustomerEntity();
-        customer.setId("1");
-        customer.setEmail("test@example.com");
+        AuthenticatedCustomer customer = new AuthenticatedCustomer("1", "test@example.com", List.of());
 
         LocalDateTime fixedDateTime = LocalDateTime.of(2024, 8, 2, 21, 15, 18);
 
         TransactionDto expecteTransactionDto = TransactionDto.builder()
                 .id("1")
                 .senderAccountId("test sender account")
-                .amount(BigDecimal.valueOf(1000))
+                .amount(Money.of("1000"))
                 .description("test description")
                 .receiverAccountId("test receiver account")
                 .transactionType(TransactionType.TRANSFER)
                 .date(fixedDateTime)
                 .build();
 
+        TransactionHistoryFilter filter = TransactionHistoryFilter.builder()
+                .from(LocalDateTime.of(2024, 8, 1, 0, 0))
+                .transactionType(TransactionType.TRANSFER)
+                .minAmount(BigDecimal.valueOf(500))
+                .build();
+
         SecurityContextHolder.getContext().setAuthentication(
-                new UsernamePasswordAuthenticationToken(customer, null, customer.getAuthorities()));
+                new UsernamePasswordAuthenticationToken(customer, null, customer.authorities()));
+
+        when(transactionService.getTransactionHistory("1", "1", filter, "token", 20))
+                .thenReturn(TransactionPageResponse.builder()
+                        .transactions(List.of(expecteTransactionDto))
+                        .nextPageToken("next")
+                        .build());
+
+        performGetRequest("/accounts/" + accountId + "/transaction-history?from=2024-08-01T00:00:00&type=TRANSFER&minAmount=500&pageToken=token&size=20", accountId, fixedDateTime);
+
+        verify(transactionService, times(1)).getTransactionHistory("1", "1", filter, "token", 20);
+
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Return the monthly statement of the account for the requested month")
+    void shouldGetMonthlyStatement_WhenMonthProvided() throws Exception {
+        AuthenticatedCustomer customer = new AuthenticatedCustomer("1", "test@example.com", List.of());
+        YearMonth month = YearMonth.of(2024, 8);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(customer, null, customer.authorities()));
+
+        when(transactionService.getMonthlyStatement("1", "1", month)).thenReturn(MonthlyStatementResponse.builder()
+                .accountId("1")
+                .month(month)
+                .openingBalance(BigDecimal.valueOf(100))
+                .totalIn(BigDecimal.valueOf(50))
+                .totalOut(BigDecimal.valueOf(30))
+                .transactionCount(3)
+                .closingBalance(BigDecimal.valueOf(120))
+                .build());
+
+        mockMvc.perform(get("/accounts/1/statements/2024-08"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.month").value("2024-08"))
+                .andExpect(jsonPath("$.openingBalance").value(100))
+                .andExpect(jsonPath("$.totalIn").value(50))
+                .andExpect(jsonPath("$.totalOut").value(30))
+                .andExpect(jsonPath("$.transactionCount").value(3))
+                .andExpect(jsonPath("$.closingBalance").value(120));
+
+        verify(transactionService, times(1)).getMonthlyStatement("1", "1", month);
+
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Stream the transaction history as NDJSON")
+    void shouldStreamTransactionHistory_StreamingResponseBody() throws Exception {
+        AuthenticatedCustomer customer = new AuthenticatedCustomer("1", "test@example.com", List.of());
+
+        TransactionHistoryFilter filter = TransactionHistoryFilter.builder()
+                .transactionType(TransactionType.TRANSFER)
+                .build();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(customer, null, customer.authorities()));
+
+        when(transactionService.streamTransactionHistory("1", "1", filter))
+                .thenReturn(out -> out.write("{\"id\":\"1\"}\n".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult asyncResult = mockMvc.perform(get("/accounts/1/transaction-history/stream?type=TRANSFER"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andExpect(content().string("{\"id\":\"1\"}\n"));
+
+        verify(transactionService, times(1)).streamTransactionHistory("1", "1", filter);
+
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Export the transaction history as a gzipped CSV attachment")
+    void shouldExportTransactions_StreamingResponseBody() throws Exception {
+        AuthenticatedCustomer customer = new AuthenticatedCustomer("1", "test@example.com", List.of());
+
+        TransactionHistoryFilter filter = TransactionHistoryFilter.builder()
+                .transactionType(TransactionType.TRANSFER)
+                .build();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(customer, null, customer.authorities()));
+
+        when(transactionService.exportTransactions("1", "1", filter, TransactionExportFormat.CSV, true))
+                .thenReturn(out -> out.write("exported".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult asyncResult = mockMvc.perform(get("/accounts/1/transaction-history/export?format=CSV&gzip=true&type=TRANSFER"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
 
-        when(transactionService.getAllTransactions("1","1")).thenReturn(List.of(expecteTransactionDto));
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions-1.csv\""))
+                .andExpect(content().string("exported"));
 
-        performGetRequest("/accounts/" + accountId + "/transaction-history", accountId, fixedDateTime);
+        verify(transactionService, times(1)).exportTransactions("1", "1", filter, TransactionExportFormat.CSV, true);
 
         SecurityContextHolder.clearContext();
     }
@@ -151,13 +333,14 @@ class TransactionControllerTest {
         mockMvc.perform(get(url)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(MockMvcResultMatchers.status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(accountId))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].senderAccountId").value("test sender account"))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].amount").value(BigDecimal.valueOf(1000)))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].description").value("test description"))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].receiverAccountId").value("test receiver account"))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].transactionType").value(TransactionType.TRANSFER.name()))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].date").value(fixedDateTime.toString()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.transactions[0].id").value(accountId))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.transactions[0].senderAccountId").value("test sender account"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.transactions[0].amount").value(1000))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.transactions[0].description").value("test description"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.transactions[0].receiverAccountId").value("test receiver account"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.transactions[0].transactionType").value(TransactionType.TRANSFER.name()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.transactions[0].date").value(fixedDateTime.toString()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextPageToken").value("next"))
                 .andReturn();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,148 @@
+package com.example.bank_app.datasource;
+
+import com.example.bank_app.config.ReplicaRoutingProperties;
+import com.example.bank_app.security.AuthenticatedCustomer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private ReplicaLagMonitor lagMonitor;
+
+    private final ReplicaRoutingProperties properties = new ReplicaRoutingProperties();
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReplicaRoutingDataSource(mock(DataSource.class), mock(DataSource.class), lagMonitor, properties);
+        lenient().when(lagMonitor.currentLag()).thenReturn(Optional.of(Duration.ZERO));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setCurrentTransactionName(null);
+    }
+
+    @Test
+    @DisplayName("Should use the primary outside of a transaction.")
+    public void shouldRouteToPrimary_withoutTransaction() {
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Target.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("Should use the replica for read-only transactions and the primary for read-write ones.")
+    public void shouldRouteReadOnlyTransactionsToReplica() {
+        beginTransaction(true);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Target.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("Should use the primary for read-only transactions a repository opened on its own.")
+    public void shouldRouteToPrimary_forRepositoryTransactions() {
+        beginTransaction(true);
+        TransactionSynchronizationManager.setCurrentTransactionName("org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById");
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Target.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("Should use the primary for read-only transactions while the replica is unusable.")
+    public void shouldRouteToPrimary_whenReplicaUnusable() {
+        when(lagMonitor.currentLag()).thenReturn(Optional.empty());
+        beginTransaction(true);
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Target.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("Should keep a customer's reads on the primary after their write commits, but not other customers' reads.")
+    public void shouldReadOwnWritesFromPrimary() {
+        authenticateAs("customer-1");
+        commitReadWriteTransaction();
+
+        beginTransaction(true);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Target.PRIMARY);
+
+        authenticateAs("customer-2");
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+    }
+
+    @Test
+    @DisplayName("Should not remember writers whose transaction rolled back.")
+    public void shouldReadFromReplica_afterRollback() {
+        authenticateAs("customer-1");
+        beginTransaction(false);
+        dataSource.determineCurrentLookupKey();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        beginTransaction(true);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+    }
+
+    @Test
+    @DisplayName("Should go back to the replica once the read-your-writes window has passed.")
+    public void shouldReadFromReplica_afterWindow() throws InterruptedException {
+        properties.setReadYourWritesMargin(Duration.ZERO);
+        dataSource = new ReplicaRoutingDataSource(mock(DataSource.class), mock(DataSource.class), lagMonitor, properties);
+        authenticateAs("customer-1");
+        commitReadWriteTransaction();
+        Thread.sleep(2);
+
+        beginTransaction(true);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        TransactionSynchronizationManager.setCurrentTransactionName("com.example.bank_app.service.CustomerService.getAuthenticatedCustomerById");
+    }
+
+    private void commitReadWriteTransaction() {
+        beginTransaction(false);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Target.PRIMARY);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private void authenticateAs(String customerId) {
+        AuthenticatedCustomer principal = new AuthenticatedCustomer(customerId, customerId + "@test.com", List.of());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.bank_app.datasource;
+
+import com.example.bank_app.entity.CustomerEntity;
+import com.example.bank_app.repository.CustomerRepository;
+import com.example.bank_app.security.AuthenticatedCustomer;
+import com.example.bank_app.service.CustomerService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two independent H2 databases stand in for the primary and the replica; the same customer row carries a different
+ * first name in each, which shows where a read was served from.
+ */
+@SpringBootTest(properties = {
+        "bank.datasource.replica.jdbc-url=" + ReplicaRoutingTest.REPLICA_URL,
+        "bank.datasource.replica.username=sa",
+        "bank.datasource.replica.password="
+})
+@ActiveProfiles("integration")
+public class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:bank_app_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private final String customerId = UUID.randomUUID().toString();
+    private final String otherCustomerId = UUID.randomUUID().toString();
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (String id : List.of(customerId, otherCustomerId)) {
+            insertCustomer(primaryDataSource, id, "Primary");
+            insertCustomer(replicaDataSource, id, "Replica");
+        }
+        replicaLagMonitor.check();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        for (DataSource dataSource : List.of(primaryDataSource, replicaDataSource)) {
+            new JdbcTemplate(dataSource).update("DELETE FROM customer WHERE id IN (?, ?)", customerId, otherCustomerId);
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve read-only transactions from the replica and everything else from the primary.")
+    public void shouldRouteReadOnlyTransactionsToReplica() {
+        authenticateAs(customerId);
+
+        assertThat(customerService.getAuthenticatedCustomerById(customerId).getFirstName()).isEqualTo("Replica");
+        assertThat(customerRepository.findById(customerId)).get().extracting(CustomerEntity::getFirstName).isEqualTo("Primary");
+        assertThat(replicaLagMonitor.lagSeconds()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should read a customer's own writes from the primary right after their read-write transaction commits.")
+    public void shouldReadOwnWritesFromPrimary_afterCommit() {
+        authenticateAs(customerId);
+        transactionTemplate.executeWithoutResult(status -> customerRepository.findById(customerId).orElseThrow().setLastName("Updated"));
+
+        assertThat(customerService.getAuthenticatedCustomerById(customerId).getFirstName()).isEqualTo("Primary");
+
+        authenticateAs(otherCustomerId);
+        assertThat(customerService.getAuthenticatedCustomerById(otherCustomerId).getFirstName()).isEqualTo("Replica");
+    }
+
+    private void authenticateAs(String id) {
+        AuthenticatedCustomer principal = new AuthenticatedCustomer(id, id + "@bank.test", List.of());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    private static void insertCustomer(DataSource dataSource, String id, String firstName) {
+        new JdbcTemplate(dataSource).update("INSERT INTO customer (id, email, first_name) VALUES (?, ?, ?)",
+                id, id + "@bank.test", firstName);
+    }
+}
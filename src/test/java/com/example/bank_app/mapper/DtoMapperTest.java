@@ -0,0 +1,97 @@
+package com.example.bank_app.mapper;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.dto.model.AccountDto;
+import com.example.bank_app.dto.model.CustomerDto;
+import com.example.bank_app.dto.model.TransactionDto;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.CustomerEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DtoMapperTest {
+
+    private static final LocalDateTime FIXED_DATE_TIME = LocalDateTime.of(2024, 8, 2, 21, 15, 18);
+
+    private final AccountMapper accountMapper = new AccountMapperImpl();
+    private final TransactionMapper transactionMapper = new TransactionMapperImpl();
+    private final CustomerMapper customerMapper = new CustomerMapperImpl();
+
+    @Test
+    @DisplayName("Should copy every account field to the account dto.")
+    public void shouldMapAccountEntityToAccountDto() {
+        AccountEntity accountEntity = AccountEntity
+                .builder()
+                .id("accountId")
+                .customerId("customerId")
+                .accountNumber("1234567890123456")
+                .balance(Money.of("10"))
+                .createdAt(FIXED_DATE_TIME)
+                .build();
+
+        List<AccountDto> result = accountMapper.toAccountDtos(List.of(accountEntity));
+
+        assertThat(result).containsExactly(new AccountDto("accountId", "customerId", "1234567890123456", Money.of("10"), FIXED_DATE_TIME));
+    }
+
+    @Test
+    @DisplayName("Should copy every transaction field to the transaction dto.")
+    public void shouldMapTransactionEntityToTransactionDto() {
+        TransactionEntity transactionEntity = TransactionEntity
+                .builder()
+                .id("transactionId")
+                .senderAccountId("senderAccountId")
+                .receiverAccountId("receiverAccountId")
+                .transactionType(TransactionType.TRANSFER)
+                .amount(Money.of("1"))
+                .date(FIXED_DATE_TIME)
+                .description("description")
+                .build();
+
+        TransactionDto result = transactionMapper.toTransactionDto(transactionEntity);
+
+        assertThat(result).isEqualTo(new TransactionDto("transactionId", "senderAccountId", "receiverAccountId",
+                TransactionType.TRANSFER, Money.of("1"), FIXED_DATE_TIME, "description"));
+    }
+
+    @Test
+    @DisplayName("Should map the customer profile without exposing the password.")
+    public void shouldMapCustomerEntityToCustomerDto() {
+        CustomerEntity customerEntity = CustomerEntity
+                .builder()
+                .id("customerId")
+                .email("test@example.com")
+                .password("secret")
+                .firstName("first")
+                .lastName("last")
+                .phoneNumber("5551234567")
+                .dateOfBirth(FIXED_DATE_TIME)
+                .build();
+
+        CustomerDto result = customerMapper.toCustomerDto(customerEntity);
+
+        assertThat(result.getId()).isEqualTo("customerId");
+        assertThat(result.getEmail()).isEqualTo("test@example.com");
+        assertThat(result.getFirstName()).isEqualTo("first");
+        assertThat(result.getLastName()).isEqualTo("last");
+        assertThat(result.getPhoneNumber()).isEqualTo("5551234567");
+        assertThat(result.getDateOfBirth()).isEqualTo(FIXED_DATE_TIME);
+        assertThat(result.toString()).doesNotContain("secret");
+    }
+
+    @Test
+    @DisplayName("Should map null entities to null.")
+    public void shouldReturnNull_whenEntityIsNull() {
+        assertThat(accountMapper.toAccountDto(null)).isNull();
+        assertThat(transactionMapper.toTransactionDto(null)).isNull();
+        assertThat(customerMapper.toCustomerDto(null)).isNull();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bank_app.monitoring;
+
+import com.example.bank_app.dto.request.CustomerRegisterRequest;
+import com.example.bank_app.dto.request.LoginRequest;
+import com.example.bank_app.repository.CustomerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("integration")
+public class PrometheusEndpointTest {
+
+    private static final String EMAIL = "metrics@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.findByEmail(EMAIL).ifPresent(customerRepository::delete);
+    }
+
+    @Test
+    @DisplayName("Should expose hot path timers, error counters, pool gauges and cache statistics to an unauthenticated scrape.")
+    public void shouldExposeApplicationMeters_whenScrapedWithoutCredentials() throws Exception {
+        CustomerRegisterRequest registerRequest = new CustomerRegisterRequest();
+        registerRequest.setEmail(EMAIL);
+        registerRequest.setPassword("customer-123");
+        mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(EMAIL, "wrong-password"))))
+                .andExpect(status().isUnauthorized());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("bank_password_encoder_seconds_bucket{application=\"bank-app\",operation=\"encode\"")
+                .contains("bank_password_encoder_seconds_bucket{application=\"bank-app\",operation=\"matches\"")
+                .contains("bank_errors_total{application=\"bank-app\",exception=\"InvalidCredentialsException\"} 1.0")
+                .contains("spring_data_repository_invocations_seconds_bucket{")
+                .contains("repository=\"CustomerRepository\"")
+                .contains("hikaricp_connections_active{")
+                .contains("cache_gets_total{application=\"bank-app\",cache=\"account-identity-by-number\",result=\"hit\"}")
+                .contains("cache_gets_total{application=\"bank-app\",cache=\"account-identity-by-id\",result=\"miss\"}");
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.bank_app.monitoring;
+
+import com.example.bank_app.config.VirtualThreadProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadPinningMonitorTest {
+
+    private static final long EVENT_DELIVERY_TIMEOUT_MILLIS = 10_000;
+
+    private final Object monitor = new Object();
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @BeforeEach
+    void setUp() {
+        VirtualThreadProperties.PinningDetection properties = new VirtualThreadProperties.PinningDetection();
+        properties.setThreshold(Duration.ofMillis(10));
+        pinningMonitor = new VirtualThreadPinningMonitor(properties);
+        pinningMonitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pinningMonitor.stop();
+    }
+
+    @Test
+    @DisplayName("Should report a virtual thread that blocks inside a synchronized block.")
+    public void shouldReportPinnedThread_whenBlockingInsideSynchronized() throws InterruptedException {
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitor) {
+                sleep(50);
+            }
+        }).join();
+
+        assertThat(awaitPinnedCount(1)).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not report a virtual thread that blocks while holding a ReentrantLock.")
+    public void shouldNotReportThread_whenBlockingInsideReentrantLock() throws InterruptedException {
+        ReentrantLock lock = new ReentrantLock();
+        Thread.ofVirtual().start(() -> {
+            lock.lock();
+            try {
+                sleep(50);
+            } finally {
+                lock.unlock();
+            }
+        }).join();
+
+        Thread.sleep(2_000);
+        assertThat(pinningMonitor.getPinnedCount()).isZero();
+    }
+
+    private long awaitPinnedCount(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + EVENT_DELIVERY_TIMEOUT_MILLIS;
+        while (pinningMonitor.getPinnedCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        return pinningMonitor.getPinnedCount();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.entity.BalanceSnapshotCheckpointEntity;
+import com.example.bank_app.entity.BalanceSnapshotEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.service.snapshot.BalanceSnapshotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("integration")
+public class BalanceSnapshotRepositoryTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2001, 1, 1, 10, 0);
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private BalanceSnapshotCheckpointRepository balanceSnapshotCheckpointRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final String accountA = UUID.randomUUID().toString();
+    private final String accountB = UUID.randomUUID().toString();
+
+    @AfterEach
+    void tearDown() {
+        balanceSnapshotRepository.deleteAll();
+        balanceSnapshotCheckpointRepository.deleteAll();
+        transactionRepository.deleteAllById(transactionRepository.findAll().stream()
+                .filter(transaction -> transaction.getDate().isBefore(T0.plusYears(1)))
+                .map(TransactionEntity::getId)
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Should snapshot incrementally and answer point-in-time balances between and after snapshots.")
+    public void shouldAnswerBalanceAt_fromSnapshotsAndDeltaScan() {
+        transactionRepository.insertAllWithAssignedIds(List.of(
+                transaction(accountA, accountA, TransactionType.INITIAL, "100.00", T0),
+                transaction(accountB, accountB, TransactionType.INITIAL, "50.00", T0),
+                transaction(accountA, accountB, TransactionType.TRANSFER, "30.00", T0.plusMinutes(1)),
+                transaction(accountB, accountB, TransactionType.TRANSFER, "10.00", T0.plusMinutes(2))));
+
+        assertThat(balanceSnapshotService.createSnapshots(T0.plusMinutes(5))).isEqualTo(2);
+
+        transactionRepository.insertAllWithAssignedIds(List.of(
+                transaction(accountB, accountA, TransactionType.TRANSFER, "5.00", T0.plusMinutes(7))));
+
+        assertThat(balanceSnapshotService.createSnapshots(T0.plusMinutes(10))).isEqualTo(2);
+        assertThat(balanceSnapshotService.createSnapshots(T0.plusMinutes(15))).isZero();
+
+        assertThat(balanceSnapshotRepository.findLatestByAccountIdIn(List.of(accountA, accountB)))
+                .extracting(BalanceSnapshotEntity::getAccountId, snapshot -> snapshot.getBalance().stripTrailingZeros())
+                .containsExactlyInAnyOrder(
+                        tuple(accountA, new BigDecimal("75")),
+                        tuple(accountB, new BigDecimal("75")));
+
+        assertThat(balanceSnapshotService.balanceAt(accountA, T0.minusMinutes(1))).isEqualByComparingTo("0");
+        assertThat(balanceSnapshotService.balanceAt(accountA, T0)).isEqualByComparingTo("100.00");
+        assertThat(balanceSnapshotService.balanceAt(accountA, T0.plusMinutes(1))).isEqualByComparingTo("70.00");
+        assertThat(balanceSnapshotService.balanceAt(accountA, T0.plusMinutes(8))).isEqualByComparingTo("75.00");
+        assertThat(balanceSnapshotService.balanceAt(accountB, T0.plusMinutes(6))).isEqualByComparingTo("80.00");
+        assertThat(balanceSnapshotService.balanceAt(accountB, T0.plusMinutes(20))).isEqualByComparingTo("75.00");
+    }
+
+    @Test
+    @DisplayName("Should reject a second checkpoint extending the same predecessor.")
+    public void shouldRejectCheckpoint_whenPredecessorAlreadyExtended() {
+        balanceSnapshotCheckpointRepository.saveAndFlush(checkpoint(T0.plusMinutes(5), T0));
+
+        assertThatThrownBy(() -> balanceSnapshotCheckpointRepository.saveAndFlush(checkpoint(T0.plusMinutes(6), T0)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private BalanceSnapshotCheckpointEntity checkpoint(LocalDateTime asOf, LocalDateTime previousAsOf) {
+        return BalanceSnapshotCheckpointEntity.builder().asOf(asOf).previousAsOf(previousAsOf).build();
+    }
+
+    private TransactionEntity transaction(String sender, String receiver, TransactionType type, String amount, LocalDateTime date) {
+        return TransactionEntity
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .senderAccountId(sender)
+                .receiverAccountId(receiver)
+                .transactionType(type)
+                .amount(Money.of(amount))
+                .date(date)
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.entity.IdempotencyKeyEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("integration")
+public class IdempotencyKeyRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 8, 2, 21, 15, 18);
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        idempotencyKeyRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should reject a second key with the same value for the same customer.")
+    public void shouldRejectDuplicateKey_whenSameCustomer() {
+        idempotencyKeyRepository.saveAndFlush(idempotencyKey("customerId", "key", NOW));
+        idempotencyKeyRepository.saveAndFlush(idempotencyKey("otherCustomerId", "key", NOW));
+
+        assertThatThrownBy(() -> idempotencyKeyRepository.saveAndFlush(idempotencyKey("customerId", "key", NOW)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("Should delete only expired keys, at most one batch per call.")
+    public void shouldDeleteExpiredKeysInBatches() {
+        idempotencyKeyRepository.saveAndFlush(idempotencyKey("customerId", "expired-1", NOW.minusHours(2)));
+        idempotencyKeyRepository.saveAndFlush(idempotencyKey("customerId", "expired-2", NOW.minusHours(1)));
+        idempotencyKeyRepository.saveAndFlush(idempotencyKey("customerId", "live", NOW.plusHours(1)));
+
+        assertThat(deleteExpired(1)).isEqualTo(1);
+        assertThat(deleteExpired(1)).isEqualTo(1);
+        assertThat(deleteExpired(1)).isZero();
+
+        assertThat(idempotencyKeyRepository.findAll()).extracting(IdempotencyKeyEntity::getIdempotencyKey).containsExactly("live");
+    }
+
+    private int deleteExpired(int limit) {
+        Integer deleted = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteExpired(NOW, limit));
+        return deleted == null ? 0 : deleted;
+    }
+
+    private IdempotencyKeyEntity idempotencyKey(String customerId, String key, LocalDateTime expiresAt) {
+        return IdempotencyKeyEntity
+                .builder()
+                .customerId(customerId)
+                .idempotencyKey(key)
+                .requestFingerprint("fingerprint")
+                .transactionId("transactionId")
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
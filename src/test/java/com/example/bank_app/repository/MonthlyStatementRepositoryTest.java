@@ -0,0 +1,160 @@
+package com.example.bank_app.repository;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.config.StatementProperties;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.MonthlyStatementEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.service.statement.MonthlyStatementBackfill;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("integration")
+public class MonthlyStatementRepositoryTest {
+
+    private static final LocalDate JULY = LocalDate.of(2003, 7, 1);
+    private static final LocalDate AUGUST = LocalDate.of(2003, 8, 1);
+
+    @Autowired
+    private MonthlyStatementRepository monthlyStatementRepository;
+
+    @Autowired
+    private MonthlyStatementService monthlyStatementService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<TransactionEntity> transactions = new ArrayList<>();
+    private String accountA;
+    private String accountB;
+
+    @BeforeEach
+    void setUp() {
+        accountA = accountRepository.save(account("9100000000000001")).getId();
+        accountB = accountRepository.save(account("9100000000000002")).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monthlyStatementRepository.deleteAll();
+        transactionRepository.deleteAll(transactions);
+        accountRepository.deleteAllById(List.of(accountA, accountB));
+    }
+
+    @Test
+    @DisplayName("Should add rollups onto the stored (account, month) row and create missing rows.")
+    public void shouldAccumulateRollups_whenAddedTwice() {
+        transactionTemplate.executeWithoutResult(status -> monthlyStatementRepository.addAll(List.of(rollup(accountA, AUGUST, "10.00", "0.00", 1))));
+        transactionTemplate.executeWithoutResult(status -> monthlyStatementRepository.addAll(List.of(
+                rollup(accountA, AUGUST, "5.00", "3.00", 2),
+                rollup(accountA, JULY, "100.00", "0.00", 1))));
+
+        assertThat(monthlyStatementRepository.findByAccountIdAndStatementMonth(accountA, AUGUST)).get()
+                .extracting(MonthlyStatementEntity::getTotalIn, MonthlyStatementEntity::getTotalOut, MonthlyStatementEntity::getTransactionCount)
+                .containsExactly(new BigDecimal("15.00"), new BigDecimal("3.00"), 3L);
+        assertThat(monthlyStatementRepository.sumNetChangeBefore(accountA, AUGUST)).isEqualByComparingTo("100.00");
+        assertThat(monthlyStatementRepository.sumNetChangeBefore(accountA, JULY)).isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DisplayName("Should backfill in parallel chunks the same rollups live recording produces.")
+    public void shouldBackfillSameRollupsAsLiveRecording_whenHistoryPredatesRollups() {
+        insert(transaction(accountA, accountA, TransactionType.INITIAL, "100.00", JULY.atTime(9, 0)));
+        insert(transaction(accountA, accountB, TransactionType.TRANSFER, "30.00", JULY.atTime(10, 0)));
+        insert(transaction(accountB, accountA, TransactionType.TRANSFER, "5.00", AUGUST.atTime(10, 0)));
+        insert(transaction(accountB, accountB, TransactionType.TRANSFER, "7.00", AUGUST.atTime(11, 0)));
+
+        transactionTemplate.executeWithoutResult(status -> monthlyStatementService.record(transactions));
+        List<MonthlyStatementEntity> recorded = rollupsOfTestAccounts();
+        monthlyStatementRepository.deleteAll();
+
+        StatementProperties properties = new StatementProperties();
+        properties.getBackfill().setChunkSize(1);
+        properties.getBackfill().setParallelism(2);
+        int failedAccounts = new MonthlyStatementBackfill(accountRepository, monthlyStatementService, properties).run();
+
+        assertThat(failedAccounts).isZero();
+        assertThat(rollupsOfTestAccounts())
+                .extracting(MonthlyStatementEntity::getAccountId, MonthlyStatementEntity::getStatementMonth,
+                        rollup -> rollup.getTotalIn().stripTrailingZeros(), rollup -> rollup.getTotalOut().stripTrailingZeros(),
+                        MonthlyStatementEntity::getTransactionCount)
+                .containsExactlyInAnyOrderElementsOf(recorded.stream()
+                        .map(rollup -> tuple(rollup.getAccountId(), rollup.getStatementMonth(),
+                                rollup.getTotalIn().stripTrailingZeros(), rollup.getTotalOut().stripTrailingZeros(), rollup.getTransactionCount()))
+                        .toList())
+                .hasSize(4);
+
+        assertThat(monthlyStatementService.getStatement(accountB, YearMonth.from(AUGUST)))
+                .satisfies(statement -> {
+                    assertThat(statement.getOpeningBalance()).isEqualByComparingTo("30.00");
+                    assertThat(statement.getTotalIn()).isEqualByComparingTo("7.00");
+                    assertThat(statement.getTotalOut()).isEqualByComparingTo("12.00");
+                    assertThat(statement.getTransactionCount()).isEqualTo(2);
+                    assertThat(statement.getClosingBalance()).isEqualByComparingTo("25.00");
+                });
+    }
+
+    private List<MonthlyStatementEntity> rollupsOfTestAccounts() {
+        return monthlyStatementRepository.findAll().stream()
+                .filter(rollup -> rollup.getAccountId().equals(accountA) || rollup.getAccountId().equals(accountB))
+                .toList();
+    }
+
+    private void insert(TransactionEntity transaction) {
+        transactionRepository.insertAllWithAssignedIds(List.of(transaction));
+        transactions.add(transaction);
+    }
+
+    private AccountEntity account(String accountNumber) {
+        return AccountEntity.builder().customerId("customerId").accountNumber(accountNumber).balance(Money.ZERO).build();
+    }
+
+    private MonthlyStatementEntity rollup(String accountId, LocalDate month, String in, String out, long count) {
+        return MonthlyStatementEntity
+                .builder()
+                .accountId(accountId)
+                .statementMonth(month)
+                .totalIn(new BigDecimal(in))
+                .totalOut(new BigDecimal(out))
+                .transactionCount(count)
+                .build();
+    }
+
+    private TransactionEntity transaction(String sender, String receiver, TransactionType type, String amount, LocalDateTime date) {
+        return TransactionEntity
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .senderAccountId(sender)
+                .receiverAccountId(receiver)
+                .transactionType(type)
+                .amount(Money.of(amount))
+                .date(date)
+                .build();
+    }
+}
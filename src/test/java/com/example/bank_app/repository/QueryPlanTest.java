@@ -0,0 +1,83 @@
+package com.example.bank_app.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("integration")
+public class QueryPlanTest {
+
+    private static final Timestamp CURSOR_DATE = Timestamp.valueOf(LocalDateTime.of(2024, 8, 2, 21, 15, 18));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Account number lookups should seek on the unique account number index.")
+    public void shouldUseAccountNumberIndex() {
+        assertThat(explain("SELECT id FROM account WHERE account_number = ?", "1111111111111117"))
+                .contains("uk_account_account_number");
+    }
+
+    @Test
+    @DisplayName("Listing a customer's accounts should seek on the customer id index.")
+    public void shouldUseAccountCustomerIdIndex() {
+        assertThat(explain("SELECT * FROM account WHERE customer_id = ?", "customerId"))
+                .contains("idx_account_customer_id");
+    }
+
+    @Test
+    @DisplayName("Loading a customer by email should seek on the unique email index.")
+    public void shouldUseCustomerEmailIndex() {
+        assertThat(explain("SELECT * FROM customer WHERE email = ?", "customer@mail.com"))
+                .contains("uk_customer_email");
+    }
+
+    @Test
+    @DisplayName("Each branch of the transaction history page should seek on its own account and date index.")
+    public void shouldUseTransactionAccountDateIndexes() {
+        String plan = explain("(SELECT id FROM transaction WHERE sender_account_id = ? AND (date < ? OR (date = ? AND id < ?)) ORDER BY date DESC, id DESC LIMIT ?)"
+                        + " UNION ALL "
+                        + "(SELECT id FROM transaction WHERE receiver_account_id = ? AND sender_account_id <> ? AND (date < ? OR (date = ? AND id < ?)) ORDER BY date DESC, id DESC LIMIT ?)",
+                "accountId", CURSOR_DATE, CURSOR_DATE, "transactionId", 51,
+                "accountId", "accountId", CURSOR_DATE, CURSOR_DATE, "transactionId", 51);
+
+        assertThat(plan)
+                .contains("idx_transaction_sender_date: sender_account_id = ?1")
+                .contains("idx_transaction_receiver_date: receiver_account_id = ?6");
+    }
+
+    @Test
+    @DisplayName("Loading the initial transaction of an account should seek on the sender index.")
+    public void shouldUseSenderIndexForInitialTransaction() {
+        assertThat(explain("SELECT * FROM transaction WHERE sender_account_id = ? AND transaction_type = 'INITIAL'", "accountId"))
+                .contains("idx_transaction_sender_date");
+    }
+
+    @Test
+    @DisplayName("A balance snapshot run should range-scan the transaction date index over its window.")
+    public void shouldUseTransactionDateIndexForSnapshotWindow() {
+        assertThat(explain("SELECT receiver_account_id, amount FROM transaction WHERE date > ? AND date <= ?", CURSOR_DATE, CURSOR_DATE))
+                .contains("idx_transaction_date");
+    }
+
+    @Test
+    @DisplayName("A point-in-time balance should seek on the account and as-of snapshot index.")
+    public void shouldUseBalanceSnapshotAccountAsOfIndex() {
+        assertThat(explain("SELECT * FROM balance_snapshot WHERE account_id = ? AND as_of <= ? ORDER BY as_of DESC LIMIT 1", "accountId", CURSOR_DATE))
+                .contains("uk_balance_snapshot_account_as_of");
+    }
+
+    private String explain(String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bank_app.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchemaMigrationTest {
+
+    @Test
+    @DisplayName("A database created before Flyway should be baselined and migrated to the current schema.")
+    public void shouldMigrateDatabaseCreatedBeforeFlyway() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE customer (id VARCHAR(255) NOT NULL, email VARCHAR(255), password VARCHAR(255),"
+                + " first_name VARCHAR(255), last_name VARCHAR(255), phone_number VARCHAR(255), date_of_birth DATETIME(6),"
+                + " PRIMARY KEY (id))");
+        jdbcTemplate.execute("CREATE TABLE account (id VARCHAR(255) NOT NULL, customer_id VARCHAR(255),"
+                + " account_number VARCHAR(255), balance DECIMAL(38, 2), created_at DATETIME(6), PRIMARY KEY (id))");
+        jdbcTemplate.execute("CREATE TABLE transaction (id VARCHAR(255) NOT NULL, sender_account_id VARCHAR(255),"
+                + " receiver_account_id VARCHAR(255), transaction_type ENUM ('INITIAL', 'TRANSFER'), amount DECIMAL(38, 2),"
+                + " date DATETIME(6), description VARCHAR(255), PRIMARY KEY (id))");
+        jdbcTemplate.update("INSERT INTO account (id, customer_id, account_number, balance, created_at)"
+                + " VALUES ('accountId', 'customerId', '1234567890123456', 100.00, CURRENT_TIMESTAMP)");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM account WHERE id = 'accountId'", Long.class))
+                .isZero();
+    }
+}
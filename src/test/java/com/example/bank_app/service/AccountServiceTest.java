@@ -1,30 +1,44 @@
 package com.example.bank_app.service;
 
+import com.example.bank_app.common.AccountIdentity;
+import com.example.bank_app.common.Money;
 import com.example.bank_app.common.TransactionType;
 import com.example.bank_app.dto.model.AccountDto;
 import com.example.bank_app.dto.request.NewAccountRequest;
+import com.example.bank_app.dto.response.AccountBalanceResponse;
 import com.example.bank_app.entity.AccountEntity;
 import com.example.bank_app.entity.CustomerEntity;
 import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.event.AccountDeletedEvent;
+import com.example.bank_app.mapper.AccountMapper;
+import com.example.bank_app.mapper.AccountMapperImpl;
 import com.example.bank_app.exception.AccountCreationException;
 import com.example.bank_app.exception.AccountNotFoundException;
 import com.example.bank_app.repository.AccountRepository;
 import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.account.AccountIdentityCache;
+import com.example.bank_app.service.account.AccountNumberIssuer;
+import com.example.bank_app.service.snapshot.BalanceSnapshotService;
+import com.example.bank_app.service.outbox.OutboxService;
+import com.example.bank_app.service.statement.MonthlyStatementService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,8 +49,8 @@ import static org.mockito.Mockito.times;
 @ExtendWith(MockitoExtension.class)
 public class AccountServiceTest {
 
-    @Mock
-    private ModelMapper modelMapper;
+    @Spy
+    private AccountMapper accountMapper = new AccountMapperImpl();
 
     @Mock
     private AccountRepository accountRepository;
@@ -47,6 +61,27 @@ public class AccountServiceTest {
     @Mock
     private AccountValidateService accountValidateService;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private AccountNumberIssuer accountNumberIssuer;
+
+    @Mock
+    private AccountIdentityCache accountIdentityCache;
+
+    @Mock
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Mock
+    private MonthlyStatementService monthlyStatementService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @Captor
     private ArgumentCaptor<AccountEntity> accountEntityCaptor;
 
@@ -56,13 +91,18 @@ public class AccountServiceTest {
     @InjectMocks
     private AccountService accountService;
 
+    private void issueAccountNumber(String accountNumber) {
+        when(accountNumberIssuer.issue(any())).thenAnswer(invocation ->
+                invocation.<Function<String, AccountEntity>>getArgument(0).apply(accountNumber));
+    }
+
 
     @Test
     void whenAddNewAccountCalledWithZeroInitialBalance_shouldCreateAccountDto() {
         String customerId = "customerId";
 
         NewAccountRequest request = new NewAccountRequest();
-        request.setInitialBalance(BigDecimal.valueOf(0));
+        request.setInitialBalance(Money.of("0"));
 
         AccountEntity accountEntity = new AccountEntity();
         accountEntity.setAccountNumber("generatedAccountNumber");
@@ -78,20 +118,25 @@ public class AccountServiceTest {
                 .build();
 
 
-        when(accountRepository.save(accountEntityCaptor.capture())).thenReturn(accountEntity);
-        when(modelMapper.map(accountEntity, AccountDto.class)).thenReturn(accountDto);
+        issueAccountNumber("1111111111111117");
+        when(accountRepository.saveAndFlush(accountEntityCaptor.capture())).thenReturn(accountEntity);
+        when(accountMapper.toAccountDto(accountEntity)).thenReturn(accountDto);
 
         AccountDto result = accountService.addNewAccount(customerId, request);
 
         assertEquals(result, accountDto);
-        verify(accountRepository, times(1)).save(Mockito.any(AccountEntity.class));
+        verify(accountRepository, times(1)).saveAndFlush(Mockito.any(AccountEntity.class));
 
         AccountEntity capturedAccount = accountEntityCaptor.getValue();
 
         assertEquals(customerId, capturedAccount.getCustomerId());
         assertEquals(request.getInitialBalance(), capturedAccount.getBalance());
+        assertEquals("1111111111111117", capturedAccount.getAccountNumber());
 
-        verify(modelMapper, times(1)).map(accountEntity, AccountDto.class);
+        verify(accountMapper, times(1)).toAccountDto(accountEntity);
+        verify(accountIdentityCache).put(new AccountIdentity(accountEntity.getId(), "generatedAccountNumber", customerId));
+        verify(outboxService).recordAccountCreated(accountEntity);
+        verifyNoInteractions(transactionRepository);
     }
 
     @Test
@@ -99,9 +144,10 @@ public class AccountServiceTest {
         String customerId = "customerId";
 
         NewAccountRequest request = new NewAccountRequest();
-        request.setInitialBalance(BigDecimal.valueOf(-1000));
+        request.setInitialBalance(Money.of("-1000"));
 
         assertThrows(AccountCreationException.class, () -> accountService.addNewAccount(customerId, request));
+        verifyNoInteractions(accountNumberIssuer);
     }
 
     @Test
@@ -109,7 +155,7 @@ public class AccountServiceTest {
         String customerId = "customerId";
 
         NewAccountRequest request = new NewAccountRequest();
-        request.setInitialBalance(BigDecimal.valueOf(1000));
+        request.setInitialBalance(Money.of("1000"));
 
         AccountEntity accountEntity = new AccountEntity();
         accountEntity.setId("accountId");
@@ -126,15 +172,16 @@ public class AccountServiceTest {
                 .build();
 
 
-        when(accountRepository.save(accountEntityCaptor.capture())).thenReturn(accountEntity);
-        when(transactionRepository.save(transactionCaptor.capture())).thenReturn(null);
-        when(modelMapper.map(accountEntity, AccountDto.class)).thenReturn(accountDto);
+        issueAccountNumber("1111111111111117");
+        when(accountRepository.saveAndFlush(accountEntityCaptor.capture())).thenReturn(accountEntity);
+        when(transactionRepository.save(transactionCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(accountMapper.toAccountDto(accountEntity)).thenReturn(accountDto);
 
         AccountDto result = accountService.addNewAccount(customerId, request);
 
         assertEquals(result, accountDto);
 
-        verify(accountRepository, times(1)).save(Mockito.any(AccountEntity.class));
+        verify(accountRepository, times(1)).saveAndFlush(Mockito.any(AccountEntity.class));
         AccountEntity capturedAccount = accountEntityCaptor.getValue();
         assertEquals(customerId, capturedAccount.getCustomerId());
         assertEquals(request.getInitialBalance(), capturedAccount.getBalance());
@@ -145,8 +192,9 @@ public class AccountServiceTest {
         assertEquals(capturedTransaction.getSenderAccountId(), accountEntity.getId());
         assertEquals(capturedTransaction.getReceiverAccountId(), accountEntity.getId());
         assertEquals(capturedTransaction.getAmount(), request.getInitialBalance());
+        verify(monthlyStatementService).record(List.of(capturedTransaction));
 
-        verify(modelMapper, times(1)).map(accountEntity, AccountDto.class);
+        verify(accountMapper, times(1)).toAccountDto(accountEntity);
     }
 
     @Test
@@ -155,7 +203,7 @@ public class AccountServiceTest {
 
         AccountEntity accountEntity = new AccountEntity();
         accountEntity.setAccountNumber("1234567890123456");
-        accountEntity.setBalance(BigDecimal.valueOf(1000));
+        accountEntity.setBalance(Money.of("1000"));
         accountEntity.setCustomerId(customerId);
 
         AccountDto accountDto = AccountDto.builder()
@@ -169,7 +217,7 @@ public class AccountServiceTest {
         List<AccountDto> expected = List.of(accountDto);
 
         when(accountRepository.findAllByCustomerId(customerId)).thenReturn(List.of(accountEntity));
-        when(modelMapper.map(accountEntity, AccountDto.class)).thenReturn(accountDto);
+        when(accountMapper.toAccountDto(accountEntity)).thenReturn(accountDto);
 
         List<AccountDto> result = accountService.getAllAccounts(customerId);
 
@@ -177,7 +225,7 @@ public class AccountServiceTest {
         assertEquals(1, result.size());
 
         verify(accountRepository, times(1)).findAllByCustomerId(customerId);
-        verify(modelMapper, times(1)).map(accountEntity, AccountDto.class);
+        verify(accountMapper, times(1)).toAccountDto(accountEntity);
     }
 
 
@@ -189,7 +237,7 @@ public class AccountServiceTest {
                 .id("accountId")
                 .customerId("customerId")
                 .accountNumber("accountNumber")
-                .balance(BigDecimal.ZERO)
+                .balance(Money.ZERO)
                 .createdAt(LocalDateTime.now())
                 .build();
 
@@ -197,19 +245,19 @@ public class AccountServiceTest {
                 .builder()
                 .id("accountId")
                 .accountNumber("accountNumber")
-                .balance(BigDecimal.ZERO)
+                .balance(Money.ZERO)
                 .createdAt(LocalDateTime.now())
                 .build();
 
         Mockito.when(accountValidateService.retrieveAndValidateAccountByIdAndCustomerId("accountId", "customerId")).thenReturn(accountEntity);
-        Mockito.when(modelMapper.map(accountEntity, AccountDto.class)).thenReturn(expectedResult);
+        Mockito.when(accountMapper.toAccountDto(accountEntity)).thenReturn(expectedResult);
 
         AccountDto result = accountService.getAccountByIdAndCustomerId("accountId", "customerId");
 
         assertEquals(expectedResult, result);
 
         Mockito.verify(accountValidateService).retrieveAndValidateAccountByIdAndCustomerId("accountId", "customerId");
-        Mockito.verify(modelMapper).map(accountEntity, AccountDto.class);
+        Mockito.verify(accountMapper).toAccountDto(accountEntity);
     }
 
     @Test
@@ -223,7 +271,7 @@ public class AccountServiceTest {
                 .hasMessageContaining("Account can not found by id: " + "accountId");
 
         Mockito.verify(accountValidateService).retrieveAndValidateAccountByIdAndCustomerId("accountId", "customerId");
-        Mockito.verifyNoInteractions(modelMapper);
+        Mockito.verifyNoInteractions(accountMapper);
     }
 
     @Test
@@ -234,7 +282,7 @@ public class AccountServiceTest {
                 .id("accountId")
                 .customerId("customerId")
                 .accountNumber("accountNumber")
-                .balance(BigDecimal.ZERO)
+                .balance(Money.ZERO)
                 .createdAt(LocalDateTime.now())
                 .build();
 
@@ -244,7 +292,7 @@ public class AccountServiceTest {
                 .senderAccountId("senderAccountId")
                 .receiverAccountId("receiverAccountId")
                 .transactionType(TransactionType.INITIAL)
-                .amount(BigDecimal.TEN)
+                .amount(Money.of("10"))
                 .date(LocalDateTime.now())
                 .description("description.")
                 .build();
@@ -258,6 +306,7 @@ public class AccountServiceTest {
         Mockito.verify(transactionRepository).findInitialTransactionByAccountId("accountId");
         Mockito.verify(transactionRepository).delete(transactionEntity);
         Mockito.verify(accountRepository).delete(accountEntity);
+        Mockito.verify(applicationEventPublisher).publishEvent(new AccountDeletedEvent("accountId", "customerId", "accountNumber"));
     }
 
     @Test
@@ -268,7 +317,7 @@ public class AccountServiceTest {
                 .id("accountId")
                 .customerId("customerId")
                 .accountNumber("accountNumber")
-                .balance(BigDecimal.ZERO)
+                .balance(Money.ZERO)
                 .createdAt(LocalDateTime.now())
                 .build();
 
@@ -294,6 +343,44 @@ public class AccountServiceTest {
 
         Mockito.verify(accountValidateService).retrieveAndValidateAccountByIdAndCustomerId("accountId", "customerId");
         Mockito.verifyNoInteractions(transactionRepository);
+        Mockito.verifyNoInteractions(applicationEventPublisher);
     }
-}
 
+    @Test
+    @DisplayName("Should answer a point-in-time balance from the snapshots after validating account ownership.")
+    public void shouldReturnBalanceAt_whenAccountBelongsToCustomer() {
+        LocalDateTime at = LocalDateTime.of(2024, 8, 2, 21, 15, 18);
+        when(balanceSnapshotService.balanceAt("accountId", at)).thenReturn(new BigDecimal("75.00"));
+
+        AccountBalanceResponse response = accountService.getBalanceAt("accountId", "customerId", at);
+
+        assertEquals(new AccountBalanceResponse("accountId", new BigDecimal("75.00"), at), response);
+        Mockito.verify(accountValidateService).validateAccountOwnership("accountId", "customerId");
+        Mockito.verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    @DisplayName("Should not read any balance when the account does not belong to the customer.")
+    public void shouldThrowAccountNotFound_whenBalanceAtOfForeignAccount() {
+        LocalDateTime at = LocalDateTime.of(2024, 8, 2, 21, 15, 18);
+        doThrow(new AccountNotFoundException("accountId")).when(accountValidateService).validateAccountOwnership("accountId", "customerId");
+
+        assertThatThrownBy(() -> accountService.getBalanceAt("accountId", "customerId", at))
+                .isInstanceOf(AccountNotFoundException.class);
+
+        Mockito.verifyNoInteractions(balanceSnapshotService);
+    }
+
+    @Test
+    @DisplayName("Should return the current balance when no point in time is requested.")
+    public void shouldReturnCurrentBalance_whenAtMissing() {
+        AccountEntity accountEntity = AccountEntity.builder().id("accountId").customerId("customerId").balance(Money.of("12.00")).build();
+        when(accountValidateService.retrieveAndValidateAccountByIdAndCustomerId("accountId", "customerId")).thenReturn(accountEntity);
+
+        AccountBalanceResponse response = accountService.getBalanceAt("accountId", "customerId", null);
+
+        assertEquals(new BigDecimal("12.00"), response.getBalance());
+        assertNotNull(response.getAt());
+        Mockito.verifyNoInteractions(balanceSnapshotService);
+    }
+}
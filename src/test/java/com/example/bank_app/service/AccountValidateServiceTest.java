@@ -1,8 +1,11 @@
 package com.example.bank_app.service;
 
+import com.example.bank_app.common.AccountIdentity;
+import com.example.bank_app.common.Money;
 import com.example.bank_app.entity.AccountEntity;
 import com.example.bank_app.exception.AccountNotFoundException;
 import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.service.account.AccountIdentityCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -23,6 +26,9 @@ public class AccountValidateServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private AccountIdentityCache accountIdentityCache;
+
     @InjectMocks
     private AccountValidateService accountValidateService;
 
@@ -36,7 +42,7 @@ public class AccountValidateServiceTest {
                 .id(accountId)
                 .customerId(customerId)
                 .accountNumber("accountNumber")
-                .balance(BigDecimal.ZERO)
+                .balance(Money.ZERO)
                 .createdAt(LocalDateTime.now())
                 .build();
 
@@ -60,4 +66,32 @@ public class AccountValidateServiceTest {
                 .isInstanceOf(AccountNotFoundException.class)
                 .hasMessageContaining("Account can not found by id: " + accountId);
     }
+
+    @Test
+    void shouldValidateOwnership_whenCachedIdentityBelongsToCustomer() {
+        Mockito.when(accountIdentityCache.findById("accountId"))
+                .thenReturn(Optional.of(new AccountIdentity("accountId", "1111111111111117", "customerId")));
+
+        accountValidateService.validateAccountOwnership("accountId", "customerId");
+
+        Mockito.verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void shouldNotValidateOwnership_whenAccountBelongsToAnotherCustomer() {
+        Mockito.when(accountIdentityCache.findById("accountId"))
+                .thenReturn(Optional.of(new AccountIdentity("accountId", "1111111111111117", "otherCustomerId")));
+
+        assertThatThrownBy(() -> accountValidateService.validateAccountOwnership("accountId", "customerId"))
+                .isInstanceOf(AccountNotFoundException.class)
+                .hasMessageContaining("Account can not found by id: accountId");
+    }
+
+    @Test
+    void shouldNotValidateOwnership_whenAccountNotFound() {
+        Mockito.when(accountIdentityCache.findById("accountId")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> accountValidateService.validateAccountOwnership("accountId", "customerId"))
+                .isInstanceOf(AccountNotFoundException.class);
+    }
 }
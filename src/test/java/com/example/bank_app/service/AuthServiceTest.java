@@ -1,9 +1,13 @@
 package com.example.bank_app.service;
 
 import com.example.bank_app.dto.request.CustomerRegisterRequest;
+import com.example.bank_app.dto.request.LoginRequest;
+import com.example.bank_app.dto.response.AuthTokenResponse;
 import com.example.bank_app.entity.CustomerEntity;
 import com.example.bank_app.exception.EmailAlreadyExistsException;
+import com.example.bank_app.exception.InvalidCredentialsException;
 import com.example.bank_app.repository.CustomerRepository;
+import com.example.bank_app.service.auth.AuthTokenService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -29,6 +33,9 @@ class AuthServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private AuthTokenService authTokenService;
+
     @Captor
     ArgumentCaptor<CustomerEntity> customerEntityArgumentCaptor;
 
@@ -76,8 +83,44 @@ class AuthServiceTest {
                 .hasMessageContaining("Email "+ customerRegisterRequest.getEmail() + " already exists");
 
         verify(customerRepository).findByEmail(customerRegisterRequest.getEmail());
-        verifyNoInteractions(passwordEncoder);
+        verify(passwordEncoder, never()).encode(customerRegisterRequest.getPassword());
 
         verify(customerRepository, never()).save(Mockito.any(CustomerEntity.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenLoginCalledWithValidCredentials_shouldIssueTokens() {
+        CustomerEntity customerEntity = CustomerEntity.builder().id("customerId").email("test@test.com").password("encodedPassword").build();
+        AuthTokenResponse tokens = AuthTokenResponse.builder().accessToken("access").refreshToken("refresh").build();
+
+        when(customerRepository.findByEmail("test@test.com")).thenReturn(Optional.of(customerEntity));
+        when(passwordEncoder.matches("testPassword", "encodedPassword")).thenReturn(true);
+        when(authTokenService.issue("customerId", "test@test.com")).thenReturn(tokens);
+
+        AuthTokenResponse result = authService.login(new LoginRequest("test@test.com", "testPassword"));
+
+        assertThat(result).isSameAs(tokens);
+    }
+
+    @Test
+    void whenLoginCalledWithWrongPassword_shouldThrowInvalidCredentialsException() {
+        CustomerEntity customerEntity = CustomerEntity.builder().id("customerId").email("test@test.com").password("encodedPassword").build();
+
+        when(customerRepository.findByEmail("test@test.com")).thenReturn(Optional.of(customerEntity));
+        when(passwordEncoder.matches("wrongPassword", "encodedPassword")).thenReturn(false);
+
+        assertThatThrownBy(() -> authService.login(new LoginRequest("test@test.com", "wrongPassword")))
+                .isInstanceOf(InvalidCredentialsException.class);
+        verifyNoInteractions(authTokenService);
+    }
+
+    @Test
+    void whenLoginCalledWithUnknownEmail_shouldThrowInvalidCredentialsException() {
+        when(customerRepository.findByEmail("unknown@test.com")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> authService.login(new LoginRequest("unknown@test.com", "testPassword")))
+                .isInstanceOf(InvalidCredentialsException.class);
+        verify(passwordEncoder).matches(eq("testPassword"), any());
+        verifyNoInteractions(authTokenService);
+    }
+}
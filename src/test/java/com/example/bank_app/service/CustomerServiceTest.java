@@ -2,14 +2,16 @@ package com.example.bank_app.service;
 
 import com.example.bank_app.dto.model.CustomerDto;
 import com.example.bank_app.entity.CustomerEntity;
+import com.example.bank_app.mapper.CustomerMapper;
+import com.example.bank_app.mapper.CustomerMapperImpl;
 import com.example.bank_app.repository.CustomerRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.Optional;
@@ -26,8 +28,8 @@ class CustomerServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
-    @Mock
-    private ModelMapper modelMapper;
+    @Spy
+    private CustomerMapper customerMapper = new CustomerMapperImpl();
 
     @InjectMocks
     private CustomerService customerService;
@@ -44,7 +46,7 @@ class CustomerServiceTest {
         customerDto.setEmail("test@example.com");
 
         when(customerRepository.findById("customerId")).thenReturn(Optional.of(customerEntity));
-        when(modelMapper.map(customerEntity, CustomerDto.class)).thenReturn(customerDto);
+        when(customerMapper.toCustomerDto(customerEntity)).thenReturn(customerDto);
 
         CustomerDto result = customerService.getAuthenticatedCustomerById("customerId");
 
@@ -55,7 +57,7 @@ class CustomerServiceTest {
 
 
         verify(customerRepository, times(1)).findById("customerId");
-        verify(modelMapper, times(1)).map(customerEntity, CustomerDto.class);
+        verify(customerMapper, times(1)).toCustomerDto(customerEntity);
     }
 
     @Test
@@ -66,7 +68,7 @@ class CustomerServiceTest {
                 customerService.getAuthenticatedCustomerById("invalidCustomerId"));
 
         verify(customerRepository, times(1)).findById("invalidCustomerId");
-        verifyNoInteractions(modelMapper);
+        verifyNoInteractions(customerMapper);
     }
 
 }
\ No newline at end of file
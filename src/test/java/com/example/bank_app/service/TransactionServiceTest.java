@@ -1,28 +1,61 @@
 package com.example.bank_app.service;
 
+import com.example.bank_app.common.BatchTransferStatus;
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionCursor;
+import com.example.bank_app.common.TransactionExportFormat;
 import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.config.TransferProperties;
 import com.example.bank_app.dto.model.TransactionDto;
+import com.example.bank_app.dto.request.NewBatchMoneyTransferRequest;
 import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.dto.request.TransactionHistoryFilter;
+import com.example.bank_app.dto.response.BatchTransferResponse;
+import com.example.bank_app.dto.response.MonthlyStatementResponse;
+import com.example.bank_app.dto.response.TransactionPageResponse;
 import com.example.bank_app.entity.AccountEntity;
 import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.event.TransferCommittedEvent;
+import com.example.bank_app.mapper.TransactionMapper;
+import com.example.bank_app.mapper.TransactionMapperImpl;
 import com.example.bank_app.exception.AccountNotFoundByNumberException;
 import com.example.bank_app.exception.AccountNotFoundException;
-import com.example.bank_app.exception.BalanceIsNotEnoughException;
+import com.example.bank_app.exception.BatchTransferSizeException;
+import com.example.bank_app.exception.InvalidAccountNumberException;
 import com.example.bank_app.exception.InvalidAmountException;
-import com.example.bank_app.repository.AccountRepository;
-import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.exception.InvalidPageTokenException;
+import com.example.bank_app.exception.TransferConflictException;
+import com.example.bank_app.service.account.AccountNumberIssuer;
+import com.example.bank_app.service.archive.TransactionHistoryReader;
+import com.example.bank_app.service.export.TransactionExportWriter;
+import com.example.bank_app.service.transfer.BatchTransferOutcome;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import com.example.bank_app.service.transfer.TransferIdempotencyService;
+import com.example.bank_app.service.transfer.TransferRetryExecutor;
+import com.example.bank_app.service.transfer.TransferStrategy;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
-import org.mockito.internal.verification.Times;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
-import java.math.BigDecimal;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.time.YearMonth;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -32,324 +65,447 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class TransactionServiceTest {
 
+    private static final String RECEIVER_ACCOUNT_NUMBER = "1111111111111117";
+
+    @Spy
+    private TransactionMapper transactionMapper = new TransactionMapperImpl();
+
     @Mock
-    private ModelMapper modelMapper;
+    private TransactionHistoryReader transactionHistoryReader;
 
     @Mock
-    private AccountRepository accountRepository;
+    private AccountValidateService accountValidateService;
 
     @Mock
-    private TransactionRepository transactionRepository;
+    private TransferStrategy transferStrategy;
+
+    @Spy
+    private TransferProperties transferProperties = transferPropertiesWithoutBackoff();
+
+    @Spy
+    private TransferRetryExecutor transferRetryExecutor = new TransferRetryExecutor(transferPropertiesWithoutBackoff());
 
     @Mock
-    private AccountValidateService accountValidateService;
+    private TransferIdempotencyService transferIdempotencyService;
 
-    @Captor
-    private ArgumentCaptor<AccountEntity> accountCaptor;
+    @Mock
+    private MonthlyStatementService monthlyStatementService;
 
-    @Captor
-    private ArgumentCaptor<TransactionEntity> transactionCaptor;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
 
-    @InjectMocks
-    private TransactionService transactionService;
+    @Mock
+    private AccountNumberIssuer accountNumberIssuer;
 
-    @Test
-    @DisplayName("Should add a new transaction when accounts found by account id and customer id and sender balance enough.")
-    public void shouldAddNewTransaction_whenAccountsFoundByAccountIdAndCustomerIdAndSenderBalanceEnough() {
-        TransactionType transactionType = TransactionType.TRANSFER;
+    @Spy
+    private TransactionExportWriter transactionExportWriter = new TransactionExportWriter(new ObjectMapper());
 
-        AccountEntity senderAccount = AccountEntity
-                .builder()
-                .id("senderAccountId")
-                .customerId("senderCustomerId")
-                .accountNumber("senderAccountNumber")
-                .balance(BigDecimal.valueOf(100))
-                .createdAt(LocalDateTime.now())
-                .build();
+    @InjectMocks
+    private TransactionService transactionService;
 
-        AccountEntity receiverAccount = AccountEntity
-                .builder()
-                .id("receiverAccountId")
-                .customerId("receiverCustomerId")
-                .accountNumber("receiverAccountNumber")
-                .balance(BigDecimal.ZERO)
-                .createdAt(LocalDateTime.now())
-                .build();
+    private static TransferProperties transferPropertiesWithoutBackoff() {
+        TransferProperties transferProperties = new TransferProperties();
+        transferProperties.setMaxBatchSize(2);
+        transferProperties.getRetry().setMaxAttempts(3);
+        transferProperties.getRetry().setInitialBackoff(Duration.ZERO);
+        transferProperties.getRetry().setMaxBackoff(Duration.ZERO);
+        return transferProperties;
+    }
 
-        NewMoneyTransferRequest newMoneyTransferRequest = NewMoneyTransferRequest
+    private NewMoneyTransferRequest newMoneyTransferRequest(Money amount) {
+        return NewMoneyTransferRequest
                 .builder()
-                .amount(BigDecimal.TEN)
-                .receiverAccountNumber("receiverAccountNumber")
+                .amount(amount)
+                .receiverAccountNumber(RECEIVER_ACCOUNT_NUMBER)
                 .description("description")
                 .build();
+    }
 
-        TransactionEntity transactionEntity = TransactionEntity
+    private TransactionEntity transactionEntity(NewMoneyTransferRequest newMoneyTransferRequest) {
+        return TransactionEntity
                 .builder()
                 .id("transactionId")
-                .transactionType(transactionType)
-                .senderAccountId(senderAccount.getId())
-                .receiverAccountId(receiverAccount.getId())
+                .transactionType(TransactionType.TRANSFER)
+                .senderAccountId("senderAccountId")
+                .receiverAccountId("receiverAccountId")
                 .amount(newMoneyTransferRequest.getAmount())
                 .description(newMoneyTransferRequest.getDescription())
                 .build();
+    }
 
-        TransactionDto expected = TransactionDto
+    private TransactionDto transactionDto(TransactionEntity transactionEntity) {
+        return TransactionDto
                 .builder()
-                .id("transactionId")
-                .transactionType(transactionType)
-                .senderAccountId(senderAccount.getId())
-                .receiverAccountId(receiverAccount.getId())
-                .amount(newMoneyTransferRequest.getAmount())
-                .description(newMoneyTransferRequest.getDescription())
+                .id(transactionEntity.getId())
+                .transactionType(transactionEntity.getTransactionType())
+                .senderAccountId(transactionEntity.getSenderAccountId())
+                .receiverAccountId(transactionEntity.getReceiverAccountId())
+                .amount(transactionEntity.getAmount())
+                .description(transactionEntity.getDescription())
                 .build();
+    }
 
-        Mockito.when(accountRepository.findByIdAndCustomerId("senderAccountId", "senderCustomerId")).thenReturn(Optional.of(senderAccount));
-        Mockito.when(accountRepository.findByAccountNumber("receiverAccountNumber")).thenReturn(Optional.of(receiverAccount));
-        Mockito.when(transactionRepository.save(transactionCaptor.capture())).thenReturn(transactionEntity);
-        Mockito.when(modelMapper.map(transactionEntity, TransactionDto.class)).thenReturn(expected);
+    @Test
+    @DisplayName("Should add a new transaction through the configured transfer strategy and map the saved transaction.")
+    public void shouldAddNewTransaction_whenTransferStrategySucceeds() {
+        NewMoneyTransferRequest newMoneyTransferRequest = newMoneyTransferRequest(Money.of("10"));
+        TransactionEntity transactionEntity = transactionEntity(newMoneyTransferRequest);
+        TransactionDto expected = transactionDto(transactionEntity);
 
-        TransactionDto result = transactionService.addNewTransaction(senderAccount.getCustomerId(), senderAccount.getId(), newMoneyTransferRequest);
+        when(transferStrategy.transfer("senderCustomerId", "senderAccountId", newMoneyTransferRequest)).thenReturn(transactionEntity);
+        when(transactionMapper.toTransactionDto(transactionEntity)).thenReturn(expected);
 
-        assertEquals(expected, result);
+        TransactionDto result = transactionService.addNewTransaction("senderCustomerId", "senderAccountId", newMoneyTransferRequest, null);
 
-        verify(accountRepository).findByIdAndCustomerId("senderAccountId", "senderCustomerId");
-        verify(accountRepository).findByAccountNumber("receiverAccountNumber");
-        verify(accountRepository, new Times(2)).save(accountCaptor.capture());
-
-        List<AccountEntity> capturedAccounts = accountCaptor.getAllValues();
-        assertThat(capturedAccounts).hasSize(2);
+        assertEquals(expected, result);
 
-        AccountEntity capturedSenderAccount = accountCaptor.getAllValues().getFirst();
-        assertThat(capturedSenderAccount.getId()).isEqualTo(senderAccount.getId());
-        assertThat(capturedSenderAccount.getBalance()).isEqualTo(BigDecimal.valueOf(90));
+        verify(transferStrategy).transfer("senderCustomerId", "senderAccountId", newMoneyTransferRequest);
+        verify(transactionMapper).toTransactionDto(transactionEntity);
+        verify(applicationEventPublisher).publishEvent(new TransferCommittedEvent(transactionEntity));
+    }
 
-        AccountEntity capturedReceiverAccount = accountCaptor.getAllValues().getLast();
-        assertThat(capturedReceiverAccount.getId()).isEqualTo(receiverAccount.getId());
-        assertThat(capturedReceiverAccount.getBalance()).isEqualTo(BigDecimal.TEN);
+    @Test
+    @DisplayName("Should hand a transfer with an idempotency key to the idempotency service.")
+    public void shouldDelegateToIdempotencyService_whenIdempotencyKeyGiven() {
+        NewMoneyTransferRequest newMoneyTransferRequest = newMoneyTransferRequest(Money.of("10"));
+        TransactionDto expected = transactionDto(transactionEntity(newMoneyTransferRequest));
 
-        verify(transactionRepository).save(Mockito.any(TransactionEntity.class));
+        when(transferIdempotencyService.execute(eq("senderCustomerId"), eq("senderAccountId"), eq("retry-key"), eq(newMoneyTransferRequest), any()))
+                .thenReturn(expected);
 
-        TransactionEntity capturedTransaction = transactionCaptor.getValue();
-        assertThat(capturedTransaction.getDescription()).isEqualTo(newMoneyTransferRequest.getDescription());
-        assertThat(capturedTransaction.getTransactionType()).isEqualTo(transactionType);
-        assertThat(capturedTransaction.getReceiverAccountId()).isEqualTo(capturedReceiverAccount.getId());
-        assertThat(capturedTransaction.getSenderAccountId()).isEqualTo(capturedSenderAccount.getId());
-        assertThat(capturedTransaction.getAmount()).isEqualTo(newMoneyTransferRequest.getAmount());
+        TransactionDto result = transactionService.addNewTransaction("senderCustomerId", "senderAccountId", newMoneyTransferRequest, "retry-key");
 
-        verify(modelMapper).map(transactionEntity, TransactionDto.class);
+        assertEquals(expected, result);
+        verifyNoInteractions(transferStrategy);
     }
 
     @Test
-    @DisplayName("Should not add a new transaction when sender account not found by account id and customer id.")
-    public void shouldNotAddNewTransaction_whenSenderAccountNotFoundByAccountIdAndCustomerId() {
-        when(accountRepository.findByIdAndCustomerId("senderAccountId", "senderCustomerId")).thenReturn(Optional.empty());
+    @DisplayName("Should not add a new transaction when transaction amount is invalid.")
+    public void shouldNotAddNewTransaction_whenTransactionAmountIsInvalid() {
+        NewMoneyTransferRequest newMoneyTransferRequest = newMoneyTransferRequest(Money.of("-10"));
 
-        assertThatThrownBy(() -> transactionService.addNewTransaction("senderCustomerId", "senderAccountId", eq(Mockito.any(NewMoneyTransferRequest.class))))
-                .isInstanceOf(AccountNotFoundException.class)
-                .hasMessageContaining("Account can not found by id: " + "senderAccountId");
+        assertThatThrownBy(() -> transactionService.addNewTransaction("senderCustomerId", "senderAccountId", newMoneyTransferRequest, null))
+                .isInstanceOf(InvalidAmountException.class)
+                .hasMessageContaining("Invalid amount! Please enter a value greater than 0.");
 
-        verify(accountRepository).findByIdAndCustomerId("senderAccountId", "senderCustomerId");
-        Mockito.verifyNoInteractions(transactionRepository);
+        verifyNoInteractions(transferStrategy);
+        verifyNoInteractions(transactionMapper);
     }
 
     @Test
-    @DisplayName("Should not add a new transaction when accounts found by account id and customer id but sender balance is not enough.")
-    public void shouldNotAddNewTransaction_whenAccountsFoundByAccountIdAndCustomerIdButSenderBalanceIsNotEnough() {
+    @DisplayName("Should not add a new transaction when the receiver account number has a wrong check digit.")
+    public void shouldNotAddNewTransaction_whenReceiverAccountNumberCheckDigitIsInvalid() {
         NewMoneyTransferRequest newMoneyTransferRequest = NewMoneyTransferRequest
                 .builder()
-                .amount(BigDecimal.TEN)
-                .receiverAccountNumber("receiverAccountNumber")
-                .description("description")
+                .amount(Money.of("10"))
+                .receiverAccountNumber("1111111111111118")
                 .build();
 
-        AccountEntity senderAccount = AccountEntity
-                .builder()
-                .id("senderAccountId")
-                .customerId("senderCustomerId")
-                .accountNumber("senderAccountNumber")
-                .balance(BigDecimal.ZERO)
-                .createdAt(LocalDateTime.now())
-                .build();
+        assertThatThrownBy(() -> transactionService.addNewTransaction("senderCustomerId", "senderAccountId", newMoneyTransferRequest, null))
+                .isInstanceOf(InvalidAccountNumberException.class)
+                .hasMessage("Invalid account number: 1111111111111118! Please check the digits.");
+
+        verifyNoInteractions(transferStrategy);
+        verifyNoInteractions(transactionHistoryReader);
+    }
 
-        AccountEntity receiverAccount = AccountEntity
+    @Test
+    @DisplayName("Should add a new transaction to an account number issued before check digits were introduced.")
+    public void shouldAddNewTransaction_whenReceiverHasLegacyAccountNumber() {
+        NewMoneyTransferRequest newMoneyTransferRequest = NewMoneyTransferRequest
                 .builder()
-                .id("receiverAccountId")
-                .customerId("receiverCustomerId")
-                .accountNumber("receiverAccountNumber")
-                .balance(BigDecimal.ZERO)
-                .createdAt(LocalDateTime.now())
+                .amount(Money.of("10"))
+                .receiverAccountNumber("1234567890123456")
                 .build();
+        TransactionEntity transactionEntity = transactionEntity(newMoneyTransferRequest);
 
-        when(accountRepository.findByIdAndCustomerId("senderAccountId", "senderCustomerId")).thenReturn(Optional.of(senderAccount));
-        when(accountRepository.findByAccountNumber("receiverAccountNumber")).thenReturn(Optional.of(receiverAccount));
+        when(accountNumberIssuer.mayBeLegacyNumber("1234567890123456")).thenReturn(true);
+        when(transferStrategy.transfer("senderCustomerId", "senderAccountId", newMoneyTransferRequest)).thenReturn(transactionEntity);
 
-        assertThatThrownBy(() -> transactionService.addNewTransaction("senderCustomerId", "senderAccountId", newMoneyTransferRequest))
-                .isInstanceOf(BalanceIsNotEnoughException.class)
-                .hasMessageContaining("Balance is not enough for this transfer! Your balance: " + senderAccount.getBalance());
+        transactionService.addNewTransaction("senderCustomerId", "senderAccountId", newMoneyTransferRequest, null);
 
-        verify(accountRepository).findByIdAndCustomerId("senderAccountId", "senderCustomerId");
-        verify(accountRepository).findByAccountNumber("receiverAccountNumber");
-        Mockito.verifyNoInteractions(transactionRepository);
+        verify(transferStrategy).transfer("senderCustomerId", "senderAccountId", newMoneyTransferRequest);
     }
 
     @Test
-    @DisplayName("Should not add a new transaction when accounts found by account id and customer id but transaction amount is invalid.")
-    public void shouldNotAddNewTransaction_whenAccountsFoundByAccountIdAndCustomerIdButTransactionAmountIsInvalid() {
-        NewMoneyTransferRequest newMoneyTransferRequest = NewMoneyTransferRequest
-                .builder()
-                .amount(BigDecimal.valueOf(-10))
-                .receiverAccountNumber("receiverAccountNumber")
-                .description("description")
-                .build();
+    @DisplayName("Should not add a new transaction when the transfer strategy rejects the transfer.")
+    public void shouldNotAddNewTransaction_whenTransferStrategyRejectsTheTransfer() {
+        NewMoneyTransferRequest newMoneyTransferRequest = newMoneyTransferRequest(Money.of("10"));
 
-        AccountEntity senderAccount = AccountEntity
-                .builder()
-                .id("senderAccountId")
-                .customerId("senderCustomerId")
-                .accountNumber("senderAccountNumber")
-                .balance(BigDecimal.ZERO)
-                .createdAt(LocalDateTime.now())
-                .build();
+        when(transferStrategy.transfer("senderCustomerId", "senderAccountId", newMoneyTransferRequest))
+                .thenThrow(new AccountNotFoundException("senderAccountId"));
 
-        AccountEntity receiverAccount = AccountEntity
-                .builder()
-                .id("receiverAccountId")
-                .customerId("receiverCustomerId")
-                .accountNumber("receiverAccountNumber")
-                .balance(BigDecimal.ZERO)
-                .createdAt(LocalDateTime.now())
-                .build();
+        assertThatThrownBy(() -> transactionService.addNewTransaction("senderCustomerId", "senderAccountId", newMoneyTransferRequest, null))
+                .isInstanceOf(AccountNotFoundException.class)
+                .hasMessageContaining("Account can not found by id: " + "senderAccountId");
 
-        when(accountRepository.findByIdAndCustomerId("senderAccountId", "senderCustomerId")).thenReturn(Optional.of(senderAccount));
-        when(accountRepository.findByAccountNumber("receiverAccountNumber")).thenReturn(Optional.of(receiverAccount));
+        verify(transferStrategy, times(1)).transfer("senderCustomerId", "senderAccountId", newMoneyTransferRequest);
+        verifyNoInteractions(transactionMapper, applicationEventPublisher);
+    }
 
-        assertThatThrownBy(() -> transactionService.addNewTransaction("senderCustomerId", "senderAccountId", newMoneyTransferRequest))
-                .isInstanceOf(InvalidAmountException.class)
-                .hasMessageContaining("Invalid amount! Please enter a value greater than 0.");
+    @Test
+    @DisplayName("Should retry the transfer when it lost a concurrent update and succeed on a later attempt.")
+    public void shouldRetryTransfer_whenConcurrentUpdateDetected() {
+        NewMoneyTransferRequest newMoneyTransferRequest = newMoneyTransferRequest(Money.of("10"));
+        TransactionEntity transactionEntity = transactionEntity(newMoneyTransferRequest);
+        TransactionDto expected = transactionDto(transactionEntity);
+
+        when(transferStrategy.transfer("senderCustomerId", "senderAccountId", newMoneyTransferRequest))
+                .thenThrow(new CannotAcquireLockException("deadlock"))
+                .thenThrow(new ObjectOptimisticLockingFailureException(AccountEntity.class, "senderAccountId"))
+                .thenReturn(transactionEntity);
+        when(transactionMapper.toTransactionDto(transactionEntity)).thenReturn(expected);
 
-        verify(accountRepository).findByIdAndCustomerId("senderAccountId", "senderCustomerId");
-        verify(accountRepository).findByAccountNumber("receiverAccountNumber");
-        Mockito.verifyNoInteractions(transactionRepository);
+        TransactionDto result = transactionService.addNewTransaction("senderCustomerId", "senderAccountId", newMoneyTransferRequest, null);
+
+        assertEquals(expected, result);
+        verify(transferStrategy, times(3)).transfer("senderCustomerId", "senderAccountId", newMoneyTransferRequest);
     }
 
     @Test
-    @DisplayName("Should not add a new transaction when the sender account is present and balance is enough but the receiver account not found.")
-    public void shouldNotAddNewTransaction_whenTheSenderAccountIsPresentAndBalanceIsEnoughButTheReceiverAccountNotFound() {
-        AccountEntity senderAccount = AccountEntity
-                .builder()
-                .id("senderAccountId")
-                .customerId("senderCustomerId")
-                .accountNumber("senderAccountNumber")
-                .balance(BigDecimal.valueOf(100))
-                .createdAt(LocalDateTime.now())
-                .build();
+    @DisplayName("Should give up with a conflict when every retry attempt lost a concurrent update.")
+    public void shouldThrowTransferConflict_whenRetryAttemptsExhausted() {
+        NewMoneyTransferRequest newMoneyTransferRequest = newMoneyTransferRequest(Money.of("10"));
 
-        NewMoneyTransferRequest newMoneyTransferRequest = NewMoneyTransferRequest
-                .builder()
-                .amount(BigDecimal.TEN)
-                .receiverAccountNumber("receiverAccountNumber")
-                .description("description")
-                .build();
+        when(transferStrategy.transfer("senderCustomerId", "senderAccountId", newMoneyTransferRequest))
+                .thenThrow(new CannotAcquireLockException("deadlock"));
 
-        Mockito.when(accountRepository.findByIdAndCustomerId("senderAccountId","senderCustomerId" )).thenReturn(Optional.of(senderAccount));
-        Mockito.when(accountRepository.findByAccountNumber(newMoneyTransferRequest.getReceiverAccountNumber())).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> transactionService.addNewTransaction("senderCustomerId", "senderAccountId", newMoneyTransferRequest, null))
+                .isInstanceOf(TransferConflictException.class)
+                .hasMessageContaining("after 3 attempts");
 
-        assertThatThrownBy(() -> transactionService.addNewTransaction("senderCustomerId", "senderAccountId", newMoneyTransferRequest))
-                .isInstanceOf(AccountNotFoundByNumberException.class)
-                .hasMessageContaining("Account can not found by number: " + newMoneyTransferRequest.getReceiverAccountNumber());
+        verify(transferStrategy, times(3)).transfer("senderCustomerId", "senderAccountId", newMoneyTransferRequest);
+        verifyNoInteractions(transactionMapper);
+    }
 
-        verify(accountRepository).findByIdAndCustomerId("senderAccountId","senderCustomerId" );
-        verify(accountRepository).findByAccountNumber(newMoneyTransferRequest.getReceiverAccountNumber());
-        verifyNoInteractions(transactionRepository);
+    @Test
+    @DisplayName("Should run the batch through the transfer strategy and report a result for every item.")
+    public void shouldReturnResultForEveryItem_whenBatchTransferExecuted() {
+        NewMoneyTransferRequest acceptedRequest = newMoneyTransferRequest(Money.of("10"));
+        NewMoneyTransferRequest rejectedRequest = newMoneyTransferRequest(Money.of("1"));
+        List<NewMoneyTransferRequest> transfers = List.of(acceptedRequest, rejectedRequest);
+        TransactionEntity transactionEntity = transactionEntity(acceptedRequest);
+        TransactionDto transactionDto = transactionDto(transactionEntity);
+
+        when(transferStrategy.transferBatch("senderCustomerId", "senderAccountId", transfers)).thenReturn(List.of(
+                BatchTransferOutcome.accepted(transactionEntity),
+                BatchTransferOutcome.rejected(new AccountNotFoundByNumberException("receiverAccountNumber"))));
+        when(transactionMapper.toTransactionDto(transactionEntity)).thenReturn(transactionDto);
+
+        BatchTransferResponse result = transactionService.addNewTransactionBatch("senderCustomerId", "senderAccountId",
+                NewBatchMoneyTransferRequest.builder().transfers(transfers).build());
+
+        assertThat(result.getAccepted()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getResults()).hasSize(2);
+        assertThat(result.getResults().get(0).getStatus()).isEqualTo(BatchTransferStatus.ACCEPTED);
+        assertThat(result.getResults().get(0).getTransaction()).isEqualTo(transactionDto);
+        assertThat(result.getResults().get(1).getIndex()).isEqualTo(1);
+        assertThat(result.getResults().get(1).getStatus()).isEqualTo(BatchTransferStatus.REJECTED);
+        assertThat(result.getResults().get(1).getMessage()).isEqualTo("Account can not found by number: receiverAccountNumber");
+        verify(applicationEventPublisher).publishEvent(new TransferCommittedEvent(transactionEntity));
+        verifyNoMoreInteractions(applicationEventPublisher);
     }
 
     @Test
-    @DisplayName("Should return all transactions when the account found by account id and customer id.")
-    public void shouldReturnAllTransactions_whenTheAccountFoundByAccountIdAndCustomerId() {
-        AccountEntity accountEntity = AccountEntity
-                .builder()
-                .id("accountId")
-                .customerId("customerId")
-                .accountNumber("accountNumber")
-                .balance(BigDecimal.ZERO)
-                .createdAt(LocalDateTime.now())
+    @DisplayName("Should not run the batch when it has more transfers than allowed.")
+    public void shouldNotRunBatch_whenBatchIsTooLarge() {
+        NewBatchMoneyTransferRequest request = NewBatchMoneyTransferRequest.builder()
+                .transfers(List.of(newMoneyTransferRequest(Money.of("1")), newMoneyTransferRequest(Money.of("1")), newMoneyTransferRequest(Money.of("1"))))
                 .build();
 
-        TransactionEntity transactionEntity1 = TransactionEntity
-                .builder()
-                .id("transactionId1")
-                .senderAccountId("accountId")
-                .receiverAccountId("receiverAccountId")
-                .amount(BigDecimal.valueOf(100))
-                .transactionType(TransactionType.TRANSFER)
-                .date(LocalDateTime.now())
-                .description("description")
-                .build();
+        assertThatThrownBy(() -> transactionService.addNewTransactionBatch("senderCustomerId", "senderAccountId", request))
+                .isInstanceOf(BatchTransferSizeException.class)
+                .hasMessageContaining("A batch must contain between 1 and 2 transfers!");
 
-        TransactionEntity transactionEntity2 = TransactionEntity
-                .builder()
-                .id("transactionId2")
-                .senderAccountId("senderAccountId")
-                .receiverAccountId("accountId")
-                .amount(BigDecimal.valueOf(200))
-                .transactionType(TransactionType.TRANSFER)
-                .date(LocalDateTime.now())
-                .description("description")
-                .build();
+        verifyNoInteractions(transferStrategy);
+    }
 
-        TransactionDto transactionDto1 = TransactionDto
-                .builder()
-                .id("transactionId1")
-                .senderAccountId("accountId")
-                .receiverAccountId("receiverAccountId")
-                .amount(BigDecimal.valueOf(100))
-                .transactionType(TransactionType.TRANSFER)
-                .date(LocalDateTime.now())
-                .description("description")
-                .build();
+    @Test
+    @DisplayName("Should return a page of transactions without a next page token when the history fits in one page.")
+    public void shouldReturnTransactionPage_whenTheAccountFoundByAccountIdAndCustomerId() {
+        TransactionEntity transactionEntity1 = transactionEntity("transactionId1", LocalDateTime.of(2024, 8, 2, 21, 15, 18));
+        TransactionEntity transactionEntity2 = transactionEntity("transactionId2", LocalDateTime.of(2024, 8, 1, 10, 0, 0));
+        TransactionDto transactionDto1 = TransactionDto.builder().id("transactionId1").build();
+        TransactionDto transactionDto2 = TransactionDto.builder().id("transactionId2").build();
+        TransactionHistoryFilter filter = TransactionHistoryFilter.builder().transactionType(TransactionType.TRANSFER).build();
 
-        TransactionDto transactionDto2 = TransactionDto
-                .builder()
-                .id("transactionId2")
-                .senderAccountId("senderAccountId")
-                .receiverAccountId("accountId")
-                .amount(BigDecimal.valueOf(200))
-                .transactionType(TransactionType.TRANSFER)
-                .date(LocalDateTime.now())
-                .description("description")
-                .build();
+        when(transactionHistoryReader.findPageByAccountId("accountId", filter, null, 3)).thenReturn(List.of(transactionEntity1, transactionEntity2));
+        when(transactionMapper.toTransactionDto(transactionEntity1)).thenReturn(transactionDto1);
+        when(transactionMapper.toTransactionDto(transactionEntity2)).thenReturn(transactionDto2);
+
+        TransactionPageResponse result = transactionService.getTransactionHistory("accountId", "customerId", filter, null, 2);
 
-        when(accountValidateService.retrieveAndValidateAccountByIdAndCustomerId("accountId", "customerId")).thenReturn((accountEntity));
-        when(transactionRepository.findAllByAccountId("accountId")).thenReturn(Arrays.asList(transactionEntity1,transactionEntity2));
-        when(modelMapper.map(transactionEntity1, TransactionDto.class)).thenReturn(transactionDto1);
-        when(modelMapper.map(transactionEntity2, TransactionDto.class)).thenReturn(transactionDto2);
+        assertEquals(List.of(transactionDto1, transactionDto2), result.getTransactions());
+        assertThat(result.getNextPageToken()).isNull();
 
+        verify(accountValidateService).validateAccountOwnership("accountId", "customerId");
+        verify(transactionHistoryReader).findPageByAccountId("accountId", filter, null, 3);
+    }
 
-        List<TransactionDto> result = transactionService.getAllTransactions("accountId", "customerId");
-        List<TransactionDto> expected = Arrays.asList(transactionDto1, transactionDto2);
+    @Test
+    @DisplayName("Should return a next page token pointing at the last returned row when more transactions exist.")
+    public void shouldReturnNextPageToken_whenMoreTransactionsExist() {
+        LocalDateTime lastDate = LocalDateTime.of(2024, 8, 2, 21, 15, 18);
+        TransactionEntity transactionEntity1 = transactionEntity("transactionId1", lastDate);
+        TransactionEntity transactionEntity2 = transactionEntity("transactionId2", LocalDateTime.of(2024, 8, 1, 10, 0, 0));
+        TransactionDto transactionDto1 = TransactionDto.builder().id("transactionId1").build();
+        TransactionHistoryFilter filter = new TransactionHistoryFilter();
 
-        assertEquals(expected, result);
+        when(transactionHistoryReader.findPageByAccountId("accountId", filter, null, 2)).thenReturn(List.of(transactionEntity1, transactionEntity2));
+        when(transactionMapper.toTransactionDto(transactionEntity1)).thenReturn(transactionDto1);
+
+        TransactionPageResponse firstPage = transactionService.getTransactionHistory("accountId", "customerId", filter, null, 1);
+
+        assertEquals(List.of(transactionDto1), firstPage.getTransactions());
+        assertThat(firstPage.getNextPageToken()).isNotBlank();
+        verify(transactionMapper, never()).toTransactionDto(transactionEntity2);
+
+        TransactionCursor cursor = new TransactionCursor(lastDate, "transactionId1");
+        when(transactionHistoryReader.findPageByAccountId("accountId", filter, cursor, 2)).thenReturn(List.of(transactionEntity2));
+
+        transactionService.getTransactionHistory("accountId", "customerId", filter, firstPage.getNextPageToken(), 1);
+
+        verify(transactionHistoryReader).findPageByAccountId("accountId", filter, cursor, 2);
+    }
 
-        verify(accountValidateService).retrieveAndValidateAccountByIdAndCustomerId("accountId", "customerId");
-        verify(transactionRepository).findAllByAccountId("accountId");
-        verify(modelMapper).map(transactionEntity1, TransactionDto.class);
-        verify(modelMapper).map(transactionEntity2, TransactionDto.class);
+    @Test
+    @DisplayName("Should reject a page token that was not issued by the service.")
+    public void shouldNotReturnTransactionPage_whenPageTokenIsInvalid() {
+
+        assertThatThrownBy(() -> transactionService.getTransactionHistory("accountId", "customerId", new TransactionHistoryFilter(), "not-a-token", 10))
+                .isInstanceOf(InvalidPageTokenException.class);
 
+        verifyNoInteractions(transactionHistoryReader);
+        verifyNoInteractions(transactionMapper);
     }
 
     @Test
-    @DisplayName("Should not return all transactions when the account not found by account id and customer id.")
-    public void shouldNotReturnAllTransactions_whenTheAccountNotFoundByAccountIdAndCustomerId() {
-        when(accountValidateService.retrieveAndValidateAccountByIdAndCustomerId("accountId", "customerId"))
-                .thenThrow(new AccountNotFoundException("accountId"));
+    @DisplayName("Should not return transactions when the account not found by account id and customer id.")
+    public void shouldNotReturnTransactionPage_whenTheAccountNotFoundByAccountIdAndCustomerId() {
+        doThrow(new AccountNotFoundException("accountId"))
+                .when(accountValidateService).validateAccountOwnership("accountId", "customerId");
 
-        assertThatThrownBy(() -> transactionService.getAllTransactions("accountId", "customerId"))
+        assertThatThrownBy(() -> transactionService.getTransactionHistory("accountId", "customerId", new TransactionHistoryFilter(), null, 10))
                 .isInstanceOf(AccountNotFoundException.class)
                 .hasMessageContaining("Account can not found by id: " + "accountId");
 
-        verify(accountValidateService).retrieveAndValidateAccountByIdAndCustomerId("accountId", "customerId");
-        verifyNoInteractions(transactionRepository);
-        verifyNoInteractions(modelMapper);
+        verify(accountValidateService).validateAccountOwnership("accountId", "customerId");
+        verifyNoInteractions(transactionHistoryReader);
+        verifyNoInteractions(transactionMapper);
+    }
+
+    @Test
+    @DisplayName("Should answer the monthly statement from the rollups after validating account ownership.")
+    public void shouldReturnMonthlyStatement_whenAccountBelongsToCustomer() {
+        YearMonth month = YearMonth.of(2024, 8);
+        MonthlyStatementResponse statement = MonthlyStatementResponse.builder().accountId("accountId").month(month).build();
+        when(monthlyStatementService.getStatement("accountId", month)).thenReturn(statement);
+
+        assertEquals(statement, transactionService.getMonthlyStatement("accountId", "customerId", month));
+
+        verify(accountValidateService).validateAccountOwnership("accountId", "customerId");
+        verifyNoInteractions(transactionHistoryReader);
+    }
+
+    @Test
+    @DisplayName("Should not read the rollups when the account does not belong to the customer.")
+    public void shouldNotReturnMonthlyStatement_whenTheAccountNotFoundByAccountIdAndCustomerId() {
+        doThrow(new AccountNotFoundException("accountId"))
+                .when(accountValidateService).validateAccountOwnership("accountId", "customerId");
+
+        assertThatThrownBy(() -> transactionService.getMonthlyStatement("accountId", "customerId", YearMonth.of(2024, 8)))
+                .isInstanceOf(AccountNotFoundException.class);
+
+        verifyNoInteractions(monthlyStatementService);
+    }
+
+    @Test
+    @DisplayName("Should stream the account history as gzipped CSV and close the row stream afterwards.")
+    public void shouldStreamGzippedCsv_whenExportRequested() throws Exception {
+        TransactionHistoryFilter filter = new TransactionHistoryFilter();
+        AtomicBoolean streamClosed = new AtomicBoolean();
+        TransactionEntity transactionEntity = transactionEntity("transactionId1", LocalDateTime.of(2024, 8, 2, 21, 15, 18));
+
+        when(transactionHistoryReader.streamByAccountId("accountId", filter))
+                .thenReturn(Stream.of(transactionEntity).onClose(() -> streamClosed.set(true)));
+
+        StreamingResponseBody body = transactionService.exportTransactions("accountId", "customerId", filter, TransactionExportFormat.CSV, true);
+        verifyNoInteractions(transactionHistoryReader);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(csv.lines()).containsExactly(
+                "id,senderAccountId,receiverAccountId,transactionType,amount,date,description",
+                "transactionId1,accountId,receiverAccountId,TRANSFER,100.00,2024-08-02T21:15:18,description");
+        assertThat(streamClosed).isTrue();
+        verifyNoInteractions(transactionMapper);
+    }
+
+    @Test
+    @DisplayName("Should not start an export when the account not found by account id and customer id.")
+    public void shouldNotExportTransactions_whenTheAccountNotFoundByAccountIdAndCustomerId() {
+        doThrow(new AccountNotFoundException("accountId"))
+                .when(accountValidateService).validateAccountOwnership("accountId", "customerId");
+
+        assertThatThrownBy(() -> transactionService.exportTransactions("accountId", "customerId", new TransactionHistoryFilter(), TransactionExportFormat.NDJSON, false))
+                .isInstanceOf(AccountNotFoundException.class);
+
+        verifyNoInteractions(transactionHistoryReader);
+    }
+
+    @Test
+    @DisplayName("Should stream the history as NDJSON page by page, continuing after the last row of each full page.")
+    public void shouldStreamHistoryInKeysetPages() throws Exception {
+        TransactionHistoryFilter filter = new TransactionHistoryFilter();
+        LocalDateTime newest = LocalDateTime.of(2024, 8, 2, 21, 15, 18);
+        List<TransactionEntity> firstPage = IntStream.range(0, TransactionService.MAX_HISTORY_PAGE_SIZE)
+                .mapToObj(i -> transactionEntity("transactionId" + i, newest.minusMinutes(i)))
+                .toList();
+        TransactionEntity oldest = transactionEntity("transactionIdLast", LocalDateTime.of(2024, 8, 1, 0, 0));
+        TransactionCursor afterFirstPage = new TransactionCursor(firstPage.getLast().getDate(), firstPage.getLast().getId());
+
+        when(transactionHistoryReader.findPageByAccountId("accountId", filter, null, TransactionService.MAX_HISTORY_PAGE_SIZE)).thenReturn(firstPage);
+        when(transactionHistoryReader.findPageByAccountId("accountId", filter, afterFirstPage, TransactionService.MAX_HISTORY_PAGE_SIZE)).thenReturn(List.of(oldest));
+
+        StreamingResponseBody body = transactionService.streamTransactionHistory("accountId", "customerId", filter);
+        verifyNoInteractions(transactionHistoryReader);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(TransactionService.MAX_HISTORY_PAGE_SIZE + 1);
+        assertThat(lines.getFirst()).startsWith("{\"id\":\"transactionId0\"");
+        assertThat(lines.getLast()).startsWith("{\"id\":\"transactionIdLast\"");
+        verify(transactionHistoryReader, times(2)).findPageByAccountId(eq("accountId"), eq(filter), any(), eq(TransactionService.MAX_HISTORY_PAGE_SIZE));
+    }
+
+    @Test
+    @DisplayName("Should not start a history stream when the account not found by account id and customer id.")
+    public void shouldNotStreamHistory_whenTheAccountNotFoundByAccountIdAndCustomerId() {
+        doThrow(new AccountNotFoundException("accountId"))
+                .when(accountValidateService).validateAccountOwnership("accountId", "customerId");
+
+        assertThatThrownBy(() -> transactionService.streamTransactionHistory("accountId", "customerId", new TransactionHistoryFilter()))
+                .isInstanceOf(AccountNotFoundException.class);
+
+        verifyNoInteractions(transactionHistoryReader);
+    }
+
+    private TransactionEntity transactionEntity(String id, LocalDateTime date) {
+        return TransactionEntity
+                .builder()
+                .id(id)
+                .senderAccountId("accountId")
+                .receiverAccountId("receiverAccountId")
+                .amount(Money.of("100"))
+                .transactionType(TransactionType.TRANSFER)
+                .date(date)
+                .description("description")
+                .build();
     }
 
 }
@@ -0,0 +1,114 @@
+package com.example.bank_app.service.account;
+
+import com.example.bank_app.common.AccountIdentity;
+import com.example.bank_app.config.AccountIdentityCacheProperties;
+import com.example.bank_app.event.AccountDeletedEvent;
+import com.example.bank_app.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AccountIdentityCacheTest {
+
+    private static final AccountIdentity FIRST_ACCOUNT = new AccountIdentity("account-1", "1111111111111117", "customerId");
+    private static final AccountIdentity SECOND_ACCOUNT = new AccountIdentity("account-2", "2222222222222224", "customerId");
+    private static final String UNKNOWN_NUMBER = "9999999999999995";
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private AccountIdentityCache accountIdentityCache;
+
+    @BeforeEach
+    void setUp() {
+        accountIdentityCache = new AccountIdentityCache(accountRepository, new AccountIdentityCacheProperties());
+    }
+
+    @Test
+    @DisplayName("Should load an account number once and serve repeated lookups from the cache.")
+    public void shouldServeRepeatedLookupsFromCache_whenAccountNumberKnown() {
+        when(accountRepository.findIdentityByAccountNumber(FIRST_ACCOUNT.accountNumber())).thenReturn(Optional.of(FIRST_ACCOUNT));
+
+        assertThat(accountIdentityCache.findByAccountNumber(FIRST_ACCOUNT.accountNumber())).contains(FIRST_ACCOUNT);
+        assertThat(accountIdentityCache.findByAccountNumber(FIRST_ACCOUNT.accountNumber())).contains(FIRST_ACCOUNT);
+        assertThat(accountIdentityCache.findById(FIRST_ACCOUNT.id())).contains(FIRST_ACCOUNT);
+
+        verify(accountRepository, times(1)).findIdentityByAccountNumber(FIRST_ACCOUNT.accountNumber());
+        verify(accountRepository, never()).findIdentityById(any());
+        assertThat(accountIdentityCache.accountNumberStats().hitCount()).isEqualTo(1);
+        assertThat(accountIdentityCache.accountNumberStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should remember that an account number is unknown.")
+    public void shouldCacheNegativeResult_whenAccountNumberUnknown() {
+        when(accountRepository.findIdentityByAccountNumber(UNKNOWN_NUMBER)).thenReturn(Optional.empty());
+
+        assertThat(accountIdentityCache.findByAccountNumber(UNKNOWN_NUMBER)).isEmpty();
+        assertThat(accountIdentityCache.findByAccountNumber(UNKNOWN_NUMBER)).isEmpty();
+
+        verify(accountRepository, times(1)).findIdentityByAccountNumber(UNKNOWN_NUMBER);
+    }
+
+    @Test
+    @DisplayName("Should replace a negative result when the account is opened.")
+    public void shouldReplaceNegativeResult_whenAccountPut() {
+        when(accountRepository.findIdentityByAccountNumber(FIRST_ACCOUNT.accountNumber())).thenReturn(Optional.empty());
+        assertThat(accountIdentityCache.findByAccountNumber(FIRST_ACCOUNT.accountNumber())).isEmpty();
+
+        accountIdentityCache.put(FIRST_ACCOUNT);
+
+        assertThat(accountIdentityCache.findByAccountNumber(FIRST_ACCOUNT.accountNumber())).contains(FIRST_ACCOUNT);
+        assertThat(accountIdentityCache.findById(FIRST_ACCOUNT.id())).contains(FIRST_ACCOUNT);
+    }
+
+    @Test
+    @DisplayName("Should load only the account numbers that are not cached, with a single query.")
+    public void shouldLoadMissingNumbersInOneQuery_whenResolvingManyNumbers() {
+        accountIdentityCache.put(FIRST_ACCOUNT);
+        when(accountRepository.findIdentitiesByAccountNumberIn(Set.of(SECOND_ACCOUNT.accountNumber(), UNKNOWN_NUMBER)))
+                .thenReturn(List.of(SECOND_ACCOUNT));
+
+        assertThat(accountIdentityCache.findAllByAccountNumbers(List.of(FIRST_ACCOUNT.accountNumber(), SECOND_ACCOUNT.accountNumber(), UNKNOWN_NUMBER)))
+                .containsOnlyKeys(FIRST_ACCOUNT.accountNumber(), SECOND_ACCOUNT.accountNumber());
+        assertThat(accountIdentityCache.findAllByAccountNumbers(List.of(SECOND_ACCOUNT.accountNumber(), UNKNOWN_NUMBER)))
+                .containsOnlyKeys(SECOND_ACCOUNT.accountNumber());
+
+        verify(accountRepository, times(1)).findIdentitiesByAccountNumberIn(any());
+    }
+
+    @Test
+    @DisplayName("Should not cache an unknown account id.")
+    public void shouldNotCacheUnknownAccountId() {
+        when(accountRepository.findIdentityById("missing")).thenReturn(Optional.empty());
+
+        assertThat(accountIdentityCache.findById("missing")).isEmpty();
+        assertThat(accountIdentityCache.findById("missing")).isEmpty();
+
+        verify(accountRepository, times(2)).findIdentityById("missing");
+    }
+
+    @Test
+    @DisplayName("Should forget both lookups of an account when it is deleted.")
+    public void shouldEvictIdentity_whenAccountDeleted() {
+        accountIdentityCache.put(FIRST_ACCOUNT);
+        when(accountRepository.findIdentityByAccountNumber(FIRST_ACCOUNT.accountNumber())).thenReturn(Optional.empty());
+        when(accountRepository.findIdentityById(FIRST_ACCOUNT.id())).thenReturn(Optional.empty());
+
+        accountIdentityCache.onAccountDeleted(new AccountDeletedEvent(FIRST_ACCOUNT.id(), FIRST_ACCOUNT.customerId(), FIRST_ACCOUNT.accountNumber()));
+
+        assertThat(accountIdentityCache.findByAccountNumber(FIRST_ACCOUNT.accountNumber())).isEmpty();
+        assertThat(accountIdentityCache.findById(FIRST_ACCOUNT.id())).isEmpty();
+    }
+}
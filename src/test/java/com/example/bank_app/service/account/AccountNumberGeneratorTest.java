@@ -0,0 +1,43 @@
+package com.example.bank_app.service.account;
+
+import com.example.bank_app.common.AccountNumbers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AccountNumberGeneratorTest {
+
+    private final AccountNumberGenerator accountNumberGenerator = new AccountNumberGenerator();
+
+    @Test
+    @DisplayName("Should generate sixteen digit numbers whose last digit is a valid Luhn check digit.")
+    public void shouldGenerateNumbersWithValidCheckDigit() {
+        for (int i = 0; i < 1000; i++) {
+            String accountNumber = accountNumberGenerator.generate();
+
+            assertThat(accountNumber).hasSize(16).containsOnlyDigits();
+            assertThat(AccountNumbers.hasValidCheckDigit(accountNumber)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Should append the Luhn check digit and keep leading zeros of the body.")
+    public void shouldAppendCheckDigit_whenBuiltFromBody() {
+        assertThat(AccountNumbers.fromBody(411111111111111L)).isEqualTo("4111111111111111");
+        assertThat(AccountNumbers.fromBody(0L)).isEqualTo("0000000000000000");
+        assertThat(AccountNumbers.fromBody(42L)).isEqualTo("0000000000000422");
+    }
+
+    @Test
+    @DisplayName("Should reject single digit typos, adjacent transpositions and malformed numbers.")
+    public void shouldRejectMistypedNumbers() {
+        assertThat(AccountNumbers.hasValidCheckDigit("4111111111111111")).isTrue();
+        assertThat(AccountNumbers.hasValidCheckDigit("4111111111111121")).isFalse();
+        assertThat(AccountNumbers.hasValidCheckDigit("1234567890123452")).isTrue();
+        assertThat(AccountNumbers.hasValidCheckDigit("2134567890123452")).isFalse();
+        assertThat(AccountNumbers.hasValidCheckDigit("411111111111111")).isFalse();
+        assertThat(AccountNumbers.hasValidCheckDigit("41111111111111a1")).isFalse();
+        assertThat(AccountNumbers.hasValidCheckDigit(null)).isFalse();
+    }
+}
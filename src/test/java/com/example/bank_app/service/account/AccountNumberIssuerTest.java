@@ -0,0 +1,132 @@
+package com.example.bank_app.service.account;
+
+import com.example.bank_app.config.AccountNumberProperties;
+import com.example.bank_app.exception.AccountNumberGenerationException;
+import com.example.bank_app.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AccountNumberIssuerTest {
+
+    private static final String ISSUED_NUMBER = "1111111111111117";
+    private static final String FRESH_NUMBER = "2222222222222224";
+    private static final String LEGACY_NUMBER = "1234567890123456";
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountNumberGenerator accountNumberGenerator;
+
+    private AccountNumberIssuer accountNumberIssuer;
+
+    @BeforeEach
+    void setUp() {
+        AccountNumberProperties accountNumberProperties = new AccountNumberProperties();
+        accountNumberProperties.setMaxAttempts(3);
+        accountNumberProperties.getBloomFilter().setExpectedInsertions(1000);
+        accountNumberIssuer = new AccountNumberIssuer(accountRepository, accountNumberGenerator, accountNumberProperties);
+    }
+
+    private void loadIssuedNumbers(String... accountNumbers) {
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(0);
+            for (String accountNumber : accountNumbers) {
+                consumer.accept(accountNumber);
+            }
+            return null;
+        }).when(accountRepository).forEachAccountNumber(any());
+        accountNumberIssuer.loadIssuedNumbers();
+    }
+
+    @Test
+    @DisplayName("Should use a candidate without a database lookup when the Bloom filter has never seen it.")
+    public void shouldSkipDatabaseLookup_whenCandidateNotInBloomFilter() {
+        loadIssuedNumbers(ISSUED_NUMBER);
+        when(accountNumberGenerator.generate()).thenReturn(FRESH_NUMBER);
+
+        String issued = accountNumberIssuer.issue(Function.identity());
+
+        assertThat(issued).isEqualTo(FRESH_NUMBER);
+        verify(accountRepository, never()).existsByAccountNumber(any());
+    }
+
+    @Test
+    @DisplayName("Should confirm a Bloom filter hit in the database and draw again when the number is taken.")
+    public void shouldDrawAnotherNumber_whenCandidateAlreadyIssued() {
+        loadIssuedNumbers(ISSUED_NUMBER);
+        when(accountNumberGenerator.generate()).thenReturn(ISSUED_NUMBER, FRESH_NUMBER);
+        when(accountRepository.existsByAccountNumber(ISSUED_NUMBER)).thenReturn(true);
+
+        String issued = accountNumberIssuer.issue(Function.identity());
+
+        assertThat(issued).isEqualTo(FRESH_NUMBER);
+        verify(accountRepository, times(1)).existsByAccountNumber(ISSUED_NUMBER);
+    }
+
+    @Test
+    @DisplayName("Should check the database for every candidate until the issued numbers are loaded.")
+    public void shouldCheckDatabase_whenIssuedNumbersNotLoadedYet() {
+        when(accountNumberGenerator.generate()).thenReturn(FRESH_NUMBER);
+
+        accountNumberIssuer.issue(Function.identity());
+
+        verify(accountRepository).existsByAccountNumber(FRESH_NUMBER);
+    }
+
+    @Test
+    @DisplayName("Should draw again when the unique index rejects a number issued concurrently elsewhere.")
+    public void shouldRetry_whenUniqueIndexRejectsTheNumber() {
+        loadIssuedNumbers();
+        when(accountNumberGenerator.generate()).thenReturn(ISSUED_NUMBER, FRESH_NUMBER);
+
+        String persisted = accountNumberIssuer.issue(accountNumber -> {
+            if (accountNumber.equals(ISSUED_NUMBER)) {
+                throw new DataIntegrityViolationException("uk_account_account_number");
+            }
+            return accountNumber;
+        });
+
+        assertThat(persisted).isEqualTo(FRESH_NUMBER);
+    }
+
+    @Test
+    @DisplayName("Should only treat loaded numbers as possible legacy numbers once the issued numbers are loaded.")
+    public void shouldRecognizeLegacyNumbers_whenIssuedNumbersLoaded() {
+        assertThat(accountNumberIssuer.mayBeLegacyNumber(LEGACY_NUMBER)).isTrue();
+
+        loadIssuedNumbers(ISSUED_NUMBER, LEGACY_NUMBER);
+
+        assertThat(accountNumberIssuer.mayBeLegacyNumber(LEGACY_NUMBER)).isTrue();
+        assertThat(accountNumberIssuer.mayBeLegacyNumber("6543210987654321")).isFalse();
+        assertThat(accountNumberIssuer.mayBeLegacyNumber("12345678901234a6")).isFalse();
+        assertThat(accountNumberIssuer.mayBeLegacyNumber(null)).isFalse();
+        verify(accountRepository, never()).existsByAccountNumber(any());
+    }
+
+    @Test
+    @DisplayName("Should give up after the configured number of attempts.")
+    public void shouldThrow_whenAttemptsExhausted() {
+        loadIssuedNumbers(ISSUED_NUMBER);
+        when(accountNumberGenerator.generate()).thenReturn(ISSUED_NUMBER);
+        when(accountRepository.existsByAccountNumber(ISSUED_NUMBER)).thenReturn(true);
+
+        assertThatThrownBy(() -> accountNumberIssuer.issue(Function.identity()))
+                .isInstanceOf(AccountNumberGenerationException.class);
+
+        verify(accountNumberGenerator, times(3)).generate();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.bank_app.service.archive;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionCursor;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.config.TransactionStorageProperties;
+import com.example.bank_app.dto.request.TransactionHistoryFilter;
+import com.example.bank_app.entity.TransactionEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TransactionArchiveTest {
+
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2024, 1, 10, 9, 30, 0, 123_456_000);
+    private static final LocalDateTime FEBRUARY_START = LocalDateTime.of(2024, 2, 1, 0, 0);
+    private static final LocalDateTime MARCH_START = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @TempDir
+    private Path directory;
+
+    private TransactionArchive archive() {
+        TransactionStorageProperties properties = new TransactionStorageProperties();
+        properties.getArchive().setDirectory(directory.toString());
+        properties.getArchive().setRowGroupSize(2);
+        return new TransactionArchive(properties);
+    }
+
+    private TransactionEntity transaction(String id, String sender, String receiver, TransactionType type, String amount,
+                                          LocalDateTime date, String description) {
+        return TransactionEntity
+                .builder()
+                .id(id)
+                .senderAccountId(sender)
+                .receiverAccountId(receiver)
+                .transactionType(type)
+                .amount(Money.of(amount))
+                .date(date)
+                .description(description)
+                .build();
+    }
+
+    private List<TransactionEntity> januaryRows() {
+        return List.of(
+                transaction("t1", "accountA", "accountA", TransactionType.INITIAL, "100.00", JANUARY, "Initial deposit"),
+                transaction("t2", "accountA", "accountB", TransactionType.TRANSFER, "10.50", JANUARY.plusDays(1), null),
+                transaction("t3", "accountC", "accountD", TransactionType.TRANSFER, "7.00", JANUARY.plusDays(2), "unrelated"),
+                transaction("t4", "accountB", "accountA", TransactionType.TRANSFER, "2.25", JANUARY.plusDays(3), "çay parası ☕"),
+                transaction("t5", "accountA", "accountA", TransactionType.TRANSFER, "1.00", JANUARY.plusDays(3), "to self"));
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Should page an account's archived rows newest first across row groups, continuing after the cursor.")
+    public void shouldPageArchivedRows_newestFirst() {
+        TransactionArchive archive = archive();
+        assertThat(archive.append(FEBRUARY_START, januaryRows().stream())).isEqualTo(5);
+
+        TransactionHistoryFilter filter = new TransactionHistoryFilter();
+        List<TransactionEntity> firstPage = archive.findPageByAccountId("accountA", filter, null, 2);
+        TransactionEntity last = firstPage.getLast();
+        List<TransactionEntity> secondPage = archive.findPageByAccountId("accountA", filter, new TransactionCursor(last.getDate(), last.getId()), 2);
+
+        assertThat(firstPage).extracting(TransactionEntity::getId).containsExactly("t5", "t4");
+        assertThat(secondPage).extracting(TransactionEntity::getId).containsExactly("t2", "t1");
+        assertThat(secondPage.getLast()).isEqualTo(januaryRows().getFirst());
+        assertThat(firstPage.getLast()).isEqualTo(januaryRows().get(3));
+        assertThat(archive.findPageByAccountId("accountZ", filter, null, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should apply the history filter to archived rows like the database query does.")
+    public void shouldFilterArchivedRows() {
+        TransactionArchive archive = archive();
+        archive.append(FEBRUARY_START, januaryRows().stream());
+
+        TransactionHistoryFilter transfers = TransactionHistoryFilter.builder()
+                .transactionType(TransactionType.TRANSFER)
+                .minAmount(new BigDecimal("2.25"))
+                .maxAmount(new BigDecimal("10"))
+                .build();
+        TransactionHistoryFilter window = TransactionHistoryFilter.builder()
+                .from(JANUARY.plusDays(1))
+                .to(JANUARY.plusDays(3))
+                .build();
+
+        assertThat(archive.findPageByAccountId("accountA", transfers, null, 10)).extracting(TransactionEntity::getId).containsExactly("t4");
+        assertThat(archive.findPageByAccountId("accountA", window, null, 10)).extracting(TransactionEntity::getId).containsExactly("t2");
+    }
+
+    @Test
+    @DisplayName("Should stream archived rows oldest first, merging a segment of late rows into the month it overlaps.")
+    public void shouldStreamArchivedRows_inDateOrderAcrossSegments() {
+        TransactionArchive archive = archive();
+        archive.append(FEBRUARY_START, januaryRows().stream());
+        archive.append(MARCH_START, Stream.of(
+                transaction("t6", "accountB", "accountA", TransactionType.TRANSFER, "3.00", FEBRUARY_START.plusDays(4), null)));
+        archive.append(MARCH_START, Stream.of(
+                transaction("t0", "accountA", "accountB", TransactionType.TRANSFER, "0.50", JANUARY.plusHours(1), "late")));
+
+        try (Stream<TransactionEntity> rows = archive.streamByAccountId("accountA", new TransactionHistoryFilter())) {
+            assertThat(rows).extracting(TransactionEntity::getId).containsExactly("t1", "t0", "t2", "t4", "t5", "t6");
+        }
+        assertThat(archive.findPageByAccountId("accountA", new TransactionHistoryFilter(), null, 3))
+                .extracting(TransactionEntity::getId).containsExactly("t6", "t5", "t4");
+        assertThat(archive.horizon()).contains(MARCH_START);
+    }
+
+    @Test
+    @DisplayName("Should sum the net change of archived rows inside the window, crediting INITIAL rows only once.")
+    public void shouldSumNetChangeOfArchivedRows() {
+        TransactionArchive archive = archive();
+        archive.append(FEBRUARY_START, januaryRows().stream());
+
+        assertThat(archive.sumNetChange("accountA", LocalDateTime.of(2024, 1, 1, 0, 0), FEBRUARY_START)).isEqualByComparingTo("91.75");
+        assertThat(archive.sumNetChange("accountA", JANUARY, FEBRUARY_START)).isEqualByComparingTo("-8.25");
+        assertThat(archive.sumNetChange("accountB", JANUARY, JANUARY.plusDays(1))).isEqualByComparingTo("10.50");
+    }
+
+    @Test
+    @DisplayName("Should load published segments after a restart and discard a segment that was never published.")
+    public void shouldReloadSegments_whenRestarted() throws IOException {
+        archive().append(FEBRUARY_START, januaryRows().stream());
+        Path incomplete = Files.writeString(directory.resolve("0000000000000002" + ArchiveSegment.SUFFIX + ".tmp"), "partial");
+
+        TransactionArchive reopened = archive();
+
+        assertThat(reopened.horizon()).contains(FEBRUARY_START);
+        assertThat(reopened.findIdsBetween(JANUARY, JANUARY)).containsExactlyInAnyOrder("t1", "t2", "t3", "t4", "t5");
+        assertThat(incomplete).doesNotExist();
+        reopened.append(MARCH_START, Stream.of(
+                transaction("t6", "accountB", "accountA", TransactionType.TRANSFER, "3.00", FEBRUARY_START.plusDays(4), null)));
+        assertThat(files()).extracting(file -> file.getFileName().toString())
+                .containsExactly("0000000000000001.segment", "0000000000000002.segment");
+    }
+
+    @Test
+    @DisplayName("Should not create a segment when there is nothing to archive.")
+    public void shouldSkipEmptySegment() throws IOException {
+        TransactionArchive archive = archive();
+
+        assertThat(archive.append(FEBRUARY_START, Stream.empty())).isZero();
+        assertThat(archive.horizon()).isEmpty();
+        assertThat(files()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should refuse to read a row group whose checksum does not match.")
+    public void shouldRejectCorruptRowGroup() throws IOException {
+        archive().append(FEBRUARY_START, januaryRows().stream());
+        try (RandomAccessFile file = new RandomAccessFile(files().getFirst().toFile(), "rw")) {
+            file.seek(20);
+            file.write(file.read() ^ 0xFF);
+        }
+
+        assertThatThrownBy(() -> archive().findPageByAccountId("accountA", new TransactionHistoryFilter(), null, 10))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("Could not read archive segment");
+    }
+}
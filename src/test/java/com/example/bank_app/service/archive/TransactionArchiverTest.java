@@ -0,0 +1,155 @@
+package com.example.bank_app.service.archive;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionCursor;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.dto.request.TransactionHistoryFilter;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.snapshot.BalanceSnapshotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("integration")
+public class TransactionArchiverTest {
+
+    // The archive only moves forward, so the late-row test works on earlier months than the round-trip test and
+    // can run in either order.
+    private static final LocalDateTime T0 = LocalDateTime.of(1995, 1, 5, 10, 0);
+    private static final YearMonth CUTOFF = YearMonth.of(1995, 3);
+    private static final LocalDateTime LATE_T0 = LocalDateTime.of(1992, 1, 5, 10, 0);
+    private static final YearMonth LATE_CUTOFF = YearMonth.of(1992, 3);
+
+    @TempDir
+    private static Path archiveDirectory;
+
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) {
+        registry.add("bank.transaction-storage.archive.directory", archiveDirectory::toString);
+    }
+
+    @Autowired
+    private TransactionArchiver transactionArchiver;
+
+    @Autowired
+    private TransactionArchive transactionArchive;
+
+    @Autowired
+    private TransactionHistoryReader transactionHistoryReader;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final String accountA = UUID.randomUUID().toString();
+    private final String accountB = UUID.randomUUID().toString();
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAllById(transactionRepository.findAll().stream()
+                .filter(transaction -> transaction.getDate().getYear() < 2000)
+                .map(TransactionEntity::getId)
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Should move months before the cutoff to the archive and keep history, export and balances unchanged.")
+    public void shouldArchiveOldMonths_andMergeThemIntoHistory() {
+        transactionRepository.insertAllWithAssignedIds(List.of(
+                transaction(accountA, accountA, TransactionType.INITIAL, "100.00", T0),
+                transaction(accountA, accountB, TransactionType.TRANSFER, "10.00", T0.plusDays(3)),
+                transaction(accountB, accountA, TransactionType.TRANSFER, "4.00", T0.plusMonths(1)),
+                transaction(accountA, accountB, TransactionType.TRANSFER, "1.50", T0.plusMonths(1).plusDays(1)),
+                transaction(accountA, accountB, TransactionType.TRANSFER, "2.00", T0.plusMonths(3))));
+        TransactionHistoryFilter filter = new TransactionHistoryFilter();
+        List<TransactionEntity> historyBefore = allPages(filter);
+        List<TransactionEntity> exportBefore = export(filter);
+        TransactionHistoryFilter transfersFromFebruary = TransactionHistoryFilter.builder()
+                .from(LocalDateTime.of(1995, 2, 1, 0, 0))
+                .transactionType(TransactionType.TRANSFER)
+                .build();
+        List<TransactionEntity> filteredBefore = allPages(transfersFromFebruary);
+
+        assertThat(transactionArchiver.archiveBefore(CUTOFF)).isEqualTo(4);
+
+        assertThat(transactionRepository.countOlderThan(CUTOFF.atDay(1).atStartOfDay())).isZero();
+        assertThat(transactionArchive.horizon()).contains(CUTOFF.atDay(1).atStartOfDay());
+        assertThat(allPages(filter)).hasSize(5).isEqualTo(historyBefore);
+        assertThat(export(filter)).isEqualTo(exportBefore);
+        assertThat(allPages(transfersFromFebruary)).hasSize(3).isEqualTo(filteredBefore);
+        assertThat(balanceSnapshotService.balanceAt(accountA, T0.plusDays(10))).isEqualByComparingTo("90.00");
+        assertThat(balanceSnapshotService.balanceAt(accountA, T0.plusMonths(2))).isEqualByComparingTo("92.50");
+        assertThat(balanceSnapshotService.balanceAt(accountA, T0.plusMonths(4))).isEqualByComparingTo("90.50");
+        assertThat(balanceSnapshotService.balanceAt(accountB, T0.plusMonths(4))).isEqualByComparingTo("9.50");
+    }
+
+    @Test
+    @DisplayName("Should hide rows left below the horizon until the next run archives them.")
+    public void shouldArchiveLateRows_belowTheHorizon() {
+        transactionRepository.insertAllWithAssignedIds(List.of(
+                transaction(accountA, accountA, TransactionType.INITIAL, "100.00", LATE_T0)));
+        transactionArchiver.archiveBefore(LATE_CUTOFF);
+
+        TransactionEntity late = transaction(accountA, accountB, TransactionType.TRANSFER, "5.00", LATE_T0.plusDays(1));
+        transactionRepository.insertAllWithAssignedIds(List.of(late));
+
+        assertThat(allPages(new TransactionHistoryFilter())).hasSize(1);
+        assertThat(transactionArchiver.archiveBefore(LATE_CUTOFF)).isEqualTo(1);
+        assertThat(transactionRepository.countOlderThan(LATE_CUTOFF.atDay(1).atStartOfDay())).isZero();
+        assertThat(allPages(new TransactionHistoryFilter())).extracting(TransactionEntity::getId)
+                .startsWith(late.getId())
+                .hasSize(2);
+    }
+
+    private List<TransactionEntity> allPages(TransactionHistoryFilter filter) {
+        List<TransactionEntity> rows = new ArrayList<>();
+        TransactionCursor cursor = null;
+        while (true) {
+            List<TransactionEntity> page = transactionHistoryReader.findPageByAccountId(accountA, filter, cursor, 2);
+            rows.addAll(page);
+            if (page.size() < 2) {
+                return rows;
+            }
+            cursor = new TransactionCursor(page.getLast().getDate(), page.getLast().getId());
+        }
+    }
+
+    private List<TransactionEntity> export(TransactionHistoryFilter filter) {
+        try (Stream<TransactionEntity> rows = transactionHistoryReader.streamByAccountId(accountA, filter)) {
+            return rows.toList();
+        }
+    }
+
+    private TransactionEntity transaction(String sender, String receiver, TransactionType type, String amount, LocalDateTime date) {
+        return TransactionEntity
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .senderAccountId(sender)
+                .receiverAccountId(receiver)
+                .transactionType(type)
+                .amount(Money.of(amount))
+                .date(date)
+                .description(type == TransactionType.INITIAL ? "Initial deposit" : null)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.bank_app.service.auth;
+
+import com.example.bank_app.common.AuthTokenType;
+import com.example.bank_app.config.AuthTokenProperties;
+import com.example.bank_app.dto.response.AuthTokenResponse;
+import com.example.bank_app.exception.InvalidTokenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AuthTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    private AuthTokenService authTokenService;
+
+    @BeforeEach
+    void setUp() {
+        authTokenService = new AuthTokenService(properties(SECRET, Duration.ofMinutes(15)));
+    }
+
+    private AuthTokenProperties properties(String secret, Duration accessTokenTtl) {
+        AuthTokenProperties authTokenProperties = new AuthTokenProperties();
+        authTokenProperties.setSecret(secret);
+        authTokenProperties.setAccessTokenTtl(accessTokenTtl);
+        return authTokenProperties;
+    }
+
+    @Test
+    @DisplayName("Should carry the customer id and email in a verifiable access token.")
+    public void shouldVerifyAccessToken_whenIssuedByService() {
+        AuthTokenResponse response = authTokenService.issue("customerId", "customer|one@mail.com");
+
+        assertThat(response.getTokenType()).isEqualTo("Bearer");
+        assertThat(response.getExpiresIn()).isEqualTo(900);
+        assertThat(authTokenService.verifyAccessToken(response.getAccessToken())).hasValueSatisfying(authToken -> {
+            assertThat(authToken.type()).isEqualTo(AuthTokenType.ACCESS);
+            assertThat(authToken.customerId()).isEqualTo("customerId");
+            assertThat(authToken.email()).isEqualTo("customer|one@mail.com");
+        });
+    }
+
+    @Test
+    @DisplayName("Should reject tampered tokens, tokens signed with another key and malformed tokens.")
+    public void shouldRejectAccessToken_whenNotSignedByThisKey() {
+        String accessToken = authTokenService.issue("customerId", "customer@mail.com").getAccessToken();
+        String foreignToken = new AuthTokenService(properties(null, Duration.ofMinutes(15)))
+                .issue("customerId", "customer@mail.com").getAccessToken();
+        String tampered = accessToken.substring(0, accessToken.indexOf('.') - 1) + "A" + accessToken.substring(accessToken.indexOf('.'));
+
+        assertThat(authTokenService.verifyAccessToken(tampered)).isEmpty();
+        assertThat(authTokenService.verifyAccessToken(foreignToken)).isEmpty();
+        assertThat(authTokenService.verifyAccessToken("not-a-token")).isEmpty();
+        assertThat(authTokenService.verifyAccessToken("a.b")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject expired access tokens and refresh tokens used as access tokens.")
+    public void shouldRejectAccessToken_whenExpiredOrOfWrongType() {
+        AuthTokenService expiringService = new AuthTokenService(properties(SECRET, Duration.ZERO));
+        AuthTokenResponse response = expiringService.issue("customerId", "customer@mail.com");
+
+        assertThat(expiringService.verifyAccessToken(response.getAccessToken())).isEmpty();
+        assertThat(expiringService.verifyAccessToken(response.getRefreshToken())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should accept a refresh token only once and keep the session of the rotated tokens.")
+    public void shouldRotateRefreshToken_whenRefreshed() {
+        AuthTokenResponse first = authTokenService.issue("customerId", "customer@mail.com");
+
+        AuthTokenResponse second = authTokenService.refresh(first.getRefreshToken());
+
+        assertThat(authTokenService.verifyAccessToken(second.getAccessToken()).map(AuthToken::sessionId))
+                .isEqualTo(authTokenService.verifyAccessToken(first.getAccessToken()).map(AuthToken::sessionId));
+        assertThatThrownBy(() -> authTokenService.refresh(first.getRefreshToken()))
+                .isInstanceOf(InvalidTokenException.class);
+        assertThatThrownBy(() -> authTokenService.refresh(second.getAccessToken()))
+                .isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    @DisplayName("Should stop accepting every token of a session once it is revoked.")
+    public void shouldRejectSessionTokens_whenRevoked() {
+        AuthTokenResponse response = authTokenService.issue("customerId", "customer@mail.com");
+        AuthTokenResponse otherSession = authTokenService.issue("customerId", "customer@mail.com");
+
+        authTokenService.revoke(response.getAccessToken());
+
+        assertThat(authTokenService.verifyAccessToken(response.getAccessToken())).isEmpty();
+        assertThatThrownBy(() -> authTokenService.refresh(response.getRefreshToken()))
+                .isInstanceOf(InvalidTokenException.class);
+        assertThat(authTokenService.verifyAccessToken(otherSession.getAccessToken())).isPresent();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bank_app.service.export;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionExportFormat;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.entity.TransactionEntity;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransactionExportWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final TransactionExportWriter transactionExportWriter = new TransactionExportWriter(objectMapper);
+
+    private TransactionEntity transaction(String id, String description) {
+        return TransactionEntity
+                .builder()
+                .id(id)
+                .senderAccountId("senderAccountId")
+                .receiverAccountId("receiverAccountId")
+                .transactionType(TransactionType.TRANSFER)
+                .amount(Money.of("12.50"))
+                .date(LocalDateTime.of(2024, 8, 2, 21, 15, 18))
+                .description(description)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line.")
+    public void shouldWriteOneJsonObjectPerLine_whenFormatIsNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = transactionExportWriter.write(
+                Stream.of(transaction("1", "rent"), transaction("2", null)), TransactionExportFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(written).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("id").asText()).isEqualTo("1");
+        assertThat(first.get("transactionType").asText()).isEqualTo("TRANSFER");
+        assertThat(first.get("amount").decimalValue()).isEqualByComparingTo("12.50");
+        assertThat(first.get("date").asText()).isEqualTo("2024-08-02T21:15:18");
+        assertThat(objectMapper.readTree(lines.get(1)).get("description").isNull()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should write a header and quote CSV values containing separators or quotes.")
+    public void shouldQuoteSpecialCharacters_whenFormatIsCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        transactionExportWriter.write(
+                Stream.of(transaction("1", "rent, \"august\""), transaction("2", null)), TransactionExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).containsExactly(
+                "id,senderAccountId,receiverAccountId,transactionType,amount,date,description",
+                "1,senderAccountId,receiverAccountId,TRANSFER,12.50,2024-08-02T21:15:18,\"rent, \"\"august\"\"\"",
+                "2,senderAccountId,receiverAccountId,TRANSFER,12.50,2024-08-02T21:15:18,");
+    }
+}
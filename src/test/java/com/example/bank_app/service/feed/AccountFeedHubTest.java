@@ -0,0 +1,257 @@
+package com.example.bank_app.service.feed;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.config.AccountFeedProperties;
+import com.example.bank_app.dto.response.AccountActivityResponse;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.event.AccountDeletedEvent;
+import com.example.bank_app.event.TransferCommittedEvent;
+import com.example.bank_app.mapper.TransactionMapperImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AccountFeedHubTest {
+
+    private static final Pattern EVENT_NAME = Pattern.compile("event:(\\S+)");
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+
+    private final AccountFeedProperties properties = new AccountFeedProperties();
+    private AccountFeedHub hub;
+
+    private AccountFeedHub hub() {
+        hub = new AccountFeedHub(properties, new TransactionMapperImpl());
+        return hub;
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should push a committed transfer to both accounts' subscribers with the signed balance change.")
+    public void shouldPushTransferToSenderAndReceiver() throws InterruptedException {
+        AccountFeedHub hub = hub();
+        RecordingEmitter sender = subscribe(hub, "accountA", null);
+        RecordingEmitter receiver = subscribe(hub, "accountB", null);
+        RecordingEmitter unrelated = subscribe(hub, "accountC", null);
+
+        hub.onTransferCommitted(new TransferCommittedEvent(transfer("t1", "accountA", "accountB", "12.50")));
+
+        Event sent = sender.next();
+        Event received = receiver.next();
+        assertThat(sent.name()).isEqualTo(AccountFeedHub.TRANSFER_EVENT);
+        assertThat(sent.activity().getBalanceChange()).isEqualTo(Money.of("-12.50"));
+        assertThat(sent.activity().getTransaction().getId()).isEqualTo("t1");
+        assertThat(received.activity().getAccountId()).isEqualTo("accountB");
+        assertThat(received.activity().getBalanceChange()).isEqualTo(Money.of("12.50"));
+        assertThat(unrelated.poll()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should replay the events after Last-Event-ID to a reconnecting client.")
+    public void shouldReplayMissedEvents_whenClientResumes() throws InterruptedException {
+        AccountFeedHub hub = hub();
+        RecordingEmitter first = subscribe(hub, "accountA", null);
+        hub.onTransferCommitted(new TransferCommittedEvent(transfer("t1", "accountB", "accountA", "1")));
+        String lastEventId = first.next().id();
+        hub.onTransferCommitted(new TransferCommittedEvent(transfer("t2", "accountB", "accountA", "2")));
+        hub.onTransferCommitted(new TransferCommittedEvent(transfer("t3", "accountB", "accountA", "3")));
+
+        RecordingEmitter resumed = subscribe(hub, "accountA", lastEventId);
+
+        assertThat(resumed.next().activity().getTransaction().getId()).isEqualTo("t2");
+        assertThat(resumed.next().activity().getTransaction().getId()).isEqualTo("t3");
+        hub.onTransferCommitted(new TransferCommittedEvent(transfer("t4", "accountB", "accountA", "4")));
+        assertThat(resumed.next().activity().getTransaction().getId()).isEqualTo("t4");
+    }
+
+    @Test
+    @DisplayName("Should ask the client to reload when the events after its Last-Event-ID are no longer buffered.")
+    public void shouldSendResync_whenEventsCannotBeReplayed() throws InterruptedException {
+        properties.setReplaySize(1);
+        AccountFeedHub hub = hub();
+        RecordingEmitter first = subscribe(hub, "accountA", null);
+        hub.onTransferCommitted(new TransferCommittedEvent(transfer("t1", "accountB", "accountA", "1")));
+        String lastEventId = first.next().id();
+        hub.onTransferCommitted(new TransferCommittedEvent(transfer("t2", "accountB", "accountA", "2")));
+        hub.onTransferCommitted(new TransferCommittedEvent(transfer("t3", "accountB", "accountA", "3")));
+
+        assertThat(subscribe(hub, "accountA", lastEventId).next().name()).isEqualTo(AccountFeedHub.RESYNC_EVENT);
+        assertThat(subscribe(hub, "accountA", "issued-by-another-instance-7").next().name()).isEqualTo(AccountFeedHub.RESYNC_EVENT);
+    }
+
+    @Test
+    @DisplayName("Should evict a subscriber whose buffer is full without holding up the other subscribers.")
+    public void shouldEvictSlowSubscriber() throws InterruptedException {
+        properties.setSubscriberBufferSize(2);
+        AccountFeedHub hub = hub();
+        RecordingEmitter slow = new RecordingEmitter(new CountDownLatch(1));
+        hub.subscribe("accountA", null, slow);
+        RecordingEmitter fast = subscribe(hub, "accountA", null);
+
+        for (int i = 0; i < 5; i++) {
+            hub.onTransferCommitted(new TransferCommittedEvent(transfer("t" + i, "accountB", "accountA", "1")));
+            assertThat(fast.next().activity().getTransaction().getId()).isEqualTo("t" + i);
+        }
+
+        assertThat(hub.evictedCount()).isEqualTo(1);
+        assertThat(hub.subscriberCount()).isEqualTo(2);
+        slow.release.countDown();
+        assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(awaitSubscriberCount(hub, 1)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should close the streams of a deleted account.")
+    public void shouldCloseStreams_whenAccountDeleted() throws InterruptedException {
+        AccountFeedHub hub = hub();
+        RecordingEmitter subscriber = subscribe(hub, "accountA", null);
+
+        hub.onAccountDeleted(new AccountDeletedEvent("accountA", "customerId", "1111111111111117"));
+
+        assertThat(subscriber.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(awaitSubscriberCount(hub, 0)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep an idle account's events for the retention period and then drop them.")
+    public void shouldRemoveIdleChannels_afterRetention() throws InterruptedException {
+        AccountFeedHub hub = hub();
+        String lastEventId = disconnectAfterFirstEvent(hub, "accountA");
+
+        hub.removeIdleChannels();
+        assertThat(subscribe(hub, "accountA", lastEventId).next().activity().getTransaction().getId()).isEqualTo("undelivered");
+
+        properties.setReplayRetention(Duration.ZERO);
+        String expiredEventId = disconnectAfterFirstEvent(hub, "accountC");
+        hub.removeIdleChannels();
+        assertThat(subscribe(hub, "accountC", expiredEventId).next().name()).isEqualTo(AccountFeedHub.RESYNC_EVENT);
+    }
+
+    // Returns the id of the last event the client received; the next event fails to send and closes the stream.
+    private String disconnectAfterFirstEvent(AccountFeedHub hub, String accountId) throws InterruptedException {
+        RecordingEmitter subscriber = subscribe(hub, accountId, null);
+        int subscribers = hub.subscriberCount();
+        hub.onTransferCommitted(new TransferCommittedEvent(transfer("delivered", "accountB", accountId, "1")));
+        String lastEventId = subscriber.next().id();
+        subscriber.disconnected = true;
+        hub.onTransferCommitted(new TransferCommittedEvent(transfer("undelivered", "accountB", accountId, "1")));
+        assertThat(awaitSubscriberCount(hub, subscribers - 1)).isEqualTo(subscribers - 1);
+        return lastEventId;
+    }
+
+    private static RecordingEmitter subscribe(AccountFeedHub hub, String accountId, String lastEventId) {
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        hub.subscribe(accountId, lastEventId, emitter);
+        return emitter;
+    }
+
+    private static int awaitSubscriberCount(AccountFeedHub hub, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (hub.subscriberCount() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return hub.subscriberCount();
+    }
+
+    private static TransactionEntity transfer(String id, String sender, String receiver, String amount) {
+        return TransactionEntity
+                .builder()
+                .id(id)
+                .senderAccountId(sender)
+                .receiverAccountId(receiver)
+                .transactionType(TransactionType.TRANSFER)
+                .amount(Money.of(amount))
+                .date(LocalDateTime.of(2024, 8, 2, 21, 15, 18))
+                .build();
+    }
+
+    private record Event(String name, String id, AccountActivityResponse activity) {
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile boolean disconnected;
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+            if (release != null) {
+                awaitUninterruptibly(release);
+            }
+            StringBuilder text = new StringBuilder();
+            AccountActivityResponse activity = null;
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof AccountActivityResponse data) {
+                    activity = data;
+                } else {
+                    text.append(part.getData());
+                }
+            }
+            if (text.toString().startsWith(":")) {
+                return;
+            }
+            events.add(new Event(match(EVENT_NAME, text), match(EVENT_ID, text), activity));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        private Event next() throws InterruptedException {
+            Event event = events.poll(5, TimeUnit.SECONDS);
+            assertThat(event).as("event within 5s").isNotNull();
+            return event;
+        }
+
+        private Event poll() throws InterruptedException {
+            return events.poll(200, TimeUnit.MILLISECONDS);
+        }
+
+        private static String match(Pattern pattern, CharSequence text) {
+            Matcher matcher = pattern.matcher(text);
+            return matcher.find() ? matcher.group(1) : null;
+        }
+
+        private static void awaitUninterruptibly(CountDownLatch latch) {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    latch.await();
+                    break;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
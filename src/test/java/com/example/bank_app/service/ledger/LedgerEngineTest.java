@@ -0,0 +1,306 @@
+package com.example.bank_app.service.ledger;
+
+import com.example.bank_app.common.AccountIdentity;
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.config.AccountIdentityCacheProperties;
+import com.example.bank_app.config.LedgerProperties;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.event.AccountDeletedEvent;
+import com.example.bank_app.exception.AccountNotFoundByNumberException;
+import com.example.bank_app.exception.AccountNotFoundException;
+import com.example.bank_app.exception.BalanceIsNotEnoughException;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.account.AccountIdentityCache;
+import com.example.bank_app.service.archive.TransactionArchive;
+import com.example.bank_app.service.outbox.OutboxService;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerEngineTest {
+
+    // With two shards "a" and "c" share a shard, "b" lives on the other one.
+    private static final String ACCOUNT_A = "a";
+    private static final String ACCOUNT_B = "b";
+    private static final String ACCOUNT_C = "c";
+    private static final String ACCOUNT_E = "e";
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionArchive transactionArchive;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private MonthlyStatementService monthlyStatementService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Captor
+    private ArgumentCaptor<List<TransactionEntity>> transactionsCaptor;
+
+    @Captor
+    private ArgumentCaptor<Map<String, Money>> deltasCaptor;
+
+    @TempDir
+    private Path journalDirectory;
+
+    private LedgerProperties ledgerProperties;
+    private AccountIdentityCache accountIdentityCache;
+    private LedgerEngine ledgerEngine;
+
+    @BeforeEach
+    void setUp() {
+        ledgerProperties = new LedgerProperties();
+        ledgerProperties.setShards(2);
+        ledgerProperties.setRingBufferSize(16);
+        ledgerProperties.getWriteBehind().setFlushInterval(Duration.ofMillis(10));
+        ledgerProperties.getJournal().setDirectory(journalDirectory.toString());
+        accountIdentityCache = new AccountIdentityCache(accountRepository, new AccountIdentityCacheProperties());
+
+        when(accountRepository.findAll()).thenReturn(List.of(
+                account(ACCOUNT_A, "customerA", "1000", Money.of("100")),
+                account(ACCOUNT_B, "customerB", "2000", Money.ZERO),
+                account(ACCOUNT_C, "customerC", "3000", Money.ZERO)));
+
+        ledgerEngine = new LedgerEngine(ledgerProperties, accountRepository, accountIdentityCache, transactionRepository, transactionArchive,
+                new TransactionTemplate(transactionManager), monthlyStatementService, outboxService);
+        ledgerEngine.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ledgerEngine.isRunning()) {
+            ledgerEngine.stop();
+        }
+    }
+
+    private AccountEntity account(String id, String customerId, String accountNumber, Money balance) {
+        return AccountEntity.builder().id(id).customerId(customerId).accountNumber(accountNumber).balance(balance).build();
+    }
+
+    private TransactionEntity transfer(String senderCustomerId, String senderAccountId, String receiverAccountNumber, long amount) {
+        try {
+            return ledgerEngine.transfer(senderCustomerId, senderAccountId, receiverAccountNumber, Money.of(BigDecimal.valueOf(amount)), "description").join();
+        } catch (CompletionException ex) {
+            throw (RuntimeException) ex.getCause();
+        }
+    }
+
+    private Map<String, Money> persistedDeltasAfterStop() {
+        ledgerEngine.stop();
+        verify(accountRepository, atLeastOnce()).applyBalanceDeltas(deltasCaptor.capture());
+        return deltasCaptor.getAllValues().stream()
+                .flatMap(deltas -> deltas.entrySet().stream())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, Money::plus));
+    }
+
+    @Test
+    @DisplayName("Should apply transfers within a shard and across shards from the state rebuilt at startup and write their deltas behind.")
+    public void shouldApplyTransfersAndWriteBehind_whenAccountsRebuiltFromDatabase() {
+        TransactionEntity sameShard = transfer("customerA", ACCOUNT_A, "3000", 30);
+        TransactionEntity crossShard = transfer("customerA", ACCOUNT_A, "2000", 20);
+
+        assertThat(sameShard.getId()).isNotNull();
+        assertThat(sameShard.getReceiverAccountId()).isEqualTo(ACCOUNT_C);
+        assertThat(sameShard.getTransactionType()).isEqualTo(TransactionType.TRANSFER);
+        assertThat(sameShard.getDate()).isNotNull();
+        assertThat(crossShard.getReceiverAccountId()).isEqualTo(ACCOUNT_B);
+
+        Map<String, Money> deltas = persistedDeltasAfterStop();
+        assertThat(deltas).containsEntry(ACCOUNT_A, Money.of("-50"))
+                .containsEntry(ACCOUNT_B, Money.of("20"))
+                .containsEntry(ACCOUNT_C, Money.of("30"));
+
+        verify(transactionRepository, atLeastOnce()).insertAllWithAssignedIds(transactionsCaptor.capture());
+        assertThat(transactionsCaptor.getAllValues().stream().flatMap(List::stream).toList()).containsExactlyInAnyOrder(sameShard, crossShard);
+        transactionsCaptor.getAllValues().forEach(flushed -> verify(monthlyStatementService).record(flushed));
+        transactionsCaptor.getAllValues().forEach(flushed -> verify(outboxService).recordTransfers(flushed));
+        verify(accountRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should reject the transfer and write nothing when sender balance is not enough.")
+    public void shouldRejectTransfer_whenSenderBalanceIsNotEnough() {
+        assertThatThrownBy(() -> transfer("customerA", ACCOUNT_A, "2000", 101))
+                .isInstanceOf(BalanceIsNotEnoughException.class)
+                .hasMessageContaining("Your balance: " + Money.of("100"));
+
+        ledgerEngine.stop();
+        verify(transactionRepository, never()).insertAllWithAssignedIds(anyList());
+        verify(accountRepository, never()).applyBalanceDeltas(anyMap());
+    }
+
+    @Test
+    @DisplayName("Should reject the transfer when the sender account belongs to another customer.")
+    public void shouldRejectTransfer_whenSenderAccountBelongsToAnotherCustomer() {
+        assertThatThrownBy(() -> transfer("customerB", ACCOUNT_A, "2000", 10))
+                .isInstanceOf(AccountNotFoundException.class)
+                .hasMessageContaining("Account can not found by id: " + ACCOUNT_A);
+    }
+
+    @Test
+    @DisplayName("Should reject the transfer without touching a shard when the receiver account number is unknown.")
+    public void shouldRejectTransfer_whenReceiverAccountNumberUnknown() {
+        when(accountRepository.findIdentityByAccountNumber("9999")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> transfer("customerA", ACCOUNT_A, "9999", 10))
+                .isInstanceOf(AccountNotFoundByNumberException.class)
+                .hasMessageContaining("Account can not found by number: 9999");
+    }
+
+    @Test
+    @DisplayName("Should refund the prepared debit when the cross-shard receiver disappeared before the commit phase.")
+    public void shouldRefundSender_whenCrossShardReceiverWasEvicted() {
+        AccountDeletedEvent deleted = new AccountDeletedEvent(ACCOUNT_B, "customerB", "2000");
+        ledgerEngine.onAccountDeleted(deleted);
+        accountIdentityCache.onAccountDeleted(deleted);
+        when(accountRepository.findIdentityByAccountNumber("2000")).thenReturn(Optional.of(new AccountIdentity(ACCOUNT_B, "2000", "customerB")));
+        when(accountRepository.findById(ACCOUNT_B)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> transfer("customerA", ACCOUNT_A, "2000", 40))
+                .isInstanceOf(AccountNotFoundByNumberException.class);
+
+        ledgerEngine.stop();
+        verify(transactionRepository, never()).insertAllWithAssignedIds(anyList());
+        verify(accountRepository, never()).applyBalanceDeltas(anyMap());
+    }
+
+    @Test
+    @DisplayName("Should load an account opened after startup on the submitting thread rather than on a shard thread.")
+    public void shouldLoadAccountOnSubmitter_whenShardDoesNotHoldIt() {
+        List<String> loadingThreads = new CopyOnWriteArrayList<>();
+        when(accountRepository.findIdentityByAccountNumber("5000")).thenReturn(Optional.of(new AccountIdentity(ACCOUNT_E, "5000", "customerE")));
+        when(accountRepository.findById(ACCOUNT_E)).thenAnswer(invocation -> {
+            loadingThreads.add(Thread.currentThread().getName());
+            return Optional.of(account(ACCOUNT_E, "customerE", "5000", Money.ZERO));
+        });
+
+        transfer("customerA", ACCOUNT_A, "5000", 10);
+        transfer("customerA", ACCOUNT_A, "5000", 5);
+
+        assertThat(loadingThreads).containsExactly(Thread.currentThread().getName());
+        verify(accountRepository, times(1)).findIdentityByAccountNumber("5000");
+        assertThat(persistedDeltasAfterStop()).containsEntry(ACCOUNT_E, Money.of("15"));
+    }
+
+    @Test
+    @DisplayName("Should replay journaled transfers the database is missing before rebuilding the accounts on restart.")
+    public void shouldReplayMissingTransfers_whenRestartedOverJournal() {
+        TransactionEntity persisted = transfer("customerA", ACCOUNT_A, "2000", 10);
+        TransactionEntity lost = transfer("customerA", ACCOUNT_A, "3000", 15);
+        ledgerEngine.stop();
+        clearInvocations(transactionRepository, accountRepository);
+
+        when(transactionRepository.findAllById(anyList())).thenReturn(List.of(persisted));
+        ledgerEngine = new LedgerEngine(ledgerProperties, accountRepository, accountIdentityCache, transactionRepository, transactionArchive,
+                new TransactionTemplate(transactionManager), monthlyStatementService, outboxService);
+        ledgerEngine.start();
+
+        verify(transactionRepository).insertAllWithAssignedIds(transactionsCaptor.capture());
+        assertThat(transactionsCaptor.getValue()).extracting(TransactionEntity::getId).containsExactly(lost.getId());
+        verify(accountRepository).applyBalanceDeltas(deltasCaptor.capture());
+        assertThat(deltasCaptor.getValue()).containsExactly(
+                Map.entry(ACCOUNT_A, Money.of("-15")),
+                Map.entry(ACCOUNT_C, Money.of("15")));
+        InOrder inOrder = inOrder(transactionRepository, accountRepository);
+        inOrder.verify(transactionRepository).insertAllWithAssignedIds(anyList());
+        inOrder.verify(accountRepository).findAll();
+    }
+
+    @Test
+    @DisplayName("Should not replay a journaled transfer whose row was already archived out of the transaction table.")
+    public void shouldNotReplayTransfer_whenAlreadyArchived() {
+        TransactionEntity archived = transfer("customerA", ACCOUNT_A, "2000", 10);
+        ledgerEngine.stop();
+        clearInvocations(transactionRepository, accountRepository);
+
+        when(transactionArchive.horizon()).thenReturn(Optional.of(archived.getDate().plusSeconds(1)));
+        when(transactionArchive.findIdsBetween(archived.getDate(), archived.getDate().plusSeconds(1))).thenReturn(Set.of(archived.getId()));
+        ledgerEngine = new LedgerEngine(ledgerProperties, accountRepository, accountIdentityCache, transactionRepository, transactionArchive,
+                new TransactionTemplate(transactionManager), monthlyStatementService, outboxService);
+        ledgerEngine.start();
+
+        verify(transactionRepository).findAllById(List.of(archived.getId()));
+        verify(transactionRepository, never()).insertAllWithAssignedIds(anyList());
+        verify(accountRepository, never()).applyBalanceDeltas(anyMap());
+    }
+
+    @Test
+    @DisplayName("Should keep applying opposing cross-shard transfers when every ring buffer is full.")
+    public void shouldNotDeadlock_whenOpposingCrossShardTransfersFillTinyRingBuffers() throws Exception {
+        ledgerEngine.stop();
+        ledgerProperties.setRingBufferSize(1);
+        when(accountRepository.findAll()).thenReturn(List.of(
+                account(ACCOUNT_A, "customerA", "1000", Money.of("10000")),
+                account(ACCOUNT_B, "customerB", "2000", Money.of("10000"))));
+        ledgerEngine = new LedgerEngine(ledgerProperties, accountRepository, accountIdentityCache, transactionRepository, transactionArchive,
+                new TransactionTemplate(transactionManager), monthlyStatementService, outboxService);
+        ledgerEngine.start();
+
+        int submitters = 16;
+        int transfersPerSubmitter = 200;
+        List<CompletableFuture<TransactionEntity>> transfers = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (int submitter = 0; submitter < submitters; submitter++) {
+            boolean fromA = submitter % 2 == 0;
+            executor.execute(() -> {
+                for (int i = 0; i < transfersPerSubmitter; i++) {
+                    transfers.add(fromA
+                            ? ledgerEngine.transfer("customerA", ACCOUNT_A, "2000", Money.of("1"), "a to b")
+                            : ledgerEngine.transfer("customerB", ACCOUNT_B, "1000", Money.of("1"), "b to a"));
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).as("all transfers submitted").isTrue();
+        CompletableFuture.allOf(transfers.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        ledgerEngine.stop();
+        verify(transactionRepository, atLeastOnce()).insertAllWithAssignedIds(transactionsCaptor.capture());
+        assertThat(transactionsCaptor.getAllValues().stream().mapToInt(List::size).sum()).isEqualTo(submitters * transfersPerSubmitter);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.bank_app.service.ledger;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.config.LedgerProperties;
+import com.example.bank_app.entity.TransactionEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LedgerJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    private final List<JournaledTransfer> durable = new CopyOnWriteArrayList<>();
+
+    private LedgerJournal journal(int recordsPerSegment) {
+        return journal(recordsPerSegment, durable::add);
+    }
+
+    private LedgerJournal journal(int recordsPerSegment, Consumer<JournaledTransfer> onDurable) {
+        LedgerProperties.Journal properties = new LedgerProperties.Journal();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofBytes((long) recordsPerSegment * LedgerJournal.RECORD_SIZE));
+        return new LedgerJournal(properties, onDurable);
+    }
+
+    private TransactionEntity transaction(String amount, String description) {
+        return TransactionEntity
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .senderAccountId(UUID.randomUUID().toString())
+                .receiverAccountId(UUID.randomUUID().toString())
+                .transactionType(TransactionType.TRANSFER)
+                .amount(Money.of(amount))
+                .date(LocalDateTime.of(2024, 8, 2, 21, 15, 18, 123_456_000))
+                .description(description)
+                .build();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand durable transfers to the consumer in order and read them back after a restart.")
+    public void shouldRecoverAppendedTransfers_whenRestarted() throws Exception {
+        TransactionEntity first = transaction("10.25", "rent");
+        TransactionEntity second = transaction("92233720368547758.07", null);
+        TransactionEntity third = transaction("0.01", "çay parası ☕");
+
+        LedgerJournal journal = journal(16);
+        assertThat(journal.recover()).isEmpty();
+        journal.start();
+        journal.append(first).join();
+        journal.append(second).join();
+        journal.append(third).join();
+        journal.stop();
+
+        assertThat(durable).extracting(JournaledTransfer::sequence).containsExactly(1L, 2L, 3L);
+        assertThat(journal(16).recover()).containsExactly(
+                new JournaledTransfer(1, first),
+                new JournaledTransfer(2, second),
+                new JournaledTransfer(3, third));
+    }
+
+    @Test
+    @DisplayName("Should stop recovery at a torn record and continue numbering after the last intact one.")
+    public void shouldIgnoreTornRecord_whenRecovering() throws Exception {
+        LedgerJournal journal = journal(16);
+        journal.recover();
+        journal.start();
+        journal.append(transaction("1", "a")).join();
+        journal.append(transaction("2", "b")).join();
+        journal.stop();
+
+        try (RandomAccessFile segment = new RandomAccessFile(segments().getFirst().toFile(), "rw")) {
+            segment.seek(LedgerJournal.RECORD_SIZE + 100);
+            segment.write(0x7f);
+        }
+
+        LedgerJournal restarted = journal(16);
+        assertThat(restarted.recover()).extracting(JournaledTransfer::sequence).containsExactly(1L);
+        restarted.start();
+        restarted.append(transaction("3", "c")).join();
+        restarted.stop();
+
+        assertThat(durable.getLast().sequence()).isEqualTo(2L);
+        assertThat(segments()).hasSize(1);
+        assertThat(segments().getFirst().getFileName().toString()).startsWith("00000000000000000002");
+    }
+
+    @Test
+    @DisplayName("Should move the segments after a torn record that is followed by more records to quarantine instead of deleting them.")
+    public void shouldQuarantineUnreadSegments_whenTornRecordIsNotTheTail() throws Exception {
+        LedgerJournal journal = journal(2);
+        journal.recover();
+        journal.start();
+        for (int i = 0; i < 5; i++) {
+            journal.append(transaction("1", "transfer " + i)).join();
+        }
+        journal.stop();
+        List<Path> written = segments();
+        assertThat(written).hasSize(3);
+
+        try (RandomAccessFile segment = new RandomAccessFile(written.get(1).toFile(), "rw")) {
+            segment.seek(100);
+            segment.write(0x7f);
+        }
+
+        LedgerJournal restarted = journal(2);
+        assertThat(restarted.recover()).extracting(JournaledTransfer::sequence).containsExactly(1L, 2L);
+        restarted.start();
+        restarted.stop();
+
+        Path quarantine = directory.resolve("quarantine");
+        try (Stream<Path> quarantined = Files.walk(quarantine)) {
+            assertThat(quarantined.filter(Files::isRegularFile).map(Path::getFileName).toList())
+                    .containsExactlyInAnyOrder(written.get(1).getFileName(), written.get(2).getFileName());
+        }
+        assertThat(written.getFirst()).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should fail the pending appenders and reject every later append once a sync fails.")
+    public void shouldRejectAppends_afterSyncFailure() throws InterruptedException {
+        LedgerJournal journal = journal(16, transfer -> {
+            throw new IllegalStateException("Write-behind unavailable");
+        });
+        journal.recover();
+        journal.start();
+
+        CompletableFuture<Void> failed = journal.append(transaction("1", "a"));
+
+        assertThatThrownBy(failed::join).hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("could not confirm that the transfer is durable");
+        assertThat(journal.isFailed()).isTrue();
+        assertThatThrownBy(() -> journal.append(transaction("2", "b")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("stopped accepting transfers");
+        journal.stop();
+    }
+
+    @Test
+    @DisplayName("Should rotate full segments and delete sealed segments once their records are applied.")
+    public void shouldRotateAndDeleteAppliedSegments() throws Exception {
+        LedgerJournal journal = journal(2);
+        journal.recover();
+        journal.start();
+        for (int i = 0; i < 5; i++) {
+            journal.append(transaction("1", "transfer " + i)).join();
+        }
+
+        assertThat(segments()).hasSize(3);
+        journal.markApplied(3);
+        assertThat(segments()).hasSize(2);
+        journal.markApplied(5);
+        assertThat(segments()).hasSize(1);
+        journal.stop();
+
+        assertThat(journal(2).recover()).extracting(JournaledTransfer::sequence).containsExactly(5L);
+    }
+
+    @Test
+    @DisplayName("Should reject a transfer that does not fit in a fixed-size record.")
+    public void shouldRejectTransfer_whenDescriptionDoesNotFit() throws InterruptedException {
+        LedgerJournal journal = journal(16);
+        journal.recover();
+        journal.start();
+
+        try {
+            assertThatThrownBy(() -> journal.append(transaction("1", "☕".repeat(400))))
+                    .isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            journal.stop();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.bank_app.service.outbox;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.OutboxEventType;
+import com.example.bank_app.config.OutboxProperties;
+import com.example.bank_app.dto.model.AccountDto;
+import com.example.bank_app.dto.request.NewAccountRequest;
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.dto.response.AccountActivityResponse;
+import com.example.bank_app.entity.OutboxEventEntity;
+import com.example.bank_app.exception.BalanceIsNotEnoughException;
+import com.example.bank_app.repository.OutboxEventRepository;
+import com.example.bank_app.service.AccountService;
+import com.example.bank_app.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The dispatcher runs against the real outbox; the scheduled one is disabled in the integration profile, so every
+ * delivery here comes from an explicit {@link OutboxDispatcher#dispatch}.
+ */
+@SpringBootTest
+@ActiveProfiles("integration")
+public class OutboxDispatcherTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String customerId = UUID.randomUUID().toString();
+    private final RecordingSink sink = new RecordingSink();
+    private OutboxDispatcher dispatcher;
+    private AccountDto sender;
+    private AccountDto receiver;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM outbox_event");
+        jdbcTemplate.update("UPDATE outbox_partition SET claimed_by = NULL, claimed_until = NULL");
+        OutboxProperties properties = new OutboxProperties();
+        properties.getDispatcher().setBatchSize(2);
+        dispatcher = new OutboxDispatcher(outboxEventRepository, sink, transactionTemplate, properties);
+
+        sender = accountService.addNewAccount(customerId, initialBalance("100.00"));
+        receiver = accountService.addNewAccount(customerId, initialBalance("0.00"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (AccountDto account : List.of(sender, receiver)) {
+            jdbcTemplate.update("DELETE FROM transaction WHERE sender_account_id = ? OR receiver_account_id = ?", account.getId(), account.getId());
+            jdbcTemplate.update("DELETE FROM monthly_statement WHERE account_id = ?", account.getId());
+            jdbcTemplate.update("DELETE FROM account WHERE id = ?", account.getId());
+        }
+        jdbcTemplate.update("DELETE FROM outbox_event");
+        jdbcTemplate.update("UPDATE outbox_partition SET claimed_by = NULL, claimed_until = NULL");
+    }
+
+    @Test
+    @DisplayName("Should deliver the account openings and both sides of every committed transfer, in order per account, outside a transaction.")
+    public void shouldDeliverCommittedEvents_inOrderPerAccount() throws IOException {
+        transfer("10.00");
+        transfer("20.00");
+        assertThatThrownBy(() -> transfer("500.00")).isInstanceOf(BalanceIsNotEnoughException.class);
+
+        assertThat(dispatcher.dispatch()).isEqualTo(6);
+
+        assertThat(typesOf(sender.getId())).containsExactly(OutboxEventType.ACCOUNT_CREATED, OutboxEventType.TRANSFER, OutboxEventType.TRANSFER);
+        assertThat(balanceChangesOf(sender.getId())).containsExactly(Money.of("-10.00"), Money.of("-20.00"));
+        assertThat(typesOf(receiver.getId())).containsExactly(OutboxEventType.ACCOUNT_CREATED, OutboxEventType.TRANSFER, OutboxEventType.TRANSFER);
+        assertThat(balanceChangesOf(receiver.getId())).containsExactly(Money.of("10.00"), Money.of("20.00"));
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(dispatcher.dispatchedCount()).isEqualTo(6);
+        assertThat(dispatcher.lagSeconds()).isZero();
+        assertThat(sink.publishedInTransaction).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep a batch the sink rejected and deliver it on the next dispatch.")
+    public void shouldRedeliverBatch_whenSinkFails() {
+        sink.failing = true;
+
+        assertThat(dispatcher.dispatch()).isZero();
+        assertThat(dispatcher.failedBatchCount()).isPositive();
+        assertThat(outboxEventRepository.count()).isEqualTo(2);
+
+        sink.failing = false;
+        assertThat(dispatcher.dispatch()).isEqualTo(2);
+        assertThat(typesOf(sender.getId())).containsExactly(OutboxEventType.ACCOUNT_CREATED);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should skip a partition another dispatcher has claimed instead of waiting for it.")
+    public void shouldSkipPartition_claimedByAnotherDispatcher() throws InterruptedException {
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread otherDispatcher = Thread.ofVirtual().start(() -> transactionTemplate.executeWithoutResult(status -> {
+            assertThat(outboxEventRepository.tryLockUnclaimedPartition(OutboxService.partitionOf(sender.getId()), LocalDateTime.now())).isTrue();
+            claimed.countDown();
+            awaitUninterruptibly(release);
+        }));
+        assertThat(claimed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        dispatcher.dispatch();
+        assertThat(typesOf(sender.getId())).isEmpty();
+
+        release.countDown();
+        otherDispatcher.join();
+        dispatcher.dispatch();
+        assertThat(typesOf(sender.getId())).containsExactly(OutboxEventType.ACCOUNT_CREATED);
+    }
+
+    @Test
+    @DisplayName("Should skip a partition while another dispatcher's claim lasts and take it over once the claim expires.")
+    public void shouldTakeOverPartition_whenAnotherDispatchersClaimExpires() {
+        int partitionId = OutboxService.partitionOf(sender.getId());
+        claimByAnotherDispatcher(partitionId, LocalDateTime.now().plusMinutes(1));
+
+        dispatcher.dispatch();
+        assertThat(typesOf(sender.getId())).isEmpty();
+
+        claimByAnotherDispatcher(partitionId, LocalDateTime.now().minusSeconds(1));
+        dispatcher.dispatch();
+        assertThat(typesOf(sender.getId())).containsExactly(OutboxEventType.ACCOUNT_CREATED);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_partition WHERE claimed_by IS NOT NULL", Integer.class)).isZero();
+    }
+
+    private void claimByAnotherDispatcher(int partitionId, LocalDateTime claimedUntil) {
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.claimPartition(partitionId, "another-dispatcher", claimedUntil));
+    }
+
+    private void transfer(String amount) {
+        transactionService.addNewTransaction(customerId, sender.getId(), NewMoneyTransferRequest
+                .builder()
+                .receiverAccountNumber(receiver.getAccountNumber())
+                .amount(Money.of(amount))
+                .build(), null);
+    }
+
+    private List<OutboxEventType> typesOf(String accountId) {
+        return deliveredTo(accountId).stream().map(OutboxEventEntity::getEventType).toList();
+    }
+
+    private List<Money> balanceChangesOf(String accountId) throws IOException {
+        List<Money> balanceChanges = new ArrayList<>();
+        for (OutboxEventEntity event : deliveredTo(accountId)) {
+            if (event.getEventType() == OutboxEventType.TRANSFER) {
+                balanceChanges.add(objectMapper.readValue(event.getPayload(), AccountActivityResponse.class).getBalanceChange());
+            }
+        }
+        return balanceChanges;
+    }
+
+    private List<OutboxEventEntity> deliveredTo(String accountId) {
+        List<OutboxEventEntity> delivered = sink.delivered.stream().filter(event -> event.getAccountId().equals(accountId)).toList();
+        assertThat(delivered).extracting(OutboxEventEntity::getId).isSorted();
+        return delivered;
+    }
+
+    private static NewAccountRequest initialBalance(String amount) {
+        NewAccountRequest request = new NewAccountRequest();
+        request.setInitialBalance(Money.of(amount));
+        return request;
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class RecordingSink implements OutboxSink {
+
+        private final List<OutboxEventEntity> delivered = new CopyOnWriteArrayList<>();
+        private volatile boolean failing;
+        private volatile boolean publishedInTransaction;
+
+        @Override
+        public void publish(List<OutboxEventEntity> events) throws IOException {
+            publishedInTransaction |= TransactionSynchronizationManager.isActualTransactionActive();
+            if (failing) {
+                throw new IOException("Sink unavailable");
+            }
+            delivered.addAll(events);
+        }
+    }
+}
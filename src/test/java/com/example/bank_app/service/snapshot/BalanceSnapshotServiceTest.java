@@ -0,0 +1,153 @@
+package com.example.bank_app.service.snapshot;
+
+import com.example.bank_app.config.BalanceSnapshotProperties;
+import com.example.bank_app.entity.BalanceSnapshotCheckpointEntity;
+import com.example.bank_app.entity.BalanceSnapshotEntity;
+import com.example.bank_app.repository.BalanceSnapshotCheckpointRepository;
+import com.example.bank_app.repository.BalanceSnapshotRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.archive.TransactionHistoryReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BalanceSnapshotServiceTest {
+
+    private static final LocalDateTime PREVIOUS = LocalDateTime.of(2024, 8, 2, 21, 0);
+    private static final LocalDateTime AS_OF = LocalDateTime.of(2024, 8, 2, 21, 5);
+
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Mock
+    private BalanceSnapshotCheckpointRepository balanceSnapshotCheckpointRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionHistoryReader transactionHistoryReader;
+
+    @Captor
+    private ArgumentCaptor<List<BalanceSnapshotEntity>> snapshotsCaptor;
+
+    @Captor
+    private ArgumentCaptor<BalanceSnapshotCheckpointEntity> checkpointCaptor;
+
+    private BalanceSnapshotProperties properties;
+
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BalanceSnapshotProperties();
+        balanceSnapshotService = new BalanceSnapshotService(balanceSnapshotRepository, balanceSnapshotCheckpointRepository,
+                transactionRepository, transactionHistoryReader, new TransactionTemplate(mock(PlatformTransactionManager.class)), properties);
+    }
+
+    @Test
+    @DisplayName("Should snapshot only the accounts that moved since the last checkpoint, on top of their latest snapshot.")
+    public void shouldSnapshotChangedAccounts_whenTransactionsSinceLastCheckpoint() {
+        when(balanceSnapshotCheckpointRepository.findFirstByOrderByAsOfDesc())
+                .thenReturn(Optional.of(checkpoint(PREVIOUS, BalanceSnapshotService.EPOCH)));
+        when(transactionRepository.sumNetChangeByAccount(PREVIOUS, AS_OF))
+                .thenReturn(Map.of("accountA", new BigDecimal("10.00"), "accountB", new BigDecimal("-5.00")));
+        when(balanceSnapshotRepository.findLatestByAccountIdIn(anyCollection()))
+                .thenReturn(List.of(snapshot("accountA", PREVIOUS, "100.00")));
+
+        int accounts = balanceSnapshotService.createSnapshots(AS_OF);
+
+        assertThat(accounts).isEqualTo(2);
+        verify(balanceSnapshotCheckpointRepository).saveAndFlush(checkpointCaptor.capture());
+        assertThat(checkpointCaptor.getValue().getAsOf()).isEqualTo(AS_OF);
+        assertThat(checkpointCaptor.getValue().getPreviousAsOf()).isEqualTo(PREVIOUS);
+        assertThat(checkpointCaptor.getValue().getAccounts()).isEqualTo(2);
+
+        verify(balanceSnapshotRepository).insertAllWithAssignedIds(snapshotsCaptor.capture());
+        assertThat(snapshotsCaptor.getValue())
+                .allSatisfy(snapshot -> {
+                    assertThat(snapshot.getId()).isNotNull();
+                    assertThat(snapshot.getAsOf()).isEqualTo(AS_OF);
+                })
+                .extracting(BalanceSnapshotEntity::getAccountId, BalanceSnapshotEntity::getBalance)
+                .containsExactlyInAnyOrder(
+                        tuple("accountA", new BigDecimal("110.00")),
+                        tuple("accountB", new BigDecimal("-5.00")));
+    }
+
+    @Test
+    @DisplayName("Should write the snapshots of a run in batches of the configured size.")
+    public void shouldInsertSnapshotsInBatches_whenManyAccountsChanged() {
+        properties.setBatchSize(2);
+        when(balanceSnapshotCheckpointRepository.findFirstByOrderByAsOfDesc()).thenReturn(Optional.empty());
+        when(transactionRepository.sumNetChangeByAccount(BalanceSnapshotService.EPOCH, AS_OF))
+                .thenReturn(Map.of("a", BigDecimal.ONE, "b", BigDecimal.ONE, "c", BigDecimal.ONE));
+
+        assertThat(balanceSnapshotService.createSnapshots(AS_OF)).isEqualTo(3);
+
+        verify(balanceSnapshotRepository, times(2)).findLatestByAccountIdIn(anyCollection());
+        verify(balanceSnapshotRepository, times(2)).insertAllWithAssignedIds(snapshotsCaptor.capture());
+        assertThat(snapshotsCaptor.getAllValues()).extracting(List::size).containsExactly(2, 1);
+    }
+
+    @Test
+    @DisplayName("Should write nothing when the window since the last checkpoint is empty.")
+    public void shouldSkip_whenAsOfNotAfterLastCheckpoint() {
+        when(balanceSnapshotCheckpointRepository.findFirstByOrderByAsOfDesc())
+                .thenReturn(Optional.of(checkpoint(AS_OF, PREVIOUS)));
+
+        assertThat(balanceSnapshotService.createSnapshots(AS_OF)).isZero();
+
+        verifyNoInteractions(transactionRepository, balanceSnapshotRepository);
+        verify(balanceSnapshotCheckpointRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Should answer a point-in-time balance from the nearest snapshot plus the net change after it.")
+    public void shouldAddNetChangeToNearestSnapshot_whenBalanceAt() {
+        LocalDateTime at = AS_OF.plusMinutes(2);
+        when(balanceSnapshotRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc("accountA", at))
+                .thenReturn(Optional.of(snapshot("accountA", AS_OF, "110.00")));
+        when(transactionHistoryReader.sumNetChange("accountA", AS_OF, at)).thenReturn(new BigDecimal("-20.00"));
+
+        assertThat(balanceSnapshotService.balanceAt("accountA", at)).isEqualByComparingTo("90.00");
+    }
+
+    @Test
+    @DisplayName("Should scan the whole history when no snapshot precedes the requested time.")
+    public void shouldScanFromEpoch_whenNoSnapshotBefore() {
+        when(balanceSnapshotRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc("accountA", AS_OF))
+                .thenReturn(Optional.empty());
+        when(transactionHistoryReader.sumNetChange("accountA", BalanceSnapshotService.EPOCH, AS_OF)).thenReturn(new BigDecimal("42.00"));
+
+        assertThat(balanceSnapshotService.balanceAt("accountA", AS_OF)).isEqualByComparingTo("42.00");
+    }
+
+    private BalanceSnapshotCheckpointEntity checkpoint(LocalDateTime asOf, LocalDateTime previousAsOf) {
+        return BalanceSnapshotCheckpointEntity.builder().asOf(asOf).previousAsOf(previousAsOf).build();
+    }
+
+    private BalanceSnapshotEntity snapshot(String accountId, LocalDateTime asOf, String balance) {
+        return BalanceSnapshotEntity.builder().id(accountId + asOf).accountId(accountId).asOf(asOf).balance(new BigDecimal(balance)).build();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.bank_app.service.statement;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.dto.response.MonthlyStatementResponse;
+import com.example.bank_app.entity.MonthlyStatementEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.MonthlyStatementRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MonthlyStatementServiceTest {
+
+    private static final LocalDate JULY = LocalDate.of(2024, 7, 1);
+    private static final LocalDate AUGUST = LocalDate.of(2024, 8, 1);
+
+    @Mock
+    private MonthlyStatementRepository monthlyStatementRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Captor
+    private ArgumentCaptor<List<MonthlyStatementEntity>> rollupsCaptor;
+
+    private MonthlyStatementService monthlyStatementService;
+
+    @BeforeEach
+    void setUp() {
+        monthlyStatementService = new MonthlyStatementService(monthlyStatementRepository, transactionRepository, accountRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    @DisplayName("Should add each transaction to the rollup of both accounts and its month, in (account, month) order.")
+    public void shouldAggregateRollupsPerAccountAndMonth_whenRecordingTransactions() {
+        monthlyStatementService.record(List.of(
+                transaction("b", "b", TransactionType.INITIAL, "100.00", JULY.atTime(9, 0)),
+                transaction("b", "a", TransactionType.TRANSFER, "30.00", AUGUST.atTime(10, 0)),
+                transaction("a", "b", TransactionType.TRANSFER, "5.00", AUGUST.atTime(11, 0)),
+                transaction("a", "a", TransactionType.TRANSFER, "7.00", AUGUST.atTime(12, 0))));
+
+        verify(monthlyStatementRepository).addAll(rollupsCaptor.capture());
+        assertThat(rollupsCaptor.getValue())
+                .extracting(MonthlyStatementEntity::getAccountId, MonthlyStatementEntity::getStatementMonth,
+                        MonthlyStatementEntity::getTotalIn, MonthlyStatementEntity::getTotalOut, MonthlyStatementEntity::getTransactionCount)
+                .containsExactly(
+                        tuple("a", AUGUST, new BigDecimal("37.00"), new BigDecimal("12.00"), 3L),
+                        tuple("b", JULY, new BigDecimal("100.00"), BigDecimal.ZERO, 1L),
+                        tuple("b", AUGUST, new BigDecimal("5.00"), new BigDecimal("30.00"), 2L));
+    }
+
+    @Test
+    @DisplayName("Should derive opening and closing balances from the earlier months and the month's rollup.")
+    public void shouldReturnStatement_whenRollupExists() {
+        when(monthlyStatementRepository.sumNetChangeBefore("a", AUGUST)).thenReturn(new BigDecimal("100.00"));
+        when(monthlyStatementRepository.findByAccountIdAndStatementMonth("a", AUGUST)).thenReturn(Optional.of(MonthlyStatementEntity
+                .builder()
+                .accountId("a")
+                .statementMonth(AUGUST)
+                .totalIn(new BigDecimal("37.00"))
+                .totalOut(new BigDecimal("12.00"))
+                .transactionCount(3)
+                .build()));
+
+        MonthlyStatementResponse statement = monthlyStatementService.getStatement("a", YearMonth.of(2024, 8));
+
+        assertThat(statement.getMonth()).isEqualTo(YearMonth.of(2024, 8));
+        assertThat(statement.getOpeningBalance()).isEqualByComparingTo("100.00");
+        assertThat(statement.getTotalIn()).isEqualByComparingTo("37.00");
+        assertThat(statement.getTotalOut()).isEqualByComparingTo("12.00");
+        assertThat(statement.getTransactionCount()).isEqualTo(3);
+        assertThat(statement.getClosingBalance()).isEqualByComparingTo("125.00");
+    }
+
+    @Test
+    @DisplayName("Should carry the opening balance through a month without activity.")
+    public void shouldReturnEmptyStatement_whenNoRollupForMonth() {
+        when(monthlyStatementRepository.sumNetChangeBefore("a", AUGUST)).thenReturn(new BigDecimal("100.00"));
+        when(monthlyStatementRepository.findByAccountIdAndStatementMonth("a", AUGUST)).thenReturn(Optional.empty());
+
+        MonthlyStatementResponse statement = monthlyStatementService.getStatement("a", YearMonth.of(2024, 8));
+
+        assertThat(statement.getTransactionCount()).isZero();
+        assertThat(statement.getClosingBalance()).isEqualByComparingTo(statement.getOpeningBalance());
+    }
+
+    @Test
+    @DisplayName("Should lock the accounts before replacing their rollups with the ones rebuilt from history.")
+    public void shouldLockThenReplaceRollups_whenRebuilding() {
+        MonthlyStatementEntity august = MonthlyStatementEntity.builder().accountId("a").statementMonth(AUGUST).build();
+        MonthlyStatementEntity july = MonthlyStatementEntity.builder().accountId("a").statementMonth(JULY).build();
+        when(accountRepository.lockAllById(List.of("a", "gone"))).thenReturn(List.of("a"));
+        when(transactionRepository.sumMonthlyActivityByAccount(List.of("a"))).thenReturn(List.of(august, july));
+
+        assertThat(monthlyStatementService.rebuild(List.of("a", "gone"))).isEqualTo(2);
+
+        InOrder rebuildOrder = inOrder(accountRepository, monthlyStatementRepository, transactionRepository);
+        rebuildOrder.verify(accountRepository).lockAllById(List.of("a", "gone"));
+        rebuildOrder.verify(monthlyStatementRepository).deleteByAccountIdIn(List.of("a"));
+        rebuildOrder.verify(transactionRepository).sumMonthlyActivityByAccount(List.of("a"));
+        rebuildOrder.verify(monthlyStatementRepository).addAll(List.of(july, august));
+    }
+
+    private TransactionEntity transaction(String sender, String receiver, TransactionType type, String amount, LocalDateTime date) {
+        return TransactionEntity
+                .builder()
+                .senderAccountId(sender)
+                .receiverAccountId(receiver)
+                .transactionType(type)
+                .amount(Money.of(amount))
+                .date(date)
+                .build();
+    }
+}
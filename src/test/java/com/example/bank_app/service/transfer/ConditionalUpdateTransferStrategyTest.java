@@ -0,0 +1,222 @@
+package com.example.bank_app.service.transfer;
+
+import com.example.bank_app.common.AccountIdentity;
+import com.example.bank_app.common.Money;
+import com.example.bank_app.config.AccountIdentityCacheProperties;
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.exception.AccountNotFoundByNumberException;
+import com.example.bank_app.exception.AccountNotFoundException;
+import com.example.bank_app.exception.BalanceIsNotEnoughException;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.account.AccountIdentityCache;
+import com.example.bank_app.service.account.AccountNumberIssuer;
+import com.example.bank_app.service.outbox.OutboxService;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ConditionalUpdateTransferStrategyTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private MonthlyStatementService monthlyStatementService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private AccountNumberIssuer accountNumberIssuer;
+
+    @Captor
+    private ArgumentCaptor<Map<String, Money>> deltasCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<TransactionEntity>> transactionsCaptor;
+
+    @Captor
+    private ArgumentCaptor<Collection<String>> receiverNumbersCaptor;
+
+    private ConditionalUpdateTransferStrategy transferStrategy;
+
+    private NewMoneyTransferRequest newMoneyTransferRequest;
+
+    @BeforeEach
+    void setUp() {
+        transferStrategy = new ConditionalUpdateTransferStrategy(accountRepository, transactionRepository,
+                new AccountIdentityCache(accountRepository, new AccountIdentityCacheProperties()), monthlyStatementService, outboxService, accountNumberIssuer);
+        newMoneyTransferRequest = NewMoneyTransferRequest
+                .builder()
+                .amount(Money.of("10"))
+                .receiverAccountNumber("receiverAccountNumber")
+                .description("description")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should debit and credit with conditional updates in ascending id order without reading the accounts.")
+    public void shouldTransferWithConditionalUpdatesInIdOrder_whenSenderBalanceEnough() {
+        when(accountRepository.findIdentityByAccountNumber("receiverAccountNumber")).thenReturn(Optional.of(new AccountIdentity("a-receiver", "receiverAccountNumber", "receiverCustomerId")));
+        when(accountRepository.credit("a-receiver", new BigDecimal("10.00"))).thenReturn(1);
+        when(accountRepository.debitIfBalanceEnough("b-sender", "senderCustomerId", new BigDecimal("10.00"))).thenReturn(1);
+        when(transactionRepository.save(any(TransactionEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionEntity result = transferStrategy.transfer("senderCustomerId", "b-sender", newMoneyTransferRequest);
+
+        InOrder updateOrder = inOrder(accountRepository);
+        updateOrder.verify(accountRepository).credit("a-receiver", new BigDecimal("10.00"));
+        updateOrder.verify(accountRepository).debitIfBalanceEnough("b-sender", "senderCustomerId", new BigDecimal("10.00"));
+
+        assertThat(result.getSenderAccountId()).isEqualTo("b-sender");
+        assertThat(result.getReceiverAccountId()).isEqualTo("a-receiver");
+        assertThat(result.getAmount()).isEqualTo(Money.of("10"));
+        verify(accountRepository, never()).findByIdAndCustomerId(any(), any());
+        verify(monthlyStatementService).record(List.of(result));
+        verify(outboxService).recordTransfers(List.of(result));
+    }
+
+    @Test
+    @DisplayName("Should report the current balance when the conditional debit matched no row because balance is not enough.")
+    public void shouldNotTransfer_whenConditionalDebitFailsBecauseBalanceIsNotEnough() {
+        AccountEntity senderAccount = AccountEntity.builder().id("a-sender").customerId("senderCustomerId").balance(Money.of("1")).build();
+
+        when(accountRepository.findIdentityByAccountNumber("receiverAccountNumber")).thenReturn(Optional.of(new AccountIdentity("b-receiver", "receiverAccountNumber", "receiverCustomerId")));
+        when(accountRepository.debitIfBalanceEnough("a-sender", "senderCustomerId", new BigDecimal("10.00"))).thenReturn(0);
+        when(accountRepository.findByIdAndCustomerId("a-sender", "senderCustomerId")).thenReturn(Optional.of(senderAccount));
+
+        assertThatThrownBy(() -> transferStrategy.transfer("senderCustomerId", "a-sender", newMoneyTransferRequest))
+                .isInstanceOf(BalanceIsNotEnoughException.class)
+                .hasMessageContaining("Balance is not enough for this transfer! Your balance: " + Money.of("1"));
+
+        verify(accountRepository, never()).credit(any(), any());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("Should not transfer when the conditional debit matched no row because the sender account does not exist.")
+    public void shouldNotTransfer_whenSenderAccountNotFoundByAccountIdAndCustomerId() {
+        when(accountRepository.findIdentityByAccountNumber("receiverAccountNumber")).thenReturn(Optional.of(new AccountIdentity("b-receiver", "receiverAccountNumber", "receiverCustomerId")));
+        when(accountRepository.debitIfBalanceEnough("a-sender", "senderCustomerId", new BigDecimal("10.00"))).thenReturn(0);
+        when(accountRepository.findByIdAndCustomerId("a-sender", "senderCustomerId")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> transferStrategy.transfer("senderCustomerId", "a-sender", newMoneyTransferRequest))
+                .isInstanceOf(AccountNotFoundException.class)
+                .hasMessageContaining("Account can not found by id: " + "a-sender");
+
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("Should not transfer when the receiver account not found by number.")
+    public void shouldNotTransfer_whenReceiverAccountNotFound() {
+        when(accountRepository.findIdentityByAccountNumber("receiverAccountNumber")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> transferStrategy.transfer("senderCustomerId", "a-sender", newMoneyTransferRequest))
+                .isInstanceOf(AccountNotFoundByNumberException.class)
+                .hasMessageContaining("Account can not found by number: " + "receiverAccountNumber");
+
+        verify(accountRepository, never()).debitIfBalanceEnough(any(), any(), any());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private NewMoneyTransferRequest transferTo(String receiverAccountNumber, long amount) {
+        return NewMoneyTransferRequest.builder().amount(Money.of(BigDecimal.valueOf(amount))).receiverAccountNumber(receiverAccountNumber).build();
+    }
+
+    @Test
+    @DisplayName("Should resolve receivers with one query, reject failing items and apply one aggregated delta per account.")
+    public void shouldApplyAggregatedDeltasAndRejectFailingItems_whenBatchTransferExecuted() {
+        AccountEntity senderAccount = AccountEntity.builder().id("sender").customerId("senderCustomerId").balance(Money.of("100")).build();
+        AccountIdentity firstReceiver = new AccountIdentity("receiver-1", "1111111111111117", "receiverCustomerId");
+        AccountIdentity secondReceiver = new AccountIdentity("receiver-2", "2222222222222224", "receiverCustomerId");
+        List<NewMoneyTransferRequest> transfers = List.of(
+                transferTo("1111111111111117", 30),
+                transferTo("2222222222222224", 20),
+                transferTo("1111111111111117", 40),
+                transferTo("9999999999999995", 5),
+                transferTo("2222222222222224", 0),
+                transferTo("2222222222222224", 50),
+                transferTo("2222222222222225", 1));
+
+        when(accountRepository.findByIdForUpdate("sender")).thenReturn(Optional.of(senderAccount));
+        when(accountRepository.findIdentitiesByAccountNumberIn(any())).thenReturn(List.of(firstReceiver, secondReceiver));
+
+        List<BatchTransferOutcome> outcomes = transferStrategy.transferBatch("senderCustomerId", "sender", transfers);
+
+        assertThat(outcomes).extracting(BatchTransferOutcome::isAccepted).containsExactly(true, true, true, false, false, false, false);
+        assertThat(outcomes.get(3).rejectionReason()).isEqualTo("Account can not found by number: 9999999999999995");
+        assertThat(outcomes.get(4).rejectionReason()).isEqualTo("Invalid amount! Please enter a value greater than 0.");
+        assertThat(outcomes.get(5).rejectionReason()).isEqualTo("Balance is not enough for this transfer! Your balance: 10.00");
+        assertThat(outcomes.get(6).rejectionReason()).isEqualTo("Invalid account number: 2222222222222225! Please check the digits.");
+
+        assertThat(senderAccount.getBalance()).isEqualTo(Money.of("10"));
+        verify(accountRepository).save(senderAccount);
+        verify(accountRepository, times(1)).findIdentitiesByAccountNumberIn(receiverNumbersCaptor.capture());
+        assertThat(receiverNumbersCaptor.getValue()).containsExactlyInAnyOrder("1111111111111117", "2222222222222224", "9999999999999995");
+        verify(accountRepository).applyBalanceDeltas(deltasCaptor.capture());
+        assertThat(deltasCaptor.getValue()).containsExactly(
+                Map.entry("receiver-1", Money.of("70")),
+                Map.entry("receiver-2", Money.of("20")));
+        verify(transactionRepository).saveAll(transactionsCaptor.capture());
+        assertThat(transactionsCaptor.getValue()).hasSize(3);
+        verify(transactionRepository, never()).save(any());
+        verify(monthlyStatementService).record(transactionsCaptor.getValue());
+        verify(outboxService).recordTransfers(transactionsCaptor.getValue());
+    }
+
+    @Test
+    @DisplayName("Should accept a batch item to an account number issued before check digits were introduced.")
+    public void shouldTransfer_whenBatchReceiverHasLegacyAccountNumber() {
+        AccountEntity senderAccount = AccountEntity.builder().id("sender").customerId("senderCustomerId").balance(Money.of("100")).build();
+        AccountIdentity legacyReceiver = new AccountIdentity("receiver-1", "1234567890123456", "receiverCustomerId");
+
+        when(accountRepository.findByIdForUpdate("sender")).thenReturn(Optional.of(senderAccount));
+        when(accountNumberIssuer.mayBeLegacyNumber("1234567890123456")).thenReturn(true);
+        when(accountRepository.findIdentitiesByAccountNumberIn(any())).thenReturn(List.of(legacyReceiver));
+
+        List<BatchTransferOutcome> outcomes = transferStrategy.transferBatch("senderCustomerId", "sender", List.of(transferTo("1234567890123456", 30)));
+
+        assertThat(outcomes).extracting(BatchTransferOutcome::isAccepted).containsExactly(true);
+        verify(accountRepository).applyBalanceDeltas(deltasCaptor.capture());
+        assertThat(deltasCaptor.getValue()).containsExactly(Map.entry("receiver-1", Money.of("30")));
+    }
+
+    @Test
+    @DisplayName("Should not run any transfer of the batch when the sender account belongs to another customer.")
+    public void shouldNotRunBatch_whenSenderAccountBelongsToAnotherCustomer() {
+        AccountEntity senderAccount = AccountEntity.builder().id("sender").customerId("otherCustomerId").balance(Money.of("100")).build();
+
+        when(accountRepository.findByIdForUpdate("sender")).thenReturn(Optional.of(senderAccount));
+
+        assertThatThrownBy(() -> transferStrategy.transferBatch("senderCustomerId", "sender", List.of(transferTo("1111111111111117", 30))))
+                .isInstanceOf(AccountNotFoundException.class);
+
+        verify(accountRepository, never()).applyBalanceDeltas(any());
+        verifyNoInteractions(transactionRepository);
+    }
+}
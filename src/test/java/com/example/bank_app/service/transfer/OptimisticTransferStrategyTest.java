@@ -0,0 +1,154 @@
+package com.example.bank_app.service.transfer;
+
+import com.example.bank_app.common.AccountIdentity;
+import com.example.bank_app.common.Money;
+import com.example.bank_app.config.AccountIdentityCacheProperties;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.exception.AccountNotFoundByNumberException;
+import com.example.bank_app.exception.AccountNotFoundException;
+import com.example.bank_app.exception.BalanceIsNotEnoughException;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.account.AccountIdentityCache;
+import com.example.bank_app.service.account.AccountNumberIssuer;
+import com.example.bank_app.service.outbox.OutboxService;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OptimisticTransferStrategyTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private MonthlyStatementService monthlyStatementService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private AccountNumberIssuer accountNumberIssuer;
+
+    @Captor
+    private ArgumentCaptor<AccountEntity> accountCaptor;
+
+    @Captor
+    private ArgumentCaptor<TransactionEntity> transactionCaptor;
+
+    private OptimisticTransferStrategy transferStrategy;
+
+    private NewMoneyTransferRequest newMoneyTransferRequest;
+
+    @BeforeEach
+    void setUp() {
+        transferStrategy = new OptimisticTransferStrategy(accountRepository, transactionRepository,
+                new AccountIdentityCache(accountRepository, new AccountIdentityCacheProperties()), monthlyStatementService, outboxService, accountNumberIssuer);
+        newMoneyTransferRequest = NewMoneyTransferRequest
+                .builder()
+                .amount(Money.of("10"))
+                .receiverAccountNumber("receiverAccountNumber")
+                .description("description")
+                .build();
+    }
+
+    private AccountEntity account(String id, String customerId, String accountNumber, Money balance) {
+        return AccountEntity
+                .builder()
+                .id(id)
+                .customerId(customerId)
+                .accountNumber(accountNumber)
+                .balance(balance)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should transfer and save both versioned accounts when sender balance is enough.")
+    public void shouldTransfer_whenAccountsFoundAndSenderBalanceEnough() {
+        AccountEntity senderAccount = account("senderAccountId", "senderCustomerId", "senderAccountNumber", Money.of("100"));
+        AccountEntity receiverAccount = account("receiverAccountId", "receiverCustomerId", "receiverAccountNumber", Money.ZERO);
+
+        when(accountRepository.findByIdAndCustomerId("senderAccountId", "senderCustomerId")).thenReturn(Optional.of(senderAccount));
+        when(accountRepository.findIdentityByAccountNumber("receiverAccountNumber")).thenReturn(Optional.of(new AccountIdentity("receiverAccountId", "receiverAccountNumber", "receiverCustomerId")));
+        when(accountRepository.findById("receiverAccountId")).thenReturn(Optional.of(receiverAccount));
+        when(transactionRepository.save(transactionCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionEntity result = transferStrategy.transfer("senderCustomerId", "senderAccountId", newMoneyTransferRequest);
+
+        verify(accountRepository, times(2)).save(accountCaptor.capture());
+        assertThat(accountCaptor.getAllValues().getFirst().getBalance()).isEqualTo(Money.of("90"));
+        assertThat(accountCaptor.getAllValues().getLast().getBalance()).isEqualTo(Money.of("10"));
+
+        TransactionEntity capturedTransaction = transactionCaptor.getValue();
+        assertThat(result).isSameAs(capturedTransaction);
+        assertThat(capturedTransaction.getTransactionType()).isEqualTo(TransactionType.TRANSFER);
+        assertThat(capturedTransaction.getSenderAccountId()).isEqualTo("senderAccountId");
+        assertThat(capturedTransaction.getReceiverAccountId()).isEqualTo("receiverAccountId");
+        assertThat(capturedTransaction.getAmount()).isEqualTo(Money.of("10"));
+        assertThat(capturedTransaction.getDescription()).isEqualTo("description");
+    }
+
+    @Test
+    @DisplayName("Should not transfer when sender account not found by account id and customer id.")
+    public void shouldNotTransfer_whenSenderAccountNotFoundByAccountIdAndCustomerId() {
+        when(accountRepository.findByIdAndCustomerId("senderAccountId", "senderCustomerId")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> transferStrategy.transfer("senderCustomerId", "senderAccountId", newMoneyTransferRequest))
+                .isInstanceOf(AccountNotFoundException.class)
+                .hasMessageContaining("Account can not found by id: " + "senderAccountId");
+
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("Should not transfer when the receiver account not found.")
+    public void shouldNotTransfer_whenTheReceiverAccountNotFound() {
+        AccountEntity senderAccount = account("senderAccountId", "senderCustomerId", "senderAccountNumber", Money.of("100"));
+
+        when(accountRepository.findByIdAndCustomerId("senderAccountId", "senderCustomerId")).thenReturn(Optional.of(senderAccount));
+        when(accountRepository.findIdentityByAccountNumber("receiverAccountNumber")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> transferStrategy.transfer("senderCustomerId", "senderAccountId", newMoneyTransferRequest))
+                .isInstanceOf(AccountNotFoundByNumberException.class)
+                .hasMessageContaining("Account can not found by number: " + "receiverAccountNumber");
+
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("Should not transfer when sender balance is not enough.")
+    public void shouldNotTransfer_whenSenderBalanceIsNotEnough() {
+        AccountEntity senderAccount = account("senderAccountId", "senderCustomerId", "senderAccountNumber", Money.ZERO);
+        AccountEntity receiverAccount = account("receiverAccountId", "receiverCustomerId", "receiverAccountNumber", Money.ZERO);
+
+        when(accountRepository.findByIdAndCustomerId("senderAccountId", "senderCustomerId")).thenReturn(Optional.of(senderAccount));
+        when(accountRepository.findIdentityByAccountNumber("receiverAccountNumber")).thenReturn(Optional.of(new AccountIdentity("receiverAccountId", "receiverAccountNumber", "receiverCustomerId")));
+        when(accountRepository.findById("receiverAccountId")).thenReturn(Optional.of(receiverAccount));
+
+        assertThatThrownBy(() -> transferStrategy.transfer("senderCustomerId", "senderAccountId", newMoneyTransferRequest))
+                .isInstanceOf(BalanceIsNotEnoughException.class)
+                .hasMessageContaining("Balance is not enough for this transfer! Your balance: " + senderAccount.getBalance());
+
+        verify(accountRepository, never()).save(any());
+        verifyNoInteractions(transactionRepository);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.bank_app.service.transfer;
+
+import com.example.bank_app.common.AccountIdentity;
+import com.example.bank_app.common.Money;
+import com.example.bank_app.config.AccountIdentityCacheProperties;
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.entity.AccountEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.exception.AccountNotFoundByNumberException;
+import com.example.bank_app.exception.AccountNotFoundException;
+import com.example.bank_app.exception.BalanceIsNotEnoughException;
+import com.example.bank_app.repository.AccountRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import com.example.bank_app.service.account.AccountIdentityCache;
+import com.example.bank_app.service.account.AccountNumberIssuer;
+import com.example.bank_app.service.outbox.OutboxService;
+import com.example.bank_app.service.statement.MonthlyStatementService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PessimisticTransferStrategyTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private MonthlyStatementService monthlyStatementService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private AccountNumberIssuer accountNumberIssuer;
+
+    private PessimisticTransferStrategy transferStrategy;
+
+    private NewMoneyTransferRequest newMoneyTransferRequest;
+
+    @BeforeEach
+    void setUp() {
+        transferStrategy = new PessimisticTransferStrategy(accountRepository, transactionRepository,
+                new AccountIdentityCache(accountRepository, new AccountIdentityCacheProperties()), monthlyStatementService, outboxService, accountNumberIssuer);
+        newMoneyTransferRequest = NewMoneyTransferRequest
+                .builder()
+                .amount(Money.of("10"))
+                .receiverAccountNumber("receiverAccountNumber")
+                .description("description")
+                .build();
+    }
+
+    private AccountEntity account(String id, String customerId, Money balance) {
+        return AccountEntity
+                .builder()
+                .id(id)
+                .customerId(customerId)
+                .balance(balance)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should lock both accounts in ascending id order and move the amount when sender balance is enough.")
+    public void shouldLockAccountsInIdOrderAndTransfer_whenSenderBalanceEnough() {
+        AccountEntity senderAccount = account("b-sender", "senderCustomerId", Money.of("100"));
+        AccountEntity receiverAccount = account("a-receiver", "receiverCustomerId", Money.ZERO);
+
+        when(accountRepository.findIdentityByAccountNumber("receiverAccountNumber")).thenReturn(Optional.of(new AccountIdentity("a-receiver", "receiverAccountNumber", "receiverCustomerId")));
+        when(accountRepository.findByIdForUpdate("a-receiver")).thenReturn(Optional.of(receiverAccount));
+        when(accountRepository.findByIdForUpdate("b-sender")).thenReturn(Optional.of(senderAccount));
+        when(transactionRepository.save(any(TransactionEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionEntity result = transferStrategy.transfer("senderCustomerId", "b-sender", newMoneyTransferRequest);
+
+        InOrder lockOrder = inOrder(accountRepository);
+        lockOrder.verify(accountRepository).findByIdForUpdate("a-receiver");
+        lockOrder.verify(accountRepository).findByIdForUpdate("b-sender");
+
+        assertThat(senderAccount.getBalance()).isEqualTo(Money.of("90"));
+        assertThat(receiverAccount.getBalance()).isEqualTo(Money.of("10"));
+        assertThat(result.getSenderAccountId()).isEqualTo("b-sender");
+        assertThat(result.getReceiverAccountId()).isEqualTo("a-receiver");
+        verify(accountRepository).save(senderAccount);
+        verify(accountRepository).save(receiverAccount);
+    }
+
+    @Test
+    @DisplayName("Should not transfer when the locked sender account belongs to another customer.")
+    public void shouldNotTransfer_whenSenderAccountBelongsToAnotherCustomer() {
+        AccountEntity senderAccount = account("a-sender", "otherCustomerId", Money.of("100"));
+
+        when(accountRepository.findIdentityByAccountNumber("receiverAccountNumber")).thenReturn(Optional.of(new AccountIdentity("b-receiver", "receiverAccountNumber", "receiverCustomerId")));
+        when(accountRepository.findByIdForUpdate("a-sender")).thenReturn(Optional.of(senderAccount));
+
+        assertThatThrownBy(() -> transferStrategy.transfer("senderCustomerId", "a-sender", newMoneyTransferRequest))
+                .isInstanceOf(AccountNotFoundException.class)
+                .hasMessageContaining("Account can not found by id: " + "a-sender");
+
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("Should not transfer when the receiver account not found by number.")
+    public void shouldNotTransfer_whenReceiverAccountNotFound() {
+        when(accountRepository.findIdentityByAccountNumber("receiverAccountNumber")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> transferStrategy.transfer("senderCustomerId", "a-sender", newMoneyTransferRequest))
+                .isInstanceOf(AccountNotFoundByNumberException.class)
+                .hasMessageContaining("Account can not found by number: " + "receiverAccountNumber");
+
+        verify(accountRepository, never()).findByIdForUpdate(any());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("Should not transfer when the locked sender balance is not enough.")
+    public void shouldNotTransfer_whenSenderBalanceIsNotEnough() {
+        AccountEntity senderAccount = account("a-sender", "senderCustomerId", Money.of("1"));
+        AccountEntity receiverAccount = account("b-receiver", "receiverCustomerId", Money.ZERO);
+
+        when(accountRepository.findIdentityByAccountNumber("receiverAccountNumber")).thenReturn(Optional.of(new AccountIdentity("b-receiver", "receiverAccountNumber", "receiverCustomerId")));
+        when(accountRepository.findByIdForUpdate("a-sender")).thenReturn(Optional.of(senderAccount));
+        when(accountRepository.findByIdForUpdate("b-receiver")).thenReturn(Optional.of(receiverAccount));
+
+        assertThatThrownBy(() -> transferStrategy.transfer("senderCustomerId", "a-sender", newMoneyTransferRequest))
+                .isInstanceOf(BalanceIsNotEnoughException.class)
+                .hasMessageContaining("Balance is not enough for this transfer! Your balance: " + Money.of("1"));
+
+        verify(accountRepository, never()).save(any());
+        verifyNoInteractions(transactionRepository);
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.bank_app.service.transfer;
+
+import com.example.bank_app.common.Money;
+import com.example.bank_app.common.TransactionType;
+import com.example.bank_app.config.TransferProperties;
+import com.example.bank_app.dto.model.TransactionDto;
+import com.example.bank_app.dto.request.NewMoneyTransferRequest;
+import com.example.bank_app.entity.IdempotencyKeyEntity;
+import com.example.bank_app.entity.TransactionEntity;
+import com.example.bank_app.exception.BalanceIsNotEnoughException;
+import com.example.bank_app.exception.IdempotencyKeyReusedException;
+import com.example.bank_app.exception.InvalidIdempotencyKeyException;
+import com.example.bank_app.exception.TransferInProgressException;
+import com.example.bank_app.mapper.TransactionMapperImpl;
+import com.example.bank_app.repository.IdempotencyKeyRepository;
+import com.example.bank_app.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TransferIdempotencyServiceTest {
+
+    private static final String CUSTOMER_ID = "customerId";
+    private static final String SENDER_ACCOUNT_ID = "senderAccountId";
+    private static final String IDEMPOTENCY_KEY = "3f1c9a52-key";
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Captor
+    private ArgumentCaptor<IdempotencyKeyEntity> idempotencyKeyCaptor;
+
+    private TransferIdempotencyService transferIdempotencyService;
+
+    private NewMoneyTransferRequest newMoneyTransferRequest;
+    private TransactionEntity transaction;
+
+    @BeforeEach
+    void setUp() {
+        transferIdempotencyService = service(true);
+        newMoneyTransferRequest = NewMoneyTransferRequest
+                .builder()
+                .amount(Money.of("10"))
+                .receiverAccountNumber("1111111111111117")
+                .description("rent")
+                .build();
+        transaction = TransactionEntity
+                .builder()
+                .id("transactionId")
+                .senderAccountId(SENDER_ACCOUNT_ID)
+                .receiverAccountId("receiverAccountId")
+                .transactionType(TransactionType.TRANSFER)
+                .amount(Money.of("10"))
+                .description("rent")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should execute the transfer once, record the key with it, and answer a retry from memory.")
+    public void shouldReplayFromMemory_whenSameKeyRetried() {
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<TransactionEntity> transfer = () -> {
+            executions.incrementAndGet();
+            return transaction;
+        };
+
+        TransactionDto first = transferIdempotencyService.execute(CUSTOMER_ID, SENDER_ACCOUNT_ID, IDEMPOTENCY_KEY, newMoneyTransferRequest, transfer);
+        TransactionDto retried = transferIdempotencyService.execute(CUSTOMER_ID, SENDER_ACCOUNT_ID, IDEMPOTENCY_KEY, newMoneyTransferRequest, transfer);
+
+        assertThat(retried).isEqualTo(first);
+        assertThat(first.getId()).isEqualTo("transactionId");
+        assertThat(executions).hasValue(1);
+        verify(idempotencyKeyRepository, times(1)).findByCustomerIdAndIdempotencyKey(CUSTOMER_ID, IDEMPOTENCY_KEY);
+        verify(idempotencyKeyRepository).saveAndFlush(idempotencyKeyCaptor.capture());
+        assertThat(idempotencyKeyCaptor.getValue().getCustomerId()).isEqualTo(CUSTOMER_ID);
+        assertThat(idempotencyKeyCaptor.getValue().getIdempotencyKey()).isEqualTo(IDEMPOTENCY_KEY);
+        assertThat(idempotencyKeyCaptor.getValue().getTransactionId()).isEqualTo("transactionId");
+        assertThat(idempotencyKeyCaptor.getValue().getExpiresAt()).isNotNull();
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("Should replay the stored transaction without transferring when the key was persisted earlier.")
+    public void shouldReplayFromDatabase_whenKeyPersisted() {
+        when(idempotencyKeyRepository.findByCustomerIdAndIdempotencyKey(CUSTOMER_ID, IDEMPOTENCY_KEY)).thenReturn(Optional.of(recordedKey()));
+        when(transactionRepository.findById("transactionId")).thenReturn(Optional.of(transaction));
+
+        TransactionDto result = transferIdempotencyService.execute(CUSTOMER_ID, SENDER_ACCOUNT_ID, IDEMPOTENCY_KEY, newMoneyTransferRequest,
+                () -> {
+                    throw new AssertionError("transfer must not run again");
+                });
+
+        assertThat(result.getId()).isEqualTo("transactionId");
+        verify(idempotencyKeyRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a key that is reused for a different transfer.")
+    public void shouldRejectKey_whenReusedForDifferentTransfer() {
+        transferIdempotencyService.execute(CUSTOMER_ID, SENDER_ACCOUNT_ID, IDEMPOTENCY_KEY, newMoneyTransferRequest, () -> transaction);
+        newMoneyTransferRequest.setAmount(Money.of("1"));
+
+        assertThatThrownBy(() -> transferIdempotencyService.execute(CUSTOMER_ID, SENDER_ACCOUNT_ID, IDEMPOTENCY_KEY, newMoneyTransferRequest, () -> transaction))
+                .isInstanceOf(IdempotencyKeyReusedException.class)
+                .hasMessageContaining(IDEMPOTENCY_KEY);
+    }
+
+    @Test
+    @DisplayName("Should treat amounts that differ only in scale as the same transfer.")
+    public void shouldIgnoreAmountScale_whenFingerprinting() {
+        NewMoneyTransferRequest scaled = NewMoneyTransferRequest
+                .builder()
+                .amount(Money.of("10.00"))
+                .receiverAccountNumber(newMoneyTransferRequest.getReceiverAccountNumber())
+                .description(newMoneyTransferRequest.getDescription())
+                .build();
+
+        assertThat(TransferIdempotencyService.fingerprint(SENDER_ACCOUNT_ID, scaled))
+                .isEqualTo(TransferIdempotencyService.fingerprint(SENDER_ACCOUNT_ID, newMoneyTransferRequest))
+                .isNotEqualTo(TransferIdempotencyService.fingerprint("otherAccountId", newMoneyTransferRequest));
+    }
+
+    @Test
+    @DisplayName("Should make a concurrent duplicate wait for the in-flight transfer instead of executing it again.")
+    public void shouldWaitForInFlightTransfer_whenDuplicateArrivesConcurrently() throws Exception {
+        CountDownLatch transferStarted = new CountDownLatch(1);
+        CountDownLatch releaseTransfer = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<TransactionEntity> transfer = () -> {
+            executions.incrementAndGet();
+            transferStarted.countDown();
+            await(releaseTransfer);
+            return transaction;
+        };
+
+        CompletableFuture<TransactionDto> first = CompletableFuture.supplyAsync(() ->
+                transferIdempotencyService.execute(CUSTOMER_ID, SENDER_ACCOUNT_ID, IDEMPOTENCY_KEY, newMoneyTransferRequest, transfer));
+        assertThat(transferStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<TransactionDto> duplicate = CompletableFuture.supplyAsync(() ->
+                transferIdempotencyService.execute(CUSTOMER_ID, SENDER_ACCOUNT_ID, IDEMPOTENCY_KEY, newMoneyTransferRequest, transfer));
+
+        assertThat(duplicate).isNotDone();
+        releaseTransfer.countDown();
+
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo(first.get(5, TimeUnit.SECONDS));
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should not remember a failed transfer, so a retry with the same key executes again.")
+    public void shouldExecuteAgain_whenFirstAttemptFailed() {
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<TransactionEntity> transfer = () -> {
+            if (executions.incrementAndGet() == 1) {
+                throw new BalanceIsNotEnoughException(Money.of("1"));
+            }
+            return transaction;
+        };
+
+        assertThatThrownBy(() -> transferIdempotencyService.execute(CUSTOMER_ID, SENDER_ACCOUNT_ID, IDEMPOTENCY_KEY, newMoneyTransferRequest, transfer))
+                .isInstanceOf(BalanceIsNotEnoughException.class);
+        TransactionDto result = transferIdempotencyService.execute(CUSTOMER_ID, SENDER_ACCOUNT_ID, IDEMPOTENCY_KEY, newMoneyTransferRequest, transfer);
+
+        assertThat(result.getId()).isEqualTo("transactionId");
+        assertThat(executions).hasValue(2);
+        verify(idempotencyKeyRepository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Should replay the winner's transaction when another instance recorded the same key first.")
+    public void shouldReplayWinner_whenKeyInsertViolatesUniqueIndex() {
+        TransactionEntity winner = TransactionEntity.builder().id("winnerTransactionId").build();
+        IdempotencyKeyEntity winnerKey = recordedKey();
+        winnerKey.setTransactionId("winnerTransactionId");
+        when(idempotencyKeyRepository.findByCustomerIdAndIdempotencyKey(CUSTOMER_ID, IDEMPOTENCY_KEY))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winnerKey));
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uk_idempotency_key_customer_key"));
+        when(transactionRepository.findById("winnerTransactionId")).thenReturn(Optional.of(winner));
+
+        TransactionDto result = transferIdempotencyService.execute(CUSTOMER_ID, SENDER_ACCOUNT_ID, IDEMPOTENCY_KEY, newMoneyTransferRequest, () -> transaction);
+
+        assertThat(result.getId()).isEqualTo("winnerTransactionId");
+    }
+
+    @Test
+    @DisplayName("Should reject a blank idempotency key.")
+    public void shouldRejectBlankKey() {
+        assertThatThrownBy(() -> transferIdempotencyService.execute(CUSTOMER_ID, SENDER_ACCOUNT_ID, " ", newMoneyTransferRequest, () -> transaction))
+                .isInstanceOf(InvalidIdempotencyKeyException.class);
+
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    @DisplayName("Should reserve the key before a transfer that cannot be rolled back and complete it with the transaction id.")
+    public void shouldReserveKeyFirst_whenStrategyDoesNotJoinTransaction() {
+        TransferIdempotencyService ledgerIdempotencyService = service(false);
+        List<String> events = new ArrayList<>();
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            IdempotencyKeyEntity reserved = invocation.getArgument(0);
+            events.add("reserved:" + reserved.getTransactionId());
+            reserved.setId("keyId");
+            return reserved;
+        });
+        when(idempotencyKeyRepository.save(any())).thenAnswer(invocation -> {
+            events.add("completed:" + invocation.<IdempotencyKeyEntity>getArgument(0).getTransactionId());
+            return invocation.getArgument(0);
+        });
+
+        TransactionDto result = ledgerIdempotencyService.execute(CUSTOMER_ID, SENDER_ACCOUNT_ID, IDEMPOTENCY_KEY, newMoneyTransferRequest, () -> {
+            events.add("transferred");
+            return transaction;
+        });
+
+        assertThat(result.getId()).isEqualTo("transactionId");
+        assertThat(events).containsExactly("reserved:null", "transferred", "completed:transactionId");
+    }
+
+    @Test
+    @DisplayName("Should ask a duplicate to retry later, without transferring, while the reserved key is pending.")
+    public void shouldRejectDuplicateAsInProgress_whenReservedKeyPending() {
+        TransferIdempotencyService ledgerIdempotencyService = service(false);
+        IdempotencyKeyEntity pendingKey = recordedKey();
+        pendingKey.setTransactionId(null);
+        when(idempotencyKeyRepository.findByCustomerIdAndIdempotencyKey(CUSTOMER_ID, IDEMPOTENCY_KEY))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(pendingKey));
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uk_idempotency_key_customer_key"));
+
+        assertThatThrownBy(() -> ledgerIdempotencyService.execute(CUSTOMER_ID, SENDER_ACCOUNT_ID, IDEMPOTENCY_KEY, newMoneyTransferRequest, () -> {
+            throw new AssertionError("transfer must not run");
+        })).isInstanceOf(TransferInProgressException.class).hasMessageContaining(IDEMPOTENCY_KEY);
+    }
+
+    @Test
+    @DisplayName("Should ask a retry to come back later when the recorded transaction has not been written behind yet.")
+    public void shouldRejectReplayAsInProgress_whenTransactionRowNotWrittenYet() {
+        TransferIdempotencyService ledgerIdempotencyService = service(false);
+        when(idempotencyKeyRepository.findByCustomerIdAndIdempotencyKey(CUSTOMER_ID, IDEMPOTENCY_KEY)).thenReturn(Optional.of(recordedKey()));
+        when(transactionRepository.findById("transactionId")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> ledgerIdempotencyService.execute(CUSTOMER_ID, SENDER_ACCOUNT_ID, IDEMPOTENCY_KEY, newMoneyTransferRequest, () -> transaction))
+                .isInstanceOf(TransferInProgressException.class);
+    }
+
+    @Test
+    @DisplayName("Should release the reserved key when the transfer fails, so a retry executes again.")
+    public void shouldReleaseReservation_whenTransferFails() {
+        TransferIdempotencyService ledgerIdempotencyService = service(false);
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            IdempotencyKeyEntity reserved = invocation.getArgument(0);
+            reserved.setId("keyId");
+            return reserved;
+        });
+
+        assertThatThrownBy(() -> ledgerIdempotencyService.execute(CUSTOMER_ID, SENDER_ACCOUNT_ID, IDEMPOTENCY_KEY, newMoneyTransferRequest, () -> {
+            throw new BalanceIsNotEnoughException(Money.of("1"));
+        })).isInstanceOf(BalanceIsNotEnoughException.class);
+
+        verify(idempotencyKeyRepository).deleteById("keyId");
+        verify(idempotencyKeyRepository, never()).save(any());
+    }
+
+    private TransferIdempotencyService service(boolean joinsCallerTransaction) {
+        TransferProperties transferProperties = new TransferProperties();
+        TransferStrategy transferStrategy = mock(TransferStrategy.class);
+        when(transferStrategy.joinsCallerTransaction()).thenReturn(joinsCallerTransaction);
+        return new TransferIdempotencyService(idempotencyKeyRepository, transactionRepository,
+                new TransferRetryExecutor(transferProperties), new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new TransactionMapperImpl(), transferStrategy, transferProperties);
+    }
+
+    private IdempotencyKeyEntity recordedKey() {
+        return IdempotencyKeyEntity
+                .builder()
+                .customerId(CUSTOMER_ID)
+                .idempotencyKey(IDEMPOTENCY_KEY)
+                .requestFingerprint(TransferIdempotencyService.fingerprint(SENDER_ACCOUNT_ID, newMoneyTransferRequest))
+                .transactionId("transactionId")
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}